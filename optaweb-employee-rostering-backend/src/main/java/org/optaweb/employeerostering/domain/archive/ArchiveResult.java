@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.archive;
+
+import java.time.LocalDate;
+
+public class ArchiveResult {
+
+    private LocalDate archivedBeforeDate; // Exclusive
+    private Integer archivedShiftCount;
+    private Integer archivedEmployeeAvailabilityCount;
+
+    @SuppressWarnings("unused")
+    public ArchiveResult() {
+    }
+
+    public ArchiveResult(LocalDate archivedBeforeDate, Integer archivedShiftCount,
+                         Integer archivedEmployeeAvailabilityCount) {
+        this.archivedBeforeDate = archivedBeforeDate;
+        this.archivedShiftCount = archivedShiftCount;
+        this.archivedEmployeeAvailabilityCount = archivedEmployeeAvailabilityCount;
+    }
+
+    public LocalDate getArchivedBeforeDate() {
+        return archivedBeforeDate;
+    }
+
+    public void setArchivedBeforeDate(LocalDate archivedBeforeDate) {
+        this.archivedBeforeDate = archivedBeforeDate;
+    }
+
+    public Integer getArchivedShiftCount() {
+        return archivedShiftCount;
+    }
+
+    public void setArchivedShiftCount(Integer archivedShiftCount) {
+        this.archivedShiftCount = archivedShiftCount;
+    }
+
+    public Integer getArchivedEmployeeAvailabilityCount() {
+        return archivedEmployeeAvailabilityCount;
+    }
+
+    public void setArchivedEmployeeAvailabilityCount(Integer archivedEmployeeAvailabilityCount) {
+        this.archivedEmployeeAvailabilityCount = archivedEmployeeAvailabilityCount;
+    }
+}
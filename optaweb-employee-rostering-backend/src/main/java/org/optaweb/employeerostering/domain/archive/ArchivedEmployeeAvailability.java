@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.archive;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailabilityState;
+
+/**
+ * Read-only copy of a historic {@link EmployeeAvailability}, moved out of the hot table by the archival job.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "tenantId,startDateTime"))
+public class ArchivedEmployeeAvailability extends AbstractPersistable {
+
+    @NotNull
+    private Long employeeId;
+    @NotNull
+    private String employeeName;
+
+    @NotNull
+    private OffsetDateTime startDateTime;
+    @NotNull
+    private OffsetDateTime endDateTime;
+
+    @NotNull
+    private EmployeeAvailabilityState state;
+
+    @SuppressWarnings("unused")
+    public ArchivedEmployeeAvailability() {
+    }
+
+    public ArchivedEmployeeAvailability(EmployeeAvailability employeeAvailability) {
+        super(employeeAvailability.getTenantId());
+        this.employeeId = employeeAvailability.getEmployee().getId();
+        this.employeeName = employeeAvailability.getEmployee().getName();
+        this.startDateTime = employeeAvailability.getStartDateTime();
+        this.endDateTime = employeeAvailability.getEndDateTime();
+        this.state = employeeAvailability.getState();
+    }
+
+    @Override
+    public String toString() {
+        return employeeName + ":" + startDateTime + "-" + endDateTime;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+
+    public OffsetDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(OffsetDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public OffsetDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(OffsetDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public EmployeeAvailabilityState getState() {
+        return state;
+    }
+
+    public void setState(EmployeeAvailabilityState state) {
+        this.state = state;
+    }
+}
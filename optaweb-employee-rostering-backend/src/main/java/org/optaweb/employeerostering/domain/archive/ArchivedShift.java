@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.archive;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * Read-only copy of a historic {@link Shift}, moved out of the hot {@link Shift} table by the archival job.
+ * Spots and employees are denormalized by id and name, so they can be deleted later on.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "tenantId,startDateTime"))
+public class ArchivedShift extends AbstractPersistable {
+
+    @NotNull
+    private Long spotId;
+    @NotNull
+    private String spotName;
+
+    private Long employeeId;
+    private String employeeName;
+    private Long rotationEmployeeId;
+    private Long originalEmployeeId;
+
+    @NotNull
+    private OffsetDateTime startDateTime;
+    @NotNull
+    private OffsetDateTime endDateTime;
+
+    private boolean pinnedByUser;
+
+    @SuppressWarnings("unused")
+    public ArchivedShift() {
+    }
+
+    public ArchivedShift(Shift shift) {
+        super(shift.getTenantId());
+        this.spotId = shift.getSpot().getId();
+        this.spotName = shift.getSpot().getName();
+        if (shift.getEmployee() != null) {
+            this.employeeId = shift.getEmployee().getId();
+            this.employeeName = shift.getEmployee().getName();
+        }
+        this.rotationEmployeeId = (shift.getRotationEmployee() == null) ? null : shift.getRotationEmployee().getId();
+        this.originalEmployeeId = (shift.getOriginalEmployee() == null) ? null : shift.getOriginalEmployee().getId();
+        this.startDateTime = shift.getStartDateTime();
+        this.endDateTime = shift.getEndDateTime();
+        this.pinnedByUser = shift.isPinnedByUser();
+    }
+
+    @Override
+    public String toString() {
+        return spotName + " " + startDateTime + "-" + endDateTime;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getSpotId() {
+        return spotId;
+    }
+
+    public void setSpotId(Long spotId) {
+        this.spotId = spotId;
+    }
+
+    public String getSpotName() {
+        return spotName;
+    }
+
+    public void setSpotName(String spotName) {
+        this.spotName = spotName;
+    }
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public String getEmployeeName() {
+        return employeeName;
+    }
+
+    public void setEmployeeName(String employeeName) {
+        this.employeeName = employeeName;
+    }
+
+    public Long getRotationEmployeeId() {
+        return rotationEmployeeId;
+    }
+
+    public void setRotationEmployeeId(Long rotationEmployeeId) {
+        this.rotationEmployeeId = rotationEmployeeId;
+    }
+
+    public Long getOriginalEmployeeId() {
+        return originalEmployeeId;
+    }
+
+    public void setOriginalEmployeeId(Long originalEmployeeId) {
+        this.originalEmployeeId = originalEmployeeId;
+    }
+
+    public OffsetDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(OffsetDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public OffsetDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(OffsetDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public boolean isPinnedByUser() {
+        return pinnedByUser;
+    }
+
+    public void setPinnedByUser(boolean pinnedByUser) {
+        this.pinnedByUser = pinnedByUser;
+    }
+}
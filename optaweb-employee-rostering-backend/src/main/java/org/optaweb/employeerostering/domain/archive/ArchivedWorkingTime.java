@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.archive;
+
+import java.time.LocalDate;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
+
+/**
+ * Total minutes an employee worked in archived shifts, per contract period (day, week, month or year).
+ * Kept up to date by the archival job, so contract totals stay available after the shifts themselves are archived.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId", "employeeId", "type", "periodStartDate"}))
+public class ArchivedWorkingTime extends AbstractPersistable {
+
+    @NotNull
+    private Long employeeId;
+    @NotNull
+    private ContractMinutesViolation.Type type;
+    @NotNull
+    private LocalDate periodStartDate; // Inclusive
+
+    @NotNull
+    private Long minutesWorked;
+    @NotNull
+    private Integer shiftCount;
+
+    @SuppressWarnings("unused")
+    public ArchivedWorkingTime() {
+    }
+
+    public ArchivedWorkingTime(Integer tenantId, Long employeeId, ContractMinutesViolation.Type type,
+                               LocalDate periodStartDate) {
+        super(tenantId);
+        this.employeeId = employeeId;
+        this.type = type;
+        this.periodStartDate = periodStartDate;
+        this.minutesWorked = 0L;
+        this.shiftCount = 0;
+    }
+
+    public void addShift(long lengthInMinutes) {
+        minutesWorked += lengthInMinutes;
+        shiftCount++;
+    }
+
+    @Override
+    public String toString() {
+        return employeeId + ":" + type + "@" + periodStartDate + "=" + minutesWorked;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public ContractMinutesViolation.Type getType() {
+        return type;
+    }
+
+    public void setType(ContractMinutesViolation.Type type) {
+        this.type = type;
+    }
+
+    public LocalDate getPeriodStartDate() {
+        return periodStartDate;
+    }
+
+    public void setPeriodStartDate(LocalDate periodStartDate) {
+        this.periodStartDate = periodStartDate;
+    }
+
+    public Long getMinutesWorked() {
+        return minutesWorked;
+    }
+
+    public void setMinutesWorked(Long minutesWorked) {
+        this.minutesWorked = minutesWorked;
+    }
+
+    public Integer getShiftCount() {
+        return shiftCount;
+    }
+
+    public void setShiftCount(Integer shiftCount) {
+        this.shiftCount = shiftCount;
+    }
+}
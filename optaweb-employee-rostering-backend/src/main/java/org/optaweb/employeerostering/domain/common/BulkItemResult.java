@@ -0,0 +1,84 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.common;
+
+/**
+ * The outcome of one item of a bulk request.
+ * @param <T> the type of the item, such as a view or an id
+ */
+public class BulkItemResult<T> {
+
+    private int index; // Of the item in the request
+    private boolean success;
+    private T item; // The persisted item or the deleted id, null if not successful
+    private String errorMessage; // Null if successful
+
+    @SuppressWarnings("unused")
+    public BulkItemResult() {
+    }
+
+    private BulkItemResult(int index, boolean success, T item, String errorMessage) {
+        this.index = index;
+        this.success = success;
+        this.item = item;
+        this.errorMessage = errorMessage;
+    }
+
+    public static <T> BulkItemResult<T> success(int index, T item) {
+        return new BulkItemResult<>(index, true, item, null);
+    }
+
+    public static <T> BulkItemResult<T> failure(int index, String errorMessage) {
+        return new BulkItemResult<>(index, false, null, errorMessage);
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public void setItem(T item) {
+        this.item = item;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
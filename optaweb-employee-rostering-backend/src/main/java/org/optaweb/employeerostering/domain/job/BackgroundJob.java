@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.job;
+
+import java.time.OffsetDateTime;
+
+/**
+ * A long running operation that runs outside of the HTTP request that started it.
+ * Its fields are written by the single thread running the job and read by the status endpoints.
+ */
+public class BackgroundJob {
+
+    private Long id;
+    private BackgroundJobType type;
+    private Integer tenantId; // Null if the job is not specific to a tenant
+
+    private volatile BackgroundJobStatus status;
+    private volatile String step;
+    private volatile long processedCount;
+    private volatile OffsetDateTime startDateTime;
+    private volatile OffsetDateTime endDateTime;
+    private volatile String errorMessage;
+
+    @SuppressWarnings("unused")
+    public BackgroundJob() {
+    }
+
+    public BackgroundJob(Long id, BackgroundJobType type, Integer tenantId) {
+        this.id = id;
+        this.type = type;
+        this.tenantId = tenantId;
+        this.status = BackgroundJobStatus.SCHEDULED;
+    }
+
+    public void start() {
+        startDateTime = OffsetDateTime.now();
+        status = BackgroundJobStatus.RUNNING;
+    }
+
+    public synchronized void addProcessedCount(long count) {
+        processedCount += count;
+    }
+
+    public void complete() {
+        step = null;
+        endDateTime = OffsetDateTime.now();
+        status = BackgroundJobStatus.COMPLETED;
+    }
+
+    public void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        endDateTime = OffsetDateTime.now();
+        status = BackgroundJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == BackgroundJobStatus.COMPLETED || status == BackgroundJobStatus.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return type + " job (" + id + ")";
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BackgroundJobType getType() {
+        return type;
+    }
+
+    public void setType(BackgroundJobType type) {
+        this.type = type;
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public BackgroundJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(BackgroundJobStatus status) {
+        this.status = status;
+    }
+
+    public String getStep() {
+        return step;
+    }
+
+    public void setStep(String step) {
+        this.step = step;
+    }
+
+    public long getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(long processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public OffsetDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(OffsetDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public OffsetDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(OffsetDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+}
@@ -35,7 +35,7 @@ import org.optaweb.employeerostering.domain.skill.Skill;
 import org.optaweb.employeerostering.domain.spot.Spot;
 import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 
-@PlanningSolution
+@PlanningSolution(solutionCloner = RosterSolutionCloner.class)
 public class Roster extends AbstractPersistable {
 
     @ConstraintConfigurationProvider
@@ -62,6 +62,9 @@ public class Roster extends AbstractPersistable {
 
     private boolean isNondisruptivePlanning;
     private OffsetDateTime nondisruptiveReplanFrom;
+    // Null unless a scoped replan, which pins the shifts outside this window
+    private OffsetDateTime replanScopeStartDateTime;
+    private OffsetDateTime replanScopeEndDateTime;
 
     @SuppressWarnings("unused")
     public Roster() {
@@ -175,4 +178,20 @@ public class Roster extends AbstractPersistable {
     public void setNondisruptiveReplanFrom(OffsetDateTime undistruptiveReplanFrom) {
         this.nondisruptiveReplanFrom = undistruptiveReplanFrom;
     }
+
+    public OffsetDateTime getReplanScopeStartDateTime() {
+        return replanScopeStartDateTime;
+    }
+
+    public void setReplanScopeStartDateTime(OffsetDateTime replanScopeStartDateTime) {
+        this.replanScopeStartDateTime = replanScopeStartDateTime;
+    }
+
+    public OffsetDateTime getReplanScopeEndDateTime() {
+        return replanScopeEndDateTime;
+    }
+
+    public void setReplanScopeEndDateTime(OffsetDateTime replanScopeEndDateTime) {
+        this.replanScopeEndDateTime = replanScopeEndDateTime;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.roster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * Clones the {@link Shift} planning entities of a {@link Roster} and nothing else: the clone shares the problem fact
+ * lists, the constraint configuration and the roster state with the original, instead of copying every field of
+ * the roster through reflection.
+ * <p>
+ * The solver never changes a problem fact, but a {@code ProblemFactChange} must replace a problem fact list or
+ * problem fact instead of changing it in place, or the change also shows up in the best solutions cloned earlier.
+ */
+public class RosterSolutionCloner implements SolutionCloner<Roster> {
+
+    @Override
+    public Roster cloneSolution(Roster original) {
+        List<Shift> originalShiftList = original.getShiftList();
+        List<Shift> shiftList = new ArrayList<>(originalShiftList.size());
+        for (Shift originalShift : originalShiftList) {
+            shiftList.add(cloneShift(originalShift));
+        }
+        Roster clone = new Roster(original.getId(), original.getTenantId(), original.getRosterConstraintConfiguration(),
+                                  original.getSkillList(), original.getSpotList(), original.getEmployeeList(),
+                                  original.getEmployeeAvailabilityList(), original.getRosterState(), shiftList,
+                                  original.isNondisruptivePlanning(), original.getNondisruptiveReplanFrom());
+        clone.setVersion(original.getVersion());
+        clone.setReplanScopeStartDateTime(original.getReplanScopeStartDateTime());
+        clone.setReplanScopeEndDateTime(original.getReplanScopeEndDateTime());
+        clone.setScore(original.getScore());
+        return clone;
+    }
+
+    private static Shift cloneShift(Shift original) {
+        Shift clone = new Shift(original.getTenantId(), original.getSpot(), original.getStartDateTime(),
+                                original.getEndDateTime(), original.getRotationEmployee(),
+                                original.getRequiredSkillSet(), original.getOriginalEmployee());
+        clone.setId(original.getId());
+        clone.setVersion(original.getVersion());
+        clone.setPinnedByUser(original.isPinnedByUser());
+        clone.setEmployee(original.getEmployee());
+        return clone;
+    }
+}
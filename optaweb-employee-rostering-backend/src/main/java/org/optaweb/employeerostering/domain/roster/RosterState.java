@@ -22,6 +22,7 @@ import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
@@ -53,6 +54,10 @@ public class RosterState extends AbstractPersistable {
     private LocalDate lastHistoricDate;
     @NotNull
     private ZoneId timeZone;
+    // Only changed by RosterStateRepository.incrementRosterVersion(), so a merge of this entity never regresses it
+    @NotNull
+    @Column(updatable = false, columnDefinition = "bigint default 0")
+    private Long rosterVersion = 0L;
 
     @OneToOne
     @NotNull
@@ -207,6 +212,10 @@ public class RosterState extends AbstractPersistable {
         this.timeZone = timeZone;
     }
 
+    public Long getRosterVersion() {
+        return rosterVersion;
+    }
+
     public Tenant getTenant() {
         return tenant;
     }
@@ -41,6 +41,8 @@ public class AbstractRosterView {
     protected List<Employee> employeeList;
     @NotNull
     protected RosterState rosterState;
+    // The roster version of the data this view was built from
+    protected Long rosterVersion;
 
     private IndictmentSummary indictmentSummary;
     private HardMediumSoftLongScore score = null;
@@ -117,4 +119,12 @@ public class AbstractRosterView {
     public void setRosterState(RosterState rosterState) {
         this.rosterState = rosterState;
     }
+
+    public Long getRosterVersion() {
+        return rosterVersion;
+    }
+
+    public void setRosterVersion(Long rosterVersion) {
+        this.rosterVersion = rosterVersion;
+    }
 }
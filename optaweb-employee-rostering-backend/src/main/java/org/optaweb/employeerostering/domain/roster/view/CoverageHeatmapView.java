@@ -0,0 +1,155 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.roster.view;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.spot.Spot;
+
+/**
+ * Per spot and per hour, how many shifts are required, how many of them are assigned
+ * and how many are assigned to an employee who lacks a required skill.
+ * Index i of each count array is the hour that starts i hours after {@link #getStartDateTime()}.
+ * A shift counts in every hour it overlaps, even partially.
+ */
+public class CoverageHeatmapView {
+
+    @NotNull
+    private Integer tenantId;
+    @NotNull
+    private LocalDate startDate; // inclusive
+    @NotNull
+    private LocalDate endDate; // exclusive
+    @NotNull
+    private OffsetDateTime startDateTime;
+    @NotNull
+    private Integer hourCount;
+    @NotNull
+    private List<Spot> spotList;
+    // The roster version of the data this view was built from
+    private Long rosterVersion;
+
+    @NotNull
+    private Map<Long, int[]> spotIdToRequiredShiftCountsMap;
+    @NotNull
+    private Map<Long, int[]> spotIdToAssignedShiftCountsMap;
+    @NotNull
+    private Map<Long, int[]> spotIdToSkillGapCountsMap;
+
+    @SuppressWarnings("unused")
+    public CoverageHeatmapView() {}
+
+    public CoverageHeatmapView(Integer tenantId, LocalDate startDate, LocalDate endDate) {
+        this.tenantId = tenantId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+    }
+
+    @Override
+    public String toString() {
+        return startDate + " to " + endDate;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public OffsetDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(OffsetDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public Integer getHourCount() {
+        return hourCount;
+    }
+
+    public void setHourCount(Integer hourCount) {
+        this.hourCount = hourCount;
+    }
+
+    public List<Spot> getSpotList() {
+        return spotList;
+    }
+
+    public void setSpotList(List<Spot> spotList) {
+        this.spotList = spotList;
+    }
+
+    public Long getRosterVersion() {
+        return rosterVersion;
+    }
+
+    public void setRosterVersion(Long rosterVersion) {
+        this.rosterVersion = rosterVersion;
+    }
+
+    public Map<Long, int[]> getSpotIdToRequiredShiftCountsMap() {
+        return spotIdToRequiredShiftCountsMap;
+    }
+
+    public void setSpotIdToRequiredShiftCountsMap(Map<Long, int[]> spotIdToRequiredShiftCountsMap) {
+        this.spotIdToRequiredShiftCountsMap = spotIdToRequiredShiftCountsMap;
+    }
+
+    public Map<Long, int[]> getSpotIdToAssignedShiftCountsMap() {
+        return spotIdToAssignedShiftCountsMap;
+    }
+
+    public void setSpotIdToAssignedShiftCountsMap(Map<Long, int[]> spotIdToAssignedShiftCountsMap) {
+        this.spotIdToAssignedShiftCountsMap = spotIdToAssignedShiftCountsMap;
+    }
+
+    public Map<Long, int[]> getSpotIdToSkillGapCountsMap() {
+        return spotIdToSkillGapCountsMap;
+    }
+
+    public void setSpotIdToSkillGapCountsMap(Map<Long, int[]> spotIdToSkillGapCountsMap) {
+        this.spotIdToSkillGapCountsMap = spotIdToSkillGapCountsMap;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.roster.view;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.validation.constraints.NotNull;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityView;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.violation.IndictmentSummary;
+
+/**
+ * The changes to a {@link ShiftRosterView} page since the roster version a client already has.
+ * If those changes are no longer known, {@link #getShiftRosterView()} holds the full view instead
+ * and the change lists are null.
+ */
+public class ShiftRosterDeltaView {
+
+    @NotNull
+    private Integer tenantId;
+    @NotNull
+    private LocalDate startDate; // inclusive
+    @NotNull
+    private LocalDate endDate; // inclusive
+    @NotNull
+    private Long fromRosterVersion;
+    @NotNull
+    private Long rosterVersion;
+
+    // Only set if the changes since fromRosterVersion are unknown
+    private ShiftRosterView shiftRosterView;
+
+    // Also contains the unchanged shifts whose indictments might have changed
+    private List<ShiftView> changedShiftViewList;
+    // Deleted shifts and shifts moved out of the spots or dates of this view
+    private List<Long> removedShiftIdList;
+    private List<EmployeeAvailabilityView> changedEmployeeAvailabilityViewList;
+    private List<Long> removedEmployeeAvailabilityIdList;
+
+    private IndictmentSummary indictmentSummary;
+    private HardMediumSoftLongScore score = null;
+
+    @SuppressWarnings("unused")
+    public ShiftRosterDeltaView() {}
+
+    public ShiftRosterDeltaView(Integer tenantId, LocalDate startDate, LocalDate endDate,
+                                Long fromRosterVersion, Long rosterVersion) {
+        this.tenantId = tenantId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.fromRosterVersion = fromRosterVersion;
+        this.rosterVersion = rosterVersion;
+    }
+
+    @Override
+    public String toString() {
+        return startDate + " to " + endDate + " since version " + fromRosterVersion;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Long getFromRosterVersion() {
+        return fromRosterVersion;
+    }
+
+    public void setFromRosterVersion(Long fromRosterVersion) {
+        this.fromRosterVersion = fromRosterVersion;
+    }
+
+    public Long getRosterVersion() {
+        return rosterVersion;
+    }
+
+    public void setRosterVersion(Long rosterVersion) {
+        this.rosterVersion = rosterVersion;
+    }
+
+    public ShiftRosterView getShiftRosterView() {
+        return shiftRosterView;
+    }
+
+    public void setShiftRosterView(ShiftRosterView shiftRosterView) {
+        this.shiftRosterView = shiftRosterView;
+    }
+
+    public List<ShiftView> getChangedShiftViewList() {
+        return changedShiftViewList;
+    }
+
+    public void setChangedShiftViewList(List<ShiftView> changedShiftViewList) {
+        this.changedShiftViewList = changedShiftViewList;
+    }
+
+    public List<Long> getRemovedShiftIdList() {
+        return removedShiftIdList;
+    }
+
+    public void setRemovedShiftIdList(List<Long> removedShiftIdList) {
+        this.removedShiftIdList = removedShiftIdList;
+    }
+
+    public List<EmployeeAvailabilityView> getChangedEmployeeAvailabilityViewList() {
+        return changedEmployeeAvailabilityViewList;
+    }
+
+    public void setChangedEmployeeAvailabilityViewList(
+            List<EmployeeAvailabilityView> changedEmployeeAvailabilityViewList) {
+        this.changedEmployeeAvailabilityViewList = changedEmployeeAvailabilityViewList;
+    }
+
+    public List<Long> getRemovedEmployeeAvailabilityIdList() {
+        return removedEmployeeAvailabilityIdList;
+    }
+
+    public void setRemovedEmployeeAvailabilityIdList(List<Long> removedEmployeeAvailabilityIdList) {
+        this.removedEmployeeAvailabilityIdList = removedEmployeeAvailabilityIdList;
+    }
+
+    public IndictmentSummary getIndictmentSummary() {
+        return indictmentSummary;
+    }
+
+    public void setIndictmentSummary(IndictmentSummary indictmentSummary) {
+        this.indictmentSummary = indictmentSummary;
+    }
+
+    public HardMediumSoftLongScore getScore() {
+        return score;
+    }
+
+    public void setScore(HardMediumSoftLongScore score) {
+        this.score = score;
+    }
+}
@@ -27,9 +27,18 @@ public class PinningShiftFilter implements PinningFilter<Roster, Shift> {
     public boolean accept(Roster roster, Shift shift) {
         RosterState rosterState = roster.getRosterState();
         if (roster.isNondisruptivePlanning()) {
-            return shift.getStartDateTime().isBefore(roster.getNondisruptiveReplanFrom());
+            return shift.getStartDateTime().isBefore(roster.getNondisruptiveReplanFrom())
+                    || !isInReplanScope(roster, shift);
         } else {
             return !rosterState.isDraft(shift);
         }
     }
+
+    private static boolean isInReplanScope(Roster roster, Shift shift) {
+        if (roster.getReplanScopeStartDateTime() == null) {
+            return true;
+        }
+        return shift.getEndDateTime().isAfter(roster.getReplanScopeStartDateTime())
+                && shift.getStartDateTime().isBefore(roster.getReplanScopeEndDateTime());
+    }
 }
@@ -70,6 +70,8 @@ public class ShiftView extends AbstractPersistable {
     private List<PublishedShiftReassignedPenalty> publishedShiftReassignedPenaltyList;
 
     private HardMediumSoftLongScore indictmentScore;
+    // One bit per ShiftViolationType that the shift has at least one violation of
+    private Integer violationTypeMask;
 
     private boolean pinnedByUser = false;
 
@@ -259,6 +261,14 @@ public class ShiftView extends AbstractPersistable {
         this.indictmentScore = indictmentScore;
     }
 
+    public Integer getViolationTypeMask() {
+        return violationTypeMask;
+    }
+
+    public void setViolationTypeMask(Integer violationTypeMask) {
+        this.violationTypeMask = violationTypeMask;
+    }
+
     public List<DesiredTimeslotForEmployeeReward> getDesiredTimeslotForEmployeeRewardList() {
         return desiredTimeslotForEmployeeRewardList;
     }
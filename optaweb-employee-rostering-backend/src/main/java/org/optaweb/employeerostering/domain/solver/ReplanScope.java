@@ -0,0 +1,82 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Embeddable;
+
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * What a scoped replan frees: the shifts of one employee (or, without an employee, the shifts whose employee is
+ * unavailable) in a time window. Only the shifts in that window, widened by a neighbourhood, can move.
+ */
+@Embeddable
+public class ReplanScope {
+
+    private Long employeeId; // Null for the employees that are unavailable in the window
+    private OffsetDateTime startDateTime;
+    private OffsetDateTime endDateTime;
+
+    @SuppressWarnings("unused")
+    public ReplanScope() {
+    }
+
+    public ReplanScope(Long employeeId, OffsetDateTime startDateTime, OffsetDateTime endDateTime) {
+        this.employeeId = employeeId;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    public boolean overlaps(Shift shift) {
+        return shift.getEndDateTime().isAfter(startDateTime) && shift.getStartDateTime().isBefore(endDateTime);
+    }
+
+    @Override
+    public String toString() {
+        return "ReplanScope(" + employeeId + ") " + startDateTime + "-" + endDateTime;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    public OffsetDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(OffsetDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    public OffsetDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(OffsetDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+}
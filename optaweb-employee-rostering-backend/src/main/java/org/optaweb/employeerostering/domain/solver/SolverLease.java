@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver;
+
+import java.time.OffsetDateTime;
+
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
+
+/**
+ * Which backend node solves the roster of a tenant, so that in a cluster each roster is solved on exactly one node
+ * and its solver status and best score can be read on any node.
+ * The node renews its lease with a heartbeat: a lease that misses its heartbeats for longer than the lease timeout
+ * is taken over by another node, which solves the roster again from its persisted state.
+ * Only changed through the bulk updates of the SolverLeaseRepository, which are atomic across nodes.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId"}))
+public class SolverLease extends AbstractPersistable {
+
+    private String nodeId; // Null if no node holds the lease, such as when the solve request is queued
+    @NotNull
+    private SolverStatus solverStatus;
+    private boolean nondisruptive; // True to replan instead of solve
+    @Embedded
+    private ReplanScope replanScope; // Null to replan the whole roster
+    private boolean terminationRequested;
+    // True once a user terminated the continuous planning of the tenant, until its next solve request
+    private boolean continuousPlanningStopped;
+    @NotNull
+    private OffsetDateTime heartbeatDateTime;
+    private String bestScore; // Null until the solver found a best solution
+    // The solver CPU time the tenant used since the start of its current one hour window, on all nodes together
+    @NotNull
+    private OffsetDateTime cpuWindowStartDateTime;
+    private long cpuWindowMillis;
+
+    @SuppressWarnings("unused")
+    public SolverLease() {
+    }
+
+    public SolverLease(Integer tenantId, OffsetDateTime heartbeatDateTime) {
+        super(tenantId);
+        this.solverStatus = SolverStatus.TERMINATED;
+        this.heartbeatDateTime = heartbeatDateTime;
+        this.cpuWindowStartDateTime = heartbeatDateTime;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverLease(" + getTenantId() + ")@" + nodeId;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(String nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public SolverStatus getSolverStatus() {
+        return solverStatus;
+    }
+
+    public void setSolverStatus(SolverStatus solverStatus) {
+        this.solverStatus = solverStatus;
+    }
+
+    public boolean isNondisruptive() {
+        return nondisruptive;
+    }
+
+    public void setNondisruptive(boolean nondisruptive) {
+        this.nondisruptive = nondisruptive;
+    }
+
+    public ReplanScope getReplanScope() {
+        return replanScope;
+    }
+
+    public void setReplanScope(ReplanScope replanScope) {
+        this.replanScope = replanScope;
+    }
+
+    public boolean isTerminationRequested() {
+        return terminationRequested;
+    }
+
+    public void setTerminationRequested(boolean terminationRequested) {
+        this.terminationRequested = terminationRequested;
+    }
+
+    public boolean isContinuousPlanningStopped() {
+        return continuousPlanningStopped;
+    }
+
+    public void setContinuousPlanningStopped(boolean continuousPlanningStopped) {
+        this.continuousPlanningStopped = continuousPlanningStopped;
+    }
+
+    public OffsetDateTime getHeartbeatDateTime() {
+        return heartbeatDateTime;
+    }
+
+    public void setHeartbeatDateTime(OffsetDateTime heartbeatDateTime) {
+        this.heartbeatDateTime = heartbeatDateTime;
+    }
+
+    public String getBestScore() {
+        return bestScore;
+    }
+
+    public void setBestScore(String bestScore) {
+        this.bestScore = bestScore;
+    }
+
+    public OffsetDateTime getCpuWindowStartDateTime() {
+        return cpuWindowStartDateTime;
+    }
+
+    public void setCpuWindowStartDateTime(OffsetDateTime cpuWindowStartDateTime) {
+        this.cpuWindowStartDateTime = cpuWindowStartDateTime;
+    }
+
+    public long getCpuWindowMillis() {
+        return cpuWindowMillis;
+    }
+
+    public void setCpuWindowMillis(long cpuWindowMillis) {
+        this.cpuWindowMillis = cpuWindowMillis;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.Min;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+
+/**
+ * How much solving a tenant gets, so that one big tenant cannot keep the solver threads of the cluster to itself.
+ * A tenant without a persisted quota gets the default quota of the application properties.
+ * A limit of 0 means unlimited.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId"}))
+public class SolverQuota extends AbstractPersistable {
+
+    // The solver is terminated once it solved that long
+    @Min(0)
+    private long maxSolveSeconds;
+    // The solver is terminated once the tenant used that much solver CPU time in the current hour
+    @Min(0)
+    private long cpuSecondsPerHour;
+    // Relative share of the queued solve requests, a tenant with twice the weight can use twice the CPU time
+    @Min(1)
+    private int weight;
+
+    @SuppressWarnings("unused")
+    public SolverQuota() {
+    }
+
+    public SolverQuota(Integer tenantId, long maxSolveSeconds, long cpuSecondsPerHour, int weight) {
+        super(tenantId);
+        this.maxSolveSeconds = maxSolveSeconds;
+        this.cpuSecondsPerHour = cpuSecondsPerHour;
+        this.weight = weight;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverQuota(" + getTenantId() + ")";
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public long getMaxSolveSeconds() {
+        return maxSolveSeconds;
+    }
+
+    public void setMaxSolveSeconds(long maxSolveSeconds) {
+        this.maxSolveSeconds = maxSolveSeconds;
+    }
+
+    public long getCpuSecondsPerHour() {
+        return cpuSecondsPerHour;
+    }
+
+    public void setCpuSecondsPerHour(long cpuSecondsPerHour) {
+        this.cpuSecondsPerHour = cpuSecondsPerHour;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+}
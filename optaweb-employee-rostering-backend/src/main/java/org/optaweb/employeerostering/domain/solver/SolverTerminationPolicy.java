@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver;
+
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.Min;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+
+/**
+ * When the solver of a tenant stops on its own, instead of solving until it is terminated.
+ * Each limit is scaled by the size of the roster (its shifts and employees) relative to the reference problem size,
+ * so a bigger roster gets proportionally more time, but a roster smaller than the reference size never gets less.
+ * A tenant without a persisted policy gets the default policy of the application properties.
+ * A limit of 0 means unlimited.
+ * With continuous planning, the solver does not stop at those limits: it stays resident, idles and resumes whenever
+ * the persisted roster changes, until it is terminated.
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"tenantId"}))
+public class SolverTerminationPolicy extends AbstractPersistable {
+
+    // The number of shifts plus employees that the limits are meant for
+    @Min(1)
+    private int referenceProblemSize;
+    // The solver stops once it solved that long
+    @Min(0)
+    private long spentLimitSeconds;
+    // The solver stops once its best score did not improve for that long
+    @Min(0)
+    private long unimprovedSpentLimitSeconds;
+    // The solver stops once its best score is feasible and did not improve for that long
+    @Min(0)
+    private long feasibleUnimprovedSpentLimitSeconds;
+    // The solver stays resident and picks up every change of the roster, see WannabeSolverManager
+    private boolean continuousPlanning;
+
+    @SuppressWarnings("unused")
+    public SolverTerminationPolicy() {
+    }
+
+    public SolverTerminationPolicy(Integer tenantId, int referenceProblemSize, long spentLimitSeconds,
+                                   long unimprovedSpentLimitSeconds, long feasibleUnimprovedSpentLimitSeconds) {
+        super(tenantId);
+        this.referenceProblemSize = referenceProblemSize;
+        this.spentLimitSeconds = spentLimitSeconds;
+        this.unimprovedSpentLimitSeconds = unimprovedSpentLimitSeconds;
+        this.feasibleUnimprovedSpentLimitSeconds = feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "SolverTerminationPolicy(" + getTenantId() + ")";
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public int getReferenceProblemSize() {
+        return referenceProblemSize;
+    }
+
+    public void setReferenceProblemSize(int referenceProblemSize) {
+        this.referenceProblemSize = referenceProblemSize;
+    }
+
+    public long getSpentLimitSeconds() {
+        return spentLimitSeconds;
+    }
+
+    public void setSpentLimitSeconds(long spentLimitSeconds) {
+        this.spentLimitSeconds = spentLimitSeconds;
+    }
+
+    public long getUnimprovedSpentLimitSeconds() {
+        return unimprovedSpentLimitSeconds;
+    }
+
+    public void setUnimprovedSpentLimitSeconds(long unimprovedSpentLimitSeconds) {
+        this.unimprovedSpentLimitSeconds = unimprovedSpentLimitSeconds;
+    }
+
+    public long getFeasibleUnimprovedSpentLimitSeconds() {
+        return feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    public void setFeasibleUnimprovedSpentLimitSeconds(long feasibleUnimprovedSpentLimitSeconds) {
+        this.feasibleUnimprovedSpentLimitSeconds = feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    public boolean isContinuousPlanning() {
+        return continuousPlanning;
+    }
+
+    public void setContinuousPlanning(boolean continuousPlanning) {
+        this.continuousPlanning = continuousPlanning;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver.view;
+
+import java.time.LocalDateTime;
+
+import javax.validation.constraints.NotNull;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+
+public class ReplanScopeView extends AbstractPersistable {
+
+    private Long employeeId;
+    @NotNull
+    private LocalDateTime startDateTime;
+    @NotNull
+    private LocalDateTime endDateTime;
+
+    @SuppressWarnings("unused")
+    public ReplanScopeView() {
+        super(-1);
+    }
+
+    public ReplanScopeView(Integer tenantId, Long employeeId, LocalDateTime startDateTime,
+                           LocalDateTime endDateTime) {
+        super(tenantId);
+        this.employeeId = employeeId;
+        this.startDateTime = startDateTime;
+        this.endDateTime = endDateTime;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Long getEmployeeId() {
+        return employeeId;
+    }
+
+    public void setEmployeeId(Long employeeId) {
+        this.employeeId = employeeId;
+    }
+
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    public LocalDateTime getStartDateTime() {
+        return startDateTime;
+    }
+
+    public void setStartDateTime(LocalDateTime startDateTime) {
+        this.startDateTime = startDateTime;
+    }
+
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    public LocalDateTime getEndDateTime() {
+        return endDateTime;
+    }
+
+    public void setEndDateTime(LocalDateTime endDateTime) {
+        this.endDateTime = endDateTime;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver.view;
+
+import java.time.OffsetDateTime;
+
+import javax.validation.constraints.NotNull;
+
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
+
+/**
+ * The solver quota of a tenant and how much of it the tenant used in the current hour, on all nodes together.
+ */
+public class SolverQuotaUsageView {
+
+    @NotNull
+    private Integer tenantId;
+    @NotNull
+    private SolverQuota solverQuota;
+    @NotNull
+    private SolverStatus solverStatus;
+    // Null if the tenant has not solved in the last hour
+    private OffsetDateTime cpuWindowStartDateTime;
+    private long usedCpuMillis;
+    // Null if the CPU time is unlimited
+    private Long remainingCpuMillis;
+
+    @SuppressWarnings("unused")
+    public SolverQuotaUsageView() {}
+
+    public SolverQuotaUsageView(Integer tenantId, SolverQuota solverQuota, SolverStatus solverStatus,
+                                OffsetDateTime cpuWindowStartDateTime, long usedCpuMillis, Long remainingCpuMillis) {
+        this.tenantId = tenantId;
+        this.solverQuota = solverQuota;
+        this.solverStatus = solverStatus;
+        this.cpuWindowStartDateTime = cpuWindowStartDateTime;
+        this.usedCpuMillis = usedCpuMillis;
+        this.remainingCpuMillis = remainingCpuMillis;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public SolverQuota getSolverQuota() {
+        return solverQuota;
+    }
+
+    public void setSolverQuota(SolverQuota solverQuota) {
+        this.solverQuota = solverQuota;
+    }
+
+    public SolverStatus getSolverStatus() {
+        return solverStatus;
+    }
+
+    public void setSolverStatus(SolverStatus solverStatus) {
+        this.solverStatus = solverStatus;
+    }
+
+    public OffsetDateTime getCpuWindowStartDateTime() {
+        return cpuWindowStartDateTime;
+    }
+
+    public void setCpuWindowStartDateTime(OffsetDateTime cpuWindowStartDateTime) {
+        this.cpuWindowStartDateTime = cpuWindowStartDateTime;
+    }
+
+    public long getUsedCpuMillis() {
+        return usedCpuMillis;
+    }
+
+    public void setUsedCpuMillis(long usedCpuMillis) {
+        this.usedCpuMillis = usedCpuMillis;
+    }
+
+    public Long getRemainingCpuMillis() {
+        return remainingCpuMillis;
+    }
+
+    public void setRemainingCpuMillis(Long remainingCpuMillis) {
+        this.remainingCpuMillis = remainingCpuMillis;
+    }
+}
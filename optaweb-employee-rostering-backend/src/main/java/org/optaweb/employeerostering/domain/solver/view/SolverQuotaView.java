@@ -0,0 +1,71 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver.view;
+
+import javax.validation.constraints.Min;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+
+public class SolverQuotaView extends AbstractPersistable {
+
+    @Min(0)
+    private long maxSolveSeconds;
+    @Min(0)
+    private long cpuSecondsPerHour;
+    @Min(1)
+    private int weight = 1;
+
+    @SuppressWarnings("unused")
+    public SolverQuotaView() {
+        super(-1);
+    }
+
+    public SolverQuotaView(Integer tenantId, long maxSolveSeconds, long cpuSecondsPerHour, int weight) {
+        super(tenantId);
+        this.maxSolveSeconds = maxSolveSeconds;
+        this.cpuSecondsPerHour = cpuSecondsPerHour;
+        this.weight = weight;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public long getMaxSolveSeconds() {
+        return maxSolveSeconds;
+    }
+
+    public void setMaxSolveSeconds(long maxSolveSeconds) {
+        this.maxSolveSeconds = maxSolveSeconds;
+    }
+
+    public long getCpuSecondsPerHour() {
+        return cpuSecondsPerHour;
+    }
+
+    public void setCpuSecondsPerHour(long cpuSecondsPerHour) {
+        this.cpuSecondsPerHour = cpuSecondsPerHour;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public void setWeight(int weight) {
+        this.weight = weight;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.domain.solver.view;
+
+import javax.validation.constraints.Min;
+
+import org.optaweb.employeerostering.domain.common.AbstractPersistable;
+
+public class SolverTerminationPolicyView extends AbstractPersistable {
+
+    @Min(1)
+    private int referenceProblemSize = 1;
+    @Min(0)
+    private long spentLimitSeconds;
+    @Min(0)
+    private long unimprovedSpentLimitSeconds;
+    @Min(0)
+    private long feasibleUnimprovedSpentLimitSeconds;
+    private boolean continuousPlanning;
+
+    @SuppressWarnings("unused")
+    public SolverTerminationPolicyView() {
+        super(-1);
+    }
+
+    public SolverTerminationPolicyView(Integer tenantId, int referenceProblemSize, long spentLimitSeconds,
+                                       long unimprovedSpentLimitSeconds, long feasibleUnimprovedSpentLimitSeconds) {
+        super(tenantId);
+        this.referenceProblemSize = referenceProblemSize;
+        this.spentLimitSeconds = spentLimitSeconds;
+        this.unimprovedSpentLimitSeconds = unimprovedSpentLimitSeconds;
+        this.feasibleUnimprovedSpentLimitSeconds = feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    // ************************************************************************
+    // Simple getters and setters
+    // ************************************************************************
+
+    public int getReferenceProblemSize() {
+        return referenceProblemSize;
+    }
+
+    public void setReferenceProblemSize(int referenceProblemSize) {
+        this.referenceProblemSize = referenceProblemSize;
+    }
+
+    public long getSpentLimitSeconds() {
+        return spentLimitSeconds;
+    }
+
+    public void setSpentLimitSeconds(long spentLimitSeconds) {
+        this.spentLimitSeconds = spentLimitSeconds;
+    }
+
+    public long getUnimprovedSpentLimitSeconds() {
+        return unimprovedSpentLimitSeconds;
+    }
+
+    public void setUnimprovedSpentLimitSeconds(long unimprovedSpentLimitSeconds) {
+        this.unimprovedSpentLimitSeconds = unimprovedSpentLimitSeconds;
+    }
+
+    public long getFeasibleUnimprovedSpentLimitSeconds() {
+        return feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    public void setFeasibleUnimprovedSpentLimitSeconds(long feasibleUnimprovedSpentLimitSeconds) {
+        this.feasibleUnimprovedSpentLimitSeconds = feasibleUnimprovedSpentLimitSeconds;
+    }
+
+    public boolean isContinuousPlanning() {
+        return continuousPlanning;
+    }
+
+    public void setContinuousPlanning(boolean continuousPlanning) {
+        this.continuousPlanning = continuousPlanning;
+    }
+}
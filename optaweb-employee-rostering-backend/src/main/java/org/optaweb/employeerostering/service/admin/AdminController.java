@@ -18,6 +18,7 @@ package org.optaweb.employeerostering.service.admin;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
@@ -41,10 +42,9 @@ public class AdminController {
         Assert.notNull(adminService, "adminService must not be null.");
     }
 
-    @ApiOperation("Reset the application")
+    @ApiOperation("Reset the application in a background job, poll the returned job for its progress")
     @PostMapping("/reset")
-    public ResponseEntity<Void> resetApplication() {
-        adminService.resetApplication();
-        return new ResponseEntity<>(HttpStatus.OK);
+    public ResponseEntity<BackgroundJob> resetApplication() {
+        return new ResponseEntity<>(adminService.resetApplicationInBackground(), HttpStatus.OK);
     }
 }
@@ -16,19 +16,35 @@
 
 package org.optaweb.employeerostering.service.admin;
 
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
+import org.optaweb.employeerostering.service.archive.ArchivedEmployeeAvailabilityRepository;
+import org.optaweb.employeerostering.service.archive.ArchivedShiftRepository;
+import org.optaweb.employeerostering.service.archive.ArchivedWorkingTimeRepository;
 import org.optaweb.employeerostering.service.contract.ContractRepository;
 import org.optaweb.employeerostering.service.employee.EmployeeAvailabilityRepository;
 import org.optaweb.employeerostering.service.employee.EmployeeRepository;
+import org.optaweb.employeerostering.service.job.BackgroundJobService;
+import org.optaweb.employeerostering.service.roster.CoverageHeatmapCache;
+import org.optaweb.employeerostering.service.roster.RosterChangeLog;
 import org.optaweb.employeerostering.service.roster.RosterGenerator;
+import org.optaweb.employeerostering.service.roster.RosterScoreStateCache;
 import org.optaweb.employeerostering.service.roster.RosterStateRepository;
+import org.optaweb.employeerostering.service.roster.RosterVersionRegistry;
 import org.optaweb.employeerostering.service.rotation.ShiftTemplateRepository;
 import org.optaweb.employeerostering.service.shift.ShiftRepository;
 import org.optaweb.employeerostering.service.skill.SkillRepository;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore;
+import org.optaweb.employeerostering.service.solver.SolverLeaseRepository;
+import org.optaweb.employeerostering.service.solver.SolverQuotaRepository;
+import org.optaweb.employeerostering.service.solver.SolverTerminationPolicyRepository;
 import org.optaweb.employeerostering.service.spot.SpotRepository;
 import org.optaweb.employeerostering.service.tenant.RosterConstraintConfigurationRepository;
+import org.optaweb.employeerostering.service.tenant.TenantDeletionService;
 import org.optaweb.employeerostering.service.tenant.TenantRepository;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
 public class AdminService {
@@ -43,8 +59,23 @@ public class AdminService {
     private RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository;
     private RosterStateRepository rosterStateRepository;
     private TenantRepository tenantRepository;
+    private ArchivedShiftRepository archivedShiftRepository;
+    private ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository;
+    private ArchivedWorkingTimeRepository archivedWorkingTimeRepository;
+    private SolverLeaseRepository solverLeaseRepository;
+    private SolverQuotaRepository solverQuotaRepository;
+    private SolverTerminationPolicyRepository solverTerminationPolicyRepository;
 
     private RosterGenerator rosterGenerator;
+    private RosterVersionRegistry rosterVersionRegistry;
+    private RosterChangeLog rosterChangeLog;
+    private RosterScoreStateCache rosterScoreStateCache;
+    private CoverageHeatmapCache coverageHeatmapCache;
+    private BestSolutionStore bestSolutionStore;
+    private TenantDeletionService tenantDeletionService;
+    private BackgroundJobService backgroundJobService;
+    private DemoDataService demoDataService;
+    private TransactionTemplate transactionTemplate;
 
     public AdminService(ShiftRepository shiftRepository,
                         EmployeeAvailabilityRepository employeeAvailabilityRepository,
@@ -56,7 +87,22 @@ public class AdminService {
                         RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository,
                         RosterStateRepository rosterStateRepository,
                         TenantRepository tenantRepository,
-                        RosterGenerator rosterGenerator) {
+                        ArchivedShiftRepository archivedShiftRepository,
+                        ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository,
+                        ArchivedWorkingTimeRepository archivedWorkingTimeRepository,
+                        SolverLeaseRepository solverLeaseRepository,
+                        SolverQuotaRepository solverQuotaRepository,
+                        SolverTerminationPolicyRepository solverTerminationPolicyRepository,
+                        RosterGenerator rosterGenerator,
+                        RosterVersionRegistry rosterVersionRegistry,
+                        RosterChangeLog rosterChangeLog,
+                        RosterScoreStateCache rosterScoreStateCache,
+                        CoverageHeatmapCache coverageHeatmapCache,
+                        BestSolutionStore bestSolutionStore,
+                        TenantDeletionService tenantDeletionService,
+                        BackgroundJobService backgroundJobService,
+                        DemoDataService demoDataService,
+                        PlatformTransactionManager transactionManager) {
         this.shiftRepository = shiftRepository;
         this.employeeAvailabilityRepository = employeeAvailabilityRepository;
         this.shiftTemplateRepository = shiftTemplateRepository;
@@ -67,17 +113,64 @@ public class AdminService {
         this.rosterConstraintConfigurationRepository = rosterConstraintConfigurationRepository;
         this.rosterStateRepository = rosterStateRepository;
         this.tenantRepository = tenantRepository;
+        this.archivedShiftRepository = archivedShiftRepository;
+        this.archivedEmployeeAvailabilityRepository = archivedEmployeeAvailabilityRepository;
+        this.archivedWorkingTimeRepository = archivedWorkingTimeRepository;
+        this.solverLeaseRepository = solverLeaseRepository;
+        this.solverQuotaRepository = solverQuotaRepository;
+        this.solverTerminationPolicyRepository = solverTerminationPolicyRepository;
         this.rosterGenerator = rosterGenerator;
+        this.rosterVersionRegistry = rosterVersionRegistry;
+        this.rosterChangeLog = rosterChangeLog;
+        this.rosterScoreStateCache = rosterScoreStateCache;
+        this.coverageHeatmapCache = coverageHeatmapCache;
+        this.bestSolutionStore = bestSolutionStore;
+        this.tenantDeletionService = tenantDeletionService;
+        this.backgroundJobService = backgroundJobService;
+        this.demoDataService = demoDataService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    /**
+     * Waits for the demo data generation at startup first, like {@link #resetApplicationInBackground()},
+     * which would otherwise add its tenants to the reset data. Only then opens its single transaction.
+     */
     public void resetApplication() {
-        // IMPORTANT: Delete entries that has Many-to-One relations first, otherwise we break referential integrity
-        deleteAllEntities();
-        rosterGenerator.setUpGeneratedData();
+        demoDataService.awaitInitialDemoData();
+        transactionTemplate.execute(status -> {
+            // IMPORTANT: Delete entries that has Many-to-One relations first, otherwise we break referential integrity
+            deleteAllEntities();
+            rosterVersionRegistry.forgetAllTenants();
+            rosterChangeLog.forgetAllTenants();
+            rosterScoreStateCache.forgetAllTenants();
+            coverageHeatmapCache.forgetAllTenants();
+            bestSolutionStore.forgetAllTenants();
+            rosterGenerator.setUpGeneratedData();
+            return null;
+        });
+    }
+
+    /**
+     * Unlike {@link #resetApplication()}, deletes all data in chunks and generates each demo tenant
+     * in its own transaction, several in parallel, in a background job.
+     * @return never null, the job to poll for progress
+     */
+    public BackgroundJob resetApplicationInBackground() {
+        return backgroundJobService.submit(BackgroundJobType.APPLICATION_RESET, null, job -> {
+            job.setStep("Waiting for the demo data generation at startup");
+            demoDataService.awaitInitialDemoData();
+            tenantDeletionService.deleteTenantData(null, job);
+            demoDataService.generateDemoData(job);
+        });
     }
 
     private void deleteAllEntities() {
+        archivedShiftRepository.deleteAllInBatch();
+        archivedEmployeeAvailabilityRepository.deleteAllInBatch();
+        archivedWorkingTimeRepository.deleteAllInBatch();
+        solverLeaseRepository.deleteAllInBatch();
+        solverQuotaRepository.deleteAllInBatch();
+        solverTerminationPolicyRepository.deleteAllInBatch();
         shiftRepository.deleteAllInBatch();
         employeeAvailabilityRepository.deleteAllInBatch();
         shiftTemplateRepository.deleteAllInBatch();
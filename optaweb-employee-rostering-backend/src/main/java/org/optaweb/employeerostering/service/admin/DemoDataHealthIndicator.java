@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.admin;
+
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobStatus;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Out of service while the demo data of an empty database is still being generated,
+ * so a load balancer (through the readiness group of the health endpoint) waits for the demo tenants.
+ */
+@Component
+public class DemoDataHealthIndicator implements HealthIndicator {
+
+    private final DemoDataService demoDataService;
+
+    public DemoDataHealthIndicator(DemoDataService demoDataService) {
+        this.demoDataService = demoDataService;
+    }
+
+    @Override
+    public Health health() {
+        BackgroundJob job = demoDataService.getInitialGenerationJob();
+        if (job == null) {
+            return Health.up().build();
+        }
+        Health.Builder builder;
+        if (job.getStatus() == BackgroundJobStatus.COMPLETED) {
+            builder = Health.up();
+        } else if (job.getStatus() == BackgroundJobStatus.FAILED) {
+            builder = Health.down().withDetail("error", job.getErrorMessage());
+        } else {
+            builder = Health.outOfService();
+        }
+        return builder.withDetail("generatedTenants", job.getProcessedCount()).build();
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.admin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
+import org.optaweb.employeerostering.service.job.BackgroundJobService;
+import org.optaweb.employeerostering.service.roster.RosterGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Generates the demo data of an empty database in the background once the application is ready,
+ * so it starts (and serves requests) without waiting for it. The {@link DemoDataHealthIndicator} tells when it is done.
+ * Each tenant is generated in its own transaction, several tenants in parallel.
+ */
+@Service
+public class DemoDataService {
+
+    private final RosterGenerator rosterGenerator;
+    private final BackgroundJobService backgroundJobService;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+
+    // Null if the application is not ready yet or had data already
+    private volatile BackgroundJob initialGenerationJob = null;
+    private final CountDownLatch initialGenerationLatch = new CountDownLatch(1);
+
+    public DemoDataService(RosterGenerator rosterGenerator, BackgroundJobService backgroundJobService,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${optaweb.generator.parallelism:4}") int parallelism) {
+        this.rosterGenerator = rosterGenerator;
+        this.backgroundJobService = backgroundJobService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (parallelism < 1) {
+            throw new IllegalStateException("The parallelism (" + parallelism + ") must be positive.");
+        }
+        this.parallelism = parallelism;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void generateInitialDemoData() {
+        if (rosterGenerator.hasTenants()) {
+            initialGenerationLatch.countDown();
+            return;
+        }
+        initialGenerationJob = backgroundJobService.submit(BackgroundJobType.DEMO_DATA_GENERATION, null, job -> {
+            try {
+                generateDemoData(job);
+            } finally {
+                initialGenerationLatch.countDown();
+            }
+        });
+    }
+
+    /**
+     * @param job never null, the job to report the generated tenants to
+     */
+    public void generateDemoData(BackgroundJob job) {
+        job.setStep("Generating demo data");
+        ExecutorService executorService = Executors.newFixedThreadPool(
+                parallelism, new CustomizableThreadFactory("demo-data-"));
+        try {
+            List<Future<?>> futureList = new ArrayList<>();
+            rosterGenerator.setUpGeneratedData(tenantGeneration -> futureList.add(executorService.submit(() -> {
+                transactionTemplate.execute(status -> {
+                    tenantGeneration.run();
+                    return null;
+                });
+                job.addProcessedCount(1);
+            })));
+            for (Future<?> future : futureList) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generating the demo data was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generating the demo data failed.", e.getCause());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until the demo data generation at startup (if any) is finished, so no other job changes the data
+     * in the meantime.
+     */
+    public void awaitInitialDemoData() {
+        try {
+            initialGenerationLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Waiting for the demo data generation was interrupted.", e);
+        }
+    }
+
+    /**
+     * @return null if the application is not ready yet or no demo data was generated at startup
+     */
+    public BackgroundJob getInitialGenerationJob() {
+        return initialGenerationJob;
+    }
+}
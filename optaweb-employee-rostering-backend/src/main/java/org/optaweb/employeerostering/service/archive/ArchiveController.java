@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.archive;
+
+import java.util.List;
+
+import javax.validation.constraints.Min;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.archive.ArchiveResult;
+import org.optaweb.employeerostering.domain.archive.ArchivedEmployeeAvailability;
+import org.optaweb.employeerostering.domain.archive.ArchivedShift;
+import org.optaweb.employeerostering.domain.archive.ArchivedWorkingTime;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/rest/tenant/{tenantId}/archive")
+@CrossOrigin
+@Validated
+@Api(tags = "Archive")
+public class ArchiveController {
+
+    private final ArchiveService archiveService;
+
+    public ArchiveController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+        Assert.notNull(archiveService, "archiveService must not be null.");
+    }
+
+    @ApiOperation("Move historic shifts and employee availabilities older than the retention to the archive")
+    @PostMapping("/archiveHistoricData")
+    public ResponseEntity<ArchiveResult> archiveHistoricData(@PathVariable @Min(0) Integer tenantId) {
+        return new ResponseEntity<>(archiveService.archiveHistoricData(tenantId), HttpStatus.OK);
+    }
+
+    @ApiOperation("Get the archived shifts between two dates")
+    @GetMapping("/shift")
+    public ResponseEntity<List<ArchivedShift>> getArchivedShiftList(@PathVariable @Min(0) Integer tenantId,
+                                                                    @RequestParam(name = "startDate")
+                                                                            String startDateString,
+                                                                    @RequestParam(name = "endDate")
+                                                                            String endDateString) {
+        return new ResponseEntity<>(archiveService.getArchivedShiftList(tenantId, startDateString, endDateString),
+                                    HttpStatus.OK);
+    }
+
+    @ApiOperation("Get the archived employee availabilities between two dates")
+    @GetMapping("/availability")
+    public ResponseEntity<List<ArchivedEmployeeAvailability>> getArchivedEmployeeAvailabilityList(
+            @PathVariable @Min(0) Integer tenantId,
+            @RequestParam(name = "startDate") String startDateString,
+            @RequestParam(name = "endDate") String endDateString) {
+        return new ResponseEntity<>(archiveService.getArchivedEmployeeAvailabilityList(tenantId, startDateString,
+                                                                                       endDateString),
+                                    HttpStatus.OK);
+    }
+
+    @ApiOperation("Get the archived weekly, monthly and yearly working time totals of an employee")
+    @GetMapping("/workingTime/{employeeId}")
+    public ResponseEntity<List<ArchivedWorkingTime>> getArchivedWorkingTimeList(
+            @PathVariable @Min(0) Integer tenantId, @PathVariable @Min(0) Long employeeId) {
+        return new ResponseEntity<>(archiveService.getArchivedWorkingTimeList(tenantId, employeeId), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.archive;
+
+import org.optaweb.employeerostering.domain.tenant.Tenant;
+import org.optaweb.employeerostering.service.tenant.TenantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically archives the historic data of every tenant.
+ * Disabled unless {@code optaweb.archive.cron} is set.
+ */
+@Component
+public class ArchiveJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveJob.class);
+
+    private final ArchiveService archiveService;
+    private final TenantRepository tenantRepository;
+
+    public ArchiveJob(ArchiveService archiveService, TenantRepository tenantRepository) {
+        this.archiveService = archiveService;
+        this.tenantRepository = tenantRepository;
+    }
+
+    @Scheduled(cron = "${optaweb.archive.cron:-}")
+    public void archiveAllTenants() {
+        for (Tenant tenant : tenantRepository.findAll()) {
+            // One transaction per tenant, so a failing tenant does not roll back the others
+            try {
+                archiveService.archiveHistoricData(tenant.getId());
+            } catch (RuntimeException e) {
+                logger.error("Archiving historic data failed for tenantId (" + tenant.getId() + ").", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.archive;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.apache.commons.lang3.tuple.Triple;
+import org.optaweb.employeerostering.domain.archive.ArchiveResult;
+import org.optaweb.employeerostering.domain.archive.ArchivedEmployeeAvailability;
+import org.optaweb.employeerostering.domain.archive.ArchivedShift;
+import org.optaweb.employeerostering.domain.archive.ArchivedWorkingTime;
+import org.optaweb.employeerostering.domain.common.DateTimeUtils;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.roster.RosterState;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
+import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
+import org.optaweb.employeerostering.service.common.AbstractRestService;
+import org.optaweb.employeerostering.service.contract.ContractRepository;
+import org.optaweb.employeerostering.service.employee.EmployeeAvailabilityRepository;
+import org.optaweb.employeerostering.service.roster.RosterStateRepository;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
+import org.optaweb.employeerostering.service.shift.ShiftRepository;
+import org.optaweb.employeerostering.service.tenant.RosterConstraintConfigurationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+public class ArchiveService extends AbstractRestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveService.class);
+
+    private final ShiftRepository shiftRepository;
+    private final EmployeeAvailabilityRepository employeeAvailabilityRepository;
+    private final ContractRepository contractRepository;
+    private final RosterStateRepository rosterStateRepository;
+    private final RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository;
+    private final ArchivedShiftRepository archivedShiftRepository;
+    private final ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository;
+    private final ArchivedWorkingTimeRepository archivedWorkingTimeRepository;
+
+    private final RosterVersionService rosterVersionService;
+
+    private final int retentionDays;
+
+    public ArchiveService(ShiftRepository shiftRepository,
+                          EmployeeAvailabilityRepository employeeAvailabilityRepository,
+                          ContractRepository contractRepository,
+                          RosterStateRepository rosterStateRepository,
+                          RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository,
+                          ArchivedShiftRepository archivedShiftRepository,
+                          ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository,
+                          ArchivedWorkingTimeRepository archivedWorkingTimeRepository,
+                          RosterVersionService rosterVersionService,
+                          @Value("${optaweb.archive.retention-days:365}") int retentionDays) {
+        this.shiftRepository = shiftRepository;
+        this.employeeAvailabilityRepository = employeeAvailabilityRepository;
+        this.contractRepository = contractRepository;
+        this.rosterStateRepository = rosterStateRepository;
+        this.rosterConstraintConfigurationRepository = rosterConstraintConfigurationRepository;
+        this.archivedShiftRepository = archivedShiftRepository;
+        this.archivedEmployeeAvailabilityRepository = archivedEmployeeAvailabilityRepository;
+        this.archivedWorkingTimeRepository = archivedWorkingTimeRepository;
+        this.rosterVersionService = rosterVersionService;
+        if (retentionDays < 0) {
+            throw new IllegalArgumentException("The retentionDays (" + retentionDays + ") must not be negative.");
+        }
+        this.retentionDays = retentionDays;
+    }
+
+    // ************************************************************************
+    // Archival
+    // ************************************************************************
+
+    @Transactional
+    public ArchiveResult archiveHistoricData(Integer tenantId) {
+        RosterState rosterState = getRosterState(tenantId);
+        RosterConstraintConfiguration rosterConstraintConfiguration = rosterConstraintConfigurationRepository
+                .findByTenantId(tenantId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "No RosterConstraintConfiguration entity found with tenantId (" + tenantId + ")."));
+        ZoneId timeZone = rosterState.getTimeZone();
+        LocalDate archiveBeforeDate = getArchiveBeforeDate(tenantId, rosterState, rosterConstraintConfiguration);
+        OffsetDateTime archiveBeforeDateTime = archiveBeforeDate.atStartOfDay(timeZone).toOffsetDateTime();
+
+        List<Shift> shiftList = shiftRepository.findAllByTenantIdEndingBefore(tenantId, archiveBeforeDateTime);
+        List<EmployeeAvailability> employeeAvailabilityList = employeeAvailabilityRepository
+                .findAllByTenantIdEndingBefore(tenantId, archiveBeforeDateTime);
+        if (shiftList.isEmpty() && employeeAvailabilityList.isEmpty()) {
+            return new ArchiveResult(archiveBeforeDate, 0, 0);
+        }
+
+        rosterVersionService.markRosterChanged(tenantId);
+        archivedShiftRepository.saveAll(shiftList.stream().map(ArchivedShift::new).collect(Collectors.toList()));
+        archivedEmployeeAvailabilityRepository.saveAll(employeeAvailabilityList.stream()
+                                                               .map(ArchivedEmployeeAvailability::new)
+                                                               .collect(Collectors.toList()));
+        archivedWorkingTimeRepository.saveAll(updateArchivedWorkingTimes(tenantId, timeZone,
+                                                                         rosterConstraintConfiguration, shiftList));
+
+        int archivedShiftCount = shiftRepository.deleteForTenantEndingBefore(tenantId, archiveBeforeDateTime);
+        int archivedEmployeeAvailabilityCount = employeeAvailabilityRepository
+                .deleteForTenantEndingBefore(tenantId, archiveBeforeDateTime);
+        logger.info("Archived {} shifts and {} employee availabilities before {} for tenantId ({}).",
+                    archivedShiftCount, archivedEmployeeAvailabilityCount, archiveBeforeDate, tenantId);
+        return new ArchiveResult(archiveBeforeDate, archivedShiftCount, archivedEmployeeAvailabilityCount);
+    }
+
+    /**
+     * Rows ending before the returned date are archived.
+     * The date lies before both the retention period and the first published date. It is moved back further so
+     * that no contract period that still holds published or draft shifts is split, because the contract minutes
+     * constraints sum over the whole period and the archived part would no longer be counted.
+     * @param tenantId never null
+     * @param rosterState never null
+     * @param rosterConstraintConfiguration never null
+     * @return never null, exclusive
+     */
+    protected LocalDate getArchiveBeforeDate(Integer tenantId, RosterState rosterState,
+                                             RosterConstraintConfiguration rosterConstraintConfiguration) {
+        LocalDate firstPublishedDate = rosterState.getFirstPublishedDate();
+        LocalDate archiveBeforeDate = LocalDate.now(rosterState.getTimeZone()).minusDays(retentionDays);
+        if (firstPublishedDate.isBefore(archiveBeforeDate)) {
+            archiveBeforeDate = firstPublishedDate;
+        }
+        List<Contract> contractList = contractRepository.findAllByTenantId(tenantId);
+        if (contractList.stream().anyMatch(c -> c.getMaximumMinutesPerWeek() != null)) {
+            archiveBeforeDate = min(archiveBeforeDate, firstPublishedDate.with(
+                    TemporalAdjusters.previousOrSame(rosterConstraintConfiguration.getWeekStartDay())));
+        }
+        if (contractList.stream().anyMatch(c -> c.getMaximumMinutesPerMonth() != null)) {
+            archiveBeforeDate = min(archiveBeforeDate, firstPublishedDate.withDayOfMonth(1));
+        }
+        if (contractList.stream().anyMatch(c -> c.getMaximumMinutesPerYear() != null)) {
+            archiveBeforeDate = min(archiveBeforeDate, firstPublishedDate.withDayOfYear(1));
+        }
+        return archiveBeforeDate;
+    }
+
+    private static LocalDate min(LocalDate a, LocalDate b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private List<ArchivedWorkingTime> updateArchivedWorkingTimes(Integer tenantId, ZoneId timeZone,
+                                                                 RosterConstraintConfiguration
+                                                                         rosterConstraintConfiguration,
+                                                                 List<Shift> shiftList) {
+        Map<Triple<Long, ContractMinutesViolation.Type, LocalDate>, ArchivedWorkingTime> workingTimeMap =
+                new LinkedHashMap<>();
+        LocalDate firstPeriodStartDate = null;
+        for (Shift shift : shiftList) {
+            if (shift.getEmployee() == null) {
+                continue;
+            }
+            LocalDate startDate = DateTimeUtils.toLocalDateTimeInZone(shift.getStartDateTime(), timeZone)
+                    .toLocalDate();
+            LocalDate weekStartDate = startDate.with(
+                    TemporalAdjusters.previousOrSame(rosterConstraintConfiguration.getWeekStartDay()));
+            LocalDate yearStartDate = startDate.withDayOfYear(1);
+            firstPeriodStartDate = (firstPeriodStartDate == null) ? min(weekStartDate, yearStartDate)
+                    : min(firstPeriodStartDate, min(weekStartDate, yearStartDate));
+            Long employeeId = shift.getEmployee().getId();
+            addShift(workingTimeMap, tenantId, employeeId, ContractMinutesViolation.Type.WEEK, weekStartDate, shift);
+            addShift(workingTimeMap, tenantId, employeeId, ContractMinutesViolation.Type.MONTH,
+                     startDate.withDayOfMonth(1), shift);
+            addShift(workingTimeMap, tenantId, employeeId, ContractMinutesViolation.Type.YEAR, yearStartDate, shift);
+        }
+        if (firstPeriodStartDate == null) {
+            return Collections.emptyList();
+        }
+
+        // Periods can straddle the previous archival date, so merge into the totals archived earlier
+        Map<Triple<Long, ContractMinutesViolation.Type, LocalDate>, ArchivedWorkingTime> existingWorkingTimeMap =
+                archivedWorkingTimeRepository.findAllByTenantIdFromDate(tenantId, firstPeriodStartDate).stream()
+                        .collect(Collectors.toMap(wt -> Triple.of(wt.getEmployeeId(), wt.getType(),
+                                                                  wt.getPeriodStartDate()),
+                                                  Function.identity()));
+        return workingTimeMap.entrySet().stream()
+                .map(entry -> {
+                    ArchivedWorkingTime existing = existingWorkingTimeMap.get(entry.getKey());
+                    if (existing == null) {
+                        return entry.getValue();
+                    }
+                    existing.setMinutesWorked(existing.getMinutesWorked() + entry.getValue().getMinutesWorked());
+                    existing.setShiftCount(existing.getShiftCount() + entry.getValue().getShiftCount());
+                    return existing;
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static void addShift(Map<Triple<Long, ContractMinutesViolation.Type, LocalDate>, ArchivedWorkingTime>
+                                         workingTimeMap,
+                                 Integer tenantId, Long employeeId, ContractMinutesViolation.Type type,
+                                 LocalDate periodStartDate, Shift shift) {
+        workingTimeMap.computeIfAbsent(Triple.of(employeeId, type, periodStartDate),
+                                       key -> new ArchivedWorkingTime(tenantId, employeeId, type, periodStartDate))
+                .addShift(shift.getLengthInMinutes());
+    }
+
+    // ************************************************************************
+    // Historic views
+    // ************************************************************************
+
+    @Transactional(readOnly = true)
+    public List<ArchivedShift> getArchivedShiftList(Integer tenantId, String startDateString, String endDateString) {
+        ZoneId timeZone = getRosterState(tenantId).getTimeZone();
+        return archivedShiftRepository.findAllByTenantIdBetweenDates(
+                tenantId,
+                LocalDate.parse(startDateString).atStartOfDay(timeZone).toOffsetDateTime(),
+                LocalDate.parse(endDateString).atStartOfDay(timeZone).toOffsetDateTime());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedEmployeeAvailability> getArchivedEmployeeAvailabilityList(Integer tenantId,
+                                                                                  String startDateString,
+                                                                                  String endDateString) {
+        ZoneId timeZone = getRosterState(tenantId).getTimeZone();
+        return archivedEmployeeAvailabilityRepository.findAllByTenantIdBetweenDates(
+                tenantId,
+                LocalDate.parse(startDateString).atStartOfDay(timeZone).toOffsetDateTime(),
+                LocalDate.parse(endDateString).atStartOfDay(timeZone).toOffsetDateTime());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedWorkingTime> getArchivedWorkingTimeList(Integer tenantId, Long employeeId) {
+        return archivedWorkingTimeRepository.findAllByEmployeeId(tenantId, employeeId);
+    }
+
+    private RosterState getRosterState(Integer tenantId) {
+        RosterState rosterState = rosterStateRepository
+                .findByTenantId(tenantId)
+                .orElseThrow(() -> new EntityNotFoundException("No RosterState entity found with tenantId (" +
+                                                                       tenantId + ")."));
+        validateTenantIdParameter(tenantId, rosterState);
+        return rosterState;
+    }
+}
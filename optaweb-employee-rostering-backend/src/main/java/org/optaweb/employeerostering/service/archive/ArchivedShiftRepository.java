@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.archive;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.optaweb.employeerostering.domain.archive.ArchivedShift;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedShiftRepository extends JpaRepository<ArchivedShift, Long> {
+
+    @Query("select s from ArchivedShift s" +
+            " where s.tenantId = :tenantId" +
+            " and s.endDateTime >= :startDateTime" +
+            " and s.startDateTime < :endDateTime" +
+            " order by s.startDateTime, s.spotName, s.employeeName")
+    List<ArchivedShift> findAllByTenantIdBetweenDates(@Param("tenantId") Integer tenantId,
+                                                      @Param("startDateTime") OffsetDateTime startDateTime,
+                                                      @Param("endDateTime") OffsetDateTime endDateTime);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ArchivedShift s where s.tenantId = :tenantId")
+    void deleteForTenant(@Param("tenantId") Integer tenantId);
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.archive;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.optaweb.employeerostering.domain.archive.ArchivedWorkingTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedWorkingTimeRepository extends JpaRepository<ArchivedWorkingTime, Long> {
+
+    @Query("select wt from ArchivedWorkingTime wt" +
+            " where wt.tenantId = :tenantId" +
+            " and wt.employeeId = :employeeId" +
+            " order by wt.type, wt.periodStartDate")
+    List<ArchivedWorkingTime> findAllByEmployeeId(@Param("tenantId") Integer tenantId,
+                                                  @Param("employeeId") Long employeeId);
+
+    @Query("select wt from ArchivedWorkingTime wt" +
+            " where wt.tenantId = :tenantId" +
+            " and wt.periodStartDate >= :fromDate")
+    List<ArchivedWorkingTime> findAllByTenantIdFromDate(@Param("tenantId") Integer tenantId,
+                                                        @Param("fromDate") LocalDate fromDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from ArchivedWorkingTime wt where wt.tenantId = :tenantId")
+    void deleteForTenant(@Param("tenantId") Integer tenantId);
+}
@@ -17,50 +17,21 @@
 package org.optaweb.employeerostering.service.common;
 
 import java.time.ZoneId;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
 import java.util.Map;
 
 import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.score.constraint.Indictment;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
-import org.optaweb.employeerostering.domain.employee.Employee;
-import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
 import org.optaweb.employeerostering.domain.roster.Roster;
 import org.optaweb.employeerostering.domain.shift.Shift;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
-import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
-import org.optaweb.employeerostering.domain.violation.DesiredTimeslotForEmployeeReward;
 import org.optaweb.employeerostering.domain.violation.IndictmentSummary;
-import org.optaweb.employeerostering.domain.violation.NoBreakViolation;
-import org.optaweb.employeerostering.domain.violation.PublishedShiftReassignedPenalty;
-import org.optaweb.employeerostering.domain.violation.RequiredSkillViolation;
-import org.optaweb.employeerostering.domain.violation.RotationViolationPenalty;
-import org.optaweb.employeerostering.domain.violation.ShiftEmployeeConflict;
-import org.optaweb.employeerostering.domain.violation.UnassignedShiftPenalty;
-import org.optaweb.employeerostering.domain.violation.UnavailableEmployeeViolation;
-import org.optaweb.employeerostering.domain.violation.UndesiredTimeslotForEmployeePenalty;
 import org.optaweb.employeerostering.service.solver.WannabeSolverManager;
 import org.springframework.stereotype.Component;
 
-import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toMap;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_ASSIGN_EVERY_SHIFT;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_OVERLAPPING_SHIFTS;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
-import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
 
 @Component
 public class IndictmentUtils {
@@ -96,161 +67,50 @@ public class IndictmentUtils {
         }
     }
 
+    /**
+     * Classifies the constraint matches of the indictment in a single pass.
+     */
     public ShiftView getShiftViewWithIndictment(ZoneId zoneId, Shift shift, Indictment indictment) {
-        return new ShiftView(zoneId, shift,
-                getRequiredSkillViolationList(indictment),
-                getUnavailableEmployeeViolationList(indictment),
-                getShiftEmployeeConflictList(indictment),
-                getDesiredTimeslotForEmployeeRewardList(indictment),
-                getUndesiredTimeslotForEmployeePenaltyList(indictment),
-                getRotationViolationPenaltyList(indictment),
-                getUnassignedShiftPenaltyList(indictment),
-                getContractMinutesViolationList(indictment),
-                getNoBreakViolationList(indictment),
-                getPublishedShiftReassignedPenaltyList(indictment),
-                (indictment != null) ?
-                        (HardMediumSoftLongScore) indictment.getScore() : HardMediumSoftLongScore.ZERO);
-    }
-
-    public List<RequiredSkillViolation> getRequiredSkillViolationList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT))
-                .map(cm -> new RequiredSkillViolation((Shift) cm.getJustificationList().get(0),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<UnavailableEmployeeViolation> getUnavailableEmployeeViolationList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE))
-                .map(cm -> new UnavailableEmployeeViolation((Shift) cm.getJustificationList().get(0),
-                        (EmployeeAvailability) cm.getJustificationList().get(1),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<DesiredTimeslotForEmployeeReward> getDesiredTimeslotForEmployeeRewardList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE))
-                .map(cm -> new DesiredTimeslotForEmployeeReward((Shift) cm.getJustificationList().get(0),
-                        (EmployeeAvailability) cm.getJustificationList().get(1),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<UndesiredTimeslotForEmployeePenalty> getUndesiredTimeslotForEmployeePenaltyList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE))
-                .map(cm -> new UndesiredTimeslotForEmployeePenalty((Shift) cm.getJustificationList().get(0),
-                        (EmployeeAvailability) cm.getJustificationList()
-                                .get(1),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<ShiftEmployeeConflict> getShiftEmployeeConflictList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        List<String> employeeShiftConstraintNameList =
-                Arrays.asList(CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS, CONSTRAINT_NO_OVERLAPPING_SHIFTS);
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        employeeShiftConstraintNameList.contains(cm.getConstraintName()))
-                .map(cm -> new ShiftEmployeeConflict((Shift) cm.getJustificationList().get(0),
-                        (Shift) cm.getJustificationList().get(1),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<NoBreakViolation> getNoBreakViolationList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
-        }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS))
-                .map(cm -> new NoBreakViolation((Shift) cm.getJustificationList().get(0),
-                        (Shift) cm.getJustificationList().get(1),
-                        (Shift) cm.getJustificationList().get(2),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<RotationViolationPenalty> getRotationViolationPenaltyList(Indictment indictment) {
+        ShiftViolations shiftViolations = new ShiftViolations();
         if (indictment == null) {
-            return Collections.emptyList();
+            ShiftView shiftView = shiftViolations.toShiftView(zoneId, shift, HardMediumSoftLongScore.ZERO);
+            shiftView.setViolationTypeMask(0);
+            return shiftView;
         }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE))
-                .map(cm -> new RotationViolationPenalty((Shift) cm.getJustificationList().get(0),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<UnassignedShiftPenalty> getUnassignedShiftPenaltyList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
+        int violationTypeMask = 0;
+        for (ConstraintMatch constraintMatch : indictment.getConstraintMatchSet()) {
+            ShiftViolationType shiftViolationType = ShiftViolationType.forConstraintMatch(constraintMatch);
+            if (shiftViolationType != null) {
+                shiftViolationType.addViolation(constraintMatch, shiftViolations);
+                violationTypeMask |= shiftViolationType.getMask();
+            }
         }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_ASSIGN_EVERY_SHIFT))
-                .map(cm -> new UnassignedShiftPenalty((Shift) cm.getJustificationList().get(0),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
+        ShiftView shiftView = shiftViolations.toShiftView(zoneId, shift,
+                                                          (HardMediumSoftLongScore) indictment.getScore());
+        shiftView.setViolationTypeMask(violationTypeMask);
+        return shiftView;
     }
 
-    public List<ContractMinutesViolation> getContractMinutesViolationList(Indictment indictment) {
+    /**
+     * Like {@link #getShiftViewWithIndictment(ZoneId, Shift, Indictment)}, but without the violation lists:
+     * only the indictment score and which types of violation the shift has.
+     */
+    public ShiftView getCompactShiftViewWithIndictment(ZoneId zoneId, Shift shift, Indictment indictment) {
+        ShiftView shiftView = new ShiftView(zoneId, shift);
         if (indictment == null) {
-            return Collections.emptyList();
+            shiftView.setIndictmentScore(HardMediumSoftLongScore.ZERO);
+            shiftView.setViolationTypeMask(0);
+            return shiftView;
         }
-        // getJustificationList() was not consistent; sometimes employee was first, other times minutes worked was first
-        List<String> contractMinutesConstraintNameList = Arrays.asList(
-                CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
-                CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
-                CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
-                CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM);
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        contractMinutesConstraintNameList.contains(cm.getConstraintName()))
-                .map(cm -> new ContractMinutesViolation((Employee) cm.getJustificationList()
-                        .stream()
-                        .filter(o -> o instanceof Employee)
-                        .findFirst().get(), ContractMinutesViolation.Type.getTypeForViolation(cm.getConstraintName()),
-                        (Long) cm.getJustificationList()
-                                .stream()
-                                .filter(o -> o instanceof Long)
-                                .findFirst().get(),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
-    }
-
-    public List<PublishedShiftReassignedPenalty> getPublishedShiftReassignedPenaltyList(Indictment indictment) {
-        if (indictment == null) {
-            return Collections.emptyList();
+        int violationTypeMask = 0;
+        for (ConstraintMatch constraintMatch : indictment.getConstraintMatchSet()) {
+            ShiftViolationType shiftViolationType = ShiftViolationType.forConstraintMatch(constraintMatch);
+            if (shiftViolationType != null) {
+                violationTypeMask |= shiftViolationType.getMask();
+            }
         }
-        return indictment.getConstraintMatchSet().stream()
-                .filter(cm -> cm.getConstraintPackage().equals(CONSTRAINT_MATCH_PACKAGE) &&
-                        cm.getConstraintName().equals(CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE))
-                .map(cm -> new PublishedShiftReassignedPenalty((Shift) cm.getJustificationList().get(0),
-                        (HardMediumSoftLongScore) cm.getScore()))
-                .collect(toList());
+        shiftView.setIndictmentScore((HardMediumSoftLongScore) indictment.getScore());
+        shiftView.setViolationTypeMask(violationTypeMask);
+        return shiftView;
     }
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.common;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
+import org.optaweb.employeerostering.domain.violation.DesiredTimeslotForEmployeeReward;
+import org.optaweb.employeerostering.domain.violation.NoBreakViolation;
+import org.optaweb.employeerostering.domain.violation.PublishedShiftReassignedPenalty;
+import org.optaweb.employeerostering.domain.violation.RequiredSkillViolation;
+import org.optaweb.employeerostering.domain.violation.RotationViolationPenalty;
+import org.optaweb.employeerostering.domain.violation.ShiftEmployeeConflict;
+import org.optaweb.employeerostering.domain.violation.UnassignedShiftPenalty;
+import org.optaweb.employeerostering.domain.violation.UnavailableEmployeeViolation;
+import org.optaweb.employeerostering.domain.violation.UndesiredTimeslotForEmployeePenalty;
+
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_ASSIGN_EVERY_SHIFT;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_OVERLAPPING_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+
+/**
+ * The kinds of violation a {@link org.optaweb.employeerostering.domain.shift.view.ShiftView} lists,
+ * each with the constraints it is built from and the handler that builds it from a constraint match.
+ */
+public enum ShiftViolationType {
+    REQUIRED_SKILL(CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            shiftViolations.addRequiredSkillViolation(new RequiredSkillViolation(
+                    (Shift) constraintMatch.getJustificationList().get(0), getScore(constraintMatch)));
+        }
+    },
+    UNAVAILABLE_EMPLOYEE(CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            List<Object> justificationList = constraintMatch.getJustificationList();
+            shiftViolations.addUnavailableEmployeeViolation(new UnavailableEmployeeViolation(
+                    (Shift) justificationList.get(0), (EmployeeAvailability) justificationList.get(1),
+                    getScore(constraintMatch)));
+        }
+    },
+    SHIFT_EMPLOYEE_CONFLICT(CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS, CONSTRAINT_NO_OVERLAPPING_SHIFTS) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            List<Object> justificationList = constraintMatch.getJustificationList();
+            shiftViolations.addShiftEmployeeConflict(new ShiftEmployeeConflict(
+                    (Shift) justificationList.get(0), (Shift) justificationList.get(1), getScore(constraintMatch)));
+        }
+    },
+    DESIRED_TIMESLOT(CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            List<Object> justificationList = constraintMatch.getJustificationList();
+            shiftViolations.addDesiredTimeslotForEmployeeReward(new DesiredTimeslotForEmployeeReward(
+                    (Shift) justificationList.get(0), (EmployeeAvailability) justificationList.get(1),
+                    getScore(constraintMatch)));
+        }
+    },
+    UNDESIRED_TIMESLOT(CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            List<Object> justificationList = constraintMatch.getJustificationList();
+            shiftViolations.addUndesiredTimeslotForEmployeePenalty(new UndesiredTimeslotForEmployeePenalty(
+                    (Shift) justificationList.get(0), (EmployeeAvailability) justificationList.get(1),
+                    getScore(constraintMatch)));
+        }
+    },
+    ROTATION_VIOLATION(CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            shiftViolations.addRotationViolationPenalty(new RotationViolationPenalty(
+                    (Shift) constraintMatch.getJustificationList().get(0), getScore(constraintMatch)));
+        }
+    },
+    UNASSIGNED_SHIFT(CONSTRAINT_ASSIGN_EVERY_SHIFT) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            shiftViolations.addUnassignedShiftPenalty(new UnassignedShiftPenalty(
+                    (Shift) constraintMatch.getJustificationList().get(0), getScore(constraintMatch)));
+        }
+    },
+    CONTRACT_MINUTES(CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                     CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                     CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                     CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            // getJustificationList() was not consistent;
+            // sometimes employee was first, other times minutes worked was first
+            Employee employee = null;
+            Long minutesWorked = null;
+            for (Object justification : constraintMatch.getJustificationList()) {
+                if (employee == null && justification instanceof Employee) {
+                    employee = (Employee) justification;
+                } else if (minutesWorked == null && justification instanceof Long) {
+                    minutesWorked = (Long) justification;
+                }
+            }
+            if (employee == null || minutesWorked == null) {
+                throw new IllegalStateException("The constraintMatch (" + constraintMatch
+                                                        + ") does not justify an employee and its minutes worked.");
+            }
+            shiftViolations.addContractMinutesViolation(new ContractMinutesViolation(
+                    employee, ContractMinutesViolation.Type.getTypeForViolation(constraintMatch.getConstraintName()),
+                    minutesWorked, getScore(constraintMatch)));
+        }
+    },
+    NO_BREAK(CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            List<Object> justificationList = constraintMatch.getJustificationList();
+            shiftViolations.addNoBreakViolation(new NoBreakViolation(
+                    (Shift) justificationList.get(0), (Shift) justificationList.get(1),
+                    (Shift) justificationList.get(2), getScore(constraintMatch)));
+        }
+    },
+    PUBLISHED_SHIFT_REASSIGNED(CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE) {
+        @Override
+        public void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations) {
+            shiftViolations.addPublishedShiftReassignedPenalty(new PublishedShiftReassignedPenalty(
+                    (Shift) constraintMatch.getJustificationList().get(0), getScore(constraintMatch)));
+        }
+    };
+
+    private static final Map<String, ShiftViolationType> CONSTRAINT_NAME_TO_TYPE_MAP = new HashMap<>();
+
+    static {
+        for (ShiftViolationType type : values()) {
+            for (String constraintName : type.constraintNameList) {
+                CONSTRAINT_NAME_TO_TYPE_MAP.put(constraintName, type);
+            }
+        }
+    }
+
+    /**
+     * @param constraintMatch never null
+     * @return null if the constraint match does not produce a violation in a shift view
+     */
+    public static ShiftViolationType forConstraintMatch(ConstraintMatch constraintMatch) {
+        if (!IndictmentUtils.CONSTRAINT_MATCH_PACKAGE.equals(constraintMatch.getConstraintPackage())) {
+            return null;
+        }
+        return CONSTRAINT_NAME_TO_TYPE_MAP.get(constraintMatch.getConstraintName());
+    }
+
+    private final List<String> constraintNameList;
+
+    ShiftViolationType(String... constraintNames) {
+        this.constraintNameList = Collections.unmodifiableList(Arrays.asList(constraintNames));
+    }
+
+    public List<String> getConstraintNameList() {
+        return constraintNameList;
+    }
+
+    /**
+     * New types must be added last, so the bits of the existing types do not change for clients.
+     * @return the bit of this type in the violation type mask of a shift view
+     */
+    public int getMask() {
+        return 1 << ordinal();
+    }
+
+    /**
+     * Builds the violation of the constraint match and appends it to the matching list.
+     * @param constraintMatch never null, a match of one of the constraints in {@link #getConstraintNameList()}
+     * @param shiftViolations never null
+     */
+    public abstract void addViolation(ConstraintMatch constraintMatch, ShiftViolations shiftViolations);
+
+    private static HardMediumSoftLongScore getScore(ConstraintMatch constraintMatch) {
+        return (HardMediumSoftLongScore) constraintMatch.getScore();
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.common;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
+import org.optaweb.employeerostering.domain.violation.DesiredTimeslotForEmployeeReward;
+import org.optaweb.employeerostering.domain.violation.NoBreakViolation;
+import org.optaweb.employeerostering.domain.violation.PublishedShiftReassignedPenalty;
+import org.optaweb.employeerostering.domain.violation.RequiredSkillViolation;
+import org.optaweb.employeerostering.domain.violation.RotationViolationPenalty;
+import org.optaweb.employeerostering.domain.violation.ShiftEmployeeConflict;
+import org.optaweb.employeerostering.domain.violation.UnassignedShiftPenalty;
+import org.optaweb.employeerostering.domain.violation.UnavailableEmployeeViolation;
+import org.optaweb.employeerostering.domain.violation.UndesiredTimeslotForEmployeePenalty;
+
+/**
+ * Collects the violations of one shift, as {@link ShiftViolationType} builds them.
+ * Most shifts have few kinds of violation, so a list is only created once something is added to it.
+ */
+public final class ShiftViolations {
+
+    private List<RequiredSkillViolation> requiredSkillViolationList = null;
+    private List<UnavailableEmployeeViolation> unavailableEmployeeViolationList = null;
+    private List<ShiftEmployeeConflict> shiftEmployeeConflictList = null;
+    private List<DesiredTimeslotForEmployeeReward> desiredTimeslotForEmployeeRewardList = null;
+    private List<UndesiredTimeslotForEmployeePenalty> undesiredTimeslotForEmployeePenaltyList = null;
+    private List<RotationViolationPenalty> rotationViolationPenaltyList = null;
+    private List<UnassignedShiftPenalty> unassignedShiftPenaltyList = null;
+    private List<ContractMinutesViolation> contractMinutesViolationList = null;
+    private List<NoBreakViolation> noBreakViolationList = null;
+    private List<PublishedShiftReassignedPenalty> publishedShiftReassignedPenaltyList = null;
+
+    public ShiftView toShiftView(ZoneId zoneId, Shift shift, HardMediumSoftLongScore indictmentScore) {
+        return new ShiftView(zoneId, shift,
+                             orEmpty(requiredSkillViolationList),
+                             orEmpty(unavailableEmployeeViolationList),
+                             orEmpty(shiftEmployeeConflictList),
+                             orEmpty(desiredTimeslotForEmployeeRewardList),
+                             orEmpty(undesiredTimeslotForEmployeePenaltyList),
+                             orEmpty(rotationViolationPenaltyList),
+                             orEmpty(unassignedShiftPenaltyList),
+                             orEmpty(contractMinutesViolationList),
+                             orEmpty(noBreakViolationList),
+                             orEmpty(publishedShiftReassignedPenaltyList),
+                             indictmentScore);
+    }
+
+    private static <T> List<T> orEmpty(List<T> list) {
+        return (list != null) ? list : Collections.emptyList();
+    }
+
+    private static <T> List<T> add(List<T> list, T violation) {
+        List<T> out = (list != null) ? list : new ArrayList<>(2);
+        out.add(violation);
+        return out;
+    }
+
+    // ************************************************************************
+    // Adders
+    // ************************************************************************
+
+    void addRequiredSkillViolation(RequiredSkillViolation violation) {
+        requiredSkillViolationList = add(requiredSkillViolationList, violation);
+    }
+
+    void addUnavailableEmployeeViolation(UnavailableEmployeeViolation violation) {
+        unavailableEmployeeViolationList = add(unavailableEmployeeViolationList, violation);
+    }
+
+    void addShiftEmployeeConflict(ShiftEmployeeConflict violation) {
+        shiftEmployeeConflictList = add(shiftEmployeeConflictList, violation);
+    }
+
+    void addDesiredTimeslotForEmployeeReward(DesiredTimeslotForEmployeeReward violation) {
+        desiredTimeslotForEmployeeRewardList = add(desiredTimeslotForEmployeeRewardList, violation);
+    }
+
+    void addUndesiredTimeslotForEmployeePenalty(UndesiredTimeslotForEmployeePenalty violation) {
+        undesiredTimeslotForEmployeePenaltyList = add(undesiredTimeslotForEmployeePenaltyList, violation);
+    }
+
+    void addRotationViolationPenalty(RotationViolationPenalty violation) {
+        rotationViolationPenaltyList = add(rotationViolationPenaltyList, violation);
+    }
+
+    void addUnassignedShiftPenalty(UnassignedShiftPenalty violation) {
+        unassignedShiftPenaltyList = add(unassignedShiftPenaltyList, violation);
+    }
+
+    void addContractMinutesViolation(ContractMinutesViolation violation) {
+        contractMinutesViolationList = add(contractMinutesViolationList, violation);
+    }
+
+    void addNoBreakViolation(NoBreakViolation violation) {
+        noBreakViolationList = add(noBreakViolationList, violation);
+    }
+
+    void addPublishedShiftReassignedPenalty(PublishedShiftReassignedPenalty violation) {
+        publishedShiftReassignedPenaltyList = add(publishedShiftReassignedPenaltyList, violation);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.common.datasource;
+
+import javax.sql.DataSource;
+
+import org.optaweb.employeerostering.service.roster.RosterVersionRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Only active if a read replica is configured (see application.properties): replaces the auto-configured data source
+ * by one that sends read-only transactions to the replica, see {@link ReplicaRoutingDataSource}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "optaweb.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties primaryDataSourceProperties,
+                                 RosterVersionRegistry rosterVersionRegistry,
+                                 @Value("${optaweb.datasource.replica.url}") String replicaUrl,
+                                 @Value("${optaweb.datasource.replica.username:${spring.datasource.username:}}")
+                                         String replicaUsername,
+                                 @Value("${optaweb.datasource.replica.password:${spring.datasource.password:}}")
+                                         String replicaPassword,
+                                 @Value("${optaweb.datasource.replica.max-staleness:0}") long maxStaleness) {
+        DataSource primaryDataSource = primaryDataSourceProperties.initializeDataSourceBuilder().build();
+        DataSource replicaDataSource = DataSourceBuilder.create()
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(primaryDataSource,
+                                                                                  replicaDataSource,
+                                                                                  rosterVersionRegistry,
+                                                                                  maxStaleness);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    public TenantRoutingFilter tenantRoutingFilter() {
+        return new TenantRoutingFilter();
+    }
+}
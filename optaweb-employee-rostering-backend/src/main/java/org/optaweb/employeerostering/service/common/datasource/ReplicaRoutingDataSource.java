@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.common.datasource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.optaweb.employeerostering.service.roster.RosterVersionRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions of a tenant request to the replica, as long as the replica's roster version of that
+ * tenant is at most {@code maxStaleness} versions behind the latest roster version this node knows to be committed.
+ * This node learns of its own commits right away, but of those of other nodes only on the next solver lease
+ * heartbeat, so a replica can be up to {@code optaweb.solver.cluster.heartbeat-interval} behind such commits on top.
+ * Everything else (writes, and reads outside of a tenant request) goes to the primary.
+ * <p>
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the read-only flag
+ * of a transaction is only known after the transaction manager opened it.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private static final String SELECT_ROSTER_VERSION_SQL = "select roster_version from roster_state" +
+            " where tenant_id = ?";
+
+    private static final ThreadLocal<Integer> CURRENT_TENANT_ID = new ThreadLocal<>();
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final JdbcTemplate primaryJdbcTemplate;
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final RosterVersionRegistry rosterVersionRegistry;
+    private final long maxStaleness;
+
+    public ReplicaRoutingDataSource(DataSource primaryDataSource, DataSource replicaDataSource,
+                                    RosterVersionRegistry rosterVersionRegistry, long maxStaleness) {
+        this.primaryJdbcTemplate = new JdbcTemplate(primaryDataSource);
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.rosterVersionRegistry = rosterVersionRegistry;
+        this.maxStaleness = maxStaleness;
+        Map<Object, Object> targetDataSourceMap = new HashMap<>(2);
+        targetDataSourceMap.put(Target.PRIMARY, primaryDataSource);
+        targetDataSourceMap.put(Target.REPLICA, replicaDataSource);
+        setTargetDataSources(targetDataSourceMap);
+        setDefaultTargetDataSource(primaryDataSource);
+    }
+
+    public static void setCurrentTenantId(Integer tenantId) {
+        CURRENT_TENANT_ID.set(tenantId);
+    }
+
+    public static void clearCurrentTenantId() {
+        CURRENT_TENANT_ID.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        Integer tenantId = CURRENT_TENANT_ID.get();
+        if (tenantId == null) {
+            return Target.PRIMARY;
+        }
+        return isReplicaFresh(tenantId) ? Target.REPLICA : Target.PRIMARY;
+    }
+
+    private boolean isReplicaFresh(Integer tenantId) {
+        Long committedRosterVersion = rosterVersionRegistry.getCommittedRosterVersion(tenantId);
+        if (committedRosterVersion == null) {
+            // Typically once per tenant after a restart: learn where the primary is
+            committedRosterVersion = selectRosterVersion(primaryJdbcTemplate, tenantId);
+            if (committedRosterVersion == null) {
+                return false;
+            }
+            rosterVersionRegistry.recordCommittedRosterVersion(tenantId, committedRosterVersion);
+        }
+        Long replicaRosterVersion = selectRosterVersion(replicaJdbcTemplate, tenantId);
+        if (replicaRosterVersion == null) {
+            return false;
+        }
+        boolean fresh = replicaRosterVersion >= committedRosterVersion - maxStaleness;
+        if (!fresh) {
+            logger.debug("Replica is at roster version ({}) of tenantId ({}), primary is at ({}): using primary.",
+                         replicaRosterVersion, tenantId, committedRosterVersion);
+        }
+        return fresh;
+    }
+
+    private Long selectRosterVersion(JdbcTemplate jdbcTemplate, Integer tenantId) {
+        try {
+            return jdbcTemplate.query(SELECT_ROSTER_VERSION_SQL,
+                                      resultSet -> resultSet.next() ? resultSet.getLong(1) : null,
+                                      tenantId);
+        } catch (DataAccessException e) {
+            logger.warn("Could not read the roster version of tenantId (" + tenantId + "): using primary.", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.common.datasource;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Tells the {@link ReplicaRoutingDataSource} which tenant the current request reads, so it can check the replica's
+ * staleness for that tenant.
+ */
+public class TenantRoutingFilter extends OncePerRequestFilter {
+
+    // At most 9 digits, so the tenantId always fits in an Integer
+    private static final Pattern TENANT_PATH_PATTERN = Pattern.compile("^/rest/tenant/(\\d{1,9})(/.*)?$");
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = TENANT_PATH_PATTERN.matcher(path);
+        if (!matcher.matches()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            ReplicaRoutingDataSource.setCurrentTenantId(Integer.valueOf(matcher.group(1)));
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearCurrentTenantId();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import javax.persistence.EntityNotFoundException;
 import org.optaweb.employeerostering.domain.contract.Contract;
 import org.optaweb.employeerostering.domain.contract.view.ContractView;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,9 +32,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class ContractService extends AbstractRestService {
 
     private final ContractRepository contractRepository;
+    private final RosterVersionService rosterVersionService;
 
-    public ContractService(ContractRepository contractRepository) {
+    public ContractService(ContractRepository contractRepository, RosterVersionService rosterVersionService) {
         this.contractRepository = contractRepository;
+        this.rosterVersionService = rosterVersionService;
     }
 
     public Contract convertFromView(Integer tenantId, ContractView contractView) {
@@ -72,6 +75,7 @@ public class ContractService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, contractOptional.get());
+        rosterVersionService.markRosterChanged(tenantId);
         contractRepository.deleteById(id);
         return true;
     }
@@ -79,6 +83,7 @@ public class ContractService extends AbstractRestService {
     @Transactional
     public Contract createContract(Integer tenantId, ContractView contractView) {
         Contract contract = convertFromView(tenantId, contractView);
+        rosterVersionService.markRosterChanged(tenantId);
         return contractRepository.save(contract);
     }
 
@@ -96,6 +101,7 @@ public class ContractService extends AbstractRestService {
                                                     + ") cannot change tenants.");
         }
 
+        rosterVersionService.markRosterChanged(tenantId);
         oldContract.setName(newContract.getName());
         oldContract.setMaximumMinutesPerDay(newContract.getMaximumMinutesPerDay());
         oldContract.setMaximumMinutesPerWeek(newContract.getMaximumMinutesPerWeek());
@@ -115,6 +121,7 @@ public class ContractService extends AbstractRestService {
             Contract contract = new Contract();
             contract.setName("Default Contract");
             contract.setTenantId(tenantId);
+            rosterVersionService.markRosterChanged(tenantId);
             return contractRepository.save(contract);
         }
     }
@@ -19,12 +19,16 @@ package org.optaweb.employeerostering.service.employee;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -41,6 +45,21 @@ public interface EmployeeAvailabilityRepository extends JpaRepository<EmployeeAv
     @Query("delete from EmployeeAvailability ea where ea.tenantId = :tenantId")
     void deleteForTenant(@Param("tenantId") Integer tenantId);
 
+    @Query("select distinct ea from EmployeeAvailability ea" +
+            " left join fetch ea.employee e" +
+            " where ea.tenantId = :tenantId" +
+            " and ea.endDateTime < :endDateTime" +
+            " order by e.name, ea.startDateTime")
+    List<EmployeeAvailability> findAllByTenantIdEndingBefore(@Param("tenantId") Integer tenantId,
+                                                             @Param("endDateTime") OffsetDateTime endDateTime);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from EmployeeAvailability ea" +
+            " where ea.tenantId = :tenantId" +
+            " and ea.endDateTime < :endDateTime")
+    int deleteForTenantEndingBefore(@Param("tenantId") Integer tenantId,
+                                    @Param("endDateTime") OffsetDateTime endDateTime);
+
     @Query("select distinct ea from EmployeeAvailability ea" +
             " left join fetch ea.employee e" +
             " where ea.tenantId = :tenantId" +
@@ -52,4 +71,20 @@ public interface EmployeeAvailabilityRepository extends JpaRepository<EmployeeAv
                                                   @Param("employeeSet") Set<Employee> employeeSet,
                                                   @Param("startDateTime") OffsetDateTime startDateTime,
                                                   @Param("endDateTime") OffsetDateTime endDateTime);
+
+    // Cursor for the streamed availability roster view: must be consumed (and closed) inside a transaction
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select ea from EmployeeAvailability ea" +
+            " left join fetch ea.employee e" +
+            " where ea.tenantId = :tenantId" +
+            " and ea.employee IN :employeeSet" +
+            " and ea.endDateTime >= :startDateTime" +
+            " and ea.startDateTime < :endDateTime" +
+            " order by e.id, ea.startDateTime")
+    Stream<EmployeeAvailability> streamWithEmployeeOrderedByEmployee(@Param("tenantId") Integer tenantId,
+                                                                     @Param("employeeSet") Set<Employee> employeeSet,
+                                                                     @Param("startDateTime")
+                                                                             OffsetDateTime startDateTime,
+                                                                     @Param("endDateTime")
+                                                                             OffsetDateTime endDateTime);
 }
@@ -24,6 +24,7 @@ import javax.validation.constraints.Min;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityView;
 import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
@@ -104,6 +105,29 @@ public class EmployeeController {
         return new ResponseEntity<>(employeeService.updateEmployee(tenantId, employeeView), HttpStatus.OK);
     }
 
+    @ApiOperation("Add a list of new employees in one transaction, reporting the result of each employee")
+    @PostMapping("/bulk/add")
+    public ResponseEntity<List<BulkItemResult<Employee>>> createEmployees(@PathVariable @Min(0) Integer tenantId,
+                                                                          @RequestBody @Valid
+                                                                                  List<EmployeeView> employeeViewList) {
+        return new ResponseEntity<>(employeeService.createEmployees(tenantId, employeeViewList), HttpStatus.OK);
+    }
+
+    @ApiOperation("Update a list of employees in one transaction, reporting the result of each employee")
+    @PostMapping("/bulk/update")
+    public ResponseEntity<List<BulkItemResult<Employee>>> updateEmployees(@PathVariable @Min(0) Integer tenantId,
+                                                                          @RequestBody @Valid
+                                                                                  List<EmployeeView> employeeViewList) {
+        return new ResponseEntity<>(employeeService.updateEmployees(tenantId, employeeViewList), HttpStatus.OK);
+    }
+
+    @ApiOperation("Delete a list of employees by id in one transaction, reporting the result of each id")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<List<BulkItemResult<Long>>> deleteEmployees(@PathVariable @Min(0) Integer tenantId,
+                                                                      @RequestBody List<Long> idList) {
+        return new ResponseEntity<>(employeeService.deleteEmployees(tenantId, idList), HttpStatus.OK);
+    }
+
     // ************************************************************************
     // EmployeeAvailability
     // ************************************************************************
@@ -141,4 +165,34 @@ public class EmployeeController {
                                                               @PathVariable @Min(0) Long id) {
         return new ResponseEntity<>(employeeService.deleteEmployeeAvailability(tenantId, id), HttpStatus.OK);
     }
+
+    @ApiOperation("Add a list of new employee availabilities in one transaction, " +
+            "reporting the result of each availability")
+    @PostMapping("/availability/bulk/add")
+    public ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> createEmployeeAvailabilities(
+            @PathVariable @Min(0) Integer tenantId,
+            @RequestBody @Valid List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        return new ResponseEntity<>(employeeService.createEmployeeAvailabilities(tenantId,
+                                                                                 employeeAvailabilityViewList),
+                                    HttpStatus.OK);
+    }
+
+    @ApiOperation("Update a list of employee availabilities in one transaction, " +
+            "reporting the result of each availability")
+    @PutMapping("/availability/bulk/update")
+    public ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> updateEmployeeAvailabilities(
+            @PathVariable @Min(0) Integer tenantId,
+            @RequestBody @Valid List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        return new ResponseEntity<>(employeeService.updateEmployeeAvailabilities(tenantId,
+                                                                                 employeeAvailabilityViewList),
+                                    HttpStatus.OK);
+    }
+
+    @ApiOperation("Delete a list of employee availabilities by id in one transaction, " +
+            "reporting the result of each id")
+    @PostMapping("/availability/bulk/delete")
+    public ResponseEntity<List<BulkItemResult<Long>>> deleteEmployeeAvailabilities(
+            @PathVariable @Min(0) Integer tenantId, @RequestBody List<Long> idList) {
+        return new ResponseEntity<>(employeeService.deleteEmployeeAvailabilities(tenantId, idList), HttpStatus.OK);
+    }
 }
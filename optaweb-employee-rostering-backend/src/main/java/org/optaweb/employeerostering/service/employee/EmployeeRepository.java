@@ -16,7 +16,9 @@
 
 package org.optaweb.employeerostering.service.employee;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.springframework.data.domain.Pageable;
@@ -38,6 +40,20 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
             "where e.tenantId = :tenantId and e.name = :name")
     Employee findEmployeeByName(@Param("tenantId") Integer tenantId, @Param("name") String name);
 
+    @Query("select e from Employee e " +
+            "where e.tenantId = :tenantId and e.name in :nameCollection")
+    List<Employee> findAllByTenantIdAndNameIn(@Param("tenantId") Integer tenantId,
+                                              @Param("nameCollection") Collection<String> nameCollection);
+
+    // The employees that cannot be deleted, because a shift, shift template or availability references them
+    @Query("select e.id from Employee e " +
+            "where e in :employeeCollection and (" +
+            "exists (select sa from Shift sa " +
+            "where sa.employee = e or sa.rotationEmployee = e or sa.originalEmployee = e) " +
+            "or exists (select st from ShiftTemplate st where st.rotationEmployee = e) " +
+            "or exists (select ea from EmployeeAvailability ea where ea.employee = e))")
+    Set<Long> findReferencedIdsIn(@Param("employeeCollection") Collection<Employee> employeeCollection);
+
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("delete from Employee e where e.tenantId = :tenantId")
     void deleteForTenant(@Param("tenantId") Integer tenantId);
@@ -18,15 +18,25 @@ package org.optaweb.employeerostering.service.employee;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Stream;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
 
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
 import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityView;
@@ -34,7 +44,9 @@ import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
 import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.skill.Skill;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
+import org.optaweb.employeerostering.service.roster.RosterChange;
 import org.optaweb.employeerostering.service.roster.RosterStateRepository;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.optaweb.employeerostering.util.EmployeeListXlsxFileIO;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
@@ -51,14 +63,22 @@ public class EmployeeService extends AbstractRestService {
 
     private final EmployeeListXlsxFileIO employeeListXlsxFileIO;
 
+    private final RosterVersionService rosterVersionService;
+
+    private final Validator validator;
+
     public EmployeeService(EmployeeRepository employeeRepository,
                            EmployeeAvailabilityRepository employeeAvailabilityRepository,
                            RosterStateRepository rosterStateRepository,
-                           EmployeeListXlsxFileIO employeeListXlsxFileIO) {
+                           EmployeeListXlsxFileIO employeeListXlsxFileIO,
+                           RosterVersionService rosterVersionService,
+                           Validator validator) {
         this.employeeRepository = employeeRepository;
         this.employeeAvailabilityRepository = employeeAvailabilityRepository;
         this.rosterStateRepository = rosterStateRepository;
         this.employeeListXlsxFileIO = employeeListXlsxFileIO;
+        this.rosterVersionService = rosterVersionService;
+        this.validator = validator;
     }
 
     // ************************************************************************
@@ -74,12 +94,12 @@ public class EmployeeService extends AbstractRestService {
         return employee;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Employee> getEmployeeList(Integer tenantId) {
         return employeeRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Employee getEmployee(Integer tenantId, Long id) {
         Employee employee = employeeRepository
                 .findById(id)
@@ -98,6 +118,7 @@ public class EmployeeService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, employeeOptional.get());
+        rosterVersionService.markRosterChanged(tenantId);
         employeeRepository.deleteById(id);
         return true;
     }
@@ -107,6 +128,7 @@ public class EmployeeService extends AbstractRestService {
         Employee employee = convertFromEmployeeView(tenantId, employeeView);
         validateTenantIdParameter(tenantId, employee);
 
+        rosterVersionService.markRosterChanged(tenantId);
         return employeeRepository.save(employee);
     }
 
@@ -124,9 +146,8 @@ public class EmployeeService extends AbstractRestService {
                                                     + ") cannot change tenants.");
         }
 
-        oldEmployee.setName(newEmployee.getName());
-        oldEmployee.setSkillProficiencySet(newEmployee.getSkillProficiencySet());
-        oldEmployee.setContract(newEmployee.getContract());
+        rosterVersionService.markRosterChanged(tenantId);
+        updateEmployeeFields(oldEmployee, newEmployee);
         return employeeRepository.save(oldEmployee);
     }
 
@@ -135,30 +156,45 @@ public class EmployeeService extends AbstractRestService {
         List<EmployeeView> excelEmployeeList = employeeListXlsxFileIO
                 .getEmployeeListFromExcelFile(tenantId, excelInputStream);
 
+        // Fetch the employees once, instead of once per row
+        Map<String, Employee> lowercaseNameToOldEmployeeMap = getEmployeeList(tenantId).stream()
+                .collect(Collectors.toMap(employee -> employee.getName().toLowerCase(), Function.identity(),
+                                          (a, b) -> a));
         final Set<String> addedEmployeeSet = new HashSet<>();
-        excelEmployeeList.stream().flatMap(employee -> {
-            if (addedEmployeeSet.contains(employee.getName().toLowerCase())) {
-                // Duplicate Employee; already in the stream
-                return Stream.empty();
+        List<Employee> newEmployeeList = new ArrayList<>();
+        for (EmployeeView employeeView : excelEmployeeList) {
+            String lowercaseName = employeeView.getName().toLowerCase();
+            if (!addedEmployeeSet.add(lowercaseName)) {
+                // Duplicate Employee; already imported
+                continue;
             }
-            // Add employee to the stream
-            addedEmployeeSet.add(employee.getName().toLowerCase());
-            return Stream.of(employee);
-        }).forEach(employee -> {
-            Employee oldEmployee = employeeRepository.findEmployeeByName(tenantId, employee.getName());
+            Employee oldEmployee = lowercaseNameToOldEmployeeMap.get(lowercaseName);
             if (oldEmployee != null) {
-                employee.setContract(oldEmployee.getContract());
-                employee.setId(oldEmployee.getId());
-                employee.setVersion(oldEmployee.getVersion());
-                updateEmployee(tenantId, employee);
+                // The old employee is managed, so the flush below updates it
+                employeeView.setContract(oldEmployee.getContract());
+                updateEmployeeFields(oldEmployee, convertFromEmployeeView(tenantId, employeeView));
             } else {
-                createEmployee(tenantId, employee);
+                Employee newEmployee = convertFromEmployeeView(tenantId, employeeView);
+                validateTenantIdParameter(tenantId, newEmployee);
+                newEmployeeList.add(newEmployee);
             }
-        });
+        }
 
+        if (!addedEmployeeSet.isEmpty()) {
+            rosterVersionService.markRosterChanged(tenantId);
+            // The inserts and updates are sent in JDBC batches
+            employeeRepository.saveAll(newEmployeeList);
+            employeeRepository.flush();
+        }
         return getEmployeeList(tenantId);
     }
 
+    private void updateEmployeeFields(Employee oldEmployee, Employee newEmployee) {
+        oldEmployee.setName(newEmployee.getName());
+        oldEmployee.setSkillProficiencySet(newEmployee.getSkillProficiencySet());
+        oldEmployee.setContract(newEmployee.getContract());
+    }
+
     protected void validateTenantIdParameter(Integer tenantId, Employee employee) {
         super.validateTenantIdParameter(tenantId, employee);
         for (Skill skill : employee.getSkillProficiencySet()) {
@@ -176,28 +212,37 @@ public class EmployeeService extends AbstractRestService {
     private EmployeeAvailability convertFromEmployeeAvailabilityView(Integer tenantId,
                                                                      EmployeeAvailabilityView
                                                                              employeeAvailabilityView) {
+        RosterState rosterState = rosterStateRepository
+                .findByTenantId(tenantId)
+                .orElseThrow(() -> new EntityNotFoundException("RosterState entity with tenantId (" +
+                                                                       tenantId + ") not found."));
+        return convertFromEmployeeAvailabilityView(tenantId, employeeAvailabilityView, rosterState.getTimeZone(),
+                                                   employeeRepository::findById);
+    }
+
+    private EmployeeAvailability convertFromEmployeeAvailabilityView(Integer tenantId,
+                                                                     EmployeeAvailabilityView
+                                                                             employeeAvailabilityView,
+                                                                     ZoneId zoneId,
+                                                                     Function<Long, Optional<Employee>>
+                                                                             employeeLookup) {
         validateTenantIdParameter(tenantId, employeeAvailabilityView);
 
-        Employee employee = employeeRepository
-                .findById(employeeAvailabilityView.getEmployeeId())
+        Employee employee = employeeLookup
+                .apply(employeeAvailabilityView.getEmployeeId())
                 .orElseThrow(() -> new EntityNotFoundException("Employee entity with ID (" +
                                                                        employeeAvailabilityView.getEmployeeId() +
                                                                        ") not found."));
 
         validateTenantIdParameter(tenantId, employee);
 
-        RosterState rosterState = rosterStateRepository
-                .findByTenantId(tenantId)
-                .orElseThrow(() -> new EntityNotFoundException("RosterState entity with tenantId (" +
-                                                                       tenantId + ") not found."));
-
         EmployeeAvailability employeeAvailability =
-                new EmployeeAvailability(rosterState.getTimeZone(), employeeAvailabilityView, employee);
+                new EmployeeAvailability(zoneId, employeeAvailabilityView, employee);
         employeeAvailability.setState(employeeAvailabilityView.getState());
         return employeeAvailability;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public EmployeeAvailabilityView getEmployeeAvailability(Integer tenantId, Long id) {
         EmployeeAvailability employeeAvailability = employeeAvailabilityRepository
                 .findById(id)
@@ -219,6 +264,7 @@ public class EmployeeService extends AbstractRestService {
         EmployeeAvailability employeeAvailability = convertFromEmployeeAvailabilityView(tenantId,
                                                                                         employeeAvailabilityView);
         employeeAvailabilityRepository.save(employeeAvailability);
+        rosterVersionService.recordRosterChange(tenantId).addChangedEmployeeAvailability(employeeAvailability);
 
         RosterState rosterState = rosterStateRepository
                 .findByTenantId(tenantId)
@@ -245,14 +291,14 @@ public class EmployeeService extends AbstractRestService {
                                                     ") cannot change tenants.");
         }
 
-        oldEmployeeAvailability.setEmployee(newEmployeeAvailability.getEmployee());
-        oldEmployeeAvailability.setStartDateTime(newEmployeeAvailability.getStartDateTime());
-        oldEmployeeAvailability.setEndDateTime(newEmployeeAvailability.getEndDateTime());
-        oldEmployeeAvailability.setState(newEmployeeAvailability.getState());
+        RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+        rosterChange.addAffectedEmployee(oldEmployeeAvailability.getEmployee());
+        updateEmployeeAvailabilityFields(oldEmployeeAvailability, newEmployeeAvailability);
 
         // Flush to increase version number before we duplicate it to EmployeeAvailableView
         EmployeeAvailability updatedEmployeeAvailability =
                 employeeAvailabilityRepository.saveAndFlush(oldEmployeeAvailability);
+        rosterChange.addChangedEmployeeAvailability(updatedEmployeeAvailability);
 
         RosterState rosterState = rosterStateRepository
                 .findByTenantId(tenantId)
@@ -270,7 +316,327 @@ public class EmployeeService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, employeeAvailabilityOptional.get());
+        rosterVersionService.recordRosterChange(tenantId)
+                .addDeletedEmployeeAvailability(employeeAvailabilityOptional.get());
         employeeAvailabilityRepository.deleteById(id);
         return true;
     }
+
+    private void updateEmployeeAvailabilityFields(EmployeeAvailability oldEmployeeAvailability,
+                                                  EmployeeAvailability newEmployeeAvailability) {
+        oldEmployeeAvailability.setEmployee(newEmployeeAvailability.getEmployee());
+        oldEmployeeAvailability.setStartDateTime(newEmployeeAvailability.getStartDateTime());
+        oldEmployeeAvailability.setEndDateTime(newEmployeeAvailability.getEndDateTime());
+        oldEmployeeAvailability.setState(newEmployeeAvailability.getState());
+    }
+
+    // ************************************************************************
+    // Bulk
+    // ************************************************************************
+
+    // The constraints of each item are checked up front, so an invalid item fails alone, instead of failing the flush
+    // of the whole request. Only a concurrent change (such as another request taking the same name) still fails the
+    // whole request.
+
+    private void validateBulkItem(Object item) {
+        Set<ConstraintViolation<Object>> violationSet = validator.validate(item);
+        if (!violationSet.isEmpty()) {
+            throw new IllegalStateException("The item (" + item + ") is invalid (" + violationSet.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", ")) + ").");
+        }
+    }
+
+    /**
+     * @return never null, the ids of the employees of the tenant that have the name of one of the views, by name
+     */
+    private Map<String, Long> getNameToEmployeeIdMap(Integer tenantId, List<EmployeeView> employeeViewList) {
+        Set<String> nameSet = employeeViewList.stream()
+                .map(EmployeeView::getName)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (nameSet.isEmpty()) {
+            return new HashMap<>();
+        }
+        return employeeRepository.findAllByTenantIdAndNameIn(tenantId, nameSet).stream()
+                .collect(Collectors.toMap(Employee::getName, Employee::getId));
+    }
+
+    /**
+     * @param nameToEmployeeIdMap never null, gets the name of the employee, so a later item cannot take it
+     */
+    private void validateUniqueName(Employee employee, Map<String, Long> nameToEmployeeIdMap) {
+        Long employeeIdWithName = nameToEmployeeIdMap.get(employee.getName());
+        // An existing employee can keep its own name
+        if (nameToEmployeeIdMap.containsKey(employee.getName())
+                && (employee.getId() == null || !employee.getId().equals(employeeIdWithName))) {
+            throw new IllegalStateException("Employee entity with name (" + employee.getName()
+                                                    + ") already exists for tenantId (" + employee.getTenantId()
+                                                    + ").");
+        }
+        nameToEmployeeIdMap.put(employee.getName(), employee.getId());
+    }
+
+    @Transactional
+    public List<BulkItemResult<Employee>> createEmployees(Integer tenantId, List<EmployeeView> employeeViewList) {
+        Map<String, Long> nameToEmployeeIdMap = getNameToEmployeeIdMap(tenantId, employeeViewList);
+        List<BulkItemResult<Employee>> resultList = new ArrayList<>(employeeViewList.size());
+        Map<Integer, Employee> indexToEmployeeMap = new LinkedHashMap<>(employeeViewList.size());
+        for (int i = 0; i < employeeViewList.size(); i++) {
+            try {
+                Employee employee = convertFromEmployeeView(tenantId, employeeViewList.get(i));
+                validateTenantIdParameter(tenantId, employee);
+                validateBulkItem(employee);
+                validateUniqueName(employee, nameToEmployeeIdMap);
+                indexToEmployeeMap.put(i, employee);
+            } catch (IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToEmployeeMap.isEmpty()) {
+            rosterVersionService.markRosterChanged(tenantId);
+            List<Employee> persistedEmployeeList = employeeRepository.saveAll(indexToEmployeeMap.values());
+            employeeRepository.flush();
+            int persistedIndex = 0;
+            for (Integer index : indexToEmployeeMap.keySet()) {
+                resultList.add(BulkItemResult.success(index, persistedEmployeeList.get(persistedIndex++)));
+            }
+        }
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    @Transactional
+    public List<BulkItemResult<Employee>> updateEmployees(Integer tenantId, List<EmployeeView> employeeViewList) {
+        Map<String, Long> nameToEmployeeIdMap = getNameToEmployeeIdMap(tenantId, employeeViewList);
+        Map<Long, Employee> oldEmployeeMap = employeeRepository.findAllById(employeeViewList.stream()
+                                                                                    .map(EmployeeView::getId)
+                                                                                    .filter(Objects::nonNull)
+                                                                                    .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<BulkItemResult<Employee>> resultList = new ArrayList<>(employeeViewList.size());
+        List<BulkItemResult<Employee>> successResultList = new ArrayList<>(employeeViewList.size());
+        for (int i = 0; i < employeeViewList.size(); i++) {
+            try {
+                Employee newEmployee = convertFromEmployeeView(tenantId, employeeViewList.get(i));
+                Employee oldEmployee = oldEmployeeMap.get(newEmployee.getId());
+                if (oldEmployee == null) {
+                    throw new EntityNotFoundException("Employee entity with ID (" + newEmployee.getId() +
+                                                              ") not found.");
+                }
+                if (!oldEmployee.getTenantId().equals(newEmployee.getTenantId())) {
+                    throw new IllegalStateException("Employee entity with tenantId (" + oldEmployee.getTenantId()
+                                                            + ") cannot change tenants.");
+                }
+                // Before the managed employee changes, so an invalid item is never flushed
+                validateBulkItem(newEmployee);
+                validateUniqueName(newEmployee, nameToEmployeeIdMap);
+                updateEmployeeFields(oldEmployee, newEmployee);
+                successResultList.add(BulkItemResult.success(i, oldEmployee));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!successResultList.isEmpty()) {
+            rosterVersionService.markRosterChanged(tenantId);
+            // Flush to increase the version numbers before they are returned
+            employeeRepository.flush();
+        }
+        resultList.addAll(successResultList);
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    @Transactional
+    public List<BulkItemResult<Long>> deleteEmployees(Integer tenantId, List<Long> idList) {
+        Map<Long, Employee> employeeMap = employeeRepository.findAllById(new HashSet<>(idList))
+                .stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<BulkItemResult<Long>> resultList = new ArrayList<>(idList.size());
+        Map<Integer, Employee> indexToEmployeeMap = new LinkedHashMap<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            Long id = idList.get(i);
+            Employee employee = employeeMap.get(id);
+            try {
+                if (employee == null) {
+                    throw new EntityNotFoundException("No Employee entity found with ID (" + id + ").");
+                }
+                validateTenantIdParameter(tenantId, employee);
+                indexToEmployeeMap.put(i, employee);
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToEmployeeMap.isEmpty()) {
+            // Checked up front, as deleting a referenced employee violates a foreign key and fails the whole flush
+            Set<Long> referencedIdSet = employeeRepository.findReferencedIdsIn(
+                    new HashSet<>(indexToEmployeeMap.values()));
+            Set<Employee> deletedEmployeeSet = new HashSet<>(indexToEmployeeMap.size());
+            indexToEmployeeMap.forEach((index, employee) -> {
+                if (referencedIdSet.contains(employee.getId())) {
+                    resultList.add(BulkItemResult.failure(
+                            index, "Employee entity with ID (" + employee.getId() + ") cannot be deleted, because "
+                                    + "shifts, shift templates or availabilities reference it."));
+                } else {
+                    deletedEmployeeSet.add(employee);
+                    resultList.add(BulkItemResult.success(index, employee.getId()));
+                }
+            });
+            if (!deletedEmployeeSet.isEmpty()) {
+                rosterVersionService.markRosterChanged(tenantId);
+                employeeRepository.deleteAll(deletedEmployeeSet);
+                employeeRepository.flush();
+            }
+        }
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    /**
+     * Converts (and validates) availability views with the employees of the tenant fetched once up front.
+     */
+    private Function<EmployeeAvailabilityView, EmployeeAvailability> getBulkEmployeeAvailabilityConverter(
+            Integer tenantId, ZoneId zoneId) {
+        Map<Long, Employee> employeeMap = employeeRepository
+                .findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE))
+                .stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        return employeeAvailabilityView -> {
+            // The view first, as its null fields fail the conversion
+            validateBulkItem(employeeAvailabilityView);
+            EmployeeAvailability employeeAvailability = convertFromEmployeeAvailabilityView(
+                    tenantId, employeeAvailabilityView, zoneId,
+                    employeeId -> Optional.ofNullable(employeeMap.get(employeeId)));
+            validateBulkItem(employeeAvailability);
+            return employeeAvailability;
+        };
+    }
+
+    private ZoneId getTimeZone(Integer tenantId) {
+        return rosterStateRepository
+                .findByTenantId(tenantId)
+                .orElseThrow(() -> new EntityNotFoundException("No RosterState entity found with tenantId (" +
+                                                                       tenantId + ")."))
+                .getTimeZone();
+    }
+
+    @Transactional
+    public List<BulkItemResult<EmployeeAvailabilityView>> createEmployeeAvailabilities(
+            Integer tenantId, List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        ZoneId zoneId = getTimeZone(tenantId);
+        Function<EmployeeAvailabilityView, EmployeeAvailability> employeeAvailabilityConverter =
+                getBulkEmployeeAvailabilityConverter(tenantId, zoneId);
+        List<BulkItemResult<EmployeeAvailabilityView>> resultList =
+                new ArrayList<>(employeeAvailabilityViewList.size());
+        Map<Integer, EmployeeAvailability> indexToEmployeeAvailabilityMap =
+                new LinkedHashMap<>(employeeAvailabilityViewList.size());
+        for (int i = 0; i < employeeAvailabilityViewList.size(); i++) {
+            try {
+                indexToEmployeeAvailabilityMap.put(i, employeeAvailabilityConverter.apply(
+                        employeeAvailabilityViewList.get(i)));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToEmployeeAvailabilityMap.isEmpty()) {
+            List<EmployeeAvailability> persistedEmployeeAvailabilityList =
+                    employeeAvailabilityRepository.saveAll(indexToEmployeeAvailabilityMap.values());
+            employeeAvailabilityRepository.flush();
+            RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+            persistedEmployeeAvailabilityList.forEach(rosterChange::addChangedEmployeeAvailability);
+            int persistedIndex = 0;
+            for (Integer index : indexToEmployeeAvailabilityMap.keySet()) {
+                resultList.add(BulkItemResult.success(index, new EmployeeAvailabilityView(
+                        zoneId, persistedEmployeeAvailabilityList.get(persistedIndex++))));
+            }
+        }
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    @Transactional
+    public List<BulkItemResult<EmployeeAvailabilityView>> updateEmployeeAvailabilities(
+            Integer tenantId, List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        ZoneId zoneId = getTimeZone(tenantId);
+        Function<EmployeeAvailabilityView, EmployeeAvailability> employeeAvailabilityConverter =
+                getBulkEmployeeAvailabilityConverter(tenantId, zoneId);
+        Map<Long, EmployeeAvailability> oldEmployeeAvailabilityMap = employeeAvailabilityRepository
+                .findAllById(employeeAvailabilityViewList.stream()
+                                     .map(EmployeeAvailabilityView::getId)
+                                     .filter(Objects::nonNull)
+                                     .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(EmployeeAvailability::getId, Function.identity()));
+        List<BulkItemResult<EmployeeAvailabilityView>> resultList =
+                new ArrayList<>(employeeAvailabilityViewList.size());
+        Map<Integer, EmployeeAvailability> indexToEmployeeAvailabilityMap =
+                new LinkedHashMap<>(employeeAvailabilityViewList.size());
+        RosterChange rosterChange = new RosterChange();
+        for (int i = 0; i < employeeAvailabilityViewList.size(); i++) {
+            try {
+                EmployeeAvailability newEmployeeAvailability = employeeAvailabilityConverter.apply(
+                        employeeAvailabilityViewList.get(i));
+                EmployeeAvailability oldEmployeeAvailability =
+                        oldEmployeeAvailabilityMap.get(newEmployeeAvailability.getId());
+                if (oldEmployeeAvailability == null) {
+                    throw new EntityNotFoundException("EmployeeAvailability entity with ID (" +
+                                                              newEmployeeAvailability.getId() + ") not found.");
+                }
+                if (!oldEmployeeAvailability.getTenantId().equals(newEmployeeAvailability.getTenantId())) {
+                    throw new IllegalStateException("EmployeeAvailability entity with tenantId (" +
+                                                            newEmployeeAvailability.getTenantId() +
+                                                            ") cannot change tenants.");
+                }
+                rosterChange.addAffectedEmployee(oldEmployeeAvailability.getEmployee());
+                updateEmployeeAvailabilityFields(oldEmployeeAvailability, newEmployeeAvailability);
+                rosterChange.addChangedEmployeeAvailability(oldEmployeeAvailability);
+                indexToEmployeeAvailabilityMap.put(i, oldEmployeeAvailability);
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToEmployeeAvailabilityMap.isEmpty()) {
+            rosterVersionService.recordRosterChange(tenantId).merge(rosterChange);
+            // Flush to increase the version numbers before we duplicate them to the EmployeeAvailabilityViews
+            employeeAvailabilityRepository.flush();
+            indexToEmployeeAvailabilityMap.forEach((index, employeeAvailability) -> resultList.add(
+                    BulkItemResult.success(index, new EmployeeAvailabilityView(zoneId, employeeAvailability))));
+        }
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    @Transactional
+    public List<BulkItemResult<Long>> deleteEmployeeAvailabilities(Integer tenantId, List<Long> idList) {
+        Map<Long, EmployeeAvailability> employeeAvailabilityMap = employeeAvailabilityRepository
+                .findAllById(new HashSet<>(idList))
+                .stream().collect(Collectors.toMap(EmployeeAvailability::getId, Function.identity()));
+        List<BulkItemResult<Long>> resultList = new ArrayList<>(idList.size());
+        Set<EmployeeAvailability> deletedEmployeeAvailabilitySet = new HashSet<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            Long id = idList.get(i);
+            EmployeeAvailability employeeAvailability = employeeAvailabilityMap.get(id);
+            try {
+                if (employeeAvailability == null) {
+                    throw new EntityNotFoundException("No EmployeeAvailability entity found with ID (" + id + ").");
+                }
+                validateTenantIdParameter(tenantId, employeeAvailability);
+                deletedEmployeeAvailabilitySet.add(employeeAvailability);
+                resultList.add(BulkItemResult.success(i, id));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!deletedEmployeeAvailabilitySet.isEmpty()) {
+            RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+            deletedEmployeeAvailabilitySet.forEach(rosterChange::addDeletedEmployeeAvailability);
+            employeeAvailabilityRepository.deleteAll(deletedEmployeeAvailabilitySet);
+            employeeAvailabilityRepository.flush();
+        }
+        return resultList;
+    }
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.job;
+
+import java.util.List;
+
+import javax.validation.constraints.Min;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.Assert;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/rest/job")
+@CrossOrigin
+@Validated
+@Api(tags = "Background job")
+public class BackgroundJobController {
+
+    private final BackgroundJobService backgroundJobService;
+
+    public BackgroundJobController(BackgroundJobService backgroundJobService) {
+        this.backgroundJobService = backgroundJobService;
+        Assert.notNull(backgroundJobService, "backgroundJobService must not be null.");
+    }
+
+    @ApiOperation("Get a list of the running and recently finished background jobs")
+    @GetMapping("/")
+    public ResponseEntity<List<BackgroundJob>> getJobList() {
+        return new ResponseEntity<>(backgroundJobService.getJobList(), HttpStatus.OK);
+    }
+
+    @ApiOperation("Get the status and progress of a background job")
+    @GetMapping("/{id}")
+    public ResponseEntity<BackgroundJob> getJob(@PathVariable @Min(0) Long id) {
+        return new ResponseEntity<>(backgroundJobService.getJob(id), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityNotFoundException;
+
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs long operations (such as deleting a tenant) on a small dedicated thread pool,
+ * so they neither time out the HTTP request that starts them nor compete with the solver threads.
+ * The jobs of this node are kept in memory, including the last finished ones for the status endpoints.
+ */
+@Service
+public class BackgroundJobService {
+
+    private static final int MAX_FINISHED_JOB_COUNT = 100;
+
+    protected final transient Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final AtomicLong jobIdGenerator = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, BackgroundJob> jobMap = new ConcurrentSkipListMap<>();
+    private final ThreadPoolTaskExecutor taskExecutor;
+
+    public BackgroundJobService(@Value("${optaweb.job.pool-size:2}") int poolSize) {
+        taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(poolSize);
+        taskExecutor.setMaxPoolSize(poolSize);
+        taskExecutor.setThreadNamePrefix("background-job-");
+        taskExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        taskExecutor.shutdown();
+    }
+
+    public synchronized BackgroundJob submit(BackgroundJobType type, Integer tenantId, Consumer<BackgroundJob> work) {
+        for (BackgroundJob job : jobMap.values()) {
+            if (!job.isFinished() && job.getType() == type && Objects.equals(job.getTenantId(), tenantId)) {
+                throw new IllegalStateException("The " + job + " is already running for tenantId (" + tenantId
+                                                        + ").");
+            }
+        }
+        removeOldFinishedJobs();
+
+        BackgroundJob job = new BackgroundJob(jobIdGenerator.incrementAndGet(), type, tenantId);
+        jobMap.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            logger.info("Starting {} for tenantId ({}).", job, tenantId);
+            job.start();
+            try {
+                work.accept(job);
+                job.complete();
+                logger.info("Completed {} for tenantId ({}).", job, tenantId);
+            } catch (RuntimeException e) {
+                logger.error("Error running " + job + " for tenantId (" + tenantId + ").", e);
+                job.fail(e.getMessage());
+            } catch (Error e) {
+                // Otherwise the job stays running forever and blocks the next job of its type
+                logger.error("Error running " + job + " for tenantId (" + tenantId + ").", e);
+                job.fail(e.toString());
+                throw e;
+            }
+        });
+        return job;
+    }
+
+    private void removeOldFinishedJobs() {
+        List<Long> finishedJobIdList = new ArrayList<>();
+        jobMap.forEach((id, job) -> {
+            if (job.isFinished()) {
+                finishedJobIdList.add(id);
+            }
+        });
+        // The ids increase, so the oldest jobs come first
+        for (int i = 0; i < finishedJobIdList.size() - MAX_FINISHED_JOB_COUNT; i++) {
+            jobMap.remove(finishedJobIdList.get(i));
+        }
+    }
+
+    public List<BackgroundJob> getJobList() {
+        return new ArrayList<>(jobMap.values());
+    }
+
+    public BackgroundJob getJob(Long id) {
+        BackgroundJob job = jobMap.get(id);
+        if (job == null) {
+            throw new EntityNotFoundException("No BackgroundJob found with ID (" + id + ").");
+        }
+        return job;
+    }
+
+    public boolean isTenantBeingDeleted(Integer tenantId) {
+        return jobMap.values().stream()
+                .anyMatch(job -> !job.isFinished() && job.getType() == BackgroundJobType.TENANT_DELETION
+                        && job.getTenantId().equals(tenantId));
+    }
+}
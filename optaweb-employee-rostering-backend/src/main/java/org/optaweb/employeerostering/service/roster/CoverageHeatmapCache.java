@@ -0,0 +1,101 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.optaweb.employeerostering.domain.roster.view.CoverageHeatmapView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The coverage heatmaps of the latest roster version of each tenant that a heatmap was requested for.
+ * Bounded per tenant: all heatmaps of a tenant are dropped when a newer roster version is computed
+ * or when more than the maximum number of date ranges is cached.
+ */
+@Component
+public class CoverageHeatmapCache {
+
+    private final int maximumSize;
+    private final ConcurrentMap<Integer, TenantCoverageHeatmaps> tenantIdToHeatmapsMap = new ConcurrentHashMap<>();
+
+    public CoverageHeatmapCache(@Value("${optaweb.coverage-heatmap.cache-size:16}") int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * @param tenantId never null
+     * @param rosterVersion null never hits
+     * @return null if the heatmap of that roster version and date range is not cached
+     */
+    public CoverageHeatmapView get(Integer tenantId, Long rosterVersion, LocalDate startDate, LocalDate endDate) {
+        if (rosterVersion == null) {
+            return null;
+        }
+        TenantCoverageHeatmaps heatmaps = tenantIdToHeatmapsMap.get(tenantId);
+        if (heatmaps == null || heatmaps.rosterVersion != rosterVersion) {
+            return null;
+        }
+        return heatmaps.dateRangeToHeatmapMap.get(Arrays.asList(startDate, endDate));
+    }
+
+    /**
+     * Ignores the heatmap if a newer roster version is already cached, in case a slow request computed an older one.
+     * @param coverageHeatmapView never null
+     */
+    public void put(CoverageHeatmapView coverageHeatmapView) {
+        Long rosterVersion = coverageHeatmapView.getRosterVersion();
+        if (rosterVersion == null) {
+            return;
+        }
+        tenantIdToHeatmapsMap.compute(coverageHeatmapView.getTenantId(), (tenantId, heatmaps) -> {
+            if (heatmaps != null && heatmaps.rosterVersion > rosterVersion) {
+                return heatmaps;
+            }
+            if (heatmaps == null || heatmaps.rosterVersion < rosterVersion
+                    || heatmaps.dateRangeToHeatmapMap.size() >= maximumSize) {
+                heatmaps = new TenantCoverageHeatmaps(rosterVersion);
+            }
+            heatmaps.dateRangeToHeatmapMap.put(Arrays.asList(coverageHeatmapView.getStartDate(),
+                                                             coverageHeatmapView.getEndDate()), coverageHeatmapView);
+            return heatmaps;
+        });
+    }
+
+    public void forgetTenant(Integer tenantId) {
+        tenantIdToHeatmapsMap.remove(tenantId);
+    }
+
+    public void forgetAllTenants() {
+        tenantIdToHeatmapsMap.clear();
+    }
+
+    private static final class TenantCoverageHeatmaps {
+
+        private final long rosterVersion;
+        private final ConcurrentMap<List<LocalDate>, CoverageHeatmapView> dateRangeToHeatmapMap =
+                new ConcurrentHashMap<>();
+
+        private TenantCoverageHeatmaps(long rosterVersion) {
+            this.rosterVersion = rosterVersion;
+        }
+    }
+}
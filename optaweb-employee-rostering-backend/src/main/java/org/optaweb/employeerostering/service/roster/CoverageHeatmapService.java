@@ -0,0 +1,173 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.optaweb.employeerostering.domain.roster.RosterState;
+import org.optaweb.employeerostering.domain.roster.view.CoverageHeatmapView;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.service.shift.ShiftRepository;
+import org.optaweb.employeerostering.service.spot.SpotRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Counts, per spot and per hour, the required and assigned shifts and the skill gaps of a date range,
+ * in a single pass over a cursor of its shifts, into one int array per spot and count.
+ * The heatmaps are cached per roster version, as they only change when the roster does.
+ */
+@Service
+public class CoverageHeatmapService {
+
+    private static final long SECONDS_PER_HOUR = Duration.ofHours(1).getSeconds();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RosterService rosterService;
+    private final SpotRepository spotRepository;
+    private final ShiftRepository shiftRepository;
+    private final CoverageHeatmapCache coverageHeatmapCache;
+    private final int maximumDayCount;
+
+    public CoverageHeatmapService(RosterService rosterService, SpotRepository spotRepository,
+                                  ShiftRepository shiftRepository, CoverageHeatmapCache coverageHeatmapCache,
+                                  @Value("${optaweb.coverage-heatmap.max-days:93}") int maximumDayCount) {
+        this.rosterService = rosterService;
+        this.spotRepository = spotRepository;
+        this.shiftRepository = shiftRepository;
+        this.coverageHeatmapCache = coverageHeatmapCache;
+        this.maximumDayCount = maximumDayCount;
+    }
+
+    /**
+     * @param tenantId never null
+     * @param startDateString inclusive
+     * @param endDateString exclusive
+     * @return never null
+     */
+    @Transactional(readOnly = true)
+    public CoverageHeatmapView getCoverageHeatmapView(Integer tenantId, String startDateString,
+                                                      String endDateString) {
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("The endDate (" + endDate + ") must be after the startDate ("
+                                                       + startDate + ").");
+        }
+        if (startDate.plusDays(maximumDayCount).isBefore(endDate)) {
+            throw new IllegalArgumentException("The date range (" + startDate + " to " + endDate
+                                                       + ") must not be longer than (" + maximumDayCount
+                                                       + ") days.");
+        }
+        RosterState rosterState = rosterService.getRosterState(tenantId);
+        CoverageHeatmapView coverageHeatmapView = coverageHeatmapCache.get(tenantId, rosterState.getRosterVersion(),
+                                                                           startDate, endDate);
+        if (coverageHeatmapView == null) {
+            coverageHeatmapView = computeCoverageHeatmapView(tenantId, startDate, endDate, rosterState);
+            coverageHeatmapCache.put(coverageHeatmapView);
+        }
+        return coverageHeatmapView;
+    }
+
+    private CoverageHeatmapView computeCoverageHeatmapView(Integer tenantId, LocalDate startDate, LocalDate endDate,
+                                                           RosterState rosterState) {
+        ZoneId timeZone = rosterState.getTimeZone();
+        OffsetDateTime startDateTime = startDate.atStartOfDay(timeZone).toOffsetDateTime();
+        OffsetDateTime endDateTime = endDate.atStartOfDay(timeZone).toOffsetDateTime();
+        // Not the day count times 24, as a day with a daylight saving time transition is shorter or longer
+        int hourCount = (int) Duration.between(startDateTime, endDateTime).toHours();
+        long startEpochSecond = startDateTime.toEpochSecond();
+
+        List<Spot> spotList = spotRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE));
+        Map<Long, Integer> spotIdToIndexMap = new HashMap<>(spotList.size() * 2);
+        for (int i = 0; i < spotList.size(); i++) {
+            spotIdToIndexMap.put(spotList.get(i).getId(), i);
+        }
+        int[][] requiredShiftCounts = new int[spotList.size()][hourCount];
+        int[][] assignedShiftCounts = new int[spotList.size()][hourCount];
+        int[][] skillGapCounts = new int[spotList.size()][hourCount];
+
+        try (Stream<Shift> shiftStream = shiftRepository.streamAllByTenantIdBetweenDates(tenantId, startDateTime,
+                                                                                         endDateTime)) {
+            for (Iterator<Shift> shiftIterator = shiftStream.iterator(); shiftIterator.hasNext(); ) {
+                Shift shift = shiftIterator.next();
+                Integer spotIndex = spotIdToIndexMap.get(shift.getSpot().getId());
+                if (spotIndex == null) {
+                    throw new IllegalStateException("The shift (" + shift + ")'s spot (" + shift.getSpot()
+                                                            + ") is not a spot of the tenant (" + tenantId + ").");
+                }
+                int fromHour = (int) Math.max(0L, Math.floorDiv(
+                        shift.getStartDateTime().toEpochSecond() - startEpochSecond, SECONDS_PER_HOUR));
+                // Rounded up, so a shift that ends half way an hour counts in that hour
+                int toHour = (int) Math.min(hourCount, Math.floorDiv(
+                        shift.getEndDateTime().toEpochSecond() - startEpochSecond + SECONDS_PER_HOUR - 1,
+                        SECONDS_PER_HOUR));
+                boolean assigned = shift.getEmployee() != null;
+                boolean skillGap = assigned && !shift.hasRequiredSkills();
+                int[] spotRequiredShiftCounts = requiredShiftCounts[spotIndex];
+                int[] spotAssignedShiftCounts = assignedShiftCounts[spotIndex];
+                int[] spotSkillGapCounts = skillGapCounts[spotIndex];
+                for (int hour = fromHour; hour < toHour; hour++) {
+                    spotRequiredShiftCounts[hour]++;
+                    if (assigned) {
+                        spotAssignedShiftCounts[hour]++;
+                        if (skillGap) {
+                            spotSkillGapCounts[hour]++;
+                        }
+                    }
+                }
+                // Counted, so the persistence context needs not keep it
+                entityManager.detach(shift);
+            }
+        }
+
+        CoverageHeatmapView coverageHeatmapView = new CoverageHeatmapView(tenantId, startDate, endDate);
+        coverageHeatmapView.setStartDateTime(startDateTime);
+        coverageHeatmapView.setHourCount(hourCount);
+        coverageHeatmapView.setSpotList(spotList);
+        coverageHeatmapView.setRosterVersion(rosterState.getRosterVersion());
+        coverageHeatmapView.setSpotIdToRequiredShiftCountsMap(toSpotIdMap(spotList, requiredShiftCounts));
+        coverageHeatmapView.setSpotIdToAssignedShiftCountsMap(toSpotIdMap(spotList, assignedShiftCounts));
+        coverageHeatmapView.setSpotIdToSkillGapCountsMap(toSpotIdMap(spotList, skillGapCounts));
+        return coverageHeatmapView;
+    }
+
+    private static Map<Long, int[]> toSpotIdMap(List<Spot> spotList, int[][] counts) {
+        Map<Long, int[]> spotIdToCountsMap = new LinkedHashMap<>(spotList.size() * 2);
+        for (int i = 0; i < spotList.size(); i++) {
+            spotIdToCountsMap.put(spotList.get(i).getId(), counts[i]);
+        }
+        return spotIdToCountsMap;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * What one transaction (or a range of roster versions) changed in the roster of a tenant,
+ * in enough detail to send clients only the affected shifts and availabilities.
+ * Changes to anything else (spots, employees, skills, the roster state, ...) require a full view instead.
+ */
+public class RosterChange {
+
+    private boolean fullViewRequired = false;
+    private final Set<Long> changedShiftIdSet = new HashSet<>();
+    private final Set<Long> deletedShiftIdSet = new HashSet<>();
+    private final Set<Long> changedEmployeeAvailabilityIdSet = new HashSet<>();
+    private final Set<Long> deletedEmployeeAvailabilityIdSet = new HashSet<>();
+    // The indictments of all shifts of these employees may have changed (overlaps, rest time, contract minutes, ...)
+    private final Set<Long> affectedEmployeeIdSet = new HashSet<>();
+
+    public void requireFullView() {
+        fullViewRequired = true;
+    }
+
+    /**
+     * @param shift never null, after its id has been assigned
+     */
+    public void addChangedShift(Shift shift) {
+        changedShiftIdSet.add(shift.getId());
+        deletedShiftIdSet.remove(shift.getId());
+        addAffectedEmployee(shift.getEmployee());
+    }
+
+    public void addDeletedShift(Shift shift) {
+        deletedShiftIdSet.add(shift.getId());
+        changedShiftIdSet.remove(shift.getId());
+        addAffectedEmployee(shift.getEmployee());
+    }
+
+    /**
+     * @param employeeAvailability never null, after its id has been assigned
+     */
+    public void addChangedEmployeeAvailability(EmployeeAvailability employeeAvailability) {
+        changedEmployeeAvailabilityIdSet.add(employeeAvailability.getId());
+        deletedEmployeeAvailabilityIdSet.remove(employeeAvailability.getId());
+        addAffectedEmployee(employeeAvailability.getEmployee());
+    }
+
+    public void addDeletedEmployeeAvailability(EmployeeAvailability employeeAvailability) {
+        deletedEmployeeAvailabilityIdSet.add(employeeAvailability.getId());
+        changedEmployeeAvailabilityIdSet.remove(employeeAvailability.getId());
+        addAffectedEmployee(employeeAvailability.getEmployee());
+    }
+
+    /**
+     * For the employee a shift or availability had before it changed.
+     * @param employee sometimes null
+     */
+    public void addAffectedEmployee(Employee employee) {
+        if (employee != null) {
+            addAffectedEmployeeId(employee.getId());
+        }
+    }
+
+    public void addAffectedEmployeeId(Long employeeId) {
+        if (employeeId != null) {
+            affectedEmployeeIdSet.add(employeeId);
+        }
+    }
+
+    /**
+     * @param laterRosterChange never null, the changes of a later roster version
+     */
+    public void merge(RosterChange laterRosterChange) {
+        fullViewRequired |= laterRosterChange.fullViewRequired;
+        laterRosterChange.changedShiftIdSet.forEach(deletedShiftIdSet::remove);
+        changedShiftIdSet.addAll(laterRosterChange.changedShiftIdSet);
+        laterRosterChange.deletedShiftIdSet.forEach(changedShiftIdSet::remove);
+        deletedShiftIdSet.addAll(laterRosterChange.deletedShiftIdSet);
+        laterRosterChange.changedEmployeeAvailabilityIdSet.forEach(deletedEmployeeAvailabilityIdSet::remove);
+        changedEmployeeAvailabilityIdSet.addAll(laterRosterChange.changedEmployeeAvailabilityIdSet);
+        laterRosterChange.deletedEmployeeAvailabilityIdSet.forEach(changedEmployeeAvailabilityIdSet::remove);
+        deletedEmployeeAvailabilityIdSet.addAll(laterRosterChange.deletedEmployeeAvailabilityIdSet);
+        affectedEmployeeIdSet.addAll(laterRosterChange.affectedEmployeeIdSet);
+    }
+
+    public int getChangedIdCount() {
+        return changedShiftIdSet.size() + deletedShiftIdSet.size() + changedEmployeeAvailabilityIdSet.size()
+                + deletedEmployeeAvailabilityIdSet.size() + affectedEmployeeIdSet.size();
+    }
+
+    // ************************************************************************
+    // Simple getters
+    // ************************************************************************
+
+    public boolean isFullViewRequired() {
+        return fullViewRequired;
+    }
+
+    public Set<Long> getChangedShiftIdSet() {
+        return changedShiftIdSet;
+    }
+
+    public Set<Long> getDeletedShiftIdSet() {
+        return deletedShiftIdSet;
+    }
+
+    public Set<Long> getChangedEmployeeAvailabilityIdSet() {
+        return changedEmployeeAvailabilityIdSet;
+    }
+
+    public Set<Long> getDeletedEmployeeAvailabilityIdSet() {
+        return deletedEmployeeAvailabilityIdSet;
+    }
+
+    public Set<Long> getAffectedEmployeeIdSet() {
+        return affectedEmployeeIdSet;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The changes of the latest roster versions of each tenant committed through this node,
+ * so clients can catch up on a roster version without downloading the full view again.
+ * Bounded per tenant: older versions are dropped, after which clients that lag further behind get a full view.
+ */
+@Component
+public class RosterChangeLog {
+
+    // Bigger changes are cheaper to send as a full view than to look up one by one
+    private static final int MAX_CHANGED_ID_COUNT = 1000;
+
+    private final int maximumSize;
+    private final ConcurrentMap<Integer, TreeMap<Long, RosterChange>> tenantIdToVersionToChangeMap =
+            new ConcurrentHashMap<>();
+
+    public RosterChangeLog(@Value("${optaweb.roster.change-log.size:100}") int maximumSize) {
+        this.maximumSize = maximumSize;
+    }
+
+    public void append(Integer tenantId, Long rosterVersion, RosterChange rosterChange) {
+        RosterChange loggedRosterChange = rosterChange;
+        if (rosterChange.getChangedIdCount() > MAX_CHANGED_ID_COUNT) {
+            loggedRosterChange = new RosterChange();
+            loggedRosterChange.requireFullView();
+        }
+        TreeMap<Long, RosterChange> versionToChangeMap =
+                tenantIdToVersionToChangeMap.computeIfAbsent(tenantId, k -> new TreeMap<>());
+        synchronized (versionToChangeMap) {
+            versionToChangeMap.put(rosterVersion, loggedRosterChange);
+            while (versionToChangeMap.size() > maximumSize) {
+                versionToChangeMap.pollFirstEntry();
+            }
+        }
+    }
+
+    /**
+     * @param tenantId never null
+     * @param fromRosterVersion exclusive
+     * @param toRosterVersion inclusive
+     * @return empty if a roster version in between is no longer (or was never) logged on this node,
+     * or if it changed more than the log describes
+     */
+    public Optional<RosterChange> getRosterChange(Integer tenantId, long fromRosterVersion, long toRosterVersion) {
+        if (fromRosterVersion > toRosterVersion) {
+            return Optional.empty();
+        }
+        RosterChange mergedRosterChange = new RosterChange();
+        if (fromRosterVersion == toRosterVersion) {
+            return Optional.of(mergedRosterChange);
+        }
+        TreeMap<Long, RosterChange> versionToChangeMap = tenantIdToVersionToChangeMap.get(tenantId);
+        if (versionToChangeMap == null) {
+            return Optional.empty();
+        }
+        synchronized (versionToChangeMap) {
+            for (long rosterVersion = fromRosterVersion + 1; rosterVersion <= toRosterVersion; rosterVersion++) {
+                RosterChange rosterChange = versionToChangeMap.get(rosterVersion);
+                if (rosterChange == null || rosterChange.isFullViewRequired()) {
+                    return Optional.empty();
+                }
+                mergedRosterChange.merge(rosterChange);
+            }
+        }
+        return Optional.of(mergedRosterChange);
+    }
+
+    public void forgetTenant(Integer tenantId) {
+        tenantIdToVersionToChangeMap.remove(tenantId);
+    }
+
+    public void forgetAllTenants() {
+        tenantIdToVersionToChangeMap.clear();
+    }
+}
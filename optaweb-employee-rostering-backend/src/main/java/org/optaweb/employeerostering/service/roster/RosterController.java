@@ -16,12 +16,15 @@
 
 package org.optaweb.employeerostering.service.roster;
 
-import java.io.IOException;
+import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
 
@@ -31,15 +34,20 @@ import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.roster.PublishResult;
 import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.roster.view.AvailabilityRosterView;
+import org.optaweb.employeerostering.domain.roster.view.CoverageHeatmapView;
+import org.optaweb.employeerostering.domain.roster.view.ShiftRosterDeltaView;
 import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.view.ReplanScopeView;
 import org.optaweb.employeerostering.domain.spot.Spot;
 import org.optaweb.employeerostering.service.solver.SolverStatus;
 import org.optaweb.employeerostering.service.spot.SpotRepository;
-import org.optaweb.employeerostering.util.ShiftRosterXlsxFileIO;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.ContentDisposition;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.util.Assert;
 import org.springframework.validation.annotation.Validated;
@@ -51,6 +59,9 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/rest/tenant/{tenantId}/roster")
@@ -61,12 +72,79 @@ public class RosterController {
 
     private final RosterService rosterService;
     private final SpotRepository spotRepository;
+    private final RosterVersionService rosterVersionService;
+    private final RosterViewStreamingService rosterViewStreamingService;
+    private final CoverageHeatmapService coverageHeatmapService;
+    private final RosterViewRequestCoalescer rosterViewRequestCoalescer;
 
-    public RosterController(RosterService rosterService, SpotRepository spotRepository) {
+    public RosterController(RosterService rosterService, SpotRepository spotRepository,
+                            RosterVersionService rosterVersionService,
+                            RosterViewStreamingService rosterViewStreamingService,
+                            CoverageHeatmapService coverageHeatmapService,
+                            RosterViewRequestCoalescer rosterViewRequestCoalescer) {
         this.rosterService = rosterService;
         Assert.notNull(rosterService, "rosterService must not be null.");
         this.spotRepository = spotRepository;
         Assert.notNull(spotRepository, "spotRepository must not be null.");
+        this.rosterVersionService = rosterVersionService;
+        Assert.notNull(rosterVersionService, "rosterVersionService must not be null.");
+        this.rosterViewStreamingService = rosterViewStreamingService;
+        Assert.notNull(rosterViewStreamingService, "rosterViewStreamingService must not be null.");
+        this.coverageHeatmapService = coverageHeatmapService;
+        Assert.notNull(coverageHeatmapService, "coverageHeatmapService must not be null.");
+        this.rosterViewRequestCoalescer = rosterViewRequestCoalescer;
+        Assert.notNull(rosterViewRequestCoalescer, "rosterViewRequestCoalescer must not be null.");
+    }
+
+    /**
+     * Sets the roster version of the tenant as the ETag of the response.
+     * The same view is encoded in JSON, Smile or CBOR depending on the Accept header,
+     * so the ETag also depends on that header, and the response varies by it.
+     * @return true if the client already has the view of that roster version, so the view needs not be built
+     * (the response then becomes a 304 Not Modified)
+     */
+    private boolean isRosterNotModified(Integer tenantId, WebRequest webRequest) {
+        return isRosterNotModified(tenantId, null, null, webRequest);
+    }
+
+    /**
+     * Like {@link #isRosterNotModified(Integer, WebRequest)}, for a view of which the request does not have the
+     * date range, as it is resolved from the roster state (which changes without changing the roster version).
+     * @param startDate null if the request has the date range
+     * @param endDate null if the request has the date range
+     */
+    private boolean isRosterNotModified(Integer tenantId, LocalDate startDate, LocalDate endDate,
+                                        WebRequest webRequest) {
+        if (webRequest instanceof NativeWebRequest) {
+            HttpServletResponse response = ((NativeWebRequest) webRequest).getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        Long rosterVersion = rosterVersionService.getRosterVersion(tenantId);
+        if (rosterVersion == null) {
+            return false;
+        }
+        String accept = webRequest.getHeader(HttpHeaders.ACCEPT);
+        String eTag = rosterVersion + "-" + Integer.toHexString(Objects.hashCode(accept));
+        if (startDate != null) {
+            eTag += "-" + startDate + "_" + endDate;
+        }
+        return webRequest.checkNotModified(eTag);
+    }
+
+    /**
+     * Concurrent requests for the same view of the same roster version share one computation of it.
+     * @param viewTypeAndParameters never null, the view type followed by the request parameters it depends on,
+     * besides the tenant
+     */
+    private <T> T getCoalescedView(Integer tenantId, List<?> viewTypeAndParameters, Supplier<T> viewSupplier) {
+        Long rosterVersion = rosterVersionService.getRosterVersion(tenantId);
+        if (rosterVersion == null) {
+            return viewSupplier.get();
+        }
+        return rosterViewRequestCoalescer.coalesce(Arrays.asList(tenantId, rosterVersion, viewTypeAndParameters),
+                                                   viewSupplier);
     }
 
     // ************************************************************************
@@ -89,9 +167,22 @@ public class RosterController {
                                                                      @RequestParam(name = "p", required = false)
                                                                              Integer pageNumber,
                                                                      @RequestParam(name = "n", required = false)
-                                                                             Integer numberOfItemsPerPage) {
-        return new ResponseEntity<>(rosterService.getCurrentShiftRosterView(tenantId, pageNumber,
-                                                                            numberOfItemsPerPage), HttpStatus.OK);
+                                                                             Integer numberOfItemsPerPage,
+                                                                     WebRequest webRequest) {
+        RosterState rosterState = rosterService.getRosterState(tenantId);
+        LocalDate startDate = rosterState.getFirstPublishedDate();
+        LocalDate endDate = rosterState.getFirstUnplannedDate();
+        if (isRosterNotModified(tenantId, startDate, endDate, webRequest)) {
+            return null;
+        }
+        String startDateString = startDate.toString();
+        String endDateString = endDate.toString();
+        // The view of the resolved date range, even if the roster state changes in the meantime
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("shiftRosterView", pageNumber, numberOfItemsPerPage, startDateString,
+                                        endDateString),
+                () -> rosterService.getShiftRosterView(tenantId, pageNumber, numberOfItemsPerPage, startDateString,
+                                                       endDateString)), HttpStatus.OK);
     }
 
     @ApiOperation("Get a shift roster view between two dates")
@@ -102,9 +193,98 @@ public class RosterController {
                                                               @RequestParam(name = "n", required = false)
                                                                       Integer numberOfItemsPerPage,
                                                               @RequestParam(name = "startDate") String startDateString,
-                                                              @RequestParam(name = "endDate") String endDateString) {
-        return new ResponseEntity<>(rosterService.getShiftRosterView(tenantId, pageNumber, numberOfItemsPerPage,
-                                                                     startDateString, endDateString), HttpStatus.OK);
+                                                              @RequestParam(name = "endDate") String endDateString,
+                                                              WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("shiftRosterView", pageNumber, numberOfItemsPerPage, startDateString,
+                                        endDateString),
+                () -> rosterService.getShiftRosterView(tenantId, pageNumber, numberOfItemsPerPage, startDateString,
+                                                       endDateString)), HttpStatus.OK);
+    }
+
+    @ApiOperation("Get a shift roster view between two dates, with only the indictment score and the violation type " +
+            "mask of each shift")
+    @GetMapping("/shiftRosterView/compact")
+    public ResponseEntity<ShiftRosterView> getCompactShiftRosterView(@PathVariable @Min(0) Integer tenantId,
+                                                                     @RequestParam(name = "p", required = false)
+                                                                             Integer pageNumber,
+                                                                     @RequestParam(name = "n", required = false)
+                                                                             Integer numberOfItemsPerPage,
+                                                                     @RequestParam(name = "startDate")
+                                                                             String startDateString,
+                                                                     @RequestParam(name = "endDate")
+                                                                             String endDateString,
+                                                                     WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("shiftRosterView/compact", pageNumber, numberOfItemsPerPage,
+                                        startDateString, endDateString),
+                () -> rosterService.getCompactShiftRosterView(tenantId, pageNumber, numberOfItemsPerPage,
+                                                              startDateString, endDateString)), HttpStatus.OK);
+    }
+
+    @ApiOperation("Get a shift with all its violations, for a shift of a compact shift roster view")
+    @GetMapping("/shiftRosterView/shift/{id}")
+    public ResponseEntity<ShiftView> getShiftViewWithIndictment(@PathVariable @Min(0) Integer tenantId,
+                                                                @PathVariable @Min(0) Long id,
+                                                                WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(rosterService.getShiftViewWithIndictment(tenantId, id), HttpStatus.OK);
+    }
+
+    @ApiOperation("Stream a shift roster view between two dates, for date ranges too long to build in memory")
+    @GetMapping("/shiftRosterView/stream")
+    public ResponseEntity<StreamingResponseBody> streamShiftRosterView(@PathVariable @Min(0) Integer tenantId,
+                                                                       @RequestParam(name = "p", required = false)
+                                                                               Integer pageNumber,
+                                                                       @RequestParam(name = "n", required = false)
+                                                                               Integer numberOfItemsPerPage,
+                                                                       @RequestParam(name = "startDate")
+                                                                               String startDateString,
+                                                                       @RequestParam(name = "endDate")
+                                                                               String endDateString,
+                                                                       WebRequest webRequest) {
+        // Parse before streaming starts, so a bad date still gets a proper error response
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> rosterViewStreamingService.writeShiftRosterView(
+                tenantId, pageNumber, numberOfItemsPerPage, startDate, endDate, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @ApiOperation("Get the changes to a shift roster view since a roster version, or the full view if unknown")
+    @GetMapping("/shiftRosterView/delta")
+    public ResponseEntity<ShiftRosterDeltaView> getShiftRosterDeltaView(@PathVariable @Min(0) Integer tenantId,
+                                                                        @RequestParam(name = "since")
+                                                                                Long fromRosterVersion,
+                                                                        @RequestParam(name = "p", required = false)
+                                                                                Integer pageNumber,
+                                                                        @RequestParam(name = "n", required = false)
+                                                                                Integer numberOfItemsPerPage,
+                                                                        @RequestParam(name = "startDate")
+                                                                                String startDateString,
+                                                                        @RequestParam(name = "endDate")
+                                                                                String endDateString,
+                                                                        WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("shiftRosterView/delta", fromRosterVersion, pageNumber, numberOfItemsPerPage,
+                                        startDateString, endDateString),
+                () -> rosterService.getShiftRosterDeltaView(tenantId, fromRosterVersion, pageNumber,
+                                                            numberOfItemsPerPage, startDateString, endDateString)),
+                                    HttpStatus.OK);
     }
 
     // TODO: find out if there a way to pass lists in GET requests
@@ -123,36 +303,85 @@ public class RosterController {
     @ApiOperation("Get a shift roster view between two dates for a subset of the spots as an excel file")
     @GetMapping(value = "/shiftRosterView/excel",
             produces = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-    public ResponseEntity<byte[]> getShiftRosterViewAsExcel(@PathVariable @Min(0) Integer tenantId,
-                                                            @RequestParam(name = "startDate")
-                                                                    String startDateString,
-                                                            @RequestParam(name = "endDate") String endDateString,
-                                                            @RequestParam(name = "spotList") String spotListString) {
+    public ResponseEntity<StreamingResponseBody> getShiftRosterViewAsExcel(@PathVariable @Min(0) Integer tenantId,
+                                                                           @RequestParam(name = "startDate")
+                                                                                   String startDateString,
+                                                                           @RequestParam(name = "endDate")
+                                                                                   String endDateString,
+                                                                           @RequestParam(name = "spotList")
+                                                                                   String spotListString) {
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        List<Spot> spotList = getSpotList(tenantId, spotListString);
+        if (spotList == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> rosterViewStreamingService.writeShiftRosterAsExcel(
+                tenantId, spotList, startDate, endDate, outputStream);
+        return ResponseEntity.ok()
+                .headers(getAttachmentHeaders("Roster-" + startDateString + "--" + endDateString + ".xlsx"))
+                .body(body);
+    }
+
+    @ApiOperation("Get the shifts between two dates for a subset of the spots as a CSV file")
+    @GetMapping(value = "/shiftRosterView/csv", produces = "text/csv")
+    public ResponseEntity<StreamingResponseBody> getShiftRosterViewAsCsv(@PathVariable @Min(0) Integer tenantId,
+                                                                         @RequestParam(name = "startDate")
+                                                                                 String startDateString,
+                                                                         @RequestParam(name = "endDate")
+                                                                                 String endDateString,
+                                                                         @RequestParam(name = "spotList")
+                                                                                 String spotListString) {
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        List<Spot> spotList = getSpotList(tenantId, spotListString);
+        if (spotList == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> rosterViewStreamingService.writeShiftRosterAsCsv(
+                tenantId, spotList, startDate, endDate, outputStream);
+        return ResponseEntity.ok()
+                .headers(getAttachmentHeaders("Roster-" + startDateString + "--" + endDateString + ".csv"))
+                .body(body);
+    }
+
+    /**
+     * @return null if a spot id is not a spot of the tenant
+     */
+    private List<Spot> getSpotList(Integer tenantId, String spotListString) {
         Set<Long> spotIdSet = Arrays.stream(spotListString.split(",")).map(Long::parseLong)
                 .collect(Collectors.toSet());
         List<Spot> spotList = spotRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE))
                 .stream().filter(s -> spotIdSet.contains(s.getId()))
                 .collect(Collectors.toList());
+        return (spotList.size() == spotIdSet.size()) ? spotList : null;
+    }
 
-        if (spotList.size() != spotIdSet.size()) {
-            return new ResponseEntity<>(new byte[]{},
-                                        HttpStatus.BAD_REQUEST);
-        }
-        ShiftRosterView shiftRosterView = rosterService.getShiftRosterViewFor(tenantId, startDateString, endDateString,
-                                                                              spotList);
-        try {
-            HttpHeaders responseHeaders = new HttpHeaders();
-            responseHeaders.setContentDisposition(ContentDisposition.builder("attachment")
-                                                          .filename("Roster-" + startDateString + "--" +
-                                                                            endDateString + ".xlsx")
-                                                          .build());
-            return new ResponseEntity<>(ShiftRosterXlsxFileIO.getExcelBytesForShiftRoster(shiftRosterView),
-                                        responseHeaders,
-                                        HttpStatus.OK);
-        } catch (IOException e) {
-            return new ResponseEntity<>(new byte[]{},
-                                        HttpStatus.INTERNAL_SERVER_ERROR);
+    private static HttpHeaders getAttachmentHeaders(String filename) {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.setContentDisposition(ContentDisposition.builder("attachment")
+                                                      .filename(filename)
+                                                      .build());
+        return responseHeaders;
+    }
+
+    // ************************************************************************
+    // CoverageHeatmapView
+    // ************************************************************************
+
+    @ApiOperation("Get the required and assigned shifts and the skill gaps per spot and per hour between two dates")
+    @GetMapping("/coverageHeatmapView")
+    public ResponseEntity<CoverageHeatmapView> getCoverageHeatmapView(@PathVariable @Min(0) Integer tenantId,
+                                                                      @RequestParam(name = "startDate")
+                                                                              String startDateString,
+                                                                      @RequestParam(name = "endDate")
+                                                                              String endDateString,
+                                                                      WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
         }
+        return new ResponseEntity<>(coverageHeatmapService.getCoverageHeatmapView(tenantId, startDateString,
+                                                                                   endDateString), HttpStatus.OK);
     }
 
     // ************************************************************************
@@ -163,10 +392,21 @@ public class RosterController {
     @GetMapping("/availabilityRosterView/current")
     public ResponseEntity<AvailabilityRosterView> getCurrentAvailabilityRosterView(
             @PathVariable @Min(0) Integer tenantId, @RequestParam(name = "p", required = false) Integer pageNumber,
-            @RequestParam(name = "n", required = false) Integer numberOfItemsPerPage) {
-        return new ResponseEntity<>(rosterService.getCurrentAvailabilityRosterView(tenantId, pageNumber,
-                                                                                   numberOfItemsPerPage),
-                                    HttpStatus.OK);
+            @RequestParam(name = "n", required = false) Integer numberOfItemsPerPage, WebRequest webRequest) {
+        RosterState rosterState = rosterService.getRosterState(tenantId);
+        LocalDate startDate = rosterState.getLastHistoricDate();
+        LocalDate endDate = rosterState.getFirstUnplannedDate();
+        if (isRosterNotModified(tenantId, startDate, endDate, webRequest)) {
+            return null;
+        }
+        String startDateString = startDate.toString();
+        String endDateString = endDate.toString();
+        // The view of the resolved date range, even if the roster state changes in the meantime
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("availabilityRosterView", pageNumber, numberOfItemsPerPage,
+                                        startDateString, endDateString),
+                () -> rosterService.getAvailabilityRosterView(tenantId, pageNumber, numberOfItemsPerPage,
+                                                              startDateString, endDateString)), HttpStatus.OK);
     }
 
     @ApiOperation("Get an availability roster view between two dates")
@@ -175,10 +415,32 @@ public class RosterController {
             @PathVariable @Min(0) Integer tenantId, @RequestParam(name = "p", required = false) Integer pageNumber,
             @RequestParam(name = "n", required = false) Integer numberOfItemsPerPage,
             @RequestParam(name = "startDate") String startDateString,
-            @RequestParam(name = "endDate") String endDateString) {
-        return new ResponseEntity<>(rosterService.getAvailabilityRosterView(tenantId, pageNumber, numberOfItemsPerPage,
-                                                                            startDateString, endDateString),
-                                    HttpStatus.OK);
+            @RequestParam(name = "endDate") String endDateString, WebRequest webRequest) {
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        return new ResponseEntity<>(getCoalescedView(
+                tenantId, Arrays.asList("availabilityRosterView", pageNumber, numberOfItemsPerPage,
+                                        startDateString, endDateString),
+                () -> rosterService.getAvailabilityRosterView(tenantId, pageNumber, numberOfItemsPerPage,
+                                                              startDateString, endDateString)), HttpStatus.OK);
+    }
+
+    @ApiOperation("Stream an availability roster view between two dates, for date ranges too long to build in memory")
+    @GetMapping("/availabilityRosterView/stream")
+    public ResponseEntity<StreamingResponseBody> streamAvailabilityRosterView(
+            @PathVariable @Min(0) Integer tenantId, @RequestParam(name = "p", required = false) Integer pageNumber,
+            @RequestParam(name = "n", required = false) Integer numberOfItemsPerPage,
+            @RequestParam(name = "startDate") String startDateString,
+            @RequestParam(name = "endDate") String endDateString, WebRequest webRequest) {
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        if (isRosterNotModified(tenantId, webRequest)) {
+            return null;
+        }
+        StreamingResponseBody body = outputStream -> rosterViewStreamingService.writeAvailabilityRosterView(
+                tenantId, pageNumber, numberOfItemsPerPage, startDate, endDate, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @ApiOperation("Get an availability roster view between two dates for a subset of the employees")
@@ -209,6 +471,15 @@ public class RosterController {
         rosterService.replanRoster(tenantId);
     }
 
+    @ApiOperation("Start replanning the roster in Nondisruptive mode around a changed employee or time window. " +
+            "This unassigns the shifts of that employee (or of the unavailable employees) in the window and only " +
+            "reassigns the shifts near the window, all other shifts keep their employee.")
+    @PostMapping("/replan/scoped")
+    public void replanRosterInScope(@PathVariable @Min(0) Integer tenantId,
+                                    @RequestBody @Valid ReplanScopeView replanScopeView) {
+        rosterService.replanRoster(tenantId, replanScopeView);
+    }
+
     @ApiOperation("Stop solving the roster, if it hasn't terminated automatically already")
     @PostMapping("/terminate")
     public void terminateRosterEarly(@PathVariable @Min(0) Integer tenantId) {
@@ -221,6 +492,12 @@ public class RosterController {
         return new ResponseEntity<>(rosterService.getSolverStatus(tenantId), HttpStatus.OK);
     }
 
+    @ApiOperation("Get the solver lease: which backend node solves the roster, its heartbeat and its best score")
+    @GetMapping("/solverLease")
+    public ResponseEntity<SolverLease> getSolverLease(@PathVariable @Min(0) Integer tenantId) {
+        return new ResponseEntity<>(rosterService.getSolverLease(tenantId), HttpStatus.OK);
+    }
+
     // ************************************************************************
     // Publish
     // ************************************************************************
@@ -55,8 +55,6 @@ import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration
 import org.optaweb.employeerostering.domain.tenant.Tenant;
 import org.optaweb.employeerostering.service.admin.SystemPropertiesRetriever;
 import org.optaweb.employeerostering.service.common.generator.StringDataGenerator;
-import org.springframework.boot.ApplicationArguments;
-import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -64,7 +62,7 @@ import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toList;
 
 @Component
-public class RosterGenerator implements ApplicationRunner {
+public class RosterGenerator {
 
     private static final double[] EXTRA_SHIFT_THRESHOLDS = {0.5, 0.8, 0.95};
 
@@ -389,6 +387,7 @@ public class RosterGenerator implements ApplicationRunner {
 
     @SuppressWarnings("unused")
     public RosterGenerator() {
+        random = new Random(37);
     }
 
     /**
@@ -397,54 +396,72 @@ public class RosterGenerator implements ApplicationRunner {
      * @param entityManager never null
      */
     public RosterGenerator(EntityManager entityManager) {
-        this.entityManager = entityManager;
-        random = new Random(37);
+        this(entityManager, 37L);
     }
 
-    @Override
-    @Transactional
-    public void run(ApplicationArguments args) {
-        checkForExistingData();
+    private RosterGenerator(EntityManager entityManager, long seed) {
+        this.entityManager = entityManager;
+        random = new Random(seed);
     }
 
-    @Transactional
-    public void checkForExistingData() {
-        // Check if Tenant entities already exist before generating data
-        List<Tenant> tenantList = entityManager.createQuery("select t from Tenant t").getResultList();
-
-        if (!tenantList.isEmpty()) {
-            return;
-        }
-
-        setUpGeneratedData();
+    @Transactional(readOnly = true)
+    public boolean hasTenants() {
+        return !entityManager.createQuery("select t.id from Tenant t").setMaxResults(1).getResultList().isEmpty();
     }
 
     @Transactional
     public void setUpGeneratedData() {
+        setUpGeneratedData(Runnable::run);
+    }
+
+    /**
+     * Not transactional by itself: the caller decides the transaction of each generated tenant.
+     * Each tenant is generated by its own generator, so the tenants can be generated in any order,
+     * even in parallel, and always get the same data.
+     * @param tenantGenerationRunner never null, runs the generation of one tenant,
+     * for example in its own transaction or on another thread
+     */
+    public void setUpGeneratedData(Consumer<Runnable> tenantGenerationRunner) {
         ZoneId zoneId = SystemPropertiesRetriever.determineZoneId();
         SystemPropertiesRetriever.InitialData initialData = SystemPropertiesRetriever.determineInitialData();
 
-        random = new Random(37);
-
         switch (initialData) {
             case EMPTY:
                 return;
             case DEMO_DATA:
-                tenantNameGenerator.predictMaximumSizeAndReset(12);
-                generateRoster(10, 7, hospitalGeneratorType, zoneId);
-                generateRoster(10, 7, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(10, 7, guardSecurityGeneratorType, zoneId);
-                generateRoster(10, 7, callCenterGeneratorType, zoneId);
-                generateRoster(10, 7, postOfficeGeneratorType, zoneId);
-                generateRoster(10, 7 * 4, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(20, 7 * 4, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(40, 7 * 2, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(80, 7 * 4, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(10, 7 * 4, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(20, 7 * 4, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(40, 7 * 2, factoryAssemblyGeneratorType, zoneId);
-                generateRoster(80, 7 * 4, factoryAssemblyGeneratorType, zoneId);
+                List<Consumer<RosterGenerator>> tenantGenerationList = Arrays.asList(
+                        g -> g.generateRoster(10, 7, g.hospitalGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7, g.guardSecurityGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7, g.callCenterGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7, g.postOfficeGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7 * 4, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(20, 7 * 4, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(40, 7 * 2, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(80, 7 * 4, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(10, 7 * 4, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(20, 7 * 4, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(40, 7 * 2, g.factoryAssemblyGeneratorType, zoneId),
+                        g -> g.generateRoster(80, 7 * 4, g.factoryAssemblyGeneratorType, zoneId));
+                for (int i = 0; i < tenantGenerationList.size(); i++) {
+                    Consumer<RosterGenerator> tenantGeneration = tenantGenerationList.get(i);
+                    RosterGenerator tenantGenerator = createTenantGenerator(i);
+                    tenantGenerationRunner.accept(() -> tenantGeneration.accept(tenantGenerator));
+                }
+        }
+    }
+
+    /**
+     * A generator is not thread-safe, so each tenant gets its own, seeded by the index of the tenant.
+     * Its tenant name is the one a single generator would give to that tenant.
+     */
+    private RosterGenerator createTenantGenerator(int tenantIndex) {
+        RosterGenerator tenantGenerator = new RosterGenerator(entityManager, 37L + tenantIndex);
+        tenantGenerator.tenantNameGenerator.predictMaximumSizeAndReset(12);
+        for (int i = 0; i < tenantIndex; i++) {
+            tenantGenerator.tenantNameGenerator.generateNextValue();
         }
+        return tenantGenerator;
     }
 
     @Transactional
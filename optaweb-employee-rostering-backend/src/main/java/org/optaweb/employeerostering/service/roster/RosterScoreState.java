@@ -0,0 +1,70 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.Map;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaweb.employeerostering.domain.violation.IndictmentSummary;
+
+/**
+ * The score and indictments of the roster of a tenant, as calculated for one roster version.
+ */
+public final class RosterScoreState {
+
+    private final Long rosterVersion;
+    private final HardMediumSoftLongScore score;
+    private final Map<Object, Indictment> indictmentMap;
+    private final IndictmentSummary indictmentSummary;
+
+    public RosterScoreState(Long rosterVersion, HardMediumSoftLongScore score, Map<Object, Indictment> indictmentMap,
+                            IndictmentSummary indictmentSummary) {
+        this.rosterVersion = rosterVersion;
+        this.score = score;
+        this.indictmentMap = indictmentMap;
+        this.indictmentSummary = indictmentSummary;
+    }
+
+    /**
+     * @param shift never null, looked up by id, so it can come from another persistence context
+     * @return null if nothing is indicted on the shift
+     */
+    public Indictment getIndictment(Object shift) {
+        return indictmentMap.get(shift);
+    }
+
+    // ************************************************************************
+    // Simple getters
+    // ************************************************************************
+
+    public Long getRosterVersion() {
+        return rosterVersion;
+    }
+
+    public HardMediumSoftLongScore getScore() {
+        return score;
+    }
+
+    public Map<Object, Indictment> getIndictmentMap() {
+        return indictmentMap;
+    }
+
+    public IndictmentSummary getIndictmentSummary() {
+        return indictmentSummary;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The score state of the latest roster version of each tenant that a view was requested for,
+ * so the roster is scored once per roster version instead of once per request.
+ * Holds one state per tenant, which is replaced when a newer roster version is scored.
+ */
+@Component
+public class RosterScoreStateCache {
+
+    private final ConcurrentMap<Integer, RosterScoreState> tenantIdToRosterScoreStateMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param tenantId never null
+     * @param rosterVersion null never hits
+     * @return null if the state of that roster version is not cached
+     */
+    public RosterScoreState get(Integer tenantId, Long rosterVersion) {
+        if (rosterVersion == null) {
+            return null;
+        }
+        RosterScoreState rosterScoreState = tenantIdToRosterScoreStateMap.get(tenantId);
+        return (rosterScoreState != null && rosterVersion.equals(rosterScoreState.getRosterVersion())) ?
+                rosterScoreState : null;
+    }
+
+    /**
+     * Keeps the state of the newest roster version, in case a slow request scored an older one.
+     * @param tenantId never null
+     * @param rosterScoreState never null
+     */
+    public void put(Integer tenantId, RosterScoreState rosterScoreState) {
+        if (rosterScoreState.getRosterVersion() == null) {
+            return;
+        }
+        tenantIdToRosterScoreStateMap.merge(tenantId, rosterScoreState,
+                                            (oldState, newState) -> (newState.getRosterVersion() >=
+                                                    oldState.getRosterVersion()) ? newState : oldState);
+    }
+
+    public void forgetTenant(Integer tenantId) {
+        tenantIdToRosterScoreStateMap.remove(tenantId);
+    }
+
+    public void forgetAllTenants() {
+        tenantIdToRosterScoreStateMap.clear();
+    }
+}
@@ -16,16 +16,22 @@
 
 package org.optaweb.employeerostering.service.roster;
 
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
@@ -41,12 +47,17 @@ import org.optaweb.employeerostering.domain.roster.PublishResult;
 import org.optaweb.employeerostering.domain.roster.Roster;
 import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.roster.view.AvailabilityRosterView;
+import org.optaweb.employeerostering.domain.roster.view.ShiftRosterDeltaView;
 import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
 import org.optaweb.employeerostering.domain.rotation.ShiftTemplate;
 import org.optaweb.employeerostering.domain.shift.Shift;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
 import org.optaweb.employeerostering.domain.skill.Skill;
+import org.optaweb.employeerostering.domain.solver.ReplanScope;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.view.ReplanScopeView;
 import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
 import org.optaweb.employeerostering.service.common.IndictmentUtils;
 import org.optaweb.employeerostering.service.employee.EmployeeAvailabilityRepository;
@@ -60,14 +71,22 @@ import org.optaweb.employeerostering.service.spot.SpotRepository;
 import org.optaweb.employeerostering.service.tenant.RosterConstraintConfigurationRepository;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import static java.util.stream.Collectors.groupingBy;
 
 @Service
 public class RosterService extends AbstractRestService {
 
+    private static final String UPDATE_SHIFT_ASSIGNMENT_SQL = "update shift" +
+            " set employee_id = ?, version = version + 1" +
+            " where id = ? and version = ?";
+    private static final int UPDATE_SHIFT_ASSIGNMENT_BATCH_SIZE = 100;
+
     private RosterStateRepository rosterStateRepository;
     private SkillRepository skillRepository;
     private SpotRepository spotRepository;
@@ -79,6 +98,10 @@ public class RosterService extends AbstractRestService {
 
     private WannabeSolverManager solverManager;
     private IndictmentUtils indictmentUtils;
+    private JdbcTemplate jdbcTemplate;
+    private RosterVersionService rosterVersionService;
+    private RosterChangeLog rosterChangeLog;
+    private RosterScoreStateCache rosterScoreStateCache;
 
     public RosterService(RosterStateRepository rosterStateRepository, SkillRepository skillRepository,
                          SpotRepository spotRepository, EmployeeRepository employeeRepository,
@@ -86,7 +109,9 @@ public class RosterService extends AbstractRestService {
                          ShiftRepository shiftRepository,
                          RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository,
                          ShiftTemplateRepository shiftTemplateRepository,
-                         WannabeSolverManager solverManager, IndictmentUtils indictmentUtils) {
+                         WannabeSolverManager solverManager, IndictmentUtils indictmentUtils,
+                         JdbcTemplate jdbcTemplate, RosterVersionService rosterVersionService,
+                         RosterChangeLog rosterChangeLog, RosterScoreStateCache rosterScoreStateCache) {
         this.rosterStateRepository = rosterStateRepository;
         this.skillRepository = skillRepository;
         this.spotRepository = spotRepository;
@@ -97,13 +122,17 @@ public class RosterService extends AbstractRestService {
         this.shiftTemplateRepository = shiftTemplateRepository;
         this.solverManager = solverManager;
         this.indictmentUtils = indictmentUtils;
+        this.jdbcTemplate = jdbcTemplate;
+        this.rosterVersionService = rosterVersionService;
+        this.rosterChangeLog = rosterChangeLog;
+        this.rosterScoreStateCache = rosterScoreStateCache;
     }
 
     // ************************************************************************
     // RosterState
     // ************************************************************************
 
-    @Transactional
+    @Transactional(readOnly = true)
     public RosterState getRosterState(Integer tenantId) {
         RosterState rosterState = rosterStateRepository
                 .findByTenantId(tenantId)
@@ -117,36 +146,52 @@ public class RosterService extends AbstractRestService {
     // ShiftRosterView
     // ************************************************************************
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ShiftRosterView getCurrentShiftRosterView(Integer tenantId, Integer pageNumber,
                                                      Integer numberOfItemsPerPage) {
         RosterState rosterState = getRosterState(tenantId);
         LocalDate startDate = rosterState.getFirstPublishedDate();
         LocalDate endDate = rosterState.getFirstUnplannedDate();
-        return getShiftRosterView(tenantId, startDate, endDate, Pagination.of(pageNumber, numberOfItemsPerPage));
+        return getShiftRosterView(tenantId, startDate, endDate, Pagination.of(pageNumber, numberOfItemsPerPage),
+                                  false);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ShiftRosterView getShiftRosterView(final Integer tenantId, Integer pageNumber, Integer numberOfItemsPerPage,
                                               final String startDateString,
                                               final String endDateString) {
 
         return getShiftRosterView(tenantId, LocalDate.parse(startDateString), LocalDate.parse(endDateString),
-                                  Pagination.of(pageNumber, numberOfItemsPerPage));
+                                  Pagination.of(pageNumber, numberOfItemsPerPage), false);
+    }
+
+    /**
+     * Like {@link #getShiftRosterView(Integer, Integer, Integer, String, String)}, but each shift view only has
+     * its indictment score and violation type mask. Get the violations of a shift with
+     * {@link #getShiftViewWithIndictment(Integer, Long)} when they are needed.
+     */
+    @Transactional(readOnly = true)
+    public ShiftRosterView getCompactShiftRosterView(final Integer tenantId, Integer pageNumber,
+                                                     Integer numberOfItemsPerPage,
+                                                     final String startDateString,
+                                                     final String endDateString) {
+        return getShiftRosterView(tenantId, LocalDate.parse(startDateString), LocalDate.parse(endDateString),
+                                  Pagination.of(pageNumber, numberOfItemsPerPage), true);
     }
 
     private ShiftRosterView getShiftRosterView(final Integer tenantId,
                                                final LocalDate startDate,
                                                final LocalDate endDate,
-                                               final Pagination pagination) {
+                                               final Pagination pagination,
+                                               final boolean compact) {
 
         Pageable spotPage = PageRequest.of(pagination.getPageNumber(), pagination.getNumberOfItemsPerPage());
         final List<Spot> spots = spotRepository.findAllByTenantId(tenantId, spotPage);
 
-        return getShiftRosterView(tenantId, startDate, endDate, spots);
+        return getShiftRosterView(tenantId, startDate, endDate, spots, compact);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ShiftRosterView getShiftRosterViewFor(Integer tenantId, String startDateString, String endDateString,
                                                  List<Spot> spotList) {
         LocalDate startDate = LocalDate.parse(startDateString);
@@ -155,11 +200,11 @@ public class RosterService extends AbstractRestService {
             throw new IllegalArgumentException("The spotList (" + spotList + ") must not be null.");
         }
 
-        return getShiftRosterView(tenantId, startDate, endDate, spotList);
+        return getShiftRosterView(tenantId, startDate, endDate, spotList, false);
     }
 
     private ShiftRosterView getShiftRosterView(Integer tenantId, LocalDate startDate, LocalDate endDate,
-                                               List<Spot> spotList) {
+                                               List<Spot> spotList, boolean compact) {
         ShiftRosterView shiftRosterView = new ShiftRosterView(tenantId, startDate, endDate);
         shiftRosterView.setSpotList(spotList);
         List<Employee> employeeList = employeeRepository.findAllByTenantId(tenantId, PageRequest.of(0,
@@ -174,33 +219,116 @@ public class RosterService extends AbstractRestService {
                                                                 endDate.atStartOfDay(timeZone).toOffsetDateTime());
 
         Map<Long, List<ShiftView>> spotIdToShiftViewListMap = new LinkedHashMap<>(spotList.size());
-        // TODO FIXME race condition solverManager's bestSolution might differ from the one we just fetched, so the
-        //  score might be inaccurate
-        Roster roster = solverManager.getRoster(tenantId);
-        if (roster == null) {
-            roster = buildRoster(tenantId);
-        }
-        Map<Object, Indictment> indictmentMap = indictmentUtils.getIndictmentMapForRoster(roster);
+        RosterState rosterState = getRosterState(tenantId);
+        RosterScoreState rosterScoreState = getRosterScoreState(tenantId, rosterState.getRosterVersion());
 
         for (Shift shift : shiftList) {
-            Indictment indictment = indictmentMap.get(shift);
+            Indictment indictment = rosterScoreState.getIndictment(shift);
             spotIdToShiftViewListMap.computeIfAbsent(shift.getSpot().getId(), k -> new ArrayList<>())
-                    .add(indictmentUtils.getShiftViewWithIndictment(timeZone, shift, indictment));
+                    .add(compact ? indictmentUtils.getCompactShiftViewWithIndictment(timeZone, shift, indictment)
+                                 : indictmentUtils.getShiftViewWithIndictment(timeZone, shift, indictment));
         }
         shiftRosterView.setSpotIdToShiftViewListMap(spotIdToShiftViewListMap);
 
-        shiftRosterView.setScore(roster == null ? null : roster.getScore());
-        shiftRosterView.setRosterState(getRosterState(tenantId));
-        shiftRosterView.setIndictmentSummary(indictmentUtils.getIndictmentSummaryForRoster(roster));
+        shiftRosterView.setScore(rosterScoreState.getScore());
+        shiftRosterView.setRosterState(rosterState);
+        shiftRosterView.setRosterVersion(rosterState.getRosterVersion());
+        shiftRosterView.setIndictmentSummary(rosterScoreState.getIndictmentSummary());
 
         return shiftRosterView;
     }
 
+    // ************************************************************************
+    // ShiftRosterDeltaView
+    // ************************************************************************
+
+    @Transactional(readOnly = true)
+    public ShiftRosterDeltaView getShiftRosterDeltaView(final Integer tenantId, Long fromRosterVersion,
+                                                        Integer pageNumber, Integer numberOfItemsPerPage,
+                                                        final String startDateString,
+                                                        final String endDateString) {
+        LocalDate startDate = LocalDate.parse(startDateString);
+        LocalDate endDate = LocalDate.parse(endDateString);
+        Pagination pagination = Pagination.of(pageNumber, numberOfItemsPerPage);
+        RosterState rosterState = getRosterState(tenantId);
+        Long rosterVersion = rosterState.getRosterVersion();
+        ShiftRosterDeltaView deltaView = new ShiftRosterDeltaView(tenantId, startDate, endDate,
+                                                                  fromRosterVersion, rosterVersion);
+
+        Optional<RosterChange> rosterChangeOptional = rosterChangeLog.getRosterChange(tenantId, fromRosterVersion,
+                                                                                     rosterVersion);
+        if (!rosterChangeOptional.isPresent()) {
+            // The log no longer covers that version (or never did on this node)
+            ShiftRosterView shiftRosterView = getShiftRosterView(tenantId, startDate, endDate, pagination, false);
+            deltaView.setShiftRosterView(shiftRosterView);
+            deltaView.setRosterVersion(shiftRosterView.getRosterVersion());
+            deltaView.setScore(shiftRosterView.getScore());
+            deltaView.setIndictmentSummary(shiftRosterView.getIndictmentSummary());
+            return deltaView;
+        }
+        RosterChange rosterChange = rosterChangeOptional.get();
+
+        Pageable spotPage = PageRequest.of(pagination.getPageNumber(), pagination.getNumberOfItemsPerPage());
+        Set<Spot> spotSet = new HashSet<>(spotRepository.findAllByTenantId(tenantId, spotPage));
+        ZoneId timeZone = rosterState.getTimeZone();
+        OffsetDateTime startDateTime = startDate.atStartOfDay(timeZone).toOffsetDateTime();
+        OffsetDateTime endDateTime = endDate.atStartOfDay(timeZone).toOffsetDateTime();
+
+        // Shifts of an affected employee can gain or lose indictments without changing themselves
+        Map<Long, Shift> shiftMap = new LinkedHashMap<>();
+        shiftRepository.findAllById(rosterChange.getChangedShiftIdSet())
+                .forEach(shift -> shiftMap.put(shift.getId(), shift));
+        if (!rosterChange.getAffectedEmployeeIdSet().isEmpty()) {
+            Set<Employee> affectedEmployeeSet =
+                    new HashSet<>(employeeRepository.findAllById(rosterChange.getAffectedEmployeeIdSet()));
+            shiftRepository.filterWithEmployees(tenantId, affectedEmployeeSet, startDateTime, endDateTime)
+                    .forEach(shift -> shiftMap.putIfAbsent(shift.getId(), shift));
+        }
+
+        RosterScoreState rosterScoreState = getRosterScoreState(tenantId, rosterVersion);
+
+        List<ShiftView> changedShiftViewList = new ArrayList<>(shiftMap.size());
+        List<Long> removedShiftIdList = new ArrayList<>(rosterChange.getDeletedShiftIdSet());
+        for (Shift shift : shiftMap.values()) {
+            if (shift.getTenantId().equals(tenantId) && spotSet.contains(shift.getSpot())
+                    && !shift.getEndDateTime().isBefore(startDateTime)
+                    && shift.getStartDateTime().isBefore(endDateTime)) {
+                changedShiftViewList.add(indictmentUtils.getShiftViewWithIndictment(
+                        timeZone, shift, rosterScoreState.getIndictment(shift)));
+            } else if (rosterChange.getChangedShiftIdSet().contains(shift.getId())) {
+                removedShiftIdList.add(shift.getId());
+            }
+        }
+        deltaView.setChangedShiftViewList(changedShiftViewList);
+        deltaView.setRemovedShiftIdList(removedShiftIdList);
+
+        List<EmployeeAvailabilityView> changedEmployeeAvailabilityViewList = new ArrayList<>();
+        List<Long> removedEmployeeAvailabilityIdList =
+                new ArrayList<>(rosterChange.getDeletedEmployeeAvailabilityIdSet());
+        for (EmployeeAvailability employeeAvailability : employeeAvailabilityRepository
+                .findAllById(rosterChange.getChangedEmployeeAvailabilityIdSet())) {
+            if (employeeAvailability.getTenantId().equals(tenantId)
+                    && !employeeAvailability.getEndDateTime().isBefore(startDateTime)
+                    && employeeAvailability.getStartDateTime().isBefore(endDateTime)) {
+                changedEmployeeAvailabilityViewList.add(new EmployeeAvailabilityView(timeZone,
+                                                                                     employeeAvailability));
+            } else {
+                removedEmployeeAvailabilityIdList.add(employeeAvailability.getId());
+            }
+        }
+        deltaView.setChangedEmployeeAvailabilityViewList(changedEmployeeAvailabilityViewList);
+        deltaView.setRemovedEmployeeAvailabilityIdList(removedEmployeeAvailabilityIdList);
+
+        deltaView.setScore(rosterScoreState.getScore());
+        deltaView.setIndictmentSummary(rosterScoreState.getIndictmentSummary());
+        return deltaView;
+    }
+
     // ************************************************************************
     // AvailabilityRosterView
     // ************************************************************************
 
-    @Transactional
+    @Transactional(readOnly = true)
     public AvailabilityRosterView getCurrentAvailabilityRosterView(Integer tenantId,
                                                                    Integer pageNumber,
                                                                    Integer numberOfItemsPerPage) {
@@ -210,7 +338,7 @@ public class RosterService extends AbstractRestService {
         return getAvailabilityRosterView(tenantId, startDate, endDate, Pagination.of(pageNumber, numberOfItemsPerPage));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public AvailabilityRosterView getAvailabilityRosterView(Integer tenantId,
                                                             Integer pageNumber,
                                                             Integer numberOfItemsPerPage,
@@ -221,7 +349,7 @@ public class RosterService extends AbstractRestService {
         return getAvailabilityRosterView(tenantId, startDate, endDate, Pagination.of(pageNumber, numberOfItemsPerPage));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public AvailabilityRosterView getAvailabilityRosterViewFor(Integer tenantId,
                                                                String startDateString,
                                                                String endDateString,
@@ -258,20 +386,17 @@ public class RosterService extends AbstractRestService {
         Map<Long, List<ShiftView>> employeeIdToShiftViewListMap = new LinkedHashMap<>(employeeList.size());
         List<ShiftView> unassignedShiftViewList = new ArrayList<>();
         Set<Employee> employeeSet = new HashSet<>(employeeList);
-        ZoneId timeZone = getRosterState(tenantId).getTimeZone();
+        RosterState rosterState = getRosterState(tenantId);
+        ZoneId timeZone = rosterState.getTimeZone();
 
         List<Shift> shiftList = shiftRepository.filterWithEmployees(tenantId, employeeSet,
                                                                     startDate.atStartOfDay(timeZone).toOffsetDateTime(),
                                                                     endDate.atStartOfDay(timeZone).toOffsetDateTime());
 
-        Roster roster = solverManager.getRoster(tenantId);
-        if (roster == null) {
-            roster = buildRoster(tenantId);
-        }
-        Map<Object, Indictment> indictmentMap = indictmentUtils.getIndictmentMapForRoster(roster);
+        RosterScoreState rosterScoreState = getRosterScoreState(tenantId, rosterState.getRosterVersion());
 
         for (Shift shift : shiftList) {
-            Indictment indictment = indictmentMap.get(shift);
+            Indictment indictment = rosterScoreState.getIndictment(shift);
             if (shift.getEmployee() != null) {
                 employeeIdToShiftViewListMap.computeIfAbsent(shift.getEmployee().getId(),
                                                              k -> new ArrayList<>())
@@ -296,15 +421,58 @@ public class RosterService extends AbstractRestService {
         }
         availabilityRosterView.setEmployeeIdToAvailabilityViewListMap(employeeIdToAvailabilityViewListMap);
 
-        // TODO FIXME race condition solverManager's bestSolution might differ from the one we just fetched so the
-        //  score might be inaccurate.
-        availabilityRosterView.setScore(roster.getScore());
-        availabilityRosterView.setRosterState(getRosterState(tenantId));
-        availabilityRosterView.setIndictmentSummary(indictmentUtils.getIndictmentSummaryForRoster(roster));
+        availabilityRosterView.setScore(rosterScoreState.getScore());
+        availabilityRosterView.setRosterState(rosterState);
+        availabilityRosterView.setRosterVersion(rosterState.getRosterVersion());
+        availabilityRosterView.setIndictmentSummary(rosterScoreState.getIndictmentSummary());
 
         return availabilityRosterView;
     }
 
+    // ************************************************************************
+    // RosterScoreState
+    // ************************************************************************
+
+    /**
+     * Scores the roster once per roster version, instead of once per view request.
+     * @param tenantId never null
+     * @param rosterVersion the roster version the caller reads the roster at, null to not cache the result
+     * @return never null
+     */
+    public RosterScoreState getRosterScoreState(Integer tenantId, Long rosterVersion) {
+        RosterScoreState rosterScoreState = rosterScoreStateCache.get(tenantId, rosterVersion);
+        if (rosterScoreState != null) {
+            return rosterScoreState;
+        }
+        // The persisted roster, not the solver's best solution, which can be ahead of it until the solver writes it
+        // back (and increments the roster version)
+        Roster roster = buildRoster(tenantId);
+        Long builtRosterVersion = roster.getRosterState().getRosterVersion();
+        Map<Object, Indictment> indictmentMap = indictmentUtils.getIndictmentMapForRoster(roster);
+        rosterScoreState = new RosterScoreState(builtRosterVersion, roster.getScore(), indictmentMap,
+                                                indictmentUtils.getIndictmentSummaryForRoster(roster));
+        // Not cached if the roster changed since the caller read it, so the cache never mixes up versions
+        if (rosterVersion != null && rosterVersion.equals(builtRosterVersion)) {
+            rosterScoreStateCache.put(tenantId, rosterScoreState);
+        }
+        return rosterScoreState;
+    }
+
+    /**
+     * @return never null, the shift view with all its violations, from the score state of the current roster version
+     */
+    @Transactional(readOnly = true)
+    public ShiftView getShiftViewWithIndictment(Integer tenantId, Long shiftId) {
+        Shift shift = shiftRepository
+                .findById(shiftId)
+                .orElseThrow(() -> new EntityNotFoundException("No Shift entity found with ID (" + shiftId + ")."));
+        validateTenantIdParameter(tenantId, shift);
+        RosterState rosterState = getRosterState(tenantId);
+        RosterScoreState rosterScoreState = getRosterScoreState(tenantId, rosterState.getRosterVersion());
+        return indictmentUtils.getShiftViewWithIndictment(rosterState.getTimeZone(), shift,
+                                                          rosterScoreState.getIndictment(shift));
+    }
+
     // ************************************************************************
     // Roster
     // ************************************************************************
@@ -326,8 +494,7 @@ public class RosterService extends AbstractRestService {
                 .map(s -> s.inTimeZone(zoneId))
                 .collect(Collectors.toList());
 
-        Roster roster = new Roster((long) tenantId, tenantId, rosterConstraintConfigurationRepository
-                .findByTenantId(tenantId)
+        Roster roster = new Roster((long) tenantId, tenantId, findRosterConstraintConfiguration(tenantId)
                 .orElseThrow(() -> new EntityNotFoundException(
                         "No RosterConstraintConfiguration entity found with tenantId(" + tenantId + ").")),
                                    skillList, spotList, employeeList, employeeAvailabilityList,
@@ -339,27 +506,139 @@ public class RosterService extends AbstractRestService {
         return roster;
     }
 
-    @Transactional
-    public void updateShiftsOfRoster(Roster newRoster) {
-        Integer tenantId = newRoster.getTenantId();
-        // TODO HACK avoids optimistic locking exception while solve(), but it circumvents optimistic locking completely
-        Map<Long, Employee> employeeIdMap = employeeRepository.findAllByTenantId(tenantId,
-                                                                                 PageRequest.of(0, Integer.MAX_VALUE))
-                .stream()
-                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+    /**
+     * Loads the shifts a {@link RosterChange} mentions, as {@link #buildRoster(Integer)} loads them.
+     * @param tenantId never null
+     * @param shiftIdSet never null
+     * @return never null, without the shifts that no longer exist
+     */
+    @Transactional(readOnly = true)
+    public List<Shift> findShiftsOfRoster(Integer tenantId, Set<Long> shiftIdSet) {
+        if (shiftIdSet.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ZoneId zoneId = getRosterState(tenantId).getTimeZone();
+        return shiftRepository.findAllById(shiftIdSet).stream()
+                .filter(shift -> shift.getTenantId().equals(tenantId))
+                .map(shift -> shift.inTimeZone(zoneId))
+                .collect(Collectors.toList());
+    }
 
-        Map<Long, Shift> shiftIdMap = shiftRepository.findAllByTenantId(tenantId)
-                .stream()
-                .collect(Collectors.toMap(Shift::getId, Function.identity()));
+    /**
+     * Loads the employee availabilities a {@link RosterChange} mentions, as {@link #buildRoster(Integer)} loads them.
+     * @param tenantId never null
+     * @param employeeAvailabilityIdSet never null
+     * @return never null, without the employee availabilities that no longer exist
+     */
+    @Transactional(readOnly = true)
+    public List<EmployeeAvailability> findEmployeeAvailabilitiesOfRoster(Integer tenantId,
+                                                                         Set<Long> employeeAvailabilityIdSet) {
+        if (employeeAvailabilityIdSet.isEmpty()) {
+            return Collections.emptyList();
+        }
+        ZoneId zoneId = getRosterState(tenantId).getTimeZone();
+        return employeeAvailabilityRepository.findAllById(employeeAvailabilityIdSet).stream()
+                .filter(employeeAvailability -> employeeAvailability.getTenantId().equals(tenantId))
+                .map(employeeAvailability -> employeeAvailability.inTimeZone(zoneId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param tenantId never null
+     * @return never null, empty if the tenant does not exist (anymore)
+     */
+    @Transactional(readOnly = true)
+    public Optional<RosterConstraintConfiguration> findRosterConstraintConfiguration(Integer tenantId) {
+        return rosterConstraintConfigurationRepository.findByTenantId(tenantId);
+    }
 
-        for (Shift shift : newRoster.getShiftList()) {
-            Shift attachedShift = shiftIdMap.get(shift.getId());
-            if (attachedShift == null) {
-                continue;
+    /**
+     * Writes the employee assignments of a solver's best solution back with one batched, version checked update,
+     * so a shift that was changed concurrently (for example by a user) is never overwritten.
+     * @param newRoster never null, the best solution
+     * @param assignmentTracker never null, what this solver run knows to be persisted, updated by this method
+     * @return never null, the persisted state of the shifts that could not be updated because they were changed
+     * concurrently (shifts that were deleted concurrently are only dropped from the tracker)
+     */
+    @Transactional
+    public List<Shift> updateShiftsOfRoster(Roster newRoster, ShiftAssignmentTracker assignmentTracker) {
+        List<Shift> changedShiftList = newRoster.getShiftList().stream()
+                .filter(assignmentTracker::isAssignmentChanged)
+                .collect(Collectors.toList());
+        if (changedShiftList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SHIFT_ASSIGNMENT_SQL, changedShiftList,
+                                                        UPDATE_SHIFT_ASSIGNMENT_BATCH_SIZE, (statement, shift) -> {
+                    Long employeeId = ShiftAssignmentTracker.getEmployeeId(shift);
+                    if (employeeId == null) {
+                        statement.setNull(1, Types.BIGINT);
+                    } else {
+                        statement.setLong(1, employeeId);
+                    }
+                    statement.setLong(2, shift.getId());
+                    statement.setLong(3, assignmentTracker.getPersistedVersion(shift.getId()));
+                });
+
+        List<Shift> writtenShiftList = new ArrayList<>(changedShiftList.size());
+        Map<Long, Shift> unknownShiftMap = new HashMap<>();
+        List<Long> conflictingShiftIdList = new ArrayList<>();
+        int i = 0;
+        for (int[] batchUpdateCounts : updateCounts) {
+            for (int updateCount : batchUpdateCounts) {
+                Shift shift = changedShiftList.get(i++);
+                if (updateCount > 0) {
+                    writtenShiftList.add(shift);
+                } else if (updateCount == Statement.SUCCESS_NO_INFO) {
+                    unknownShiftMap.put(shift.getId(), shift);
+                } else {
+                    conflictingShiftIdList.add(shift.getId());
+                }
+            }
+        }
+        if (!unknownShiftMap.isEmpty()) {
+            // Some drivers do not report the row count of batched statements, so read back what the batch wrote:
+            // in this transaction, a written shift has the next version and the new employee
+            for (Shift persistedShift : shiftRepository.findAllById(unknownShiftMap.keySet())) {
+                Shift shift = unknownShiftMap.remove(persistedShift.getId());
+                if (persistedShift.getVersion() == assignmentTracker.getPersistedVersion(shift.getId()) + 1L
+                        && Objects.equals(ShiftAssignmentTracker.getEmployeeId(persistedShift),
+                                          ShiftAssignmentTracker.getEmployeeId(shift))) {
+                    writtenShiftList.add(shift);
+                } else {
+                    conflictingShiftIdList.add(shift.getId());
+                }
             }
-            attachedShift.setEmployee((shift.getEmployee() == null) ?
-                                              null : employeeIdMap.get(shift.getEmployee().getId()));
+            // Deleted concurrently
+            conflictingShiftIdList.addAll(unknownShiftMap.keySet());
+        }
+        for (Shift shift : writtenShiftList) {
+            RosterChange rosterChange = rosterVersionService.recordRosterChange(newRoster.getTenantId());
+            rosterChange.addAffectedEmployeeId(assignmentTracker.getPersistedEmployeeId(shift.getId()));
+            rosterChange.addChangedShift(shift);
+            assignmentTracker.markPersisted(shift.getId(), ShiftAssignmentTracker.getEmployeeId(shift),
+                                            assignmentTracker.getPersistedVersion(shift.getId()) + 1L);
+        }
+        if (!writtenShiftList.isEmpty()) {
+            assignmentTracker.countWrite();
+        }
+        if (conflictingShiftIdList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Shift> persistedShiftList = shiftRepository.findAllById(conflictingShiftIdList);
+        Set<Long> persistedShiftIdSet = new HashSet<>(persistedShiftList.size());
+        for (Shift persistedShift : persistedShiftList) {
+            persistedShiftIdSet.add(persistedShift.getId());
+            assignmentTracker.markPersisted(persistedShift.getId(),
+                                            ShiftAssignmentTracker.getEmployeeId(persistedShift),
+                                            persistedShift.getVersion());
         }
+        conflictingShiftIdList.stream()
+                .filter(shiftId -> !persistedShiftIdSet.contains(shiftId))
+                .forEach(assignmentTracker::markDeleted);
+        return persistedShiftList;
     }
 
     // ************************************************************************
@@ -374,10 +653,38 @@ public class RosterService extends AbstractRestService {
         solverManager.replan(tenantId);
     }
 
+    public void replanRoster(Integer tenantId, ReplanScopeView replanScopeView) {
+        validateTenantIdParameter(tenantId, replanScopeView);
+        if (!replanScopeView.getEndDateTime().isAfter(replanScopeView.getStartDateTime())) {
+            throw new IllegalArgumentException("The endDateTime (" + replanScopeView.getEndDateTime()
+                                                       + ") must be after the startDateTime ("
+                                                       + replanScopeView.getStartDateTime() + ").");
+        }
+        Long employeeId = replanScopeView.getEmployeeId();
+        if (employeeId != null) {
+            Employee employee = employeeRepository.findById(employeeId)
+                    .orElseThrow(() -> new EntityNotFoundException("No Employee entity found with ID (" + employeeId
+                                                                           + ")."));
+            validateTenantIdParameter(tenantId, employee);
+        }
+        ZoneId zoneId = getRosterState(tenantId).getTimeZone();
+        solverManager.replan(tenantId, new ReplanScope(employeeId,
+                                                       toOffsetDateTime(zoneId, replanScopeView.getStartDateTime()),
+                                                       toOffsetDateTime(zoneId, replanScopeView.getEndDateTime())));
+    }
+
+    private static OffsetDateTime toOffsetDateTime(ZoneId zoneId, LocalDateTime localDateTime) {
+        return OffsetDateTime.of(localDateTime, zoneId.getRules().getOffset(localDateTime));
+    }
+
     public SolverStatus getSolverStatus(Integer tenantId) {
         return solverManager.getSolverStatus(tenantId);
     }
 
+    public SolverLease getSolverLease(Integer tenantId) {
+        return solverManager.getSolverLease(tenantId);
+    }
+
     public void terminateRosterEarly(Integer tenantId) {
         solverManager.terminate(tenantId);
     }
@@ -399,6 +706,7 @@ public class RosterService extends AbstractRestService {
                 .findAllByTenantIdBetweenDates(tenantId,
                                                publishFrom.atStartOfDay(timeZone).toOffsetDateTime(),
                                                publishTo.atStartOfDay(timeZone).toOffsetDateTime());
+        rosterVersionService.markRosterChanged(tenantId);
         publishedShifts.forEach(s -> s.setOriginalEmployee(s.getEmployee()));
         shiftRepository.saveAll(publishedShifts);
         rosterState.setFirstDraftDate(publishTo);
@@ -422,6 +730,13 @@ public class RosterService extends AbstractRestService {
             dayOffset = (dayOffset + 1) % rosterState.getRotationLength();
         }
         rosterState.setUnplannedRotationOffset(dayOffset);
+        // A continuous planning solver moves its rolling horizon right away, instead of at its next heartbeat
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                solverManager.syncContinuousPlanning(tenantId);
+            }
+        });
         return new PublishResult(publishFrom, publishTo);
     }
 
@@ -437,6 +752,7 @@ public class RosterService extends AbstractRestService {
                 .findAllByTenantIdBetweenDates(tenantId,
                                                publishFrom.atStartOfDay(timeZone).toOffsetDateTime(),
                                                publishTo.atStartOfDay(timeZone).toOffsetDateTime());
+        rosterVersionService.markRosterChanged(tenantId);
         publishedShifts.forEach(s -> s.setOriginalEmployee(s.getEmployee()));
         shiftRepository.saveAll(publishedShifts);
     }
@@ -16,6 +16,7 @@
 
 package org.optaweb.employeerostering.service.roster;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.optaweb.employeerostering.domain.roster.RosterState;
@@ -32,6 +33,18 @@ public interface RosterStateRepository extends JpaRepository<RosterState, Long>
             "where rs.tenantId = :tenantId")
     Optional<RosterState> findByTenantId(@Param("tenantId") Integer tenantId);
 
+    @Query("select rs.rosterVersion from RosterState rs " +
+            "where rs.tenantId = :tenantId")
+    Optional<Long> findRosterVersionByTenantId(@Param("tenantId") Integer tenantId);
+
+    @Query("select rs.tenantId, rs.rosterVersion from RosterState rs")
+    List<Object[]> findAllTenantIdsAndRosterVersions();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update RosterState rs set rs.rosterVersion = rs.rosterVersion + 1 " +
+            "where rs.tenantId = :tenantId")
+    int incrementRosterVersion(@Param("tenantId") Integer tenantId);
+
     @Modifying(flushAutomatically = true, clearAutomatically = true)
     @Query("delete from RosterState rs where rs.tenantId = :tenantId")
     void deleteForTenant(@Param("tenantId") Integer tenantId);
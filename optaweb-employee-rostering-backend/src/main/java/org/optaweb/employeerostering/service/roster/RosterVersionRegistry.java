@@ -0,0 +1,52 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * The latest roster version of each tenant that this node knows to be committed on the primary database.
+ * Has no dependencies, so the data source routing can consult it without depending on JPA.
+ */
+@Component
+public class RosterVersionRegistry {
+
+    private final ConcurrentMap<Integer, Long> tenantIdToCommittedRosterVersionMap = new ConcurrentHashMap<>();
+
+    /**
+     * @param tenantId never null
+     * @return null if this node has not seen a roster version of that tenant yet
+     */
+    public Long getCommittedRosterVersion(Integer tenantId) {
+        return tenantIdToCommittedRosterVersionMap.get(tenantId);
+    }
+
+    public void recordCommittedRosterVersion(Integer tenantId, Long rosterVersion) {
+        tenantIdToCommittedRosterVersionMap.merge(tenantId, rosterVersion, Math::max);
+    }
+
+    public void forgetTenant(Integer tenantId) {
+        tenantIdToCommittedRosterVersionMap.remove(tenantId);
+    }
+
+    public void forgetAllTenants() {
+        tenantIdToCommittedRosterVersionMap.clear();
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maintains the per-tenant roster version: a counter on {@link org.optaweb.employeerostering.domain.roster.RosterState}
+ * that increases with every committed transaction which changed the roster of that tenant.
+ */
+@Service
+public class RosterVersionService {
+
+    private final RosterStateRepository rosterStateRepository;
+    private final RosterVersionRegistry rosterVersionRegistry;
+    private final RosterChangeLog rosterChangeLog;
+
+    public RosterVersionService(RosterStateRepository rosterStateRepository,
+                                RosterVersionRegistry rosterVersionRegistry,
+                                RosterChangeLog rosterChangeLog) {
+        this.rosterStateRepository = rosterStateRepository;
+        this.rosterVersionRegistry = rosterVersionRegistry;
+        this.rosterChangeLog = rosterChangeLog;
+    }
+
+    /**
+     * Marks the roster of the tenant as changed by the current transaction, in a way that clients need a full view
+     * to catch up with. Prefer {@link #recordRosterChange(Integer)} for changes to shifts and availabilities.
+     * @param tenantId never null
+     */
+    public void markRosterChanged(Integer tenantId) {
+        recordRosterChange(tenantId).requireFullView();
+    }
+
+    /**
+     * Marks the roster of the tenant as changed by the current transaction. However often this is called,
+     * the roster version is incremented once, right before the transaction commits, to keep the row lock short.
+     * @param tenantId never null
+     * @return never null, the caller adds what it changes, so the change log can tell clients
+     */
+    public RosterChange recordRosterChange(Integer tenantId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("The roster of tenantId (" + tenantId
+                                                    + ") can only be changed within a transaction.");
+        }
+        @SuppressWarnings("unchecked")
+        Map<Integer, RosterChange> tenantIdToRosterChangeMap =
+                (Map<Integer, RosterChange>) TransactionSynchronizationManager.getResource(this);
+        if (tenantIdToRosterChangeMap == null) {
+            Map<Integer, RosterChange> newTenantIdToRosterChangeMap = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, newTenantIdToRosterChangeMap);
+            TransactionSynchronizationManager.registerSynchronization(
+                    new RosterVersionSynchronization(newTenantIdToRosterChangeMap));
+            tenantIdToRosterChangeMap = newTenantIdToRosterChangeMap;
+        }
+        return tenantIdToRosterChangeMap.computeIfAbsent(tenantId, k -> new RosterChange());
+    }
+
+    /**
+     * @param tenantId never null
+     * @return null if the tenant does not exist
+     */
+    public Long getRosterVersion(Integer tenantId) {
+        return rosterStateRepository.findRosterVersionByTenantId(tenantId).orElse(null);
+    }
+
+    /**
+     * Catches up the {@link RosterVersionRegistry} of this node with the roster versions committed by other nodes
+     * (including their solvers), which it does not see otherwise.
+     * Called every {@code optaweb.solver.cluster.heartbeat-interval}, which bounds how stale the registry can get.
+     */
+    @Transactional(readOnly = true)
+    public void refreshRosterVersionRegistry() {
+        for (Object[] tenantIdAndRosterVersion : rosterStateRepository.findAllTenantIdsAndRosterVersions()) {
+            rosterVersionRegistry.recordCommittedRosterVersion((Integer) tenantIdAndRosterVersion[0],
+                                                               (Long) tenantIdAndRosterVersion[1]);
+        }
+    }
+
+    private class RosterVersionSynchronization extends TransactionSynchronizationAdapter {
+
+        private final Map<Integer, RosterChange> tenantIdToRosterChangeMap;
+        private final Map<Integer, Long> tenantIdToIncrementedRosterVersionMap = new HashMap<>();
+
+        private RosterVersionSynchronization(Map<Integer, RosterChange> tenantIdToRosterChangeMap) {
+            this.tenantIdToRosterChangeMap = tenantIdToRosterChangeMap;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            for (Integer tenantId : tenantIdToRosterChangeMap.keySet()) {
+                // A tenant deleted in the same transaction has no roster version to increment
+                if (rosterStateRepository.incrementRosterVersion(tenantId) > 0) {
+                    // The increment holds the row lock, so no other transaction can have changed it since
+                    rosterStateRepository.findRosterVersionByTenantId(tenantId)
+                            .ifPresent(rosterVersion -> tenantIdToIncrementedRosterVersionMap.put(tenantId,
+                                                                                                  rosterVersion));
+                }
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RosterVersionService.this);
+            if (status != STATUS_COMMITTED) {
+                return;
+            }
+            tenantIdToRosterChangeMap.forEach((tenantId, rosterChange) -> {
+                Long rosterVersion = tenantIdToIncrementedRosterVersionMap.get(tenantId);
+                if (rosterVersion == null) {
+                    rosterVersionRegistry.forgetTenant(tenantId);
+                    rosterChangeLog.forgetTenant(tenantId);
+                } else {
+                    rosterChangeLog.append(tenantId, rosterVersion, rosterChange);
+                    rosterVersionRegistry.recordCommittedRosterVersion(tenantId, rosterVersion);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets concurrent requests for the same roster view share one computation of it (single flight),
+ * such as when every open client refreshes at once after solving.
+ * Only coalesces requests that are in flight at the same time: it caches nothing afterwards.
+ */
+@Component
+public class RosterViewRequestCoalescer {
+
+    private final ConcurrentMap<List<?>, CompletableFuture<Object>> viewKeyToInFlightViewMap =
+            new ConcurrentHashMap<>();
+
+    /**
+     * @param viewKey never null, must identify the tenant, the view type, its parameters and the roster version,
+     * as every request with an equal key gets the same view
+     * @param viewSupplier never null, only called if no request with an equal key is in flight
+     * @param <T> the view type
+     * @return the view computed by this request or by the request with an equal key that was already in flight
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T coalesce(List<?> viewKey, Supplier<T> viewSupplier) {
+        CompletableFuture<Object> viewFuture = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightViewFuture = viewKeyToInFlightViewMap.putIfAbsent(viewKey, viewFuture);
+        if (inFlightViewFuture != null) {
+            return (T) join(inFlightViewFuture);
+        }
+        try {
+            T view = viewSupplier.get();
+            viewFuture.complete(view);
+            return view;
+        } catch (RuntimeException | Error e) {
+            viewFuture.completeExceptionally(e);
+            throw e;
+        } finally {
+            viewKeyToInFlightViewMap.remove(viewKey, viewFuture);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> viewFuture) {
+        try {
+            return viewFuture.join();
+        } catch (CompletionException e) {
+            // Rethrow what the request in flight threw, so it maps to the same response status
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityView;
+import org.optaweb.employeerostering.domain.roster.Pagination;
+import org.optaweb.employeerostering.domain.roster.RosterState;
+import org.optaweb.employeerostering.domain.roster.view.AvailabilityRosterView;
+import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.service.common.IndictmentUtils;
+import org.optaweb.employeerostering.service.employee.EmployeeAvailabilityRepository;
+import org.optaweb.employeerostering.service.employee.EmployeeRepository;
+import org.optaweb.employeerostering.service.shift.ShiftRepository;
+import org.optaweb.employeerostering.service.spot.SpotRepository;
+import org.optaweb.employeerostering.util.ShiftRosterCsvFileIO;
+import org.optaweb.employeerostering.util.ShiftRosterXlsxFileIO;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes the same JSON as a serialized {@link ShiftRosterView} or {@link AvailabilityRosterView},
+ * but writes each shift and availability as it comes out of a database cursor,
+ * so the views are never built in memory, however long their date range is.
+ * Also writes the shift roster Excel and CSV files the same way.
+ */
+@Service
+public class RosterViewStreamingService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final RosterService rosterService;
+    private final SpotRepository spotRepository;
+    private final EmployeeRepository employeeRepository;
+    private final ShiftRepository shiftRepository;
+    private final EmployeeAvailabilityRepository employeeAvailabilityRepository;
+    private final IndictmentUtils indictmentUtils;
+    private final ObjectMapper objectMapper;
+
+    public RosterViewStreamingService(RosterService rosterService, SpotRepository spotRepository,
+                                      EmployeeRepository employeeRepository, ShiftRepository shiftRepository,
+                                      EmployeeAvailabilityRepository employeeAvailabilityRepository,
+                                      IndictmentUtils indictmentUtils, ObjectMapper objectMapper) {
+        this.rosterService = rosterService;
+        this.spotRepository = spotRepository;
+        this.employeeRepository = employeeRepository;
+        this.shiftRepository = shiftRepository;
+        this.employeeAvailabilityRepository = employeeAvailabilityRepository;
+        this.indictmentUtils = indictmentUtils;
+        this.objectMapper = objectMapper;
+    }
+
+    // ************************************************************************
+    // ShiftRosterView
+    // ************************************************************************
+
+    @Transactional(readOnly = true)
+    public void writeShiftRosterView(Integer tenantId, Integer pageNumber, Integer numberOfItemsPerPage,
+                                     LocalDate startDate, LocalDate endDate,
+                                     OutputStream outputStream) throws IOException {
+        Pagination pagination = Pagination.of(pageNumber, numberOfItemsPerPage);
+        List<Spot> spotList = spotRepository.findAllByTenantId(tenantId, PageRequest.of(
+                pagination.getPageNumber(), pagination.getNumberOfItemsPerPage()));
+        List<Employee> employeeList = employeeRepository.findAllByTenantId(tenantId, PageRequest.of(
+                0, Integer.MAX_VALUE));
+        RosterState rosterState = rosterService.getRosterState(tenantId);
+        ZoneId timeZone = rosterState.getTimeZone();
+        RosterScoreState rosterScoreState = rosterService.getRosterScoreState(tenantId,
+                                                                             rosterState.getRosterVersion());
+
+        try (JsonGenerator generator = createGenerator(outputStream);
+                Stream<Shift> shiftStream = shiftRepository.streamWithSpotsOrderedBySpot(
+                        tenantId, new HashSet<>(spotList), toOffsetDateTime(startDate, timeZone),
+                        toOffsetDateTime(endDate, timeZone))) {
+            generator.writeStartObject();
+            writeRosterViewFields(generator, tenantId, startDate, endDate, spotList, employeeList, rosterState,
+                                  rosterScoreState);
+            generator.writeObjectFieldStart("spotIdToShiftViewListMap");
+            Long currentSpotId = null;
+            for (Iterator<Shift> shiftIterator = shiftStream.iterator(); shiftIterator.hasNext(); ) {
+                Shift shift = shiftIterator.next();
+                Long spotId = shift.getSpot().getId();
+                if (!spotId.equals(currentSpotId)) {
+                    if (currentSpotId != null) {
+                        generator.writeEndArray();
+                    }
+                    generator.writeArrayFieldStart(spotId.toString());
+                    currentSpotId = spotId;
+                }
+                generator.writeObject(indictmentUtils.getShiftViewWithIndictment(
+                        timeZone, shift, rosterScoreState.getIndictment(shift)));
+                // Written, so the persistence context needs not keep it
+                entityManager.detach(shift);
+            }
+            if (currentSpotId != null) {
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+            generator.writeEndObject();
+        }
+    }
+
+    // ************************************************************************
+    // AvailabilityRosterView
+    // ************************************************************************
+
+    @Transactional(readOnly = true)
+    public void writeAvailabilityRosterView(Integer tenantId, Integer pageNumber, Integer numberOfItemsPerPage,
+                                            LocalDate startDate, LocalDate endDate,
+                                            OutputStream outputStream) throws IOException {
+        Pagination pagination = Pagination.of(pageNumber, numberOfItemsPerPage);
+        List<Spot> spotList = spotRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE));
+        List<Employee> employeeList = employeeRepository.findAllByTenantId(tenantId, PageRequest.of(
+                pagination.getPageNumber(), pagination.getNumberOfItemsPerPage()));
+        Set<Employee> employeeSet = new HashSet<>(employeeList);
+        RosterState rosterState = rosterService.getRosterState(tenantId);
+        ZoneId timeZone = rosterState.getTimeZone();
+        OffsetDateTime startDateTime = toOffsetDateTime(startDate, timeZone);
+        OffsetDateTime endDateTime = toOffsetDateTime(endDate, timeZone);
+        RosterScoreState rosterScoreState = rosterService.getRosterScoreState(tenantId,
+                                                                             rosterState.getRosterVersion());
+
+        try (JsonGenerator generator = createGenerator(outputStream)) {
+            generator.writeStartObject();
+            writeRosterViewFields(generator, tenantId, startDate, endDate, spotList, employeeList, rosterState,
+                                  rosterScoreState);
+
+            generator.writeObjectFieldStart("employeeIdToShiftViewListMap");
+            try (Stream<Shift> shiftStream = shiftRepository.streamWithEmployeesOrderedByEmployee(
+                    tenantId, employeeSet, startDateTime, endDateTime)) {
+                Long currentEmployeeId = null;
+                for (Iterator<Shift> shiftIterator = shiftStream.iterator(); shiftIterator.hasNext(); ) {
+                    Shift shift = shiftIterator.next();
+                    Long employeeId = shift.getEmployee().getId();
+                    if (!employeeId.equals(currentEmployeeId)) {
+                        if (currentEmployeeId != null) {
+                            generator.writeEndArray();
+                        }
+                        generator.writeArrayFieldStart(employeeId.toString());
+                        currentEmployeeId = employeeId;
+                    }
+                    generator.writeObject(indictmentUtils.getShiftViewWithIndictment(
+                            timeZone, shift, rosterScoreState.getIndictment(shift)));
+                    entityManager.detach(shift);
+                }
+                if (currentEmployeeId != null) {
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("employeeIdToAvailabilityViewListMap");
+            try (Stream<EmployeeAvailability> employeeAvailabilityStream = employeeAvailabilityRepository
+                    .streamWithEmployeeOrderedByEmployee(tenantId, employeeSet, startDateTime, endDateTime)) {
+                Long currentEmployeeId = null;
+                for (Iterator<EmployeeAvailability> employeeAvailabilityIterator =
+                     employeeAvailabilityStream.iterator(); employeeAvailabilityIterator.hasNext(); ) {
+                    EmployeeAvailability employeeAvailability = employeeAvailabilityIterator.next();
+                    Long employeeId = employeeAvailability.getEmployee().getId();
+                    if (!employeeId.equals(currentEmployeeId)) {
+                        if (currentEmployeeId != null) {
+                            generator.writeEndArray();
+                        }
+                        generator.writeArrayFieldStart(employeeId.toString());
+                        currentEmployeeId = employeeId;
+                    }
+                    generator.writeObject(new EmployeeAvailabilityView(timeZone, employeeAvailability));
+                    entityManager.detach(employeeAvailability);
+                }
+                if (currentEmployeeId != null) {
+                    generator.writeEndArray();
+                }
+            }
+            generator.writeEndObject();
+
+            // Like the in-memory view, which only holds the shifts of the employees on the page
+            generator.writeArrayFieldStart("unassignedShiftViewList");
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    // ************************************************************************
+    // Shift roster files
+    // ************************************************************************
+
+    /**
+     * Writes the shifts of the spots as an Excel file, with the layout of {@link ShiftRosterXlsxFileIO}.
+     * The shifts are read from a cursor and no indictments are computed, so memory stays bounded.
+     */
+    @Transactional(readOnly = true)
+    public void writeShiftRosterAsExcel(Integer tenantId, List<Spot> spotList, LocalDate startDate,
+                                        LocalDate endDate, OutputStream outputStream) throws IOException {
+        ZoneId timeZone = rosterService.getRosterState(tenantId).getTimeZone();
+        try (Stream<Shift> shiftStream = shiftRepository.streamWithSpotsOrderedBySpot(
+                tenantId, new HashSet<>(spotList), toOffsetDateTime(startDate, timeZone),
+                toOffsetDateTime(endDate, timeZone))) {
+            ShiftRosterXlsxFileIO.writeExcelForShiftRoster(spotList, timeZone,
+                                                           detachingIterator(shiftStream.iterator()),
+                                                           outputStream);
+        }
+    }
+
+    /**
+     * Writes the shifts of the spots as CSV, one line per shift, ordered by spot and then by start date time.
+     */
+    @Transactional(readOnly = true)
+    public void writeShiftRosterAsCsv(Integer tenantId, List<Spot> spotList, LocalDate startDate,
+                                      LocalDate endDate, OutputStream outputStream) throws IOException {
+        ZoneId timeZone = rosterService.getRosterState(tenantId).getTimeZone();
+        // Not closed, because that would close the response stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (Stream<Shift> shiftStream = shiftRepository.streamWithSpotsOrderedBySpot(
+                tenantId, new HashSet<>(spotList), toOffsetDateTime(startDate, timeZone),
+                toOffsetDateTime(endDate, timeZone))) {
+            ShiftRosterCsvFileIO.writeCsvForShiftRoster(timeZone, detachingIterator(shiftStream.iterator()), writer);
+        }
+    }
+
+    // ************************************************************************
+    // Helper methods
+    // ************************************************************************
+
+    /**
+     * Detaches each returned entity once the next one is asked for, so the persistence context needs not keep
+     * the entities that have already been written.
+     */
+    private <T> Iterator<T> detachingIterator(Iterator<T> iterator) {
+        return new Iterator<T>() {
+
+            private T lastReturned = null;
+
+            @Override
+            public boolean hasNext() {
+                detachLastReturned();
+                return iterator.hasNext();
+            }
+
+            @Override
+            public T next() {
+                detachLastReturned();
+                lastReturned = iterator.next();
+                return lastReturned;
+            }
+
+            private void detachLastReturned() {
+                if (lastReturned != null) {
+                    entityManager.detach(lastReturned);
+                    lastReturned = null;
+                }
+            }
+        };
+    }
+
+    private JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+        // The factory of the mapper makes writeObject() serialize like the MVC message converters
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        // Leave closing the response stream to the servlet container
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // If writing fails half way, the client should get invalid JSON rather than a valid but truncated view
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        return generator;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(LocalDate date, ZoneId timeZone) {
+        return date.atStartOfDay(timeZone).toOffsetDateTime();
+    }
+
+    private void writeRosterViewFields(JsonGenerator generator, Integer tenantId, LocalDate startDate,
+                                       LocalDate endDate, List<Spot> spotList, List<Employee> employeeList,
+                                       RosterState rosterState,
+                                       RosterScoreState rosterScoreState) throws IOException {
+        generator.writeObjectField("tenantId", tenantId);
+        generator.writeObjectField("startDate", startDate);
+        generator.writeObjectField("endDate", endDate);
+        generator.writeObjectField("spotList", spotList);
+        generator.writeObjectField("employeeList", employeeList);
+        generator.writeObjectField("rosterState", rosterState);
+        generator.writeObjectField("rosterVersion", rosterState.getRosterVersion());
+        generator.writeObjectField("indictmentSummary", rosterScoreState.getIndictmentSummary());
+        generator.writeObjectField("score", rosterScoreState.getScore());
+    }
+}
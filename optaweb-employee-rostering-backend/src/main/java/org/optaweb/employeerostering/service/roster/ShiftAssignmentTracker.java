@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.roster;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * Remembers, per shift, the employee and version that are currently persisted as far as one solver run knows.
+ * Consecutive best solutions only write back the shifts whose employee changed, and each write is checked
+ * against the version this solver run last wrote (or loaded), so concurrent user edits are never overwritten.
+ * Not thread-safe: a tracker belongs to the single solver thread that writes back its best solutions.
+ */
+public class ShiftAssignmentTracker {
+
+    private final Map<Long, Long> shiftIdToEmployeeIdMap;
+    private final Map<Long, Long> shiftIdToVersionMap;
+    // Written by the solver thread only, but read by the heartbeat to tell the solver's roster changes apart
+    private volatile long writeCount = 0L;
+
+    public ShiftAssignmentTracker(Roster roster) {
+        shiftIdToEmployeeIdMap = new HashMap<>(roster.getShiftList().size());
+        shiftIdToVersionMap = new HashMap<>(roster.getShiftList().size());
+        markAllPersisted(roster);
+    }
+
+    /**
+     * Forgets everything tracked so far, for a solver run that adopted a freshly loaded roster.
+     * @param roster never null, as persisted
+     */
+    public void markAllPersisted(Roster roster) {
+        shiftIdToEmployeeIdMap.clear();
+        shiftIdToVersionMap.clear();
+        for (Shift shift : roster.getShiftList()) {
+            markPersisted(shift.getId(), getEmployeeId(shift), shift.getVersion());
+        }
+    }
+
+    public boolean isTracked(Shift shift) {
+        return shiftIdToVersionMap.containsKey(shift.getId());
+    }
+
+    public boolean isAssignmentChanged(Shift shift) {
+        return isTracked(shift) && !Objects.equals(shiftIdToEmployeeIdMap.get(shift.getId()), getEmployeeId(shift));
+    }
+
+    public Long getPersistedEmployeeId(Long shiftId) {
+        return shiftIdToEmployeeIdMap.get(shiftId);
+    }
+
+    public Long getPersistedVersion(Long shiftId) {
+        return shiftIdToVersionMap.get(shiftId);
+    }
+
+    public void markPersisted(Long shiftId, Long employeeId, Long version) {
+        shiftIdToEmployeeIdMap.put(shiftId, employeeId);
+        shiftIdToVersionMap.put(shiftId, version);
+    }
+
+    public void markDeleted(Long shiftId) {
+        shiftIdToEmployeeIdMap.remove(shiftId);
+        shiftIdToVersionMap.remove(shiftId);
+    }
+
+    /**
+     * @return at least 0, the number of committed transactions that wrote back a best solution, each of which
+     * incremented the roster version once
+     */
+    public long getWriteCount() {
+        return writeCount;
+    }
+
+    public void countWrite() {
+        writeCount++;
+    }
+
+    public static Long getEmployeeId(Shift shift) {
+        Employee employee = shift.getEmployee();
+        return (employee == null) ? null : employee.getId();
+    }
+}
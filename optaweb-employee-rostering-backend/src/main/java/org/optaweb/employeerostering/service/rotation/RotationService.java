@@ -33,6 +33,7 @@ import org.optaweb.employeerostering.domain.spot.Spot;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
 import org.optaweb.employeerostering.service.employee.EmployeeService;
 import org.optaweb.employeerostering.service.roster.RosterService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.optaweb.employeerostering.service.skill.SkillService;
 import org.optaweb.employeerostering.service.spot.SpotService;
 import org.springframework.stereotype.Service;
@@ -47,9 +48,11 @@ public class RotationService extends AbstractRestService {
     private final SpotService spotService;
     private final SkillService skillService;
     private final EmployeeService employeeService;
+    private final RosterVersionService rosterVersionService;
 
     public RotationService(ShiftTemplateRepository shiftTemplateRepository, RosterService rosterService,
-                           SpotService spotService, SkillService skillService, EmployeeService employeeService) {
+                           SpotService spotService, SkillService skillService, EmployeeService employeeService,
+                           RosterVersionService rosterVersionService) {
         this.shiftTemplateRepository = shiftTemplateRepository;
 
         this.rosterService = rosterService;
@@ -63,6 +66,9 @@ public class RotationService extends AbstractRestService {
 
         this.employeeService = employeeService;
         Assert.notNull(employeeService, "employeeService must not be null.");
+
+        this.rosterVersionService = rosterVersionService;
+        Assert.notNull(rosterVersionService, "rosterVersionService must not be null.");
     }
 
     @Transactional
@@ -107,6 +113,7 @@ public class RotationService extends AbstractRestService {
         ShiftTemplate shiftTemplate = new ShiftTemplate(rosterState.getRotationLength(), shiftTemplateView, spot,
                                                         employee, requiredSkillSet);
         validateTenantIdParameter(tenantId, shiftTemplate);
+        rosterVersionService.markRosterChanged(tenantId);
         shiftTemplateRepository.save(shiftTemplate);
         return new ShiftTemplateView(rosterState.getRotationLength(), shiftTemplate);
     }
@@ -138,6 +145,7 @@ public class RotationService extends AbstractRestService {
                                                     ") cannot change tenants.");
         }
 
+        rosterVersionService.markRosterChanged(tenantId);
         oldShiftTemplate.setRotationEmployee(employee);
         oldShiftTemplate.setSpot(spot);
         oldShiftTemplate.setStartDayOffset(newShiftTemplate.getStartDayOffset());
@@ -160,6 +168,7 @@ public class RotationService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, shiftTemplateOptional.get());
+        rosterVersionService.markRosterChanged(tenantId);
         shiftTemplateRepository.deleteById(id);
         return true;
     }
@@ -23,6 +23,7 @@ import javax.validation.constraints.Min;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
 
 import org.springframework.http.HttpStatus;
@@ -84,4 +85,27 @@ public class ShiftController {
                                                  @RequestBody @Valid ShiftView shiftView) {
         return new ResponseEntity<>(shiftService.updateShift(tenantId, shiftView), HttpStatus.OK);
     }
+
+    @ApiOperation("Add a list of new shifts in one transaction, reporting the result of each shift")
+    @PostMapping("/bulk/add")
+    public ResponseEntity<List<BulkItemResult<ShiftView>>> createShifts(@PathVariable @Min(0) Integer tenantId,
+                                                                        @RequestBody @Valid
+                                                                                List<ShiftView> shiftViewList) {
+        return new ResponseEntity<>(shiftService.createShifts(tenantId, shiftViewList), HttpStatus.OK);
+    }
+
+    @ApiOperation("Update a list of shifts in one transaction, reporting the result of each shift")
+    @PutMapping("/bulk/update")
+    public ResponseEntity<List<BulkItemResult<ShiftView>>> updateShifts(@PathVariable @Min(0) Integer tenantId,
+                                                                        @RequestBody @Valid
+                                                                                List<ShiftView> shiftViewList) {
+        return new ResponseEntity<>(shiftService.updateShifts(tenantId, shiftViewList), HttpStatus.OK);
+    }
+
+    @ApiOperation("Delete a list of shifts by id in one transaction, reporting the result of each id")
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<List<BulkItemResult<Long>>> deleteShifts(@PathVariable @Min(0) Integer tenantId,
+                                                                   @RequestBody List<Long> idList) {
+        return new ResponseEntity<>(shiftService.deleteShifts(tenantId, idList), HttpStatus.OK);
+    }
 }
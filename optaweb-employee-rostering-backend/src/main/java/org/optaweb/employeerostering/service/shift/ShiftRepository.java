@@ -19,6 +19,9 @@ package org.optaweb.employeerostering.service.shift;
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
 
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.shift.Shift;
@@ -26,6 +29,7 @@ import org.optaweb.employeerostering.domain.spot.Spot;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -59,6 +63,24 @@ public interface ShiftRepository extends JpaRepository<Shift, Long> {
             " where s.tenantId = :tenantId")
     void deleteForTenant(@Param("tenantId") Integer tenantId);
 
+    @Query("select distinct sa from Shift sa" +
+            " left join fetch sa.spot s" +
+            " left join fetch sa.rotationEmployee re" +
+            " left join fetch sa.originalEmployee oe" +
+            " left join fetch sa.employee e" +
+            " where sa.tenantId = :tenantId" +
+            " and sa.endDateTime < :endDateTime" +
+            " order by sa.startDateTime, s.name, e.name")
+    List<Shift> findAllByTenantIdEndingBefore(@Param("tenantId") Integer tenantId,
+                                              @Param("endDateTime") OffsetDateTime endDateTime);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Shift s" +
+            " where s.tenantId = :tenantId" +
+            " and s.endDateTime < :endDateTime")
+    int deleteForTenantEndingBefore(@Param("tenantId") Integer tenantId,
+                                    @Param("endDateTime") OffsetDateTime endDateTime);
+
     @Query("select distinct sa from Shift sa" +
             " left join fetch sa.spot s" +
             " left join fetch sa.rotationEmployee re" +
@@ -87,4 +109,54 @@ public interface ShiftRepository extends JpaRepository<Shift, Long> {
                                     @Param("employeeSet") Set<Employee> employeeSet,
                                     @Param("startDateTime") OffsetDateTime startDateTime,
                                     @Param("endDateTime") OffsetDateTime endDateTime);
+
+    // Cursors for the streamed roster views: must be consumed (and closed) inside a transaction
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select sa from Shift sa" +
+            " left join fetch sa.spot s" +
+            " left join fetch sa.rotationEmployee re" +
+            " left join fetch sa.originalEmployee oe" +
+            " left join fetch sa.employee e" +
+            " where sa.tenantId = :tenantId" +
+            " and sa.spot IN :spotSet" +
+            " and sa.endDateTime >= :startDateTime" +
+            " and sa.startDateTime < :endDateTime" +
+            " order by s.id, sa.startDateTime, sa.endDateTime, e.name")
+    Stream<Shift> streamWithSpotsOrderedBySpot(@Param("tenantId") Integer tenantId,
+                                               @Param("spotSet") Set<Spot> spotSet,
+                                               @Param("startDateTime") OffsetDateTime startDateTime,
+                                               @Param("endDateTime") OffsetDateTime endDateTime);
+
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select sa from Shift sa" +
+            " left join fetch sa.spot s" +
+            " left join fetch sa.rotationEmployee re" +
+            " left join fetch sa.originalEmployee oe" +
+            " left join fetch sa.employee e" +
+            " where sa.tenantId = :tenantId" +
+            " and sa.employee IN :employeeSet" +
+            " and sa.endDateTime >= :startDateTime" +
+            " and sa.startDateTime < :endDateTime" +
+            " order by e.id, sa.startDateTime, s.name")
+    Stream<Shift> streamWithEmployeesOrderedByEmployee(@Param("tenantId") Integer tenantId,
+                                                       @Param("employeeSet") Set<Employee> employeeSet,
+                                                       @Param("startDateTime") OffsetDateTime startDateTime,
+                                                       @Param("endDateTime") OffsetDateTime endDateTime);
+
+    // The (eager) skill sets are fetched in the same query, instead of 1 query per shift and per employee.
+    // Ordered by shift, so the cursor gathers the rows of each shift's skill sets into that shift.
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select sa from Shift sa" +
+            " left join fetch sa.spot s" +
+            " left join fetch sa.requiredSkillSet rs" +
+            " left join fetch sa.employee e" +
+            " left join fetch e.skillProficiencySet es" +
+            " where sa.tenantId = :tenantId" +
+            " and sa.endDateTime >= :startDateTime" +
+            " and sa.startDateTime < :endDateTime" +
+            " order by sa.id")
+    Stream<Shift> streamAllByTenantIdBetweenDates(@Param("tenantId") Integer tenantId,
+                                                  @Param("startDateTime") OffsetDateTime startDateTime,
+                                                  @Param("endDateTime") OffsetDateTime endDateTime);
 }
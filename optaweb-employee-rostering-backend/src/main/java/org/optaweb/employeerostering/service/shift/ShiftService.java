@@ -16,16 +16,23 @@
 
 package org.optaweb.employeerostering.service.shift;
 
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.shift.Shift;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
@@ -34,9 +41,12 @@ import org.optaweb.employeerostering.domain.spot.Spot;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
 import org.optaweb.employeerostering.service.common.IndictmentUtils;
 import org.optaweb.employeerostering.service.employee.EmployeeRepository;
+import org.optaweb.employeerostering.service.roster.RosterChange;
 import org.optaweb.employeerostering.service.roster.RosterService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.optaweb.employeerostering.service.skill.SkillService;
 import org.optaweb.employeerostering.service.spot.SpotRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -55,17 +65,22 @@ public class ShiftService extends AbstractRestService {
 
     private IndictmentUtils indictmentUtils;
 
+    private RosterVersionService rosterVersionService;
+
     public ShiftService(ShiftRepository shiftRepository, SpotRepository spotRepository,
                         SkillService skillService, EmployeeRepository employeeRepository,
-                        RosterService rosterService, IndictmentUtils indictmentUtils) {
+                        RosterService rosterService, IndictmentUtils indictmentUtils,
+                        RosterVersionService rosterVersionService) {
         this.shiftRepository = shiftRepository;
         this.spotRepository = spotRepository;
         this.skillService = skillService;
         this.employeeRepository = employeeRepository;
         this.rosterService = rosterService;
         this.indictmentUtils = indictmentUtils;
+        this.rosterVersionService = rosterVersionService;
     }
 
+    @Transactional(readOnly = true)
     public List<ShiftView> getShiftList(Integer tenantId) {
         Map<Object, Indictment> indictmentMap = indictmentUtils.getIndictmentMapForRoster(
                 rosterService.buildRoster(tenantId));
@@ -79,7 +94,7 @@ public class ShiftService extends AbstractRestService {
         return shiftRepository.findAllByTenantId(tenantId);
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public ShiftView getShift(Integer tenantId, Long id) {
         Shift shift = shiftRepository
                 .findById(id)
@@ -93,10 +108,19 @@ public class ShiftService extends AbstractRestService {
     }
 
     private Shift convertFromView(Integer tenantId, ShiftView shiftView) {
+        return convertFromView(tenantId, shiftView, rosterService.getRosterState(tenantId).getTimeZone(),
+                               spotRepository::findById, employeeRepository::findById,
+                               skillId -> skillService.getSkill(tenantId, skillId));
+    }
+
+    private Shift convertFromView(Integer tenantId, ShiftView shiftView, ZoneId zoneId,
+                                  Function<Long, Optional<Spot>> spotLookup,
+                                  Function<Long, Optional<Employee>> employeeLookup,
+                                  Function<Long, Skill> skillLookup) {
         validateTenantIdParameter(tenantId, shiftView);
 
-        Spot spot = spotRepository
-                .findById(shiftView.getSpotId())
+        Spot spot = spotLookup
+                .apply(shiftView.getSpotId())
                 .orElseThrow(() -> new EntityNotFoundException("No Spot entity found with ID (" + shiftView.getSpotId()
                                                                        + ")."));
 
@@ -105,8 +129,8 @@ public class ShiftService extends AbstractRestService {
         Long rotationEmployeeId = shiftView.getRotationEmployeeId();
         Employee rotationEmployee = null;
         if (rotationEmployeeId != null) {
-            rotationEmployee = employeeRepository
-                    .findById(rotationEmployeeId)
+            rotationEmployee = employeeLookup
+                    .apply(rotationEmployeeId)
                     .orElseThrow(() -> new EntityNotFoundException("ShiftView (" + shiftView +
                                                                            ") has an non-existing " +
                                                                            "rotationEmployeeId (" +
@@ -117,8 +141,8 @@ public class ShiftService extends AbstractRestService {
         Long originalEmployeeId = shiftView.getOriginalEmployeeId();
         Employee originalEmployee = null;
         if (originalEmployeeId != null) {
-            originalEmployee = employeeRepository
-                    .findById(originalEmployeeId)
+            originalEmployee = employeeLookup
+                    .apply(originalEmployeeId)
                     .orElseThrow(() -> new EntityNotFoundException("ShiftView (" + shiftView +
                                                                            ") has an non-existing " +
                                                                            "originalEmployeeId (" +
@@ -127,17 +151,16 @@ public class ShiftService extends AbstractRestService {
         }
 
         Set<Skill> requiredSkillSet = shiftView.getRequiredSkillSetIdList()
-                .stream().map(id -> skillService.getSkill(tenantId, id))
+                .stream().map(skillLookup)
                 .collect(Collectors.toCollection(HashSet::new));
 
-        Shift shift = new Shift(rosterService.getRosterState(tenantId).getTimeZone(), shiftView, spot,
-                                rotationEmployee, requiredSkillSet, originalEmployee);
+        Shift shift = new Shift(zoneId, shiftView, spot, rotationEmployee, requiredSkillSet, originalEmployee);
         shift.setPinnedByUser(shiftView.isPinnedByUser());
 
         Long employeeId = shiftView.getEmployeeId();
         if (employeeId != null) {
-            Employee employee = employeeRepository
-                    .findById(employeeId)
+            Employee employee = employeeLookup
+                    .apply(employeeId)
                     .orElseThrow(() -> new EntityNotFoundException("ShiftView (" + shiftView +
                                                                            ") has an non-existing employeeId (" +
                                                                            employeeId + ")."));
@@ -152,6 +175,7 @@ public class ShiftService extends AbstractRestService {
     public ShiftView createShift(Integer tenantId, ShiftView shiftView) {
         Shift shift = convertFromView(tenantId, shiftView);
         Shift persistedShift = shiftRepository.save(shift);
+        rosterVersionService.recordRosterChange(tenantId).addChangedShift(persistedShift);
 
         Indictment indictment = indictmentUtils.getIndictmentMapForRoster(
                 rosterService.buildRoster(tenantId)).get(persistedShift);
@@ -172,13 +196,10 @@ public class ShiftService extends AbstractRestService {
                                                     + ") cannot change tenants.");
         }
 
-        oldShift.setRotationEmployee(newShift.getRotationEmployee());
-        oldShift.setOriginalEmployee(newShift.getOriginalEmployee());
-        oldShift.setSpot(newShift.getSpot());
-        oldShift.setStartDateTime(newShift.getStartDateTime());
-        oldShift.setEndDateTime(newShift.getEndDateTime());
-        oldShift.setPinnedByUser(newShift.isPinnedByUser());
-        oldShift.setEmployee(newShift.getEmployee());
+        RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+        rosterChange.addAffectedEmployee(oldShift.getEmployee());
+        updateShiftFields(oldShift, newShift);
+        rosterChange.addChangedShift(oldShift);
 
         // Flush to increase version number before we duplicate it to ShiftView
         Shift updatedShift = shiftRepository.saveAndFlush(oldShift);
@@ -196,7 +217,155 @@ public class ShiftService extends AbstractRestService {
             return false;
         }
         validateTenantIdParameter(tenantId, shiftOptional.get());
+        rosterVersionService.recordRosterChange(tenantId).addDeletedShift(shiftOptional.get());
         shiftRepository.deleteById(id);
         return true;
     }
+
+    private void updateShiftFields(Shift oldShift, Shift newShift) {
+        oldShift.setRotationEmployee(newShift.getRotationEmployee());
+        oldShift.setOriginalEmployee(newShift.getOriginalEmployee());
+        oldShift.setSpot(newShift.getSpot());
+        oldShift.setStartDateTime(newShift.getStartDateTime());
+        oldShift.setEndDateTime(newShift.getEndDateTime());
+        oldShift.setPinnedByUser(newShift.isPinnedByUser());
+        oldShift.setEmployee(newShift.getEmployee());
+    }
+
+    // ************************************************************************
+    // Bulk
+    // ************************************************************************
+
+    /**
+     * Converts shift views with the spots, employees and skills of the tenant fetched once up front,
+     * instead of several lookups per shift.
+     */
+    private Function<ShiftView, Shift> getBulkShiftConverter(Integer tenantId) {
+        ZoneId zoneId = rosterService.getRosterState(tenantId).getTimeZone();
+        Map<Long, Spot> spotMap = spotRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE))
+                .stream().collect(Collectors.toMap(Spot::getId, Function.identity()));
+        Map<Long, Employee> employeeMap = employeeRepository
+                .findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE))
+                .stream().collect(Collectors.toMap(Employee::getId, Function.identity()));
+        Map<Long, Skill> skillMap = skillService.getSkillList(tenantId)
+                .stream().collect(Collectors.toMap(Skill::getId, Function.identity()));
+        return shiftView -> convertFromView(tenantId, shiftView, zoneId,
+                                            spotId -> Optional.ofNullable(spotMap.get(spotId)),
+                                            employeeId -> Optional.ofNullable(employeeMap.get(employeeId)),
+                                            skillId -> Optional.ofNullable(skillMap.get(skillId))
+                                                    .orElseThrow(() -> new EntityNotFoundException(
+                                                            "No Skill entity found with ID (" + skillId + ").")));
+    }
+
+    /**
+     * Scores the roster once for all the shifts of a bulk request.
+     */
+    private List<BulkItemResult<ShiftView>> getBulkShiftResultList(Integer tenantId,
+                                                                   List<BulkItemResult<ShiftView>> resultList,
+                                                                   Map<Integer, Shift> indexToShiftMap) {
+        if (!indexToShiftMap.isEmpty()) {
+            ZoneId zoneId = rosterService.getRosterState(tenantId).getTimeZone();
+            Map<Object, Indictment> indictmentMap = indictmentUtils.getIndictmentMapForRoster(
+                    rosterService.buildRoster(tenantId));
+            indexToShiftMap.forEach((index, shift) -> resultList.add(BulkItemResult.success(
+                    index, indictmentUtils.getShiftViewWithIndictment(zoneId, shift, indictmentMap.get(shift)))));
+        }
+        resultList.sort(Comparator.comparingInt(BulkItemResult::getIndex));
+        return resultList;
+    }
+
+    @Transactional
+    public List<BulkItemResult<ShiftView>> createShifts(Integer tenantId, List<ShiftView> shiftViewList) {
+        Function<ShiftView, Shift> shiftConverter = getBulkShiftConverter(tenantId);
+        List<BulkItemResult<ShiftView>> resultList = new ArrayList<>(shiftViewList.size());
+        Map<Integer, Shift> indexToShiftMap = new LinkedHashMap<>(shiftViewList.size());
+        for (int i = 0; i < shiftViewList.size(); i++) {
+            try {
+                indexToShiftMap.put(i, shiftConverter.apply(shiftViewList.get(i)));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToShiftMap.isEmpty()) {
+            RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+            List<Integer> indexList = new ArrayList<>(indexToShiftMap.keySet());
+            List<Shift> persistedShiftList = shiftRepository.saveAll(indexToShiftMap.values());
+            shiftRepository.flush();
+            for (int i = 0; i < indexList.size(); i++) {
+                indexToShiftMap.put(indexList.get(i), persistedShiftList.get(i));
+                rosterChange.addChangedShift(persistedShiftList.get(i));
+            }
+        }
+        return getBulkShiftResultList(tenantId, resultList, indexToShiftMap);
+    }
+
+    @Transactional
+    public List<BulkItemResult<ShiftView>> updateShifts(Integer tenantId, List<ShiftView> shiftViewList) {
+        Function<ShiftView, Shift> shiftConverter = getBulkShiftConverter(tenantId);
+        RosterChange rosterChange = new RosterChange();
+        Map<Long, Shift> oldShiftMap = shiftRepository.findAllById(shiftViewList.stream()
+                                                                           .map(ShiftView::getId)
+                                                                           .filter(Objects::nonNull)
+                                                                           .collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Shift::getId, Function.identity()));
+        List<BulkItemResult<ShiftView>> resultList = new ArrayList<>(shiftViewList.size());
+        Map<Integer, Shift> indexToShiftMap = new LinkedHashMap<>(shiftViewList.size());
+        for (int i = 0; i < shiftViewList.size(); i++) {
+            try {
+                Shift newShift = shiftConverter.apply(shiftViewList.get(i));
+                Shift oldShift = oldShiftMap.get(newShift.getId());
+                if (oldShift == null) {
+                    throw new EntityNotFoundException("Shift entity with ID (" + newShift.getId() + ") not found.");
+                }
+                if (!oldShift.getTenantId().equals(newShift.getTenantId())) {
+                    throw new IllegalStateException("Shift entity with tenantId (" + oldShift.getTenantId()
+                                                            + ") cannot change tenants.");
+                }
+                rosterChange.addAffectedEmployee(oldShift.getEmployee());
+                updateShiftFields(oldShift, newShift);
+                rosterChange.addChangedShift(oldShift);
+                indexToShiftMap.put(i, oldShift);
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!indexToShiftMap.isEmpty()) {
+            rosterVersionService.recordRosterChange(tenantId).merge(rosterChange);
+            // Flush to increase the version numbers before we duplicate them to the ShiftViews
+            shiftRepository.flush();
+        }
+        return getBulkShiftResultList(tenantId, resultList, indexToShiftMap);
+    }
+
+    @Transactional
+    public List<BulkItemResult<Long>> deleteShifts(Integer tenantId, List<Long> idList) {
+        Map<Long, Shift> shiftMap = shiftRepository.findAllById(new HashSet<>(idList))
+                .stream().collect(Collectors.toMap(Shift::getId, Function.identity()));
+        List<BulkItemResult<Long>> resultList = new ArrayList<>(idList.size());
+        Set<Shift> deletedShiftSet = new HashSet<>(idList.size());
+        for (int i = 0; i < idList.size(); i++) {
+            Long id = idList.get(i);
+            Shift shift = shiftMap.get(id);
+            try {
+                if (shift == null) {
+                    throw new EntityNotFoundException("No Shift entity found with ID (" + id + ").");
+                }
+                validateTenantIdParameter(tenantId, shift);
+                deletedShiftSet.add(shift);
+                resultList.add(BulkItemResult.success(i, id));
+            } catch (EntityNotFoundException | IllegalStateException e) {
+                resultList.add(BulkItemResult.failure(i, e.getMessage()));
+            }
+        }
+
+        if (!deletedShiftSet.isEmpty()) {
+            RosterChange rosterChange = rosterVersionService.recordRosterChange(tenantId);
+            deletedShiftSet.forEach(rosterChange::addDeletedShift);
+            shiftRepository.deleteAll(deletedShiftSet);
+            shiftRepository.flush();
+        }
+        return resultList;
+    }
 }
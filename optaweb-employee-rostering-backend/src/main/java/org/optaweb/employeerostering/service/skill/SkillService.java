@@ -18,12 +18,14 @@ package org.optaweb.employeerostering.service.skill;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 
 import org.optaweb.employeerostering.domain.skill.Skill;
 import org.optaweb.employeerostering.domain.skill.view.SkillView;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,9 +33,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class SkillService extends AbstractRestService {
 
     private final SkillRepository skillRepository;
+    private final RosterVersionService rosterVersionService;
 
-    public SkillService(SkillRepository skillRepository) {
+    public SkillService(SkillRepository skillRepository, RosterVersionService rosterVersionService) {
         this.skillRepository = skillRepository;
+        this.rosterVersionService = rosterVersionService;
     }
 
     public Skill convertFromView(Integer tenantId, SkillView skillView) {
@@ -68,6 +72,7 @@ public class SkillService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, skillOptional.get());
+        rosterVersionService.markRosterChanged(tenantId);
         skillRepository.deleteById(id);
         return true;
     }
@@ -75,9 +80,22 @@ public class SkillService extends AbstractRestService {
     @Transactional
     public Skill createSkill(Integer tenantId, SkillView skillView) {
         Skill skill = convertFromView(tenantId, skillView);
+        rosterVersionService.markRosterChanged(tenantId);
         return skillRepository.save(skill);
     }
 
+    /**
+     * Creates all the skills with one roster change and batched inserts.
+     */
+    @Transactional
+    public List<Skill> createSkills(Integer tenantId, List<SkillView> skillViewList) {
+        List<Skill> skillList = skillViewList.stream()
+                .map(skillView -> convertFromView(tenantId, skillView))
+                .collect(Collectors.toList());
+        rosterVersionService.markRosterChanged(tenantId);
+        return skillRepository.saveAll(skillList);
+    }
+
     @Transactional
     public Skill updateSkill(Integer tenantId, SkillView skillView) {
         Skill newSkill = convertFromView(tenantId, skillView);
@@ -91,6 +109,7 @@ public class SkillService extends AbstractRestService {
                                                     ") cannot change tenants.");
         }
 
+        rosterVersionService.markRosterChanged(tenantId);
         oldSkill.setName(newSkill.getName());
         return skillRepository.save(oldSkill);
     }
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * The best solution of each tenant that this node solved, kept as its score and the employee of each shift only,
+ * so it costs 2 longs per shift instead of a copy of the whole roster.
+ * Bounded: the least recently used best solutions are evicted once this node keeps more than the maximum number
+ * of them, or once their estimated heap size exceeds the maximum. The most recent best solution is always kept,
+ * and so are those of the tenants this node is solving, which can exceed the maximums until they stop solving.
+ */
+@Component
+public class BestSolutionStore {
+
+    private final int maximumSize;
+    private final long maximumBytes;
+
+    // Guarded by this, in access order for the least recently used eviction
+    private final LinkedHashMap<Integer, BestSolution> tenantIdToBestSolutionMap =
+            new LinkedHashMap<>(16, 0.75f, true);
+    private long estimatedBytes = 0L;
+    private final Set<Integer> solvingTenantIdSet = new HashSet<>();
+
+    public BestSolutionStore(@Value("${optaweb.solver.best-solution-store.max-size:1000}") int maximumSize,
+                             @Value("${optaweb.solver.best-solution-store.max-bytes:67108864}") long maximumBytes,
+                             MeterRegistry meterRegistry) {
+        if (maximumSize < 1) {
+            throw new IllegalStateException("The maximumSize (" + maximumSize + ") must be at least 1.");
+        }
+        if (maximumBytes < 1L) {
+            throw new IllegalStateException("The maximumBytes (" + maximumBytes + ") must be at least 1.");
+        }
+        this.maximumSize = maximumSize;
+        this.maximumBytes = maximumBytes;
+        Gauge.builder("optaweb.solver.best-solutions", this, BestSolutionStore::size)
+                .description("The number of best solutions this node keeps")
+                .register(meterRegistry);
+        Gauge.builder("optaweb.solver.best-solutions.estimated-size", this, BestSolutionStore::getEstimatedBytes)
+                .description("The estimated heap size of the best solutions this node keeps")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param tenantId never null
+     * @param roster never null, the best solution of that tenant, not kept by this store
+     */
+    public void put(Integer tenantId, Roster roster) {
+        BestSolution bestSolution = new BestSolution(roster);
+        synchronized (this) {
+            BestSolution oldBestSolution = tenantIdToBestSolutionMap.put(tenantId, bestSolution);
+            if (oldBestSolution != null) {
+                estimatedBytes -= oldBestSolution.getEstimatedBytes();
+            }
+            estimatedBytes += bestSolution.getEstimatedBytes();
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    /**
+     * Keeps the best solution of the tenant until {@link #markNotSolving(Integer)}, whatever the maximums.
+     * @param tenantId never null
+     */
+    public synchronized void markSolving(Integer tenantId) {
+        solvingTenantIdSet.add(tenantId);
+    }
+
+    /**
+     * @param tenantId never null
+     */
+    public synchronized void markNotSolving(Integer tenantId) {
+        if (solvingTenantIdSet.remove(tenantId)) {
+            evictLeastRecentlyUsed();
+        }
+    }
+
+    // Guarded by this
+    private void evictLeastRecentlyUsed() {
+        Iterator<Map.Entry<Integer, BestSolution>> leastRecentlyUsedIterator =
+                tenantIdToBestSolutionMap.entrySet().iterator();
+        // Never the most recent one
+        for (int evictableCount = tenantIdToBestSolutionMap.size() - 1; evictableCount > 0
+                && (tenantIdToBestSolutionMap.size() > maximumSize || estimatedBytes > maximumBytes);
+             evictableCount--) {
+            Map.Entry<Integer, BestSolution> entry = leastRecentlyUsedIterator.next();
+            if (!solvingTenantIdSet.contains(entry.getKey())) {
+                estimatedBytes -= entry.getValue().getEstimatedBytes();
+                leastRecentlyUsedIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * @param tenantId never null
+     * @return null if this node has no best solution of that tenant (anymore)
+     */
+    public synchronized BestSolution get(Integer tenantId) {
+        return tenantIdToBestSolutionMap.get(tenantId);
+    }
+
+    public synchronized void forgetTenant(Integer tenantId) {
+        BestSolution bestSolution = tenantIdToBestSolutionMap.remove(tenantId);
+        if (bestSolution != null) {
+            estimatedBytes -= bestSolution.getEstimatedBytes();
+        }
+    }
+
+    public synchronized void forgetAllTenants() {
+        tenantIdToBestSolutionMap.clear();
+        estimatedBytes = 0L;
+    }
+
+    public synchronized int size() {
+        return tenantIdToBestSolutionMap.size();
+    }
+
+    public synchronized long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    /**
+     * The score and the assignment of a best solution, with the shift ids sorted for a binary search.
+     */
+    public static final class BestSolution {
+
+        private static final long UNASSIGNED_EMPLOYEE_ID = -1L;
+        // The object headers, fields and score of a best solution, on top of its arrays
+        private static final long OVERHEAD_BYTES = 128L;
+        private static final long ARRAY_HEADER_BYTES = 16L;
+
+        private final HardMediumSoftLongScore score;
+        private final long[] shiftIds;
+        private final long[] employeeIds;
+
+        private BestSolution(Roster roster) {
+            score = roster.getScore();
+            List<Shift> shiftList = roster.getShiftList().stream()
+                    .filter(shift -> shift.getId() != null)
+                    .sorted(Comparator.comparing(Shift::getId))
+                    .collect(Collectors.toList());
+            shiftIds = new long[shiftList.size()];
+            employeeIds = new long[shiftList.size()];
+            for (int i = 0; i < shiftList.size(); i++) {
+                Shift shift = shiftList.get(i);
+                shiftIds[i] = shift.getId();
+                employeeIds[i] = getEmployeeId(shift);
+            }
+        }
+
+        private static long getEmployeeId(Shift shift) {
+            return (shift.getEmployee() == null) ? UNASSIGNED_EMPLOYEE_ID : shift.getEmployee().getId();
+        }
+
+        /**
+         * @return null if the solver did not score it yet
+         */
+        public HardMediumSoftLongScore getScore() {
+            return score;
+        }
+
+        public long getEstimatedBytes() {
+            return OVERHEAD_BYTES + 2L * (ARRAY_HEADER_BYTES + Long.BYTES * (long) shiftIds.length);
+        }
+
+        /**
+         * Assigns the employees of this best solution to the shifts of a roster that was loaded after it.
+         * Shifts pinned by a user, shifts created after this best solution and shifts whose employee was deleted
+         * since keep their loaded employee.
+         * @param roster never null, its score is not updated
+         * @return true if the employee of any shift changed
+         */
+        public boolean rehydrate(Roster roster) {
+            Map<Long, Employee> employeeMap = roster.getEmployeeList().stream()
+                    .collect(Collectors.toMap(Employee::getId, Function.identity()));
+            boolean changed = false;
+            for (Shift shift : roster.getShiftList()) {
+                int index = (shift.getId() == null) ? -1 : Arrays.binarySearch(shiftIds, shift.getId());
+                if (index < 0 || shift.isPinnedByUser() || employeeIds[index] == getEmployeeId(shift)) {
+                    continue;
+                }
+                Employee employee = null;
+                if (employeeIds[index] != UNASSIGNED_EMPLOYEE_ID) {
+                    employee = employeeMap.get(employeeIds[index]);
+                    if (employee == null) {
+                        continue;
+                    }
+                }
+                shift.setEmployee(employee);
+                changed = true;
+            }
+            return changed;
+        }
+    }
+}
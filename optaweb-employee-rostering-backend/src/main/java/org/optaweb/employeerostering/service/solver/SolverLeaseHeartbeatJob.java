@@ -0,0 +1,58 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically renews the solver leases of this node and takes over the rosters no live node solves.
+ * Also catches up this node with the roster versions other nodes committed, for the read replica routing.
+ * Must run well within {@code optaweb.solver.cluster.lease-timeout}, or other nodes take over the rosters of this node.
+ */
+@Component
+public class SolverLeaseHeartbeatJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverLeaseHeartbeatJob.class);
+
+    private final WannabeSolverManager solverManager;
+    private final RosterVersionService rosterVersionService;
+
+    public SolverLeaseHeartbeatJob(WannabeSolverManager solverManager, RosterVersionService rosterVersionService) {
+        this.solverManager = solverManager;
+        this.rosterVersionService = rosterVersionService;
+    }
+
+    @Scheduled(fixedDelayString = "${optaweb.solver.cluster.heartbeat-interval:10000}",
+            initialDelayString = "${optaweb.solver.cluster.heartbeat-interval:10000}")
+    public void heartbeat() {
+        try {
+            solverManager.heartbeat();
+        } catch (RuntimeException e) {
+            // The next heartbeat tries again, as long as it is within the lease timeout no lease is lost
+            logger.error("Renewing the solver leases failed.", e);
+        }
+        try {
+            rosterVersionService.refreshRosterVersionRegistry();
+        } catch (RuntimeException e) {
+            logger.error("Refreshing the roster versions failed.", e);
+        }
+    }
+}
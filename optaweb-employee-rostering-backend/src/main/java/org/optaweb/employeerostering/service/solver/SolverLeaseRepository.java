@@ -0,0 +1,125 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * The updates only change a lease if its current state allows it (such as "not held by a live node"),
+ * so two nodes racing for the same lease cannot both win: the loser updates 0 rows.
+ */
+@Repository
+public interface SolverLeaseRepository extends JpaRepository<SolverLease, Long> {
+
+    @Query("select sl from SolverLease sl" +
+            " where sl.tenantId = :tenantId")
+    Optional<SolverLease> findByTenantId(@Param("tenantId") Integer tenantId);
+
+    @Query("select sl from SolverLease sl" +
+            " where sl.solverStatus <> :terminated" +
+            " and (sl.nodeId is null or sl.heartbeatDateTime < :expiredBefore)" +
+            " order by sl.heartbeatDateTime")
+    List<SolverLease> findClaimable(@Param("terminated") SolverStatus terminated,
+                                    @Param("expiredBefore") OffsetDateTime expiredBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.nodeId = :nodeId, sl.solverStatus = :scheduled," +
+            " sl.nondisruptive = :nondisruptive, sl.replanScope.employeeId = :replanScopeEmployeeId," +
+            " sl.replanScope.startDateTime = :replanScopeStartDateTime," +
+            " sl.replanScope.endDateTime = :replanScopeEndDateTime," +
+            " sl.terminationRequested = false, sl.continuousPlanningStopped = false, sl.bestScore = null," +
+            " sl.heartbeatDateTime = :now" +
+            " where sl.tenantId = :tenantId" +
+            " and (sl.solverStatus = :terminated or sl.heartbeatDateTime < :expiredBefore)" +
+            " and (:resume = false or sl.continuousPlanningStopped = false)")
+    int schedule(@Param("tenantId") Integer tenantId, @Param("nodeId") String nodeId,
+                 @Param("resume") boolean resume, @Param("nondisruptive") boolean nondisruptive,
+                 @Param("replanScopeEmployeeId") Long replanScopeEmployeeId,
+                 @Param("replanScopeStartDateTime") OffsetDateTime replanScopeStartDateTime,
+                 @Param("replanScopeEndDateTime") OffsetDateTime replanScopeEndDateTime,
+                 @Param("scheduled") SolverStatus scheduled,
+                 @Param("terminated") SolverStatus terminated, @Param("now") OffsetDateTime now,
+                 @Param("expiredBefore") OffsetDateTime expiredBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.nodeId = :nodeId, sl.heartbeatDateTime = :now" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.solverStatus <> :terminated" +
+            " and (sl.nodeId is null or sl.heartbeatDateTime < :expiredBefore)")
+    int claim(@Param("tenantId") Integer tenantId, @Param("nodeId") String nodeId,
+              @Param("terminated") SolverStatus terminated, @Param("now") OffsetDateTime now,
+              @Param("expiredBefore") OffsetDateTime expiredBefore);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.solverStatus = :solverStatus, sl.bestScore = :bestScore," +
+            " sl.heartbeatDateTime = :now" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.nodeId = :nodeId" +
+            " and sl.terminationRequested = false")
+    int renew(@Param("tenantId") Integer tenantId, @Param("nodeId") String nodeId,
+              @Param("solverStatus") SolverStatus solverStatus, @Param("bestScore") String bestScore,
+              @Param("now") OffsetDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.nodeId = null, sl.solverStatus = :terminated," +
+            " sl.terminationRequested = false, sl.bestScore = :bestScore, sl.heartbeatDateTime = :now" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.nodeId = :nodeId")
+    int release(@Param("tenantId") Integer tenantId, @Param("nodeId") String nodeId,
+                @Param("terminated") SolverStatus terminated, @Param("bestScore") String bestScore,
+                @Param("now") OffsetDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.terminationRequested = true" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.solverStatus <> :terminated")
+    int requestTermination(@Param("tenantId") Integer tenantId, @Param("terminated") SolverStatus terminated);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.continuousPlanningStopped = true" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.continuousPlanningStopped = false")
+    int stopContinuousPlanning(@Param("tenantId") Integer tenantId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set sl.solverStatus = :terminated, sl.heartbeatDateTime = :now" +
+            " where sl.tenantId = :tenantId" +
+            " and sl.nodeId is null" +
+            " and sl.solverStatus = :scheduled")
+    int cancelQueued(@Param("tenantId") Integer tenantId, @Param("scheduled") SolverStatus scheduled,
+                     @Param("terminated") SolverStatus terminated, @Param("now") OffsetDateTime now);
+
+    // Both set clauses read the window start from before the update
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update SolverLease sl set" +
+            " sl.cpuWindowMillis = case when sl.cpuWindowStartDateTime < :windowStartedBefore" +
+            " then :cpuMillis else sl.cpuWindowMillis + :cpuMillis end," +
+            " sl.cpuWindowStartDateTime = case when sl.cpuWindowStartDateTime < :windowStartedBefore" +
+            " then :now else sl.cpuWindowStartDateTime end" +
+            " where sl.tenantId = :tenantId")
+    int addCpuTime(@Param("tenantId") Integer tenantId, @Param("cpuMillis") long cpuMillis,
+                   @Param("now") OffsetDateTime now, @Param("windowStartedBefore") OffsetDateTime windowStartedBefore);
+}
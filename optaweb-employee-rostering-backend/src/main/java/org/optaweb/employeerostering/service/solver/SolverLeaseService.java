@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.optaweb.employeerostering.domain.solver.ReplanScope;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Keeps the {@link SolverLease} of each tenant in the database, so the backend nodes of a cluster
+ * agree on which node solves which roster. Every method runs in its own short transaction on the primary database,
+ * so a lease is never held back by the transaction (or the read replica) of the caller.
+ */
+@Service
+public class SolverLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SolverLeaseService.class);
+
+    public static final Duration CPU_WINDOW_LENGTH = Duration.ofHours(1);
+
+    private final SolverLeaseRepository solverLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final String nodeId;
+    private final Duration leaseTimeout;
+
+    public SolverLeaseService(SolverLeaseRepository solverLeaseRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${optaweb.solver.cluster.node-id:}") String nodeId,
+                              @Value("${optaweb.solver.cluster.lease-timeout:30000}") long leaseTimeoutMillis) {
+        this.solverLeaseRepository = solverLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.nodeId = nodeId.isEmpty() ? UUID.randomUUID().toString() : nodeId;
+        if (leaseTimeoutMillis < 1L) {
+            throw new IllegalStateException("The leaseTimeout (" + leaseTimeoutMillis + ") must be positive.");
+        }
+        this.leaseTimeout = Duration.ofMillis(leaseTimeoutMillis);
+        logger.info("Solving as cluster node ({}).", this.nodeId);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes the lease of the tenant for this node, to solve its roster right away.
+     * @param tenantId never null
+     * @param nondisruptive true to replan
+     * @throws IllegalStateException if the roster is already scheduled or solving on a live node
+     */
+    public void schedule(Integer tenantId, boolean nondisruptive) {
+        schedule(tenantId, nondisruptive, null);
+    }
+
+    /**
+     * @param tenantId never null
+     * @param nondisruptive true to replan
+     * @param replanScope null to replan the whole roster, ignored unless nondisruptive
+     * @throws IllegalStateException if the roster is already scheduled or solving on a live node
+     * @see #schedule(Integer, boolean)
+     */
+    public void schedule(Integer tenantId, boolean nondisruptive, ReplanScope replanScope) {
+        schedule(tenantId, nodeId, false, nondisruptive, replanScope);
+    }
+
+    /**
+     * Queues the solve request of the tenant, for the first node with a free solver thread to claim it.
+     * @param tenantId never null
+     * @param nondisruptive true to replan
+     * @throws IllegalStateException if the roster is already scheduled or solving on a live node
+     */
+    public void enqueue(Integer tenantId, boolean nondisruptive) {
+        enqueue(tenantId, nondisruptive, null);
+    }
+
+    /**
+     * @param tenantId never null
+     * @param nondisruptive true to replan
+     * @param replanScope null to replan the whole roster, ignored unless nondisruptive
+     * @throws IllegalStateException if the roster is already scheduled or solving on a live node
+     * @see #enqueue(Integer, boolean)
+     */
+    public void enqueue(Integer tenantId, boolean nondisruptive, ReplanScope replanScope) {
+        schedule(tenantId, null, false, nondisruptive, replanScope);
+    }
+
+    /**
+     * Like {@link #schedule(Integer, boolean)} (or {@link #enqueue(Integer, boolean)} if queued) for a full solve,
+     * unless a user stopped the continuous planning of the tenant, see {@link #stopContinuousPlanning(Integer)}.
+     * @param tenantId never null
+     * @param queued true to queue the solve request
+     * @throws IllegalStateException if the roster is already scheduled or solving on a live node,
+     * or if its continuous planning was stopped
+     */
+    public void resumeContinuousPlanning(Integer tenantId, boolean queued) {
+        schedule(tenantId, queued ? null : nodeId, true, false, null);
+    }
+
+    private void schedule(Integer tenantId, String leaseNodeId, boolean resume, boolean nondisruptive,
+                          ReplanScope replanScope) {
+        createLeaseIfAbsent(tenantId);
+        OffsetDateTime now = OffsetDateTime.now();
+        ReplanScope leaseReplanScope = nondisruptive ? replanScope : null;
+        int updateCount = execute(() -> solverLeaseRepository.schedule(
+                tenantId, leaseNodeId, resume, nondisruptive,
+                (leaseReplanScope == null) ? null : leaseReplanScope.getEmployeeId(),
+                (leaseReplanScope == null) ? null : leaseReplanScope.getStartDateTime(),
+                (leaseReplanScope == null) ? null : leaseReplanScope.getEndDateTime(),
+                SolverStatus.SCHEDULED, SolverStatus.TERMINATED, now, now.minus(leaseTimeout)));
+        if (updateCount == 0) {
+            SolverLease solverLease = getSolverLease(tenantId);
+            if (resume && solverLease.isContinuousPlanningStopped()) {
+                throw new IllegalStateException("The continuous planning of the roster with tenantId (" + tenantId
+                                                        + ") was stopped.");
+            }
+            throw new IllegalStateException("The roster with tenantId (" + tenantId + ") is already solving " +
+                                                    "with solverStatus (" + solverLease.getSolverStatus()
+                                                    + ") on node (" + solverLease.getNodeId() + ").");
+        }
+    }
+
+    private void createLeaseIfAbsent(Integer tenantId) {
+        try {
+            execute(() -> {
+                if (!solverLeaseRepository.findByTenantId(tenantId).isPresent()) {
+                    solverLeaseRepository.saveAndFlush(new SolverLease(tenantId, OffsetDateTime.now()));
+                }
+                return null;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it concurrently
+            logger.trace("The solver lease of tenantId ({}) was created concurrently.", tenantId, e);
+        }
+    }
+
+    /**
+     * @return never null, the leases of the tenants whose solve request is queued
+     * or whose node stopped sending heartbeats, longest waiting first
+     */
+    public List<SolverLease> findClaimableSolverLeases() {
+        return execute(() -> solverLeaseRepository.findClaimable(
+                SolverStatus.TERMINATED, OffsetDateTime.now().minus(leaseTimeout)));
+    }
+
+    /**
+     * @param tenantId never null
+     * @return empty if another node claimed it first or if it is no longer claimable
+     */
+    public Optional<SolverLease> claim(Integer tenantId) {
+        return execute(() -> {
+            OffsetDateTime now = OffsetDateTime.now();
+            if (solverLeaseRepository.claim(tenantId, nodeId, SolverStatus.TERMINATED, now,
+                                            now.minus(leaseTimeout)) == 0) {
+                return Optional.empty();
+            }
+            return solverLeaseRepository.findByTenantId(tenantId);
+        });
+    }
+
+    /**
+     * @param tenantId never null
+     * @param solverStatus never null
+     * @param bestScore null if the solver has not found a best solution yet
+     * @return false if this node lost the lease or if a node requested to terminate the solver,
+     * in which case this node must stop solving
+     */
+    public boolean renew(Integer tenantId, SolverStatus solverStatus, String bestScore) {
+        return execute(() -> solverLeaseRepository.renew(tenantId, nodeId, solverStatus, bestScore,
+                                                         OffsetDateTime.now())) > 0;
+    }
+
+    /**
+     * Does nothing if this node lost the lease in the meantime.
+     * @param tenantId never null
+     * @param bestScore null if the solver has not found a best solution
+     */
+    public void release(Integer tenantId, String bestScore) {
+        execute(() -> solverLeaseRepository.release(tenantId, nodeId, SolverStatus.TERMINATED, bestScore,
+                                                    OffsetDateTime.now()));
+    }
+
+    /**
+     * A queued solve request is cancelled right away,
+     * otherwise the node that holds the lease terminates its solver on its next heartbeat.
+     * @param tenantId never null
+     * @return false if the roster is not scheduled or solving on any node
+     */
+    public boolean requestTermination(Integer tenantId) {
+        return execute(() -> solverLeaseRepository.cancelQueued(tenantId, SolverStatus.SCHEDULED,
+                                                                SolverStatus.TERMINATED, OffsetDateTime.now()) > 0
+                || solverLeaseRepository.requestTermination(tenantId, SolverStatus.TERMINATED) > 0);
+    }
+
+    /**
+     * Keeps the heartbeats from resuming the continuous planning of the tenant, until its next solve request.
+     * @param tenantId never null
+     * @return false if the tenant never solved or if its continuous planning is stopped already
+     */
+    public boolean stopContinuousPlanning(Integer tenantId) {
+        return execute(() -> solverLeaseRepository.stopContinuousPlanning(tenantId)) > 0;
+    }
+
+    /**
+     * Adds to the solver CPU time of the tenant in its current window,
+     * which starts anew once it is {@link #CPU_WINDOW_LENGTH} old.
+     * @param tenantId never null
+     * @param cpuMillis at least 0
+     */
+    public void addCpuTime(Integer tenantId, long cpuMillis) {
+        OffsetDateTime now = OffsetDateTime.now();
+        execute(() -> solverLeaseRepository.addCpuTime(tenantId, cpuMillis, now, now.minus(CPU_WINDOW_LENGTH)));
+    }
+
+    /**
+     * @param tenantId never null
+     * @return empty if the tenant never solved
+     */
+    public Optional<SolverLease> findSolverLease(Integer tenantId) {
+        return execute(() -> solverLeaseRepository.findByTenantId(tenantId));
+    }
+
+    /**
+     * @param tenantId never null
+     * @return never null, {@link SolverStatus#SCHEDULED} if the node solving it stopped sending heartbeats,
+     * as another node will take it over
+     */
+    public SolverStatus getSolverStatus(Integer tenantId) {
+        Optional<SolverLease> solverLease = findSolverLease(tenantId);
+        if (!solverLease.isPresent()) {
+            return SolverStatus.TERMINATED;
+        }
+        if (solverLease.get().getSolverStatus() == SolverStatus.SOLVING && isExpired(solverLease.get())) {
+            return SolverStatus.SCHEDULED;
+        }
+        return solverLease.get().getSolverStatus();
+    }
+
+    public SolverLease getSolverLease(Integer tenantId) {
+        return findSolverLease(tenantId)
+                .orElseThrow(() -> new EntityNotFoundException("No SolverLease entity found with tenantId ("
+                                                                       + tenantId + ")."));
+    }
+
+    private boolean isExpired(SolverLease solverLease) {
+        return solverLease.getHeartbeatDateTime().isBefore(OffsetDateTime.now().minus(leaseTimeout));
+    }
+
+    private <T> T execute(Supplier<T> supplier) {
+        return transactionTemplate.execute(status -> supplier.get());
+    }
+}
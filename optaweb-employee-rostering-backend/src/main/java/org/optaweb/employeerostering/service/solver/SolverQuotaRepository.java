@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SolverQuotaRepository extends JpaRepository<SolverQuota, Long> {
+
+    @Query("select sq from SolverQuota sq" +
+            " where sq.tenantId = :tenantId")
+    Optional<SolverQuota> findByTenantId(@Param("tenantId") Integer tenantId);
+
+    @Query("select sq from SolverQuota sq" +
+            " where sq.tenantId in :tenantIds")
+    List<SolverQuota> findAllByTenantIdIn(@Param("tenantIds") Collection<Integer> tenantIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from SolverQuota sq where sq.tenantId = :tenantId")
+    void deleteForTenant(@Param("tenantId") Integer tenantId);
+}
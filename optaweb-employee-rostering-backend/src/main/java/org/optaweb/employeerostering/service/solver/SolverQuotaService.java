@@ -0,0 +1,171 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaUsageView;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Enforces the {@link SolverQuota} of each tenant. The CPU time a tenant used is counted per window of
+ * {@link SolverLeaseService#CPU_WINDOW_LENGTH} in its {@link SolverLease}, so it adds up over all nodes.
+ */
+@Service
+public class SolverQuotaService {
+
+    private final SolverQuotaRepository solverQuotaRepository;
+    private final SolverLeaseService solverLeaseService;
+    private final long defaultMaxSolveSeconds;
+    private final long defaultCpuSecondsPerHour;
+    private final int defaultWeight;
+
+    public SolverQuotaService(SolverQuotaRepository solverQuotaRepository,
+                              SolverLeaseService solverLeaseService,
+                              @Value("${optaweb.solver.quota.max-solve-seconds:0}") long defaultMaxSolveSeconds,
+                              @Value("${optaweb.solver.quota.cpu-seconds-per-hour:0}") long defaultCpuSecondsPerHour,
+                              @Value("${optaweb.solver.quota.weight:1}") int defaultWeight) {
+        this.solverQuotaRepository = solverQuotaRepository;
+        this.solverLeaseService = solverLeaseService;
+        if (defaultMaxSolveSeconds < 0L) {
+            throw new IllegalStateException("The defaultMaxSolveSeconds (" + defaultMaxSolveSeconds
+                                                    + ") must not be negative.");
+        }
+        if (defaultCpuSecondsPerHour < 0L) {
+            throw new IllegalStateException("The defaultCpuSecondsPerHour (" + defaultCpuSecondsPerHour
+                                                    + ") must not be negative.");
+        }
+        if (defaultWeight < 1) {
+            throw new IllegalStateException("The defaultWeight (" + defaultWeight + ") must be positive.");
+        }
+        this.defaultMaxSolveSeconds = defaultMaxSolveSeconds;
+        this.defaultCpuSecondsPerHour = defaultCpuSecondsPerHour;
+        this.defaultWeight = defaultWeight;
+    }
+
+    /**
+     * @param tenantId never null
+     * @return never null, the default quota (not persisted) if the tenant has none
+     */
+    @Transactional(readOnly = true)
+    public SolverQuota getSolverQuota(Integer tenantId) {
+        return solverQuotaRepository.findByTenantId(tenantId)
+                .orElseGet(() -> createDefaultSolverQuota(tenantId));
+    }
+
+    @Transactional
+    public SolverQuota updateSolverQuota(SolverQuotaView solverQuotaView) {
+        SolverQuota solverQuota = solverQuotaRepository.findByTenantId(solverQuotaView.getTenantId())
+                .orElseGet(() -> createDefaultSolverQuota(solverQuotaView.getTenantId()));
+        solverQuota.setMaxSolveSeconds(solverQuotaView.getMaxSolveSeconds());
+        solverQuota.setCpuSecondsPerHour(solverQuotaView.getCpuSecondsPerHour());
+        solverQuota.setWeight(solverQuotaView.getWeight());
+        return solverQuotaRepository.save(solverQuota);
+    }
+
+    private SolverQuota createDefaultSolverQuota(Integer tenantId) {
+        return new SolverQuota(tenantId, defaultMaxSolveSeconds, defaultCpuSecondsPerHour, defaultWeight);
+    }
+
+    public SolverQuotaUsageView getSolverQuotaUsage(Integer tenantId) {
+        SolverQuota solverQuota = getSolverQuota(tenantId);
+        Optional<SolverLease> solverLease = solverLeaseService.findSolverLease(tenantId);
+        long usedCpuMillis = solverLease.map(this::getUsedCpuMillis).orElse(0L);
+        OffsetDateTime cpuWindowStartDateTime = solverLease.filter(lease -> !isCpuWindowExpired(lease))
+                .map(SolverLease::getCpuWindowStartDateTime).orElse(null);
+        Long remainingCpuMillis = (solverQuota.getCpuSecondsPerHour() == 0L) ? null
+                : Math.max(0L, solverQuota.getCpuSecondsPerHour() * 1000L - usedCpuMillis);
+        return new SolverQuotaUsageView(tenantId, solverQuota, solverLeaseService.getSolverStatus(tenantId),
+                                        cpuWindowStartDateTime, usedCpuMillis, remainingCpuMillis);
+    }
+
+    /**
+     * @param tenantId never null
+     * @throws IllegalStateException if the tenant used up its CPU time of the current window
+     */
+    public void checkCpuQuotaLeft(Integer tenantId) {
+        SolverQuota solverQuota = getSolverQuota(tenantId);
+        Optional<SolverLease> solverLease = solverLeaseService.findSolverLease(tenantId);
+        if (solverLease.isPresent() && isCpuQuotaExceeded(solverQuota, getUsedCpuMillis(solverLease.get()))) {
+            throw new IllegalStateException("The roster with tenantId (" + tenantId
+                                                    + ") used its solver quota of ("
+                                                    + solverQuota.getCpuSecondsPerHour()
+                                                    + ") CPU seconds per hour, it can solve again after ("
+                                                    + solverLease.get().getCpuWindowStartDateTime()
+                                                    .plus(SolverLeaseService.CPU_WINDOW_LENGTH) + ").");
+        }
+    }
+
+    /**
+     * @param solverQuota never null
+     * @param usedCpuMillis at least 0
+     * @return true if the solver of that tenant must stop
+     */
+    public boolean isCpuQuotaExceeded(SolverQuota solverQuota, long usedCpuMillis) {
+        return solverQuota.getCpuSecondsPerHour() > 0L && usedCpuMillis >= solverQuota.getCpuSecondsPerHour() * 1000L;
+    }
+
+    /**
+     * Weighted fair share: the tenant that used the least CPU time in its current window, relative to its weight,
+     * goes first, so a tenant that solves a lot cannot starve the others.
+     * Tenants without CPU time left are left out, so they stay queued until their window ends.
+     * @param claimableSolverLeaseList never null, longest waiting first
+     * @return never null, in the order to claim them, longest waiting first among equals
+     */
+    public List<SolverLease> sortByFairShare(List<SolverLease> claimableSolverLeaseList) {
+        if (claimableSolverLeaseList.isEmpty()) {
+            return claimableSolverLeaseList;
+        }
+        Map<Integer, SolverQuota> tenantIdToSolverQuotaMap = solverQuotaRepository.findAllByTenantIdIn(
+                claimableSolverLeaseList.stream().map(SolverLease::getTenantId).collect(Collectors.toList()))
+                .stream().collect(Collectors.toMap(SolverQuota::getTenantId, Function.identity()));
+        List<SolverLease> sortedSolverLeaseList = new ArrayList<>(claimableSolverLeaseList.size());
+        for (SolverLease solverLease : claimableSolverLeaseList) {
+            SolverQuota solverQuota = tenantIdToSolverQuotaMap.computeIfAbsent(solverLease.getTenantId(),
+                                                                               this::createDefaultSolverQuota);
+            if (!isCpuQuotaExceeded(solverQuota, getUsedCpuMillis(solverLease))) {
+                sortedSolverLeaseList.add(solverLease);
+            }
+        }
+        // A stable sort, so it keeps the longest waiting first among equals
+        sortedSolverLeaseList.sort(Comparator.comparingDouble(
+                solverLease -> ((double) getUsedCpuMillis(solverLease))
+                        / tenantIdToSolverQuotaMap.get(solverLease.getTenantId()).getWeight()));
+        return sortedSolverLeaseList;
+    }
+
+    private long getUsedCpuMillis(SolverLease solverLease) {
+        return isCpuWindowExpired(solverLease) ? 0L : solverLease.getCpuWindowMillis();
+    }
+
+    private boolean isCpuWindowExpired(SolverLease solverLease) {
+        return solverLease.getCpuWindowStartDateTime()
+                .isBefore(OffsetDateTime.now().minus(SolverLeaseService.CPU_WINDOW_LENGTH));
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.optaplanner.core.config.solver.termination.TerminationCompositionStyle;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.SolverTerminationPolicy;
+import org.optaweb.employeerostering.domain.solver.view.SolverTerminationPolicyView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Turns the {@link SolverTerminationPolicy} of a tenant into the termination of its next solve,
+ * so the solver thread is released as soon as further search is unlikely to pay off.
+ */
+@Service
+public class SolverTerminationPolicyService {
+
+    private final SolverTerminationPolicyRepository solverTerminationPolicyRepository;
+    private final SolverQuotaService solverQuotaService;
+    private final int defaultReferenceProblemSize;
+    private final long defaultSpentLimitSeconds;
+    private final long defaultUnimprovedSpentLimitSeconds;
+    private final long defaultFeasibleUnimprovedSpentLimitSeconds;
+    private final int maxContinuousPlanningTenants;
+
+    public SolverTerminationPolicyService(
+            SolverTerminationPolicyRepository solverTerminationPolicyRepository,
+            SolverQuotaService solverQuotaService,
+            @Value("${optaweb.solver.termination.reference-problem-size:500}") int defaultReferenceProblemSize,
+            @Value("${optaweb.solver.termination.spent-limit-seconds:300}") long defaultSpentLimitSeconds,
+            @Value("${optaweb.solver.termination.unimproved-spent-limit-seconds:60}")
+                    long defaultUnimprovedSpentLimitSeconds,
+            @Value("${optaweb.solver.termination.feasible-unimproved-spent-limit-seconds:10}")
+                    long defaultFeasibleUnimprovedSpentLimitSeconds,
+            @Value("${optaweb.solver.continuous-planning.max-tenants:2}") int maxContinuousPlanningTenants) {
+        this.solverTerminationPolicyRepository = solverTerminationPolicyRepository;
+        this.solverQuotaService = solverQuotaService;
+        if (defaultReferenceProblemSize < 1) {
+            throw new IllegalStateException("The defaultReferenceProblemSize (" + defaultReferenceProblemSize
+                                                    + ") must be positive.");
+        }
+        if (defaultSpentLimitSeconds < 0L || defaultUnimprovedSpentLimitSeconds < 0L
+                || defaultFeasibleUnimprovedSpentLimitSeconds < 0L) {
+            throw new IllegalStateException("The defaultSpentLimitSeconds (" + defaultSpentLimitSeconds
+                                                    + "), defaultUnimprovedSpentLimitSeconds ("
+                                                    + defaultUnimprovedSpentLimitSeconds
+                                                    + ") and defaultFeasibleUnimprovedSpentLimitSeconds ("
+                                                    + defaultFeasibleUnimprovedSpentLimitSeconds
+                                                    + ") must not be negative.");
+        }
+        this.defaultReferenceProblemSize = defaultReferenceProblemSize;
+        this.defaultSpentLimitSeconds = defaultSpentLimitSeconds;
+        this.defaultUnimprovedSpentLimitSeconds = defaultUnimprovedSpentLimitSeconds;
+        this.defaultFeasibleUnimprovedSpentLimitSeconds = defaultFeasibleUnimprovedSpentLimitSeconds;
+        this.maxContinuousPlanningTenants = maxContinuousPlanningTenants;
+    }
+
+    /**
+     * @param tenantId never null
+     * @return never null, the default policy (not persisted) if the tenant has none
+     */
+    @Transactional(readOnly = true)
+    public SolverTerminationPolicy getSolverTerminationPolicy(Integer tenantId) {
+        return solverTerminationPolicyRepository.findByTenantId(tenantId)
+                .orElseGet(() -> createDefaultSolverTerminationPolicy(tenantId));
+    }
+
+    /**
+     * Continuous planning can only be enabled while a resident solver thread is free, so the resident solvers never
+     * exceed the continuous planning thread pool of a node.
+     * @param solverTerminationPolicyView never null
+     * @return never null
+     */
+    @Transactional
+    public SolverTerminationPolicy updateSolverTerminationPolicy(
+            SolverTerminationPolicyView solverTerminationPolicyView) {
+        SolverTerminationPolicy solverTerminationPolicy = solverTerminationPolicyRepository
+                .findByTenantId(solverTerminationPolicyView.getTenantId())
+                .orElseGet(() -> createDefaultSolverTerminationPolicy(solverTerminationPolicyView.getTenantId()));
+        if (solverTerminationPolicyView.isContinuousPlanning() && !solverTerminationPolicy.isContinuousPlanning()
+                && findContinuousPlanningTenantIds().size() >= maxContinuousPlanningTenants) {
+            throw new IllegalStateException("Continuous planning cannot be enabled for tenantId ("
+                                                    + solverTerminationPolicyView.getTenantId()
+                                                    + ") because the maxContinuousPlanningTenants ("
+                                                    + maxContinuousPlanningTenants + ") already have it.");
+        }
+        solverTerminationPolicy.setReferenceProblemSize(solverTerminationPolicyView.getReferenceProblemSize());
+        solverTerminationPolicy.setSpentLimitSeconds(solverTerminationPolicyView.getSpentLimitSeconds());
+        solverTerminationPolicy.setUnimprovedSpentLimitSeconds(
+                solverTerminationPolicyView.getUnimprovedSpentLimitSeconds());
+        solverTerminationPolicy.setFeasibleUnimprovedSpentLimitSeconds(
+                solverTerminationPolicyView.getFeasibleUnimprovedSpentLimitSeconds());
+        solverTerminationPolicy.setContinuousPlanning(solverTerminationPolicyView.isContinuousPlanning());
+        return solverTerminationPolicyRepository.save(solverTerminationPolicy);
+    }
+
+    /**
+     * @return never null, the tenants whose solver stays resident, see
+     * {@link SolverTerminationPolicy#isContinuousPlanning()}
+     */
+    @Transactional(readOnly = true)
+    public List<Integer> findContinuousPlanningTenantIds() {
+        return solverTerminationPolicyRepository.findContinuousPlanningTenantIds();
+    }
+
+    private SolverTerminationPolicy createDefaultSolverTerminationPolicy(Integer tenantId) {
+        return new SolverTerminationPolicy(tenantId, defaultReferenceProblemSize, defaultSpentLimitSeconds,
+                                           defaultUnimprovedSpentLimitSeconds,
+                                           defaultFeasibleUnimprovedSpentLimitSeconds);
+    }
+
+    /**
+     * The solver stops at the first limit it reaches. The spent limit is capped by the maximum solve duration of
+     * the {@link SolverQuota} of the tenant.
+     * @param tenantId never null
+     * @param roster never null, the roster to solve
+     * @return null if the solver must run until it is terminated
+     */
+    public TerminationConfig buildTerminationConfig(Integer tenantId, Roster roster) {
+        SolverTerminationPolicy solverTerminationPolicy = getSolverTerminationPolicy(tenantId);
+        double sizeFactor = Math.max(1.0, ((double) (roster.getShiftList().size() + roster.getEmployeeList().size()))
+                / solverTerminationPolicy.getReferenceProblemSize());
+
+        Long spentLimitMillis = scaleToMillis(solverTerminationPolicy.getSpentLimitSeconds(), sizeFactor);
+        long maxSolveSeconds = solverQuotaService.getSolverQuota(tenantId).getMaxSolveSeconds();
+        if (maxSolveSeconds > 0L) {
+            long maxSolveMillis = TimeUnit.SECONDS.toMillis(maxSolveSeconds);
+            spentLimitMillis = (spentLimitMillis == null) ? maxSolveMillis : Math.min(spentLimitMillis, maxSolveMillis);
+        }
+        Long unimprovedSpentLimitMillis = scaleToMillis(solverTerminationPolicy.getUnimprovedSpentLimitSeconds(),
+                                                        sizeFactor);
+        Long feasibleUnimprovedSpentLimitMillis = scaleToMillis(
+                solverTerminationPolicy.getFeasibleUnimprovedSpentLimitSeconds(), sizeFactor);
+        if (spentLimitMillis == null && unimprovedSpentLimitMillis == null
+                && feasibleUnimprovedSpentLimitMillis == null) {
+            return null;
+        }
+
+        List<TerminationConfig> terminationConfigList = new ArrayList<>(1);
+        if (feasibleUnimprovedSpentLimitMillis != null) {
+            // Feasible and stagnating
+            terminationConfigList.add(new TerminationConfig()
+                                              .withTerminationCompositionStyle(TerminationCompositionStyle.AND)
+                                              .withBestScoreFeasible(true)
+                                              .withUnimprovedMillisecondsSpentLimit(
+                                                      feasibleUnimprovedSpentLimitMillis));
+        }
+        return new TerminationConfig()
+                .withTerminationCompositionStyle(TerminationCompositionStyle.OR)
+                .withMillisecondsSpentLimit(spentLimitMillis)
+                .withUnimprovedMillisecondsSpentLimit(unimprovedSpentLimitMillis)
+                .withTerminationConfigList(terminationConfigList.isEmpty() ? null : terminationConfigList);
+    }
+
+    private static Long scaleToMillis(long limitSeconds, double sizeFactor) {
+        return (limitSeconds == 0L) ? null : (long) (TimeUnit.SECONDS.toMillis(limitSeconds) * sizeFactor);
+    }
+}
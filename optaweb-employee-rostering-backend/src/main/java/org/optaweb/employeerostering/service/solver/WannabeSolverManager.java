@@ -16,30 +16,84 @@
 
 package org.optaweb.employeerostering.service.solver;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+import javax.annotation.PreDestroy;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
 import org.optaplanner.core.api.score.constraint.ConstraintMatchTotal;
 import org.optaplanner.core.api.solver.Solver;
 import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 import org.optaplanner.core.impl.score.director.ScoreDirectorFactory;
+import org.optaplanner.core.impl.solver.ProblemFactChange;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
 import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.skill.Skill;
+import org.optaweb.employeerostering.domain.solver.ReplanScope;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.SolverTerminationPolicy;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 import org.optaweb.employeerostering.service.common.IndictmentUtils;
+import org.optaweb.employeerostering.service.roster.RosterChange;
+import org.optaweb.employeerostering.service.roster.RosterChangeLog;
 import org.optaweb.employeerostering.service.roster.RosterService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
+import org.optaweb.employeerostering.service.roster.ShiftAssignmentTracker;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore.BestSolution;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.annotation.ApplicationScope;
 
+/**
+ * Solves the rosters this node holds the {@link SolverLease} of. In a cluster, a solve request is routed to the node
+ * that receives it, unless another node already solves that roster. The node that holds the lease sends heartbeats,
+ * which also publish its best score, and a roster whose node stops sending them is taken over by another node.
+ * Once a node solves its maximum number of rosters concurrently, it queues the next solve requests in their lease:
+ * the first node with a free solver thread claims them, in the weighted fair share order of their tenants.
+ * Each solver stops on its own according to the {@link SolverTerminationPolicy} of its tenant,
+ * and each heartbeat enforces the CPU time of the {@link SolverQuota} of the rosters this node solves.
+ * <p>
+ * With continuous planning (see {@link SolverTerminationPolicy#isContinuousPlanning()}), the solver stays resident:
+ * once its termination triggers, it idles until the persisted roster changes. Each heartbeat feeds the changes of
+ * other transactions (and other nodes) to it, which also moves its rolling horizon after a publish, and resumes the
+ * continuous planning of the rosters no node solves, as soon as their tenant has CPU time left.
+ * Resident solvers run on their own bounded thread pool, so they never hold the threads of the other solves:
+ * once it is full, the next continuous planning is queued like any other solve request.
+ * <p>
+ * A changed {@link RosterConstraintConfiguration} is applied to a running solver without restarting it,
+ * by the node that changed it right away and by the heartbeat of the node that solves it otherwise.
+ */
 // TODO Replace by the real SolverManager of optaplanner-core
 @ApplicationScope
 @Component
@@ -49,20 +103,80 @@ public class WannabeSolverManager implements ApplicationRunner {
 
     @Autowired
     private SolverFactory<Roster> solverFactory;
+    @Autowired
+    private SolverConfig solverConfig;
     private ScoreDirectorFactory<Roster> scoreDirectorFactory;
 
     // TODO Needs to default to size Math.max(1, Runtime.getRuntime().availableProcessors() - 2);
     private ThreadPoolTaskExecutor taskExecutor;
 
     private RosterService rosterService;
+    private RosterVersionService rosterVersionService;
+    private RosterChangeLog rosterChangeLog;
+    private SolverLeaseService solverLeaseService;
+    private SolverQuotaService solverQuotaService;
+    private SolverTerminationPolicyService solverTerminationPolicyService;
+    private BestSolutionStore bestSolutionStore;
+    // Null if the number of concurrent solves is unlimited
+    private Semaphore solverSlotSemaphore;
+    // Null if continuous planning is disabled
+    private ThreadPoolTaskExecutor continuousPlanningTaskExecutor;
+    private Semaphore continuousPlanningSlotSemaphore;
+    private Duration replanNeighbourhood;
 
     private ConcurrentMap<Integer, SolverStatus> tenantIdToSolverStateMap = new ConcurrentHashMap<>();
     private ConcurrentMap<Integer, Solver<Roster>> tenantIdToSolverMap = new ConcurrentHashMap<>();
-    private ConcurrentMap<Integer, Roster> tenantIdToBestSolutionMap = new ConcurrentHashMap<>();
+    private ConcurrentMap<Integer, SolverRun> tenantIdToSolverRunMap = new ConcurrentHashMap<>();
+    private ConcurrentMap<Integer, ContinuousPlanningRun> tenantIdToContinuousPlanningRunMap =
+            new ConcurrentHashMap<>();
+    // The version of the RosterConstraintConfiguration each solver of this node scores with (or is about to)
+    private ConcurrentMap<Integer, Long> tenantIdToConstraintConfigurationVersionMap = new ConcurrentHashMap<>();
+    // The solve requests this node queued, so the latch counts down once this node (or another one) solved them
+    private ConcurrentMap<Integer, CountDownLatch> tenantIdToQueuedLatchMap = new ConcurrentHashMap<>();
 
-    public WannabeSolverManager(ThreadPoolTaskExecutor taskExecutor, RosterService rosterService) {
+    public WannabeSolverManager(ThreadPoolTaskExecutor taskExecutor, RosterService rosterService,
+                                RosterVersionService rosterVersionService, RosterChangeLog rosterChangeLog,
+                                SolverLeaseService solverLeaseService,
+                                SolverQuotaService solverQuotaService,
+                                SolverTerminationPolicyService solverTerminationPolicyService,
+                                BestSolutionStore bestSolutionStore,
+                                @Value("${optaweb.solver.max-concurrent-solves:0}") int maxConcurrentSolves,
+                                @Value("${optaweb.solver.continuous-planning.max-tenants:2}")
+                                        int maxContinuousPlanningTenants,
+                                @Value("${optaweb.solver.replan.neighbourhood-hours:24}")
+                                        long replanNeighbourhoodHours) {
         this.taskExecutor = taskExecutor;
         this.rosterService = rosterService;
+        this.rosterVersionService = rosterVersionService;
+        this.rosterChangeLog = rosterChangeLog;
+        this.solverLeaseService = solverLeaseService;
+        this.solverQuotaService = solverQuotaService;
+        this.solverTerminationPolicyService = solverTerminationPolicyService;
+        this.bestSolutionStore = bestSolutionStore;
+        if (maxConcurrentSolves < 0) {
+            throw new IllegalStateException("The maxConcurrentSolves (" + maxConcurrentSolves
+                                                    + ") must not be negative.");
+        }
+        this.solverSlotSemaphore = (maxConcurrentSolves == 0) ? null : new Semaphore(maxConcurrentSolves);
+        if (maxContinuousPlanningTenants < 0) {
+            throw new IllegalStateException("The maxContinuousPlanningTenants (" + maxContinuousPlanningTenants
+                                                    + ") must not be negative.");
+        }
+        if (maxContinuousPlanningTenants > 0) {
+            // No queue: the slot semaphore hands out the threads
+            continuousPlanningTaskExecutor = new ThreadPoolTaskExecutor();
+            continuousPlanningTaskExecutor.setCorePoolSize(maxContinuousPlanningTenants);
+            continuousPlanningTaskExecutor.setMaxPoolSize(maxContinuousPlanningTenants);
+            continuousPlanningTaskExecutor.setQueueCapacity(0);
+            continuousPlanningTaskExecutor.setThreadNamePrefix("continuous-planning-");
+            continuousPlanningTaskExecutor.initialize();
+            continuousPlanningSlotSemaphore = new Semaphore(maxContinuousPlanningTenants);
+        }
+        if (replanNeighbourhoodHours < 0L) {
+            throw new IllegalStateException("The replanNeighbourhoodHours (" + replanNeighbourhoodHours
+                                                    + ") must not be negative.");
+        }
+        this.replanNeighbourhood = Duration.ofHours(replanNeighbourhoodHours);
     }
 
     @Override
@@ -74,27 +188,157 @@ public class WannabeSolverManager implements ApplicationRunner {
         scoreDirectorFactory = solverFactory.getScoreDirectorFactory();
     }
 
+    @PreDestroy
+    public void shutdown() {
+        if (continuousPlanningTaskExecutor != null) {
+            continuousPlanningTaskExecutor.shutdown();
+        }
+    }
+
     public void terminate(Integer tenantId) {
+        // Otherwise the next heartbeat resumes it
+        boolean continuousPlanningStopped = solverTerminationPolicyService.getSolverTerminationPolicy(tenantId)
+                .isContinuousPlanning() && solverLeaseService.stopContinuousPlanning(tenantId);
         Solver<Roster> solver = tenantIdToSolverMap.get(tenantId);
 
         if (null != solver) {
             solver.terminateEarly();
-        } else {
+        } else if (!solverLeaseService.requestTermination(tenantId) && !continuousPlanningStopped) {
             throw new IllegalStateException("The roster with tenantId (" + tenantId
                                                     + ") is not being solved currently.");
         }
     }
 
     public CountDownLatch solve(Integer tenantId) {
-        return solveRoster(tenantId, rosterService.buildRoster(tenantId));
+        return solveOrEnqueue(tenantId, false, null, false);
     }
 
     public CountDownLatch replan(Integer tenantId) {
+        return solveOrEnqueue(tenantId, true, null, false);
+    }
+
+    /**
+     * Replans only around the given scope, see {@link #buildScopedReplanRoster(Integer, ReplanScope)}.
+     * @param tenantId never null
+     * @param replanScope never null
+     * @return never null
+     */
+    public CountDownLatch replan(Integer tenantId, ReplanScope replanScope) {
+        return solveOrEnqueue(tenantId, true, replanScope, false);
+    }
+
+    /**
+     * The lease is taken before the roster is built, so of the nodes racing for the same roster only one builds it.
+     * @param resume true for the heartbeat that resumes continuous planning, which a user can stop
+     */
+    private CountDownLatch solveOrEnqueue(Integer tenantId, boolean nondisruptive, ReplanScope replanScope,
+                                          boolean resume) {
+        solverQuotaService.checkCpuQuotaLeft(tenantId);
+        boolean continuousPlanning = isContinuousPlanning(tenantId);
+        if (!tryAcquireSolverSlot(continuousPlanning)) {
+            if (resume) {
+                solverLeaseService.resumeContinuousPlanning(tenantId, true);
+            } else {
+                solverLeaseService.enqueue(tenantId, nondisruptive, replanScope);
+            }
+            logger.info("Queued the solve request of tenantId ({}) as this node solves its maximum of rosters.",
+                        tenantId);
+            CountDownLatch solvingEndedLatch = new CountDownLatch(1);
+            tenantIdToQueuedLatchMap.put(tenantId, solvingEndedLatch);
+            return solvingEndedLatch;
+        }
+        try {
+            if (resume) {
+                solverLeaseService.resumeContinuousPlanning(tenantId, false);
+            } else {
+                solverLeaseService.schedule(tenantId, nondisruptive, replanScope);
+            }
+            Roster roster;
+            try {
+                roster = buildRoster(tenantId, nondisruptive, replanScope);
+            } catch (RuntimeException e) {
+                solverLeaseService.release(tenantId, null);
+                throw e;
+            }
+            return solveLeasedRoster(tenantId, roster, new CountDownLatch(1), continuousPlanning);
+        } catch (RuntimeException e) {
+            releaseSolverSlot(continuousPlanning);
+            throw e;
+        }
+    }
+
+    private boolean isContinuousPlanning(Integer tenantId) {
+        return solverTerminationPolicyService.getSolverTerminationPolicy(tenantId).isContinuousPlanning();
+    }
+
+    /**
+     * A resident solver takes a thread of the continuous planning thread pool, instead of a solver slot.
+     */
+    private boolean tryAcquireSolverSlot(boolean continuousPlanning) {
+        if (continuousPlanning) {
+            return continuousPlanningSlotSemaphore != null && continuousPlanningSlotSemaphore.tryAcquire();
+        }
+        return solverSlotSemaphore == null || solverSlotSemaphore.tryAcquire();
+    }
+
+    private void releaseSolverSlot(boolean continuousPlanning) {
+        if (continuousPlanning) {
+            continuousPlanningSlotSemaphore.release();
+        } else if (solverSlotSemaphore != null) {
+            solverSlotSemaphore.release();
+        }
+    }
+
+    private Roster buildRoster(Integer tenantId, boolean nondisruptive, ReplanScope replanScope) {
+        if (!nondisruptive) {
+            return rosterService.buildRoster(tenantId);
+        }
+        Roster roster = (replanScope == null) ? buildReplanRoster(tenantId)
+                : buildScopedReplanRoster(tenantId, replanScope);
+        // Stale after the unassignments, the solver calculates it
+        roster.setScore(null);
+        return roster;
+    }
+
+    private Roster buildReplanRoster(Integer tenantId) {
         Roster roster = rosterService.buildRoster(tenantId); // TODO rename to rosterService.loadRoster
         roster.setNondisruptivePlanning(true);
         roster.setNondisruptiveReplanFrom(OffsetDateTime.now());
 
         // Help Optaplanner by unassigning any shifts where the employee is unavailable
+        unassignUnavailableShifts(roster, shift -> true);
+        return roster;
+    }
+
+    /**
+     * Unlike {@link #buildReplanRoster(Integer)}, only the shifts around the scope can move, so the replan of a
+     * big roster finishes quickly: the shifts of the scope's employee (or without an employee, the shifts whose
+     * employee is unavailable) in the scope's window are unassigned, the other shifts in that window widened by
+     * the replan neighbourhood on both sides can be reassigned, and all other shifts are pinned.
+     */
+    private Roster buildScopedReplanRoster(Integer tenantId, ReplanScope replanScope) {
+        Roster roster = rosterService.buildRoster(tenantId);
+        OffsetDateTime now = OffsetDateTime.now();
+        roster.setNondisruptivePlanning(true);
+        roster.setNondisruptiveReplanFrom(now);
+        roster.setReplanScopeStartDateTime(replanScope.getStartDateTime().minus(replanNeighbourhood));
+        roster.setReplanScopeEndDateTime(replanScope.getEndDateTime().plus(replanNeighbourhood));
+
+        // Shifts that started already are pinned, so they keep their employee
+        Predicate<Shift> freeable = shift -> replanScope.overlaps(shift) && !shift.getStartDateTime().isBefore(now);
+        if (replanScope.getEmployeeId() == null) {
+            unassignUnavailableShifts(roster, freeable);
+        } else {
+            roster.getShiftList().stream()
+                    .filter(shift -> shift.getEmployee() != null && !shift.isPinnedByUser()
+                            && shift.getEmployee().getId().equals(replanScope.getEmployeeId()))
+                    .filter(freeable)
+                    .forEach(shift -> shift.setEmployee(null));
+        }
+        return roster;
+    }
+
+    private void unassignUnavailableShifts(Roster roster, Predicate<Shift> filter) {
         try (ScoreDirector<Roster> scoreDirector = getScoreDirector()) {
             scoreDirector.setWorkingSolution(roster);
             scoreDirector.calculateScore();
@@ -106,17 +350,34 @@ public class WannabeSolverManager implements ApplicationRunner {
                     .forEach(cm -> {
                         Shift shift = (Shift) cm.getJustificationList().stream().filter(o -> o instanceof Shift)
                                 .findAny().get();
-                        if (!shift.isPinnedByUser()) {
+                        if (!shift.isPinnedByUser() && filter.test(shift)) {
                             shift.setEmployee(null);
                         }
                     });
         }
+    }
 
-        return solveRoster(tenantId, roster);
+    private CountDownLatch solveLeasedRoster(Integer tenantId, Roster roster, CountDownLatch solvingEndedLatch,
+                                             boolean continuousPlanning) {
+        try {
+            return solveRoster(tenantId, roster, solvingEndedLatch, continuousPlanning);
+        } catch (RuntimeException e) {
+            solverLeaseService.release(tenantId, null);
+            throw e;
+        }
     }
 
-    public CountDownLatch solveRoster(Integer tenantId, Roster roster) {
+    /**
+     * The solver task releases the solver slot (if any) that the caller acquired.
+     * <p>
+     * The solver warm starts from the given roster: every best solution of an earlier solve is persisted in the
+     * shifts, so after a termination or a restart, the solver resumes from the best known assignment. Until it
+     * improves on it, that roster is the best solution, which keeps the best score of the solver lease.
+     */
+    private CountDownLatch solveRoster(Integer tenantId, Roster roster, CountDownLatch solvingEndedLatch,
+                                       boolean continuousPlanning) {
         logger.info("Scheduling solver for tenantId ({})...", tenantId);
+        TerminationConfig terminationConfig = solverTerminationPolicyService.buildTerminationConfig(tenantId, roster);
         // No 2 solve() calls of the same dataset in parallel
         tenantIdToSolverStateMap.compute(tenantId, (k, solverStatus) -> {
             if (solverStatus != null && solverStatus != SolverStatus.TERMINATED) {
@@ -126,47 +387,595 @@ public class WannabeSolverManager implements ApplicationRunner {
             return SolverStatus.SCHEDULED;
         });
 
-        final CountDownLatch solvingEndedLatch = new CountDownLatch(1);
-        taskExecutor.execute(() -> {
+        (continuousPlanning ? continuousPlanningTaskExecutor : taskExecutor).execute(() -> {
             try {
-                Solver<Roster> solver = solverFactory.buildSolver();
+                Solver<Roster> solver = buildSolver(terminationConfig, continuousPlanning);
                 tenantIdToSolverMap.put(tenantId, solver);
+                SolverRun solverRun = new SolverRun(Thread.currentThread().getId());
+                tenantIdToSolverRunMap.put(tenantId, solverRun);
+                ShiftAssignmentTracker assignmentTracker = new ShiftAssignmentTracker(roster);
+                tenantIdToConstraintConfigurationVersionMap.put(
+                        tenantId, roster.getRosterConstraintConfiguration().getVersion());
+                if (continuousPlanning) {
+                    tenantIdToContinuousPlanningRunMap.put(tenantId, new ContinuousPlanningRun(
+                            assignmentTracker, roster.getRosterState().getRosterVersion()));
+                }
                 solver.addEventListener(event -> {
                     if (event.isEveryProblemFactChangeProcessed()) {
                         logger.info("  New best solution found for tenantId ({}).", tenantId);
                         Roster newBestRoster = event.getNewBestSolution();
-                        tenantIdToBestSolutionMap.put(tenantId, newBestRoster);
-                        // TODO if this throws an OptimisticLockingException, does it kill the solver?
-                        rosterService.updateShiftsOfRoster(newBestRoster);
+                        bestSolutionStore.put(tenantId, newBestRoster);
+                        List<Shift> conflictingShiftList = rosterService.updateShiftsOfRoster(newBestRoster,
+                                                                                              assignmentTracker);
+                        if (!conflictingShiftList.isEmpty()) {
+                            logger.info("  Kept {} concurrently changed shifts for tenantId ({}).",
+                                        conflictingShiftList.size(), tenantId);
+                            solver.addProblemFactChange(resetShiftsToPersistedState(conflictingShiftList));
+                        }
                     }
                 });
+                bestSolutionStore.markSolving(tenantId);
                 try {
+                    if (roster.getScore() != null) {
+                        logger.info("  Warm starting from the persisted assignment with score ({}) for tenantId ({}).",
+                                    roster.getScore(), tenantId);
+                        bestSolutionStore.put(tenantId, roster);
+                    } else {
+                        bestSolutionStore.forgetTenant(tenantId);
+                    }
                     tenantIdToSolverStateMap.put(tenantId, SolverStatus.SOLVING);
+                    if (!solverLeaseService.renew(tenantId, SolverStatus.SOLVING, getBestScore(tenantId))) {
+                        // Terminated or taken over before it started
+                        solver.terminateEarly();
+                    }
                     // TODO No need to store the returned roster because the SolverEventListener already does it?
                     solver.solve(roster);
                     solvingEndedLatch.countDown();
                 } finally {
                     tenantIdToSolverMap.remove(tenantId);
+                    tenantIdToSolverRunMap.remove(tenantId);
+                    tenantIdToContinuousPlanningRunMap.remove(tenantId);
+                    tenantIdToConstraintConfigurationVersionMap.remove(tenantId);
                     tenantIdToSolverStateMap.put(tenantId, SolverStatus.TERMINATED);
+                    try {
+                        solverLeaseService.addCpuTime(tenantId, solverRun.takeUnreportedCpuMillis());
+                    } finally {
+                        try {
+                            solverLeaseService.release(tenantId, getBestScore(tenantId));
+                        } finally {
+                            bestSolutionStore.markNotSolving(tenantId);
+                        }
+                    }
                 }
             } catch (Throwable e) {
                 // TODO handle errors through Thread'sExceptionHandler
                 logger.error("Error solving for tenantId (" + tenantId + ").", e);
+            } finally {
+                releaseSolverSlot(continuousPlanning);
+            }
+            // The freed solver thread takes the next queued roster right away, instead of on the next heartbeat
+            try {
+                claimSolverLeases();
+            } catch (RuntimeException e) {
+                logger.error("Claiming the queued solver leases failed.", e);
             }
         });
         return solvingEndedLatch;
     }
 
+    private Solver<Roster> buildSolver(TerminationConfig terminationConfig, boolean daemon) {
+        if (terminationConfig == null && !daemon) {
+            return solverFactory.buildSolver();
+        }
+        SolverConfig tenantSolverConfig = solverConfig.copyConfig();
+        if (terminationConfig != null) {
+            tenantSolverConfig.setTerminationConfig(terminationConfig);
+        }
+        // A daemon solver waits for problem fact changes when its termination triggers, instead of returning
+        tenantSolverConfig.setDaemon(daemon);
+        return SolverFactory.<Roster>create(tenantSolverConfig).buildSolver();
+    }
+
+    /**
+     * Makes the solver adopt the persisted assignment (and pinning) of shifts that were changed concurrently,
+     * instead of fighting over them with the next best solution.
+     */
+    private ProblemFactChange<Roster> resetShiftsToPersistedState(List<Shift> persistedShiftList) {
+        return scoreDirector -> {
+            for (Shift persistedShift : persistedShiftList) {
+                Shift workingShift = scoreDirector.lookUpWorkingObjectOrReturnNull(persistedShift);
+                Employee persistedEmployee = persistedShift.getEmployee();
+                Employee workingEmployee = (persistedEmployee == null) ?
+                        null : scoreDirector.lookUpWorkingObjectOrReturnNull(persistedEmployee);
+                if (workingShift == null || (persistedEmployee != null && workingEmployee == null)) {
+                    // Created or deleted after this solver started, the next solve() picks it up
+                    continue;
+                }
+                scoreDirector.beforeProblemPropertyChanged(workingShift);
+                workingShift.setPinnedByUser(persistedShift.isPinnedByUser());
+                workingShift.setVersion(persistedShift.getVersion());
+                scoreDirector.afterProblemPropertyChanged(workingShift);
+                scoreDirector.beforeVariableChanged(workingShift, "employee");
+                workingShift.setEmployee(workingEmployee);
+                scoreDirector.afterVariableChanged(workingShift, "employee");
+            }
+            scoreDirector.triggerVariableListeners();
+        };
+    }
+
+    /**
+     * Feeds the roster changes that the continuous planning solver of the tenant (if this node runs it) did not
+     * make itself, so it replans around them. Each best solution it writes back increments the roster version once,
+     * so it is behind if the roster version increased more than that since it last adopted the persisted roster.
+     * <p>
+     * The solver adopts only the shifts and availabilities that changed, as long as the {@link RosterChangeLog} of
+     * this node describes every roster version since: otherwise (changes through other nodes, changes to employees,
+     * spots or the roster state such as a publish, ...) it adopts the whole persisted roster.
+     * @param tenantId never null
+     */
+    public void syncContinuousPlanning(Integer tenantId) {
+        ContinuousPlanningRun continuousPlanningRun = tenantIdToContinuousPlanningRunMap.get(tenantId);
+        Solver<Roster> solver = tenantIdToSolverMap.get(tenantId);
+        if (continuousPlanningRun == null || solver == null) {
+            return;
+        }
+        Long rosterVersion = rosterVersionService.getRosterVersion(tenantId);
+        if (rosterVersion == null || !continuousPlanningRun.isBehind(rosterVersion)
+                || !continuousPlanningRun.syncPending.compareAndSet(false, true)) {
+            return;
+        }
+        Optional<RosterChange> rosterChange = rosterChangeLog.getRosterChange(
+                tenantId, continuousPlanningRun.syncedRosterVersion, rosterVersion);
+        logger.info("Feeding the roster changes of tenantId ({}) to its continuous planning solver.", tenantId);
+        solver.addProblemFactChange(rosterChange.isPresent() ?
+                                            adoptRosterChange(tenantId, continuousPlanningRun, rosterChange.get(),
+                                                              rosterVersion) :
+                                            scoreDirector -> adoptPersistedRoster(scoreDirector, tenantId,
+                                                                                  continuousPlanningRun));
+    }
+
+    /**
+     * Replaces the working shifts and availabilities that the roster change mentions by their persisted state.
+     * The shifts that the solver wrote back itself since are skipped, because it moved on from them already.
+     * The solver thread loads them, so no best solution is written back in between.
+     */
+    private ProblemFactChange<Roster> adoptRosterChange(Integer tenantId, ContinuousPlanningRun continuousPlanningRun,
+                                                        RosterChange rosterChange, long rosterVersion) {
+        return scoreDirector -> {
+            ShiftAssignmentTracker assignmentTracker = continuousPlanningRun.assignmentTracker;
+            Set<Long> replacedShiftIdSet = new HashSet<>(rosterChange.getDeletedShiftIdSet());
+            // A changed shift that is not found was deleted since
+            replacedShiftIdSet.addAll(rosterChange.getChangedShiftIdSet());
+            List<Shift> persistedShiftList = new ArrayList<>();
+            for (Shift persistedShift : rosterService.findShiftsOfRoster(tenantId,
+                                                                         rosterChange.getChangedShiftIdSet())) {
+                if (persistedShift.getVersion().equals(
+                        assignmentTracker.getPersistedVersion(persistedShift.getId()))) {
+                    // Written back by the solver itself
+                    replacedShiftIdSet.remove(persistedShift.getId());
+                } else {
+                    persistedShiftList.add(persistedShift);
+                }
+            }
+            Set<Long> replacedEmployeeAvailabilityIdSet = new HashSet<>(
+                    rosterChange.getChangedEmployeeAvailabilityIdSet());
+            replacedEmployeeAvailabilityIdSet.addAll(rosterChange.getDeletedEmployeeAvailabilityIdSet());
+            List<EmployeeAvailability> persistedEmployeeAvailabilityList = rosterService
+                    .findEmployeeAvailabilitiesOfRoster(tenantId, rosterChange.getChangedEmployeeAvailabilityIdSet());
+            if (!lookUpWorkingFacts(scoreDirector, persistedShiftList, persistedEmployeeAvailabilityList)) {
+                // Refers to an employee, spot or skill the solver does not know yet
+                adoptPersistedRoster(scoreDirector, tenantId, continuousPlanningRun);
+                return;
+            }
+            Roster workingRoster = scoreDirector.getWorkingSolution();
+            replaceShifts(scoreDirector, workingRoster, shift -> replacedShiftIdSet.contains(shift.getId()),
+                          persistedShiftList);
+            replaceProblemFacts(scoreDirector, workingRoster.getEmployeeAvailabilityList(),
+                                employeeAvailability -> replacedEmployeeAvailabilityIdSet.contains(
+                                        employeeAvailability.getId()),
+                                persistedEmployeeAvailabilityList, workingRoster::setEmployeeAvailabilityList);
+            scoreDirector.triggerVariableListeners();
+            replacedShiftIdSet.forEach(assignmentTracker::markDeleted);
+            persistedShiftList.forEach(shift -> assignmentTracker.markPersisted(
+                    shift.getId(), ShiftAssignmentTracker.getEmployeeId(shift), shift.getVersion()));
+            continuousPlanningRun.markSynced(rosterVersion);
+        };
+    }
+
+    /**
+     * Replaces all problem facts and shifts of the working solution by the persisted ones, announcing each of them,
+     * so the solver adopts every change of shifts, availabilities, employees, spots, skills and the roster state,
+     * and continues from the persisted assignment, which is its best solution plus the changes of users.
+     */
+    private void adoptPersistedRoster(ScoreDirector<Roster> scoreDirector, Integer tenantId,
+                                      ContinuousPlanningRun continuousPlanningRun) {
+        Roster persistedRoster = rosterService.buildRoster(tenantId);
+        Roster workingRoster = scoreDirector.getWorkingSolution();
+        // The shifts refer to the facts, so they go first and come back last
+        List<Shift> workingShiftList = workingRoster.getShiftList();
+        workingShiftList.forEach(scoreDirector::beforeEntityRemoved);
+        workingRoster.setShiftList(new ArrayList<>());
+        workingShiftList.forEach(scoreDirector::afterEntityRemoved);
+        replaceProblemFacts(scoreDirector, workingRoster.getSkillList(), skill -> true,
+                            persistedRoster.getSkillList(), workingRoster::setSkillList);
+        replaceProblemFacts(scoreDirector, workingRoster.getSpotList(), spot -> true,
+                            persistedRoster.getSpotList(), workingRoster::setSpotList);
+        replaceProblemFacts(scoreDirector, workingRoster.getEmployeeList(), employee -> true,
+                            persistedRoster.getEmployeeList(), workingRoster::setEmployeeList);
+        replaceProblemFacts(scoreDirector, workingRoster.getEmployeeAvailabilityList(), employeeAvailability -> true,
+                            persistedRoster.getEmployeeAvailabilityList(),
+                            workingRoster::setEmployeeAvailabilityList);
+        RosterState workingRosterState = workingRoster.getRosterState();
+        scoreDirector.beforeProblemFactRemoved(workingRosterState);
+        workingRoster.setRosterState(persistedRoster.getRosterState());
+        scoreDirector.afterProblemFactRemoved(workingRosterState);
+        scoreDirector.beforeProblemFactAdded(persistedRoster.getRosterState());
+        scoreDirector.afterProblemFactAdded(persistedRoster.getRosterState());
+        persistedRoster.getShiftList().forEach(scoreDirector::beforeEntityAdded);
+        workingRoster.setShiftList(persistedRoster.getShiftList());
+        persistedRoster.getShiftList().forEach(scoreDirector::afterEntityAdded);
+        scoreDirector.triggerVariableListeners();
+
+        RosterConstraintConfiguration persistedConstraintConfiguration =
+                persistedRoster.getRosterConstraintConfiguration();
+        if (persistedConstraintConfiguration.getVersion()
+                > workingRoster.getRosterConstraintConfiguration().getVersion()) {
+            replaceRosterConstraintConfiguration(persistedConstraintConfiguration).doChange(scoreDirector);
+            tenantIdToConstraintConfigurationVersionMap.computeIfPresent(
+                    tenantId, (k, version) -> Math.max(version, persistedConstraintConfiguration.getVersion()));
+        }
+        continuousPlanningRun.assignmentTracker.markAllPersisted(persistedRoster);
+        continuousPlanningRun.markSynced(persistedRoster.getRosterState().getRosterVersion());
+    }
+
+    /**
+     * Points the persisted shifts and availabilities to the working employees, spots and skills.
+     * @return false if the working solution lacks one of them, which leaves the persisted objects half pointed
+     */
+    private static boolean lookUpWorkingFacts(ScoreDirector<Roster> scoreDirector, List<Shift> persistedShiftList,
+                                              List<EmployeeAvailability> persistedEmployeeAvailabilityList) {
+        for (Shift shift : persistedShiftList) {
+            Spot workingSpot = lookUpWorkingFact(scoreDirector, shift.getSpot());
+            Employee workingEmployee = lookUpWorkingFact(scoreDirector, shift.getEmployee());
+            Employee workingRotationEmployee = lookUpWorkingFact(scoreDirector, shift.getRotationEmployee());
+            Employee workingOriginalEmployee = lookUpWorkingFact(scoreDirector, shift.getOriginalEmployee());
+            Set<Skill> workingRequiredSkillSet = new HashSet<>(shift.getRequiredSkillSet().size());
+            for (Skill skill : shift.getRequiredSkillSet()) {
+                workingRequiredSkillSet.add(lookUpWorkingFact(scoreDirector, skill));
+            }
+            if (workingSpot == null || workingRequiredSkillSet.contains(null)
+                    || (shift.getEmployee() != null && workingEmployee == null)
+                    || (shift.getRotationEmployee() != null && workingRotationEmployee == null)
+                    || (shift.getOriginalEmployee() != null && workingOriginalEmployee == null)) {
+                return false;
+            }
+            shift.setSpot(workingSpot);
+            shift.setEmployee(workingEmployee);
+            shift.setRotationEmployee(workingRotationEmployee);
+            shift.setOriginalEmployee(workingOriginalEmployee);
+            shift.setRequiredSkillSet(workingRequiredSkillSet);
+        }
+        for (EmployeeAvailability employeeAvailability : persistedEmployeeAvailabilityList) {
+            Employee workingEmployee = lookUpWorkingFact(scoreDirector, employeeAvailability.getEmployee());
+            if (workingEmployee == null) {
+                return false;
+            }
+            employeeAvailability.setEmployee(workingEmployee);
+        }
+        return true;
+    }
+
+    private static <T> T lookUpWorkingFact(ScoreDirector<Roster> scoreDirector, T persistedFact) {
+        return (persistedFact == null) ? null : scoreDirector.lookUpWorkingObjectOrReturnNull(persistedFact);
+    }
+
+    /**
+     * Replaces the list instead of changing it, because the best solutions share it (see RosterSolutionCloner).
+     */
+    private static void replaceShifts(ScoreDirector<Roster> scoreDirector, Roster workingRoster,
+                                      Predicate<Shift> replaced, List<Shift> newShiftList) {
+        List<Shift> shiftList = new ArrayList<>(workingRoster.getShiftList().size() + newShiftList.size());
+        List<Shift> removedShiftList = new ArrayList<>();
+        for (Shift shift : workingRoster.getShiftList()) {
+            (replaced.test(shift) ? removedShiftList : shiftList).add(shift);
+        }
+        removedShiftList.forEach(scoreDirector::beforeEntityRemoved);
+        workingRoster.setShiftList(shiftList);
+        removedShiftList.forEach(scoreDirector::afterEntityRemoved);
+        newShiftList.forEach(scoreDirector::beforeEntityAdded);
+        shiftList.addAll(newShiftList);
+        newShiftList.forEach(scoreDirector::afterEntityAdded);
+    }
+
+    /**
+     * Replaces the list instead of changing it, because the best solutions share it (see RosterSolutionCloner).
+     */
+    private static <T> void replaceProblemFacts(ScoreDirector<Roster> scoreDirector, List<T> workingFactList,
+                                                Predicate<T> replaced, List<T> newFactList,
+                                                Consumer<List<T>> factListSetter) {
+        List<T> factList = new ArrayList<>(workingFactList.size() + newFactList.size());
+        List<T> removedFactList = new ArrayList<>();
+        for (T fact : workingFactList) {
+            (replaced.test(fact) ? removedFactList : factList).add(fact);
+        }
+        removedFactList.forEach(scoreDirector::beforeProblemFactRemoved);
+        factListSetter.accept(factList);
+        removedFactList.forEach(scoreDirector::afterProblemFactRemoved);
+        newFactList.forEach(scoreDirector::beforeProblemFactAdded);
+        factList.addAll(newFactList);
+        newFactList.forEach(scoreDirector::afterProblemFactAdded);
+    }
+
+    /**
+     * Makes the solver of the tenant (if this node runs it) score with the given constraint configuration
+     * from now on, keeping its working solution and its progress, unless it already does.
+     * @param rosterConstraintConfiguration never null, as committed, never changed afterwards
+     */
+    public void changeRosterConstraintConfiguration(RosterConstraintConfiguration rosterConstraintConfiguration) {
+        Integer tenantId = rosterConstraintConfiguration.getTenantId();
+        Long version = rosterConstraintConfiguration.getVersion();
+        Solver<Roster> solver = tenantIdToSolverMap.get(tenantId);
+        Long appliedVersion = tenantIdToConstraintConfigurationVersionMap.get(tenantId);
+        if (solver == null || appliedVersion == null || appliedVersion >= version
+                || !tenantIdToConstraintConfigurationVersionMap.replace(tenantId, appliedVersion, version)) {
+            return;
+        }
+        logger.info("Changing the constraint configuration of the solver for tenantId ({}).", tenantId);
+        solver.addProblemFactChange(replaceRosterConstraintConfiguration(rosterConstraintConfiguration));
+    }
+
+    /**
+     * Replaces the constraint configuration fact, instead of changing it, because the best solution shares it.
+     * The score director reads the constraint weights only when the constraint configuration itself changes,
+     * so that is announced too: it then recalculates the score once, after which it is incremental again.
+     */
+    private ProblemFactChange<Roster> replaceRosterConstraintConfiguration(
+            RosterConstraintConfiguration rosterConstraintConfiguration) {
+        return scoreDirector -> {
+            Roster workingRoster = scoreDirector.getWorkingSolution();
+            RosterConstraintConfiguration workingRosterConstraintConfiguration =
+                    workingRoster.getRosterConstraintConfiguration();
+            scoreDirector.beforeProblemFactRemoved(workingRosterConstraintConfiguration);
+            workingRoster.setRosterConstraintConfiguration(rosterConstraintConfiguration);
+            scoreDirector.afterProblemFactRemoved(workingRosterConstraintConfiguration);
+            scoreDirector.beforeProblemFactAdded(rosterConstraintConfiguration);
+            scoreDirector.afterProblemFactAdded(rosterConstraintConfiguration);
+            scoreDirector.beforeProblemPropertyChanged(rosterConstraintConfiguration);
+            scoreDirector.afterProblemPropertyChanged(rosterConstraintConfiguration);
+        };
+    }
+
+    /**
+     * Renews the leases of the rosters this node solves, stopping the solvers whose lease was lost, whose
+     * termination was requested on another node or that used up their quota, then takes over the rosters
+     * that no live node solves, as long as this node has free solver threads. Finally it feeds the roster changes
+     * to the continuous planning solvers of this node and resumes the continuous planning that no node runs.
+     * Queued rosters are also taken over as soon as a solver of this node ends, without waiting for a heartbeat.
+     */
+    public void heartbeat() {
+        tenantIdToSolverStateMap.forEach((tenantId, solverStatus) -> {
+            if (solverStatus == SolverStatus.TERMINATED) {
+                return;
+            }
+            if (!solverLeaseService.renew(tenantId, solverStatus, getBestScore(tenantId))) {
+                terminateSolver(tenantId, "its lease ended");
+                return;
+            }
+            SolverRun solverRun = tenantIdToSolverRunMap.get(tenantId);
+            if (solverRun != null) {
+                solverLeaseService.addCpuTime(tenantId, solverRun.takeUnreportedCpuMillis());
+                enforceSolverQuota(tenantId);
+                // Changed on another node
+                rosterService.findRosterConstraintConfiguration(tenantId)
+                        .ifPresent(this::changeRosterConstraintConfiguration);
+            }
+        });
+        claimSolverLeases();
+        countDownQueuedLatches();
+        tenantIdToContinuousPlanningRunMap.keySet().forEach(this::syncContinuousPlanning);
+        resumeContinuousPlanning();
+    }
+
+    /**
+     * Takes over the rosters that are queued or that no live node solves, in the weighted fair share order of their
+     * tenants, as long as this node has free solver threads.
+     */
+    private void claimSolverLeases() {
+        List<SolverLease> claimableSolverLeaseList = solverQuotaService.sortByFairShare(
+                solverLeaseService.findClaimableSolverLeases());
+        for (SolverLease claimableSolverLease : claimableSolverLeaseList) {
+            Integer tenantId = claimableSolverLease.getTenantId();
+            boolean continuousPlanning = isContinuousPlanning(tenantId);
+            // The other kind of solve may still have a free thread
+            if (!tryAcquireSolverSlot(continuousPlanning)) {
+                continue;
+            }
+            Optional<SolverLease> solverLease = solverLeaseService.claim(tenantId);
+            if (!solverLease.isPresent()) {
+                releaseSolverSlot(continuousPlanning);
+                continue;
+            }
+            if (solverLease.get().isTerminationRequested()) {
+                solverLeaseService.release(tenantId, solverLease.get().getBestScore());
+                releaseSolverSlot(continuousPlanning);
+                continue;
+            }
+            logger.info("Taking over the solver lease of tenantId ({}).", tenantId);
+            CountDownLatch solvingEndedLatch = tenantIdToQueuedLatchMap.remove(tenantId);
+            try {
+                solveLeasedRoster(tenantId, buildRoster(tenantId, solverLease.get().isNondisruptive(),
+                                                        solverLease.get().getReplanScope()),
+                                  (solvingEndedLatch == null) ? new CountDownLatch(1) : solvingEndedLatch,
+                                  continuousPlanning);
+            } catch (RuntimeException e) {
+                solverLeaseService.release(tenantId, null);
+                releaseSolverSlot(continuousPlanning);
+                if (solvingEndedLatch != null) {
+                    solvingEndedLatch.countDown();
+                }
+                logger.error("Taking over the solver lease of tenantId (" + tenantId + ") failed.", e);
+            }
+        }
+    }
+
+    /**
+     * A solve request this node queued may be solved by another node: its latch counts down once the heartbeat
+     * sees that no node solves or queues that roster anymore.
+     */
+    private void countDownQueuedLatches() {
+        tenantIdToQueuedLatchMap.forEach((tenantId, solvingEndedLatch) -> {
+            if (solverLeaseService.getSolverStatus(tenantId) == SolverStatus.TERMINATED
+                    && tenantIdToQueuedLatchMap.remove(tenantId, solvingEndedLatch)) {
+                solvingEndedLatch.countDown();
+            }
+        });
+    }
+
+    /**
+     * Restarts the continuous planning that stopped, for example because its tenant used its CPU time quota,
+     * which caps the CPU time of a resident solver like that of any other solve.
+     * Terminating such a solver stops its continuous planning until the next solve or replan request of its tenant.
+     */
+    private void resumeContinuousPlanning() {
+        for (Integer tenantId : solverTerminationPolicyService.findContinuousPlanningTenantIds()) {
+            if (tenantIdToSolverStateMap.getOrDefault(tenantId, SolverStatus.TERMINATED) != SolverStatus.TERMINATED) {
+                continue;
+            }
+            Optional<SolverLease> solverLease = solverLeaseService.findSolverLease(tenantId);
+            if (solverLease.isPresent() && (solverLease.get().getSolverStatus() != SolverStatus.TERMINATED
+                    || solverLease.get().isContinuousPlanningStopped())) {
+                // Solving or queued on another node (or taken over by the next heartbeats), or stopped by a user
+                continue;
+            }
+            try {
+                solveOrEnqueue(tenantId, false, null, true);
+                logger.info("Resumed the continuous planning of tenantId ({}).", tenantId);
+            } catch (IllegalStateException e) {
+                // Out of CPU time, claimed by another node or stopped in the meantime, the next heartbeat tries again
+                logger.debug("Can not resume the continuous planning of tenantId ({}) yet: {}",
+                             tenantId, e.getMessage());
+            } catch (RuntimeException e) {
+                logger.error("Resuming the continuous planning of tenantId (" + tenantId + ") failed.", e);
+            }
+        }
+    }
+
+    private void enforceSolverQuota(Integer tenantId) {
+        // The maximum solve duration is part of the termination of the solver
+        SolverQuota solverQuota = solverQuotaService.getSolverQuota(tenantId);
+        if (solverQuotaService.isCpuQuotaExceeded(solverQuota, solverLeaseService.findSolverLease(tenantId)
+                .map(SolverLease::getCpuWindowMillis).orElse(0L))) {
+            terminateSolver(tenantId, "it used its CPU time quota");
+        }
+    }
+
+    private void terminateSolver(Integer tenantId, String reason) {
+        Solver<Roster> solver = tenantIdToSolverMap.get(tenantId);
+        if (solver != null) {
+            logger.info("Terminating the solver for tenantId ({}) as {}.", tenantId, reason);
+            solver.terminateEarly();
+        }
+    }
+
+    private String getBestScore(Integer tenantId) {
+        BestSolution bestSolution = bestSolutionStore.get(tenantId);
+        return (bestSolution == null || bestSolution.getScore() == null) ? null : bestSolution.getScore().toString();
+    }
+
+    /**
+     * @return null if this node has no best solution of that tenant, otherwise the persisted roster with the
+     * assignment of that best solution (which only differs from the persisted one for concurrent changes)
+     */
     public Roster getRoster(final Integer tenantId) {
-        return tenantIdToBestSolutionMap.get(tenantId);
+        BestSolution bestSolution = bestSolutionStore.get(tenantId);
+        if (bestSolution == null) {
+            return null;
+        }
+        Roster roster = rosterService.buildRoster(tenantId);
+        if (bestSolution.rehydrate(roster)) {
+            try (ScoreDirector<Roster> scoreDirector = getScoreDirector()) {
+                scoreDirector.setWorkingSolution(roster);
+                roster.setScore((HardMediumSoftLongScore) scoreDirector.calculateScore());
+            }
+        }
+        return roster;
     }
 
     public SolverStatus getSolverStatus(final Integer tenantId) {
-        return tenantIdToSolverStateMap.getOrDefault(tenantId, SolverStatus.TERMINATED);
+        SolverStatus solverStatus = tenantIdToSolverStateMap.getOrDefault(tenantId, SolverStatus.TERMINATED);
+        // Solving on another node or queued
+        return (solverStatus != SolverStatus.TERMINATED) ? solverStatus : solverLeaseService.getSolverStatus(tenantId);
+    }
+
+    public SolverLease getSolverLease(final Integer tenantId) {
+        return solverLeaseService.getSolverLease(tenantId);
     }
 
     public ScoreDirector<Roster> getScoreDirector() {
         return scoreDirectorFactory.buildScoreDirector();
     }
 
+    /**
+     * What the continuous planning solver of a tenant adopted of the persisted roster.
+     */
+    private static final class ContinuousPlanningRun {
+
+        private final ShiftAssignmentTracker assignmentTracker;
+        private final AtomicBoolean syncPending = new AtomicBoolean(false);
+        private volatile long syncedRosterVersion;
+        private volatile long syncedWriteCount;
+
+        private ContinuousPlanningRun(ShiftAssignmentTracker assignmentTracker, long syncedRosterVersion) {
+            this.assignmentTracker = assignmentTracker;
+            this.syncedRosterVersion = syncedRosterVersion;
+            this.syncedWriteCount = assignmentTracker.getWriteCount();
+        }
+
+        private boolean isBehind(long rosterVersion) {
+            return rosterVersion > syncedRosterVersion + (assignmentTracker.getWriteCount() - syncedWriteCount);
+        }
+
+        /**
+         * Only called by the solver thread, which also does the writes that the tracker counts.
+         */
+        private void markSynced(long rosterVersion) {
+            syncedRosterVersion = rosterVersion;
+            syncedWriteCount = assignmentTracker.getWriteCount();
+            syncPending.set(false);
+        }
+    }
+
+    /**
+     * The solver CPU time of one solve, measured on the thread that runs the solver.
+     * Falls back to the wall clock time if the JVM does not measure the CPU time of threads.
+     */
+    private static final class SolverRun {
+
+        private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+        private final long threadId;
+        private final long startNanos;
+        private long reportedNanos;
+
+        private SolverRun(long threadId) {
+            this.threadId = threadId;
+            this.startNanos = System.nanoTime();
+            this.reportedNanos = getElapsedNanos();
+        }
+
+        private long getElapsedNanos() {
+            long cpuNanos = THREAD_MX_BEAN.isThreadCpuTimeEnabled() ? THREAD_MX_BEAN.getThreadCpuTime(threadId) : -1L;
+            return (cpuNanos >= 0L) ? cpuNanos : System.nanoTime() - startNanos;
+        }
+
+        /**
+         * @return at least 0, the CPU time used since the previous call
+         */
+        private synchronized long takeUnreportedCpuMillis() {
+            long elapsedNanos = getElapsedNanos();
+            long unreportedMillis = TimeUnit.NANOSECONDS.toMillis(Math.max(0L, elapsedNanos - reportedNanos));
+            reportedNanos += TimeUnit.MILLISECONDS.toNanos(unreportedMillis);
+            return unreportedMillis;
+        }
+    }
 }
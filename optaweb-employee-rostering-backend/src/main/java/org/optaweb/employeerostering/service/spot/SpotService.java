@@ -24,6 +24,7 @@ import javax.persistence.EntityNotFoundException;
 import org.optaweb.employeerostering.domain.spot.Spot;
 import org.optaweb.employeerostering.domain.spot.view.SpotView;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,8 +34,11 @@ public class SpotService extends AbstractRestService {
 
     private final SpotRepository spotRepository;
 
-    public SpotService(SpotRepository spotRepository) {
+    private final RosterVersionService rosterVersionService;
+
+    public SpotService(SpotRepository spotRepository, RosterVersionService rosterVersionService) {
         this.spotRepository = spotRepository;
+        this.rosterVersionService = rosterVersionService;
     }
 
     public Spot convertFromView(Integer tenantId, SpotView spotView) {
@@ -45,12 +49,12 @@ public class SpotService extends AbstractRestService {
         return spot;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Spot> getSpotList(Integer tenantId) {
         return spotRepository.findAllByTenantId(tenantId, PageRequest.of(0, Integer.MAX_VALUE));
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Spot getSpot(Integer tenantId, Long id) {
         Spot spot = spotRepository
                 .findById(id)
@@ -69,6 +73,7 @@ public class SpotService extends AbstractRestService {
         }
 
         validateTenantIdParameter(tenantId, spotOptional.get());
+        rosterVersionService.markRosterChanged(tenantId);
         spotRepository.deleteById(id);
         return true;
     }
@@ -76,6 +81,7 @@ public class SpotService extends AbstractRestService {
     @Transactional
     public Spot createSpot(Integer tenantId, SpotView spotView) {
         Spot spot = convertFromView(tenantId, spotView);
+        rosterVersionService.markRosterChanged(tenantId);
         return spotRepository.save(spot);
     }
 
@@ -92,6 +98,7 @@ public class SpotService extends AbstractRestService {
                                                     + ") cannot change tenants.");
         }
 
+        rosterVersionService.markRosterChanged(tenantId);
         oldSpot.setName(newSpot.getName());
         oldSpot.setRequiredSkillSet(newSpot.getRequiredSkillSet());
         return spotRepository.save(oldSpot);
@@ -24,10 +24,18 @@ import javax.validation.constraints.Min;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiOperation;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
 import org.optaweb.employeerostering.domain.roster.view.RosterStateView;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.SolverTerminationPolicy;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaUsageView;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaView;
+import org.optaweb.employeerostering.domain.solver.view.SolverTerminationPolicyView;
 import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 import org.optaweb.employeerostering.domain.tenant.Tenant;
 import org.optaweb.employeerostering.domain.tenant.view.RosterConstraintConfigurationView;
+import org.optaweb.employeerostering.service.solver.SolverQuotaService;
+import org.optaweb.employeerostering.service.solver.SolverTerminationPolicyService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -47,9 +55,14 @@ import org.springframework.web.bind.annotation.RestController;
 public class TenantController {
 
     private final TenantService tenantService;
+    private final SolverQuotaService solverQuotaService;
+    private final SolverTerminationPolicyService solverTerminationPolicyService;
 
-    public TenantController(TenantService tenantService) {
+    public TenantController(TenantService tenantService, SolverQuotaService solverQuotaService,
+                            SolverTerminationPolicyService solverTerminationPolicyService) {
         this.tenantService = tenantService;
+        this.solverQuotaService = solverQuotaService;
+        this.solverTerminationPolicyService = solverTerminationPolicyService;
     }
 
     // ************************************************************************
@@ -74,10 +87,10 @@ public class TenantController {
         return new ResponseEntity<>(tenantService.createTenant(initialRosterStateView), HttpStatus.OK);
     }
 
-    @ApiOperation("Delete a tenant")
+    @ApiOperation("Delete a tenant in a background job, poll the returned job for its progress")
     @PostMapping("/remove/{id}")
-    public ResponseEntity<Boolean> deleteTenant(@PathVariable @Min(0) Integer id) {
-        return new ResponseEntity<>(tenantService.deleteTenant(id), HttpStatus.OK);
+    public ResponseEntity<BackgroundJob> deleteTenant(@PathVariable @Min(0) Integer id) {
+        return new ResponseEntity<>(tenantService.deleteTenantInBackground(id), HttpStatus.OK);
     }
 
     // ************************************************************************
@@ -99,6 +112,49 @@ public class TenantController {
                 tenantService.updateRosterConstraintConfiguration(rosterConstraintConfigurationView), HttpStatus.OK);
     }
 
+    // ************************************************************************
+    // SolverQuota
+    // ************************************************************************
+
+    @ApiOperation("Get a tenant solver quota")
+    @GetMapping("/{tenantId}/config/solverQuota")
+    public ResponseEntity<SolverQuota> getSolverQuota(@PathVariable @Min(0) Integer tenantId) {
+        return new ResponseEntity<>(solverQuotaService.getSolverQuota(tenantId), HttpStatus.OK);
+    }
+
+    @ApiOperation("Update a tenant solver quota")
+    @PostMapping("/{tenantId}/config/solverQuota/update")
+    public ResponseEntity<SolverQuota> updateSolverQuota(@RequestBody @Valid SolverQuotaView solverQuotaView) {
+        return new ResponseEntity<>(solverQuotaService.updateSolverQuota(solverQuotaView), HttpStatus.OK);
+    }
+
+    @ApiOperation("Get how much of its solver quota a tenant used in the current hour")
+    @GetMapping("/{tenantId}/config/solverQuota/usage")
+    public ResponseEntity<SolverQuotaUsageView> getSolverQuotaUsage(@PathVariable @Min(0) Integer tenantId) {
+        return new ResponseEntity<>(solverQuotaService.getSolverQuotaUsage(tenantId), HttpStatus.OK);
+    }
+
+    // ************************************************************************
+    // SolverTerminationPolicy
+    // ************************************************************************
+
+    @ApiOperation("Get a tenant solver termination policy")
+    @GetMapping("/{tenantId}/config/solverTermination")
+    public ResponseEntity<SolverTerminationPolicy> getSolverTerminationPolicy(
+            @PathVariable @Min(0) Integer tenantId) {
+        return new ResponseEntity<>(solverTerminationPolicyService.getSolverTerminationPolicy(tenantId),
+                                    HttpStatus.OK);
+    }
+
+    @ApiOperation("Update a tenant solver termination policy")
+    @PostMapping("/{tenantId}/config/solverTermination/update")
+    public ResponseEntity<SolverTerminationPolicy> updateSolverTerminationPolicy(
+            @RequestBody @Valid SolverTerminationPolicyView solverTerminationPolicyView) {
+        return new ResponseEntity<>(
+                solverTerminationPolicyService.updateSolverTerminationPolicy(solverTerminationPolicyView),
+                HttpStatus.OK);
+    }
+
     // TODO: Where should this be?
     @ApiOperation("Get supported timezones")
     @GetMapping("/supported/timezones")
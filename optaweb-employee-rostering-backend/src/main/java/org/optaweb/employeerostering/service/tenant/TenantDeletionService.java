@@ -0,0 +1,149 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.service.tenant;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+
+import org.optaweb.employeerostering.domain.archive.ArchivedEmployeeAvailability;
+import org.optaweb.employeerostering.domain.archive.ArchivedShift;
+import org.optaweb.employeerostering.domain.archive.ArchivedWorkingTime;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.roster.RosterState;
+import org.optaweb.employeerostering.domain.rotation.ShiftTemplate;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.skill.Skill;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.SolverTerminationPolicy;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
+import org.optaweb.employeerostering.domain.tenant.Tenant;
+import org.optaweb.employeerostering.service.roster.CoverageHeatmapCache;
+import org.optaweb.employeerostering.service.roster.RosterChangeLog;
+import org.optaweb.employeerostering.service.roster.RosterScoreStateCache;
+import org.optaweb.employeerostering.service.roster.RosterVersionRegistry;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Deletes the data of a tenant (or of all tenants) in chunks, each chunk in its own short transaction,
+ * so a big tenant neither runs into a transaction timeout nor holds locks on the shared tables for long.
+ */
+@Service
+public class TenantDeletionService {
+
+    // Dependency order: the archive, the solver lease, quota and termination policy have no foreign keys, then Shift,
+    // EmployeeAvailability, ShiftTemplate, Employee, Contract, Spot, Skill, RosterConstraintConfiguration,
+    // RosterState and Tenant
+    private static final List<Class<?>> ENTITY_CLASS_DELETION_ORDER = Arrays.asList(
+            ArchivedShift.class, ArchivedEmployeeAvailability.class, ArchivedWorkingTime.class,
+            SolverLease.class, SolverQuota.class, SolverTerminationPolicy.class,
+            Shift.class, EmployeeAvailability.class, ShiftTemplate.class,
+            Employee.class, Contract.class, Spot.class, Skill.class,
+            RosterConstraintConfiguration.class, RosterState.class, Tenant.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final RosterVersionRegistry rosterVersionRegistry;
+    private final RosterChangeLog rosterChangeLog;
+    private final RosterScoreStateCache rosterScoreStateCache;
+    private final CoverageHeatmapCache coverageHeatmapCache;
+    private final BestSolutionStore bestSolutionStore;
+    private final int chunkSize;
+
+    public TenantDeletionService(PlatformTransactionManager transactionManager,
+                                 RosterVersionRegistry rosterVersionRegistry,
+                                 RosterChangeLog rosterChangeLog,
+                                 RosterScoreStateCache rosterScoreStateCache,
+                                 CoverageHeatmapCache coverageHeatmapCache,
+                                 BestSolutionStore bestSolutionStore,
+                                 @Value("${optaweb.job.delete-chunk-size:1000}") int chunkSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rosterVersionRegistry = rosterVersionRegistry;
+        this.rosterChangeLog = rosterChangeLog;
+        this.rosterScoreStateCache = rosterScoreStateCache;
+        this.coverageHeatmapCache = coverageHeatmapCache;
+        this.bestSolutionStore = bestSolutionStore;
+        if (chunkSize < 1) {
+            throw new IllegalStateException("The deleteChunkSize (" + chunkSize + ") must be positive.");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param tenantId null to delete the data of all tenants
+     * @param job never null, its step and processed count are updated as the chunks are committed
+     */
+    public void deleteTenantData(Integer tenantId, BackgroundJob job) {
+        for (Class<?> entityClass : ENTITY_CLASS_DELETION_ORDER) {
+            job.setStep("Deleting " + entityClass.getSimpleName() + " entities");
+            deleteInChunks(entityClass, tenantId, job);
+        }
+        if (tenantId == null) {
+            rosterVersionRegistry.forgetAllTenants();
+            rosterChangeLog.forgetAllTenants();
+            rosterScoreStateCache.forgetAllTenants();
+            coverageHeatmapCache.forgetAllTenants();
+            bestSolutionStore.forgetAllTenants();
+        } else {
+            rosterVersionRegistry.forgetTenant(tenantId);
+            rosterChangeLog.forgetTenant(tenantId);
+            rosterScoreStateCache.forgetTenant(tenantId);
+            coverageHeatmapCache.forgetTenant(tenantId);
+            bestSolutionStore.forgetTenant(tenantId);
+        }
+    }
+
+    private void deleteInChunks(Class<?> entityClass, Integer tenantId, BackgroundJob job) {
+        String entityName = entityClass.getSimpleName();
+        String tenantIdAttribute = (entityClass == Tenant.class) ? "id" : "tenantId";
+        String selectIdQuery = "select e.id from " + entityName + " e"
+                + ((tenantId == null) ? "" : " where e." + tenantIdAttribute + " = :tenantId")
+                + " order by e.id";
+        String deleteQuery = "delete from " + entityName + " e where e.id in :idList";
+        while (true) {
+            Integer deletedCount = transactionTemplate.execute(status -> {
+                Query query = entityManager.createQuery(selectIdQuery).setMaxResults(chunkSize);
+                if (tenantId != null) {
+                    query.setParameter("tenantId", tenantId);
+                }
+                List<?> idList = query.getResultList();
+                if (idList.isEmpty()) {
+                    return null;
+                }
+                return entityManager.createQuery(deleteQuery).setParameter("idList", idList).executeUpdate();
+            });
+            if (deletedCount == null) {
+                return;
+            }
+            job.addProcessedCount(deletedCount);
+        }
+    }
+}
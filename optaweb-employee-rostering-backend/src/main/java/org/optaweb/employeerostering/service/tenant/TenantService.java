@@ -22,21 +22,31 @@ import java.util.stream.Collectors;
 
 import javax.persistence.EntityNotFoundException;
 
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
 import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.roster.view.RosterStateView;
 import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 import org.optaweb.employeerostering.domain.tenant.Tenant;
 import org.optaweb.employeerostering.domain.tenant.view.RosterConstraintConfigurationView;
+import org.optaweb.employeerostering.service.archive.ArchivedEmployeeAvailabilityRepository;
+import org.optaweb.employeerostering.service.archive.ArchivedShiftRepository;
+import org.optaweb.employeerostering.service.archive.ArchivedWorkingTimeRepository;
 import org.optaweb.employeerostering.service.common.AbstractRestService;
 import org.optaweb.employeerostering.service.employee.EmployeeAvailabilityRepository;
 import org.optaweb.employeerostering.service.employee.EmployeeRepository;
+import org.optaweb.employeerostering.service.job.BackgroundJobService;
 import org.optaweb.employeerostering.service.roster.RosterStateRepository;
+import org.optaweb.employeerostering.service.roster.RosterVersionService;
 import org.optaweb.employeerostering.service.rotation.ShiftTemplateRepository;
 import org.optaweb.employeerostering.service.shift.ShiftRepository;
 import org.optaweb.employeerostering.service.skill.SkillRepository;
+import org.optaweb.employeerostering.service.solver.WannabeSolverManager;
 import org.optaweb.employeerostering.service.spot.SpotRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class TenantService extends AbstractRestService {
@@ -59,6 +69,20 @@ public class TenantService extends AbstractRestService {
 
     private final SkillRepository skillRepository;
 
+    private final ArchivedShiftRepository archivedShiftRepository;
+
+    private final ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository;
+
+    private final ArchivedWorkingTimeRepository archivedWorkingTimeRepository;
+
+    private final RosterVersionService rosterVersionService;
+
+    private final TenantDeletionService tenantDeletionService;
+
+    private final BackgroundJobService backgroundJobService;
+
+    private final WannabeSolverManager solverManager;
+
     public TenantService(TenantRepository tenantRepository,
                          RosterConstraintConfigurationRepository rosterConstraintConfigurationRepository,
                          RosterStateRepository rosterStateRepository,
@@ -67,7 +91,14 @@ public class TenantService extends AbstractRestService {
                          ShiftTemplateRepository shiftTemplateRepository,
                          EmployeeRepository employeeRepository,
                          SpotRepository spotRepository,
-                         SkillRepository skillRepository) {
+                         SkillRepository skillRepository,
+                         ArchivedShiftRepository archivedShiftRepository,
+                         ArchivedEmployeeAvailabilityRepository archivedEmployeeAvailabilityRepository,
+                         ArchivedWorkingTimeRepository archivedWorkingTimeRepository,
+                         RosterVersionService rosterVersionService,
+                         TenantDeletionService tenantDeletionService,
+                         BackgroundJobService backgroundJobService,
+                         WannabeSolverManager solverManager) {
         this.tenantRepository = tenantRepository;
         this.rosterConstraintConfigurationRepository = rosterConstraintConfigurationRepository;
         this.rosterStateRepository = rosterStateRepository;
@@ -77,6 +108,13 @@ public class TenantService extends AbstractRestService {
         this.employeeRepository = employeeRepository;
         this.spotRepository = spotRepository;
         this.skillRepository = skillRepository;
+        this.archivedShiftRepository = archivedShiftRepository;
+        this.archivedEmployeeAvailabilityRepository = archivedEmployeeAvailabilityRepository;
+        this.archivedWorkingTimeRepository = archivedWorkingTimeRepository;
+        this.rosterVersionService = rosterVersionService;
+        this.tenantDeletionService = tenantDeletionService;
+        this.backgroundJobService = backgroundJobService;
+        this.solverManager = solverManager;
     }
 
     // ************************************************************************
@@ -97,12 +135,14 @@ public class TenantService extends AbstractRestService {
         return rosterState;
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public List<Tenant> getTenantList() {
-        return tenantRepository.findAll();
+        return tenantRepository.findAll().stream()
+                .filter(tenant -> !backgroundJobService.isTenantBeingDeleted(tenant.getId()))
+                .collect(Collectors.toList());
     }
 
-    @Transactional
+    @Transactional(readOnly = true)
     public Tenant getTenant(Integer id) {
         return tenantRepository
                 .findById(id)
@@ -130,7 +170,13 @@ public class TenantService extends AbstractRestService {
         // Dependency order: Shift, EmployeeAvailability, ShiftTemplate,
         // Employee, Spot, Skill,
         // RosterConstraintConfiguration, RosterState
+        // The archive has no foreign keys, so it can go first
 
+        // Lets this node forget the roster version of the tenant once the deletion commits
+        rosterVersionService.markRosterChanged(id);
+        archivedShiftRepository.deleteForTenant(id);
+        archivedEmployeeAvailabilityRepository.deleteForTenant(id);
+        archivedWorkingTimeRepository.deleteForTenant(id);
         shiftRepository.deleteForTenant(id);
         employeeAvailabilityRepository.deleteForTenant(id);
         shiftTemplateRepository.deleteForTenant(id);
@@ -143,11 +189,24 @@ public class TenantService extends AbstractRestService {
         return true;
     }
 
+    /**
+     * Unlike {@link #deleteTenant(Integer)}, deletes the tenant in a background job that commits in chunks.
+     * The tenant is hidden from the tenant list while it is being deleted.
+     * @param id the tenant id
+     * @return never null, the job to poll for progress
+     */
+    public BackgroundJob deleteTenantInBackground(Integer id) {
+        // Fail fast on an unknown tenant
+        getTenant(id);
+        return backgroundJobService.submit(BackgroundJobType.TENANT_DELETION, id,
+                                           job -> tenantDeletionService.deleteTenantData(id, job));
+    }
+
     // ************************************************************************
     // RosterConstraintConfiguration
     // ************************************************************************
 
-    @Transactional
+    @Transactional(readOnly = true)
     public RosterConstraintConfiguration getRosterConstraintConfiguration(Integer tenantId) {
         return rosterConstraintConfigurationRepository
                 .findByTenantId(tenantId)
@@ -169,6 +228,7 @@ public class TenantService extends AbstractRestService {
                                                     ") cannot change tenants.");
         }
 
+        rosterVersionService.markRosterChanged(oldRosterConstraintConfiguration.getTenantId());
         oldRosterConstraintConfiguration.setWeekStartDay(rosterConstraintConfigurationView.getWeekStartDay());
         oldRosterConstraintConfiguration.setRequiredSkill(rosterConstraintConfigurationView.getRequiredSkill());
         oldRosterConstraintConfiguration.setUnavailableTimeSlot(
@@ -197,7 +257,16 @@ public class TenantService extends AbstractRestService {
                                                                     .getDesiredTimeSlot());
         oldRosterConstraintConfiguration.setNotRotationEmployee(rosterConstraintConfigurationView
                                                                         .getNotRotationEmployee());
-        return rosterConstraintConfigurationRepository.save(oldRosterConstraintConfiguration);
+        RosterConstraintConfiguration rosterConstraintConfiguration =
+                rosterConstraintConfigurationRepository.save(oldRosterConstraintConfiguration);
+        // A running solver switches to the new weights instead of losing its progress to a restart
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+            @Override
+            public void afterCommit() {
+                solverManager.changeRosterConstraintConfiguration(rosterConstraintConfiguration);
+            }
+        });
+        return rosterConstraintConfiguration;
     }
 
     public List<ZoneId> getSupportedTimezones() {
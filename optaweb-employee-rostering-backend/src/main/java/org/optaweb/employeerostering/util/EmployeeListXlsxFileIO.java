@@ -19,16 +19,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.optaweb.employeerostering.domain.contract.Contract;
 import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
 import org.optaweb.employeerostering.domain.skill.Skill;
@@ -37,7 +47,14 @@ import org.optaweb.employeerostering.service.contract.ContractService;
 import org.optaweb.employeerostering.service.skill.SkillService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
 
+/**
+ * Reads the first sheet of an employee list with SAX events, so no DOM of the workbook is built.
+ * Column A holds the employee name and column B a comma separated list of skill names.
+ */
 @Component
 public class EmployeeListXlsxFileIO {
 
@@ -53,38 +70,125 @@ public class EmployeeListXlsxFileIO {
 
     public List<EmployeeView> getEmployeeListFromExcelFile(Integer tenantId,
                                                            InputStream excelFileStream) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(excelFileStream)) {
-            Sheet worksheet = workbook.getSheetAt(0);
-            List<EmployeeView> out = new ArrayList<>(worksheet.getPhysicalNumberOfRows() - 1);
-            Map<String, Skill> skillMap = skillService.getSkillList(tenantId).stream()
-                    .collect(Collectors.toMap(s -> s.getName().toLowerCase(), Function.identity()));
-            Contract defaultContract = contractService.getOrCreateDefaultContract(tenantId);
-            for (int i = 1; i <= worksheet.getLastRowNum(); i++) {
-                Row row = worksheet.getRow(i);
-
-                if (row == null || row.getCell(0) == null) {
-                    continue;
+        List<EmployeeRow> employeeRowList = readEmployeeRowList(excelFileStream);
+
+        Map<String, Skill> skillMap = skillService.getSkillList(tenantId).stream()
+                .collect(Collectors.toMap(s -> s.getName().toLowerCase(), Function.identity()));
+        // The first spelling of each unknown skill name wins, like it did when skills were created row by row
+        Map<String, SkillView> newSkillMap = new LinkedHashMap<>();
+        for (EmployeeRow employeeRow : employeeRowList) {
+            for (String skillName : employeeRow.skillNameList) {
+                String lowercaseName = skillName.toLowerCase();
+                if (!skillMap.containsKey(lowercaseName) && !newSkillMap.containsKey(lowercaseName)) {
+                    SkillView skillView = new SkillView();
+                    skillView.setTenantId(tenantId);
+                    skillView.setName(skillName);
+                    newSkillMap.put(lowercaseName, skillView);
                 }
+            }
+        }
+        if (!newSkillMap.isEmpty()) {
+            skillService.createSkills(tenantId, new ArrayList<>(newSkillMap.values())).forEach(
+                    skill -> skillMap.put(skill.getName().toLowerCase(), skill));
+        }
+
+        Contract defaultContract = contractService.getOrCreateDefaultContract(tenantId);
+        List<EmployeeView> out = new ArrayList<>(employeeRowList.size());
+        for (EmployeeRow employeeRow : employeeRowList) {
+            EmployeeView employee = new EmployeeView();
+            employee.setTenantId(tenantId);
+            employee.setName(employeeRow.name);
+            employee.setSkillProficiencySet(employeeRow.skillNameList.stream()
+                                                    .map(skillName -> skillMap.get(skillName.toLowerCase()))
+                                                    .collect(Collectors.toCollection(HashSet::new)));
+            employee.setContract(defaultContract);
+            out.add(employee);
+        }
+        return out;
+    }
+
+    private static List<EmployeeRow> readEmployeeRowList(InputStream excelFileStream) throws IOException {
+        try (OPCPackage opcPackage = OPCPackage.open(excelFileStream)) {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            Iterator<InputStream> sheetIterator = xssfReader.getSheetsData();
+            if (!sheetIterator.hasNext()) {
+                return Collections.emptyList();
+            }
+            EmployeeRowHandler employeeRowHandler = new EmployeeRowHandler();
+            try (InputStream sheetStream = sheetIterator.next()) {
+                XMLReader sheetParser = createXmlReader();
+                sheetParser.setContentHandler(new XSSFSheetXMLHandler(
+                        xssfReader.getStylesTable(), new ReadOnlySharedStringsTable(opcPackage),
+                        employeeRowHandler, false));
+                sheetParser.parse(new InputSource(sheetStream));
+            }
+            return employeeRowHandler.employeeRowList;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read the employee list Excel file.", e);
+        }
+    }
+
+    private static XMLReader createXmlReader() throws ParserConfigurationException, SAXException {
+        SAXParserFactory saxParserFactory = SAXParserFactory.newInstance();
+        saxParserFactory.setNamespaceAware(true);
+        saxParserFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+        // An uploaded file must not be able to pull in external entities
+        saxParserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        return saxParserFactory.newSAXParser().getXMLReader();
+    }
 
-                EmployeeView employee = new EmployeeView();
-                employee.setTenantId(tenantId);
-                employee.setName(row.getCell(0).getStringCellValue());
-                String skillListString = (row.getCell(1) != null) ? row.getCell(1).getStringCellValue() : "";
-                employee.setSkillProficiencySet(
-                        Arrays.stream(skillListString.split(","))
-                                .map(String::trim)
-                                .filter(s -> !s.isEmpty())
-                                .map(skillName -> skillMap.computeIfAbsent(skillName.toLowerCase(), lowercaseName -> {
-                                    SkillView skillView = new SkillView();
-                                    skillView.setTenantId(tenantId);
-                                    skillView.setName(skillName);
-                                    return skillService.createSkill(tenantId, skillView);
-                                }))
-                                .collect(Collectors.toCollection(HashSet::new)));
-                employee.setContract(defaultContract);
-                out.add(employee);
+    private static final class EmployeeRow {
+
+        private final String name;
+        private final List<String> skillNameList;
+
+        private EmployeeRow(String name, List<String> skillNameList) {
+            this.name = name;
+            this.skillNameList = skillNameList;
+        }
+    }
+
+    private static final class EmployeeRowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final List<EmployeeRow> employeeRowList = new ArrayList<>();
+
+        private String name;
+        private String skillListString;
+
+        @Override
+        public void startRow(int rowNum) {
+            name = null;
+            skillListString = "";
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            // The first row holds the headers
+            if (rowNum == 0 || name == null) {
+                return;
+            }
+            employeeRowList.add(new EmployeeRow(name, Arrays.stream(skillListString.split(","))
+                    .map(String::trim)
+                    .filter(s -> !s.isEmpty())
+                    .collect(Collectors.toList())));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            if (cellReference == null) {
+                return;
+            }
+            short column = new CellReference(cellReference).getCol();
+            if (column == 0) {
+                name = formattedValue;
+            } else if (column == 1) {
+                skillListString = (formattedValue != null) ? formattedValue : "";
             }
-            return out;
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // Not used
         }
     }
 }
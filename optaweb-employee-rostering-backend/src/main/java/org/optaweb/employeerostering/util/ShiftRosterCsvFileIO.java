@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.ZoneId;
+import java.util.Iterator;
+
+import org.optaweb.employeerostering.domain.common.DateTimeUtils;
+import org.optaweb.employeerostering.domain.shift.Shift;
+
+/**
+ * Writes a shift roster as RFC 4180 CSV, one line per shift, which unlike an Excel file
+ * needs no state beyond the current line.
+ */
+public final class ShiftRosterCsvFileIO {
+
+    private static final String LINE_SEPARATOR = "\r\n";
+
+    // Cannot build instances of this, so private empty constructor
+    private ShiftRosterCsvFileIO() {
+    }
+
+    /**
+     * @param zoneId never null, the time zone of the roster
+     * @param shiftIterator never null, the shifts in the order they should be written
+     * @param writer never null, not closed by this method
+     * @throws IOException if the writer fails
+     */
+    public static void writeCsvForShiftRoster(ZoneId zoneId, Iterator<Shift> shiftIterator,
+                                              Writer writer) throws IOException {
+        writer.write("Spot,Start,End,Employee");
+        writer.write(LINE_SEPARATOR);
+        while (shiftIterator.hasNext()) {
+            Shift shift = shiftIterator.next();
+            writer.write(escape(shift.getSpot().getName()));
+            writer.write(',');
+            writer.write(ShiftRosterXlsxFileIO.DATE_TIME_FORMATTER.format(
+                    DateTimeUtils.toLocalDateTimeInZone(shift.getStartDateTime(), zoneId)));
+            writer.write(',');
+            writer.write(ShiftRosterXlsxFileIO.DATE_TIME_FORMATTER.format(
+                    DateTimeUtils.toLocalDateTimeInZone(shift.getEndDateTime(), zoneId)));
+            writer.write(',');
+            writer.write(escape((shift.getEmployee() != null) ? shift.getEmployee().getName() : "Unassigned"));
+            writer.write(LINE_SEPARATOR);
+        }
+        writer.flush();
+    }
+
+    /**
+     * A value that a spreadsheet would evaluate as a formula is prefixed with a quote, so it is shown as text.
+     */
+    private static String escape(String value) {
+        if (!value.isEmpty() && "=+-@\t\r".indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -16,22 +16,23 @@
 
 package org.optaweb.employeerostering.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.optaweb.employeerostering.domain.employee.Employee;
-import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
-import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.optaweb.employeerostering.domain.common.DateTimeUtils;
+import org.optaweb.employeerostering.domain.shift.Shift;
 import org.optaweb.employeerostering.domain.spot.Spot;
 
 public final class ShiftRosterXlsxFileIO {
@@ -39,16 +40,38 @@ public final class ShiftRosterXlsxFileIO {
     public static final DateTimeFormatter DATE_TIME_FORMATTER
             = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm", Locale.ENGLISH);
 
+    // Rows beyond this window are flushed to a temporary file, so memory does not grow with the shift count
+    private static final int ROW_ACCESS_WINDOW_SIZE = 100;
+
+    // Fixed widths (in 1/256th of a character), because auto sizing needs every row of the sheet in memory
+    private static final int DATE_TIME_COLUMN_WIDTH = 20 * 256;
+    private static final int EMPLOYEE_COLUMN_WIDTH = 40 * 256;
+
     // Cannot build instances of this, so private empty constructor
     private ShiftRosterXlsxFileIO() {
     }
 
-    public static byte[] getExcelBytesForShiftRoster(ShiftRosterView shiftRosterView) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook()) {
-            Map<Long, String> employeeIdToNameMap = shiftRosterView.getEmployeeList().stream()
-                    .collect(Collectors.toMap(Employee::getId, Employee::getName));
-            for (Spot spot : shiftRosterView.getSpotList()) {
+    /**
+     * Writes one sheet per spot, with the shifts of each time slot grouped under a row holding their start and end.
+     * @param spotList never null, one sheet is written for each spot, even if it has no shifts
+     * @param zoneId never null, the time zone of the roster
+     * @param shiftIterator never null, must return the shifts of each spot consecutively,
+     * ordered by start date time and then end date time
+     * @param outputStream never null, not closed by this method
+     * @throws IOException if the workbook cannot be written
+     */
+    public static void writeExcelForShiftRoster(List<Spot> spotList, ZoneId zoneId, Iterator<Shift> shiftIterator,
+                                                OutputStream outputStream) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW_SIZE);
+        workbook.setCompressTempFiles(true);
+        try {
+            Map<Long, Sheet> spotIdToSheetMap = new HashMap<>(spotList.size());
+            for (Spot spot : spotList) {
                 Sheet sheet = workbook.createSheet(spot.getName());
+                sheet.setColumnWidth(0, DATE_TIME_COLUMN_WIDTH);
+                sheet.setColumnWidth(1, DATE_TIME_COLUMN_WIDTH);
+                sheet.setColumnWidth(2, EMPLOYEE_COLUMN_WIDTH);
+
                 Row headerRow = sheet.createRow(0);
                 Cell headerCell = headerRow.createCell(0);
                 headerCell.setCellValue("Start");
@@ -58,37 +81,53 @@ public final class ShiftRosterXlsxFileIO {
 
                 headerCell = headerRow.createCell(2);
                 headerCell.setCellValue("Employee");
+                spotIdToSheetMap.put(spot.getId(), sheet);
+            }
 
-                int rowNumber = 1;
-                LocalDateTime lastShiftStartDateTime = null;
-                LocalDateTime lastShiftEndDateTime = null;
-                for (ShiftView shift : shiftRosterView.getSpotIdToShiftViewListMap().get(spot.getId())) {
-                    Row shiftRow = sheet.createRow(rowNumber);
-                    if (!shift.getStartDateTime().equals(lastShiftStartDateTime) ||
-                            !shift.getEndDateTime().equals(lastShiftEndDateTime)) {
-                        Cell dateCell = shiftRow.createCell(0);
-                        dateCell.setCellValue(DATE_TIME_FORMATTER.format(shift.getStartDateTime()));
-
-                        dateCell = shiftRow.createCell(1);
-                        dateCell.setCellValue(DATE_TIME_FORMATTER.format(shift.getEndDateTime()));
-
-                        lastShiftStartDateTime = shift.getStartDateTime();
-                        lastShiftEndDateTime = shift.getEndDateTime();
-                        rowNumber++;
-                        shiftRow = sheet.createRow(rowNumber);
+            Long currentSpotId = null;
+            Sheet sheet = null;
+            int rowNumber = 1;
+            LocalDateTime lastShiftStartDateTime = null;
+            LocalDateTime lastShiftEndDateTime = null;
+            while (shiftIterator.hasNext()) {
+                Shift shift = shiftIterator.next();
+                if (!shift.getSpot().getId().equals(currentSpotId)) {
+                    currentSpotId = shift.getSpot().getId();
+                    sheet = spotIdToSheetMap.get(currentSpotId);
+                    if (sheet == null) {
+                        throw new IllegalStateException("The shift (" + shift + ") has a spot (" + shift.getSpot()
+                                                                + ") that is not in the spotList (" + spotList + ").");
                     }
-                    Cell employeeCell = shiftRow.createCell(2);
-                    employeeCell.setCellValue(employeeIdToNameMap.getOrDefault(shift.getEmployeeId(), "Unassigned"));
+                    rowNumber = 1;
+                    lastShiftStartDateTime = null;
+                    lastShiftEndDateTime = null;
+                }
+                LocalDateTime startDateTime = DateTimeUtils.toLocalDateTimeInZone(shift.getStartDateTime(), zoneId);
+                LocalDateTime endDateTime = DateTimeUtils.toLocalDateTimeInZone(shift.getEndDateTime(), zoneId);
+
+                Row shiftRow = sheet.createRow(rowNumber);
+                if (!startDateTime.equals(lastShiftStartDateTime) ||
+                        !endDateTime.equals(lastShiftEndDateTime)) {
+                    Cell dateCell = shiftRow.createCell(0);
+                    dateCell.setCellValue(DATE_TIME_FORMATTER.format(startDateTime));
+
+                    dateCell = shiftRow.createCell(1);
+                    dateCell.setCellValue(DATE_TIME_FORMATTER.format(endDateTime));
+
+                    lastShiftStartDateTime = startDateTime;
+                    lastShiftEndDateTime = endDateTime;
                     rowNumber++;
+                    shiftRow = sheet.createRow(rowNumber);
                 }
-                sheet.autoSizeColumn(0);
-                sheet.autoSizeColumn(1);
-                sheet.autoSizeColumn(2);
-            }
-            try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-                workbook.write(outputStream);
-                return outputStream.toByteArray();
+                Cell employeeCell = shiftRow.createCell(2);
+                employeeCell.setCellValue((shift.getEmployee() != null) ? shift.getEmployee().getName() : "Unassigned");
+                rowNumber++;
             }
+            workbook.write(outputStream);
+        } finally {
+            // Deletes the temporary files that hold the flushed rows
+            workbook.dispose();
+            workbook.close();
         }
     }
 }
@@ -18,7 +18,13 @@ package org.optaweb.employeerostering.admin;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobStatus;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
+import org.optaweb.employeerostering.service.admin.DemoDataHealthIndicator;
+import org.optaweb.employeerostering.service.admin.DemoDataService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -36,15 +42,45 @@ public class AdminRestControllerTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private DemoDataService demoDataService;
+
+    @Autowired
+    private DemoDataHealthIndicator demoDataHealthIndicator;
+
     private final String adminPathURI = "http://localhost:8080/rest/admin/";
+    private final String jobPathURI = "http://localhost:8080/rest/job/";
+    private final String readinessPathURI = "http://localhost:8080/actuator/health/readiness";
 
-    private ResponseEntity<Void> resetApplication() {
-        return restTemplate.postForEntity(adminPathURI + "reset", null, Void.class);
+    private ResponseEntity<BackgroundJob> resetApplication() {
+        return restTemplate.postForEntity(adminPathURI + "reset", null, BackgroundJob.class);
     }
 
-    @Test
-    public void resetApplicationTest() {
-        ResponseEntity<Void> resetResponse = resetApplication();
+    private ResponseEntity<BackgroundJob> getJob(Long id) {
+        return restTemplate.getForEntity(jobPathURI + id, BackgroundJob.class);
+    }
+
+    @Test(timeout = 600000)
+    public void resetApplicationTest() throws InterruptedException {
+        ResponseEntity<BackgroundJob> resetResponse = resetApplication();
         assertThat(resetResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resetResponse.getBody().getType()).isEqualTo(BackgroundJobType.APPLICATION_RESET);
+
+        // Wait for the reset to finish, so it does not delete the data of the next tests
+        BackgroundJob job = resetResponse.getBody();
+        while (job.getStatus() == BackgroundJobStatus.SCHEDULED || job.getStatus() == BackgroundJobStatus.RUNNING) {
+            Thread.sleep(100L);
+            job = getJob(job.getId()).getBody();
+        }
+        assertThat(job.getStatus()).isEqualTo(BackgroundJobStatus.COMPLETED);
+        assertThat(job.getProcessedCount()).isPositive();
+    }
+
+    @Test(timeout = 600000)
+    public void demoDataReadinessTest() {
+        demoDataService.awaitInitialDemoData();
+        assertThat(demoDataHealthIndicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(restTemplate.getForEntity(readinessPathURI, String.class).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
     }
 }
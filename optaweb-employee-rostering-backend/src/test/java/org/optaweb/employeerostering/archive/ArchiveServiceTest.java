@@ -0,0 +1,138 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.archive;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.contract.view.ContractView;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.spot.view.SpotView;
+import org.optaweb.employeerostering.service.contract.ContractService;
+import org.optaweb.employeerostering.service.employee.EmployeeService;
+import org.optaweb.employeerostering.service.shift.ShiftService;
+import org.optaweb.employeerostering.service.spot.SpotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@Transactional
+public class ArchiveServiceTest extends AbstractEntityRequireTenantRestServiceTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveServiceTest.class);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private SpotService spotService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    private ShiftView createShift(Spot spot, Employee employee, LocalDateTime startDateTime) {
+        ShiftView shiftView = new ShiftView(TENANT_ID, spot, startDateTime, startDateTime.plusHours(8));
+        shiftView.setEmployeeId(employee.getId());
+        return shiftService.createShift(TENANT_ID, shiftView);
+    }
+
+    @Before
+    public void setup() {
+        createTestTenant();
+    }
+
+    @After
+    public void cleanup() {
+        deleteTestTenant();
+    }
+
+    @Test
+    public void archiveHistoricDataTest() throws Exception {
+        Spot spot = spotService.createSpot(TENANT_ID, new SpotView(TENANT_ID, "spot", Collections.emptySet()));
+        Contract contract = contractService.createContract(TENANT_ID, new ContractView(TENANT_ID, "contract"));
+        Employee employee = employeeService.createEmployee(TENANT_ID, new EmployeeView(TENANT_ID, "employee",
+                                                                                       contract,
+                                                                                       Collections.emptySet()));
+        // The test tenant's first published date is 1999-12-25
+        createShift(spot, employee, LocalDateTime.of(1999, 12, 1, 9, 0));
+        createShift(spot, employee, LocalDateTime.of(2000, 1, 10, 9, 0));
+
+        mvc.perform(MockMvcRequestBuilders
+                            .post("/rest/tenant/{tenantId}/archive/archiveHistoricData", TENANT_ID)
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.archivedBeforeDate").value("1999-12-25"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.archivedShiftCount").value(1));
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/archive/shift", TENANT_ID)
+                            .param("startDate", "1999-11-01")
+                            .param("endDate", "2000-02-01")
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].employeeName").value("employee"));
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/archive/workingTime/{employeeId}", TENANT_ID,
+                                 employee.getId())
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].minutesWorked").value(8 * 60));
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/shift/", TENANT_ID)
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.datasource;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.spot.view.SpotView;
+import org.optaweb.employeerostering.service.spot.SpotService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Uses two H2 instances, the replica is "replicated" on demand with an H2 script of the primary.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingDataSourceTest.PRIMARY_URL,
+        "optaweb.datasource.replica.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL})
+@AutoConfigureMockMvc
+public class ReplicaRoutingDataSourceTest extends AbstractEntityRequireTenantRestServiceTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=false";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSourceTest.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private SpotService spotService;
+
+    @Before
+    public void setup() {
+        createTestTenant();
+    }
+
+    @After
+    public void cleanup() {
+        deleteTestTenant();
+    }
+
+    private void replicate() throws Exception {
+        File scriptFile = temporaryFolder.newFile("replication.sql");
+        try (Connection primaryConnection = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+                Statement primaryStatement = primaryConnection.createStatement()) {
+            primaryStatement.execute("SCRIPT TO '" + scriptFile.getAbsolutePath() + "'");
+        }
+        try (Connection replicaConnection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                Statement replicaStatement = replicaConnection.createStatement()) {
+            replicaStatement.execute("DROP ALL OBJECTS");
+            replicaStatement.execute("RUNSCRIPT FROM '" + scriptFile.getAbsolutePath() + "'");
+        }
+    }
+
+    private void renameSpotOnReplica(Long spotId, String name) throws SQLException {
+        try (Connection replicaConnection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+                PreparedStatement replicaStatement = replicaConnection.prepareStatement(
+                        "update spot set name = ? where id = ?")) {
+            replicaStatement.setString(1, name);
+            replicaStatement.setLong(2, spotId);
+            replicaStatement.executeUpdate();
+        }
+    }
+
+    @Test
+    public void readOnlyRequestsUseReplicaUnlessStaleTest() throws Exception {
+        Spot spot = spotService.createSpot(TENANT_ID, new SpotView(TENANT_ID, "spot", Collections.emptySet()));
+        replicate();
+        // Only visible if the read is served by the replica
+        renameSpotOnReplica(spot.getId(), "replica spot");
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/spot/", TENANT_ID)
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("replica spot"));
+
+        // Increments the roster version on the primary only, so the replica is now stale
+        SpotView updatedSpot = new SpotView(TENANT_ID, "updated spot", Collections.emptySet());
+        updatedSpot.setId(spot.getId());
+        spotService.updateSpot(TENANT_ID, updatedSpot);
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/spot/", TENANT_ID)
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].name").value("updated spot"));
+
+        mvc.perform(MockMvcRequestBuilders
+                            .get("/rest/tenant/{tenantId}/roster/shiftRosterView/current", TENANT_ID)
+                            .accept(MediaType.APPLICATION_JSON))
+                .andDo(mvcResult -> logger.info(mvcResult.toString()))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rosterVersion").value(2));
+    }
+}
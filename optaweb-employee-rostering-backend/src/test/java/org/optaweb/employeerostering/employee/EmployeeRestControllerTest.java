@@ -17,6 +17,7 @@
 package org.optaweb.employeerostering.employee;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -27,10 +28,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.contract.Contract;
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.employee.EmployeeAvailabilityState;
 import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityView;
+import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
 import org.optaweb.employeerostering.domain.skill.Skill;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
@@ -110,6 +113,51 @@ public class EmployeeRestControllerTest extends AbstractEntityRequireTenantRestS
                                      EmployeeAvailabilityView.class, tenantId);
     }
 
+    private <T, R> ResponseEntity<List<BulkItemResult<R>>> bulk(String path, HttpMethod method, List<T> itemList,
+                                                                 ParameterizedTypeReference<List<BulkItemResult<R>>>
+                                                                         responseType) {
+        return restTemplate.exchange(employeePathURI + path, method, new HttpEntity<>(itemList), responseType,
+                                     TENANT_ID);
+    }
+
+    private ResponseEntity<List<BulkItemResult<Employee>>> addEmployees(List<EmployeeView> employeeViewList) {
+        return bulk("bulk/add", HttpMethod.POST, employeeViewList,
+                    new ParameterizedTypeReference<List<BulkItemResult<Employee>>>() {
+                    });
+    }
+
+    private ResponseEntity<List<BulkItemResult<Employee>>> updateEmployees(List<EmployeeView> employeeViewList) {
+        return bulk("bulk/update", HttpMethod.POST, employeeViewList,
+                    new ParameterizedTypeReference<List<BulkItemResult<Employee>>>() {
+                    });
+    }
+
+    private ResponseEntity<List<BulkItemResult<Long>>> deleteEmployees(List<Long> idList) {
+        return bulk("bulk/delete", HttpMethod.POST, idList,
+                    new ParameterizedTypeReference<List<BulkItemResult<Long>>>() {
+                    });
+    }
+
+    private ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> addEmployeeAvailabilities(
+            List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        return bulk("availability/bulk/add", HttpMethod.POST, employeeAvailabilityViewList,
+                    new ParameterizedTypeReference<List<BulkItemResult<EmployeeAvailabilityView>>>() {
+                    });
+    }
+
+    private ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> updateEmployeeAvailabilities(
+            List<EmployeeAvailabilityView> employeeAvailabilityViewList) {
+        return bulk("availability/bulk/update", HttpMethod.PUT, employeeAvailabilityViewList,
+                    new ParameterizedTypeReference<List<BulkItemResult<EmployeeAvailabilityView>>>() {
+                    });
+    }
+
+    private ResponseEntity<List<BulkItemResult<Long>>> deleteEmployeeAvailabilities(List<Long> idList) {
+        return bulk("availability/bulk/delete", HttpMethod.POST, idList,
+                    new ParameterizedTypeReference<List<BulkItemResult<Long>>>() {
+                    });
+    }
+
     @Before
     public void setup() {
         createTestTenant();
@@ -164,6 +212,62 @@ public class EmployeeRestControllerTest extends AbstractEntityRequireTenantRestS
         assertThat(getListResponse.getBody()).isEmpty();
     }
 
+    @Test
+    public void bulkEmployeeTest() {
+        Contract contract = addContract(TENANT_ID, new Contract(TENANT_ID, "contract")).getBody();
+        Employee existingEmployee = addEmployee(TENANT_ID, new Employee(TENANT_ID, "existing", contract,
+                                                                        Collections.emptySet())).getBody();
+
+        ResponseEntity<List<BulkItemResult<Employee>>> postResponse = addEmployees(Arrays.asList(
+                new EmployeeView(TENANT_ID, "A", contract, Collections.emptySet()),
+                new EmployeeView(TENANT_ID, "existing", contract, Collections.emptySet()),
+                new EmployeeView(TENANT_ID, " B", contract, Collections.emptySet()),
+                new EmployeeView(TENANT_ID, "A", contract, Collections.emptySet()),
+                new EmployeeView(TENANT_ID, "C", contract, Collections.emptySet())));
+        assertThat(postResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<BulkItemResult<Employee>> resultList = postResponse.getBody();
+        assertThat(resultList).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2, 3, 4);
+        assertThat(resultList).extracting(BulkItemResult::isSuccess).containsExactly(true, false, false, false, true);
+        assertThat(resultList.get(1).getErrorMessage())
+                .isEqualTo("Employee entity with name (existing) already exists for tenantId (" + TENANT_ID + ").");
+        assertThat(resultList.get(2).getErrorMessage()).startsWith("The item ( B) is invalid (name ");
+        assertThat(resultList.get(3).getErrorMessage())
+                .isEqualTo("Employee entity with name (A) already exists for tenantId (" + TENANT_ID + ").");
+        Employee employeeA = resultList.get(0).getItem();
+        Employee employeeC = resultList.get(4).getItem();
+        assertThat(getEmployees(TENANT_ID).getBody()).hasSize(3);
+
+        EmployeeView renamedEmployeeView = new EmployeeView(TENANT_ID, "A2", contract, Collections.emptySet());
+        renamedEmployeeView.setId(employeeA.getId());
+        renamedEmployeeView.setVersion(employeeA.getVersion());
+        EmployeeView takenNameEmployeeView = new EmployeeView(TENANT_ID, "existing", contract,
+                                                              Collections.emptySet());
+        takenNameEmployeeView.setId(employeeC.getId());
+        takenNameEmployeeView.setVersion(employeeC.getVersion());
+        ResponseEntity<List<BulkItemResult<Employee>>> updateResponse =
+                updateEmployees(Arrays.asList(renamedEmployeeView, takenNameEmployeeView));
+        assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updateResponse.getBody()).extracting(BulkItemResult::isSuccess).containsExactly(true, false);
+        assertThat(getEmployee(TENANT_ID, employeeA.getId()).getBody().getName()).isEqualTo("A2");
+        assertThat(getEmployee(TENANT_ID, employeeC.getId()).getBody().getName()).isEqualTo("C");
+
+        // A referenced employee fails alone, instead of rolling back the deletion of the others
+        addEmployeeAvailability(TENANT_ID, new EmployeeAvailabilityView(TENANT_ID, existingEmployee,
+                                                                         LocalDateTime.of(2000, 1, 1, 0, 0),
+                                                                         LocalDateTime.of(2000, 1, 2, 0, 0),
+                                                                         EmployeeAvailabilityState.UNAVAILABLE));
+        ResponseEntity<List<BulkItemResult<Long>>> deleteResponse =
+                deleteEmployees(Arrays.asList(employeeA.getId(), existingEmployee.getId(), -1L, employeeC.getId()));
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<BulkItemResult<Long>> deleteResultList = deleteResponse.getBody();
+        assertThat(deleteResultList).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(deleteResultList).extracting(BulkItemResult::isSuccess).containsExactly(true, false, false, true);
+        assertThat(deleteResultList.get(1).getErrorMessage()).isEqualTo(
+                "Employee entity with ID (" + existingEmployee.getId() + ") cannot be deleted, because shifts, "
+                        + "shift templates or availabilities reference it.");
+        assertThat(getEmployees(TENANT_ID).getBody()).containsExactly(existingEmployee);
+    }
+
     // ************************************************************************
     // EmployeeAvailability
     // ************************************************************************
@@ -208,4 +312,54 @@ public class EmployeeRestControllerTest extends AbstractEntityRequireTenantRestS
 
         deleteEmployeeAvailability(TENANT_ID, putResponse.getBody().getId());
     }
+
+    @Test
+    public void bulkEmployeeAvailabilityTest() {
+        Contract contract = addContract(TENANT_ID, new Contract(TENANT_ID, "contract")).getBody();
+        Employee employee = addEmployee(TENANT_ID, new Employee(TENANT_ID, "employee", contract,
+                                                                Collections.emptySet())).getBody();
+
+        LocalDateTime startDateTime = LocalDateTime.of(2000, 1, 1, 0, 0);
+        EmployeeAvailabilityView employeeAvailabilityView = new EmployeeAvailabilityView(
+                TENANT_ID, employee, startDateTime, startDateTime.plusHours(8), EmployeeAvailabilityState.UNAVAILABLE);
+        EmployeeAvailabilityView unknownEmployeeAvailabilityView = new EmployeeAvailabilityView(
+                TENANT_ID, employee, startDateTime, startDateTime.plusHours(8), EmployeeAvailabilityState.DESIRED);
+        unknownEmployeeAvailabilityView.setEmployeeId(-1L);
+        EmployeeAvailabilityView tooLongEmployeeAvailabilityView = new EmployeeAvailabilityView(
+                TENANT_ID, employee, startDateTime, startDateTime.plusDays(2), EmployeeAvailabilityState.DESIRED);
+        EmployeeAvailabilityView otherEmployeeAvailabilityView = new EmployeeAvailabilityView(
+                TENANT_ID, employee, startDateTime.plusDays(1), startDateTime.plusDays(1).plusHours(8),
+                EmployeeAvailabilityState.DESIRED);
+
+        ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> postResponse = addEmployeeAvailabilities(
+                Arrays.asList(employeeAvailabilityView, unknownEmployeeAvailabilityView,
+                              tooLongEmployeeAvailabilityView, otherEmployeeAvailabilityView));
+        assertThat(postResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<BulkItemResult<EmployeeAvailabilityView>> resultList = postResponse.getBody();
+        assertThat(resultList).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(resultList).extracting(BulkItemResult::isSuccess).containsExactly(true, false, false, true);
+        assertThat(resultList.get(1).getErrorMessage()).isEqualTo("Employee entity with ID (-1) not found.");
+        assertThat(resultList.get(2).getErrorMessage()).startsWith("The item (").contains("valid");
+        EmployeeAvailabilityView persistedEmployeeAvailabilityView = resultList.get(0).getItem();
+        assertThat(persistedEmployeeAvailabilityView.getStartDateTime()).isEqualTo(startDateTime);
+        EmployeeAvailabilityView otherPersistedEmployeeAvailabilityView = resultList.get(3).getItem();
+
+        persistedEmployeeAvailabilityView.setState(EmployeeAvailabilityState.DESIRED);
+        EmployeeAvailabilityView unknownIdEmployeeAvailabilityView = new EmployeeAvailabilityView(
+                TENANT_ID, employee, startDateTime, startDateTime.plusHours(8), EmployeeAvailabilityState.DESIRED);
+        unknownIdEmployeeAvailabilityView.setId(-1L);
+        ResponseEntity<List<BulkItemResult<EmployeeAvailabilityView>>> putResponse = updateEmployeeAvailabilities(
+                Arrays.asList(unknownIdEmployeeAvailabilityView, persistedEmployeeAvailabilityView));
+        assertThat(putResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(putResponse.getBody()).extracting(BulkItemResult::isSuccess).containsExactly(false, true);
+        assertThat(putResponse.getBody().get(1).getItem().getState()).isEqualTo(EmployeeAvailabilityState.DESIRED);
+        assertThat(getEmployeeAvailability(TENANT_ID, persistedEmployeeAvailabilityView.getId()).getBody()
+                           .getState()).isEqualTo(EmployeeAvailabilityState.DESIRED);
+
+        ResponseEntity<List<BulkItemResult<Long>>> deleteResponse = deleteEmployeeAvailabilities(
+                Arrays.asList(persistedEmployeeAvailabilityView.getId(), -1L,
+                              otherPersistedEmployeeAvailabilityView.getId()));
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(deleteResponse.getBody()).extracting(BulkItemResult::isSuccess).containsExactly(true, false, true);
+    }
 }
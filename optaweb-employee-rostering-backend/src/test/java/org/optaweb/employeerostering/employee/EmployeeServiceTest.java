@@ -826,4 +826,19 @@ public class EmployeeServiceTest extends AbstractEntityRequireTenantRestServiceT
         final List<Employee> allEmployeeList = employeeService.getEmployeeList(TENANT_ID);
         expectedEmployeeList.forEach(assertListMatch.apply(allEmployeeList));
     }
+
+    @Test
+    public void employeeListReimportTest() throws IOException {
+        List<Employee> firstImportEmployeeList = employeeService
+                .importEmployeesFromExcel(TENANT_ID, getClass().getResourceAsStream("/EmployeeList.xlsx"));
+        int skillCount = skillService.getSkillList(TENANT_ID).size();
+
+        // Importing the same file again updates the employees and reuses the skills
+        List<Employee> secondImportEmployeeList = employeeService
+                .importEmployeesFromExcel(TENANT_ID, getClass().getResourceAsStream("/EmployeeList.xlsx"));
+        assertEquals(firstImportEmployeeList.size(), secondImportEmployeeList.size());
+        assertEquals(firstImportEmployeeList.stream().map(Employee::getId).collect(Collectors.toSet()),
+                     secondImportEmployeeList.stream().map(Employee::getId).collect(Collectors.toSet()));
+        assertEquals(skillCount, skillService.getSkillList(TENANT_ID).size());
+    }
 }
@@ -0,0 +1,256 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.roster;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.EmployeeAvailability;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
+import org.optaweb.employeerostering.domain.violation.ContractMinutesViolation;
+import org.optaweb.employeerostering.domain.violation.ShiftEmployeeConflict;
+import org.optaweb.employeerostering.service.common.IndictmentUtils;
+import org.optaweb.employeerostering.service.common.ShiftViolationType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_ASSIGN_EVERY_SHIFT;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_NO_OVERLAPPING_SHIFTS;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+import static org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration.CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM;
+
+public class IndictmentUtilsTest {
+
+    private static final Integer TENANT_ID = 0;
+    private static final ZoneId ZONE_ID = ZoneOffset.UTC;
+    private static final OffsetDateTime START_DATE_TIME = OffsetDateTime.of(2020, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+    private static final HardMediumSoftLongScore MATCH_SCORE = HardMediumSoftLongScore.of(-1L, 0L, 0L);
+
+    // Only classifies, so it needs no solver manager
+    private final IndictmentUtils indictmentUtils = new IndictmentUtils(null);
+
+    private final Spot spot = buildSpot();
+    private final Employee employee = buildEmployee();
+    private final EmployeeAvailability employeeAvailability = new EmployeeAvailability(
+            TENANT_ID, employee, START_DATE_TIME, START_DATE_TIME.plusHours(8L));
+    private final Shift shift = buildShift(0L);
+    private final Shift otherShift = buildShift(1L);
+    private final Shift thirdShift = buildShift(2L);
+
+    private static Spot buildSpot() {
+        Spot spot = new Spot(TENANT_ID, "Spot", Collections.emptySet());
+        spot.setId(1L);
+        return spot;
+    }
+
+    private static Employee buildEmployee() {
+        Employee employee = new Employee(TENANT_ID, "Employee", new Contract(TENANT_ID, "Contract"),
+                                         Collections.emptySet());
+        employee.setId(2L);
+        return employee;
+    }
+
+    private Shift buildShift(long index) {
+        OffsetDateTime startDateTime = START_DATE_TIME.plusHours(8L * index);
+        Shift shift = new Shift(TENANT_ID, spot, startDateTime, startDateTime.plusHours(8L));
+        shift.setId(10L + index);
+        shift.setEmployee(employee);
+        return shift;
+    }
+
+    /**
+     * @return the expected type and a justification list, like the score DRL justifies it, of every constraint
+     */
+    private Map<String, Object[]> buildConstraintNameToExpectationMap() {
+        Map<String, Object[]> map = new HashMap<>();
+        map.put(CONSTRAINT_REQUIRED_SKILL_FOR_A_SHIFT, new Object[]{
+                ShiftViolationType.REQUIRED_SKILL, Arrays.asList(shift)});
+        map.put(CONSTRAINT_UNAVAILABLE_TIME_SLOT_FOR_AN_EMPLOYEE, new Object[]{
+                ShiftViolationType.UNAVAILABLE_EMPLOYEE, Arrays.asList(shift, employeeAvailability)});
+        map.put(CONSTRAINT_NO_OVERLAPPING_SHIFTS, new Object[]{
+                ShiftViolationType.SHIFT_EMPLOYEE_CONFLICT, Arrays.asList(shift, otherShift)});
+        map.put(CONSTRAINT_NO_MORE_THAN_2_CONSECUTIVE_SHIFTS, new Object[]{
+                ShiftViolationType.NO_BREAK, Arrays.asList(shift, otherShift, thirdShift)});
+        map.put(CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS, new Object[]{
+                ShiftViolationType.SHIFT_EMPLOYEE_CONFLICT, Arrays.asList(shift, thirdShift)});
+        map.put(CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM, new Object[]{
+                ShiftViolationType.CONTRACT_MINUTES, Arrays.asList(employee, 600L)});
+        // The justifications of the contract minutes constraints do not have a consistent order
+        map.put(CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM, new Object[]{
+                ShiftViolationType.CONTRACT_MINUTES, Arrays.asList(3000L, employee)});
+        map.put(CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM, new Object[]{
+                ShiftViolationType.CONTRACT_MINUTES, Arrays.asList(employee, 12000L)});
+        map.put(CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM, new Object[]{
+                ShiftViolationType.CONTRACT_MINUTES, Arrays.asList(employee, 120000L)});
+        map.put(CONSTRAINT_ASSIGN_EVERY_SHIFT, new Object[]{
+                ShiftViolationType.UNASSIGNED_SHIFT, Arrays.asList(shift)});
+        map.put(CONSTRAINT_EMPLOYEE_IS_NOT_ORIGINAL_EMPLOYEE, new Object[]{
+                ShiftViolationType.PUBLISHED_SHIFT_REASSIGNED, Arrays.asList(shift)});
+        map.put(CONSTRAINT_UNDESIRED_TIME_SLOT_FOR_AN_EMPLOYEE, new Object[]{
+                ShiftViolationType.UNDESIRED_TIMESLOT, Arrays.asList(shift, employeeAvailability)});
+        map.put(CONSTRAINT_DESIRED_TIME_SLOT_FOR_AN_EMPLOYEE, new Object[]{
+                ShiftViolationType.DESIRED_TIMESLOT, Arrays.asList(shift, employeeAvailability)});
+        map.put(CONSTRAINT_EMPLOYEE_IS_NOT_ROTATION_EMPLOYEE, new Object[]{
+                ShiftViolationType.ROTATION_VIOLATION, Arrays.asList(shift)});
+        return map;
+    }
+
+    private static Map<ShiftViolationType, Function<ShiftView, List<?>>> buildTypeToViolationListMap() {
+        Map<ShiftViolationType, Function<ShiftView, List<?>>> map = new EnumMap<>(ShiftViolationType.class);
+        map.put(ShiftViolationType.REQUIRED_SKILL, ShiftView::getRequiredSkillViolationList);
+        map.put(ShiftViolationType.UNAVAILABLE_EMPLOYEE, ShiftView::getUnavailableEmployeeViolationList);
+        map.put(ShiftViolationType.SHIFT_EMPLOYEE_CONFLICT, ShiftView::getShiftEmployeeConflictList);
+        map.put(ShiftViolationType.DESIRED_TIMESLOT, ShiftView::getDesiredTimeslotForEmployeeRewardList);
+        map.put(ShiftViolationType.UNDESIRED_TIMESLOT, ShiftView::getUndesiredTimeslotForEmployeePenaltyList);
+        map.put(ShiftViolationType.ROTATION_VIOLATION, ShiftView::getRotationViolationPenaltyList);
+        map.put(ShiftViolationType.UNASSIGNED_SHIFT, ShiftView::getUnassignedShiftPenaltyList);
+        map.put(ShiftViolationType.CONTRACT_MINUTES, ShiftView::getContractMinutesViolationPenaltyList);
+        map.put(ShiftViolationType.NO_BREAK, ShiftView::getNoBreakViolationList);
+        map.put(ShiftViolationType.PUBLISHED_SHIFT_REASSIGNED, ShiftView::getPublishedShiftReassignedPenaltyList);
+        return map;
+    }
+
+    private static List<String> getRosterConstraintNameList() throws IllegalAccessException {
+        List<String> constraintNameList = new ArrayList<>();
+        for (Field field : RosterConstraintConfiguration.class.getFields()) {
+            if (Modifier.isStatic(field.getModifiers()) && field.getType() == String.class
+                    && field.getName().startsWith("CONSTRAINT_")) {
+                constraintNameList.add((String) field.get(null));
+            }
+        }
+        return constraintNameList;
+    }
+
+    private static ConstraintMatch buildConstraintMatch(String constraintName, List<Object> justificationList) {
+        return new ConstraintMatch(IndictmentUtils.CONSTRAINT_MATCH_PACKAGE, constraintName, justificationList,
+                                   MATCH_SCORE);
+    }
+
+    private ShiftView getShiftViewWithIndictment(ConstraintMatch... constraintMatches) {
+        Indictment indictment = new Indictment(shift, HardMediumSoftLongScore.ZERO);
+        for (ConstraintMatch constraintMatch : constraintMatches) {
+            indictment.addConstraintMatch(constraintMatch);
+        }
+        return indictmentUtils.getShiftViewWithIndictment(ZONE_ID, shift, indictment);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void everyConstraintIsMapped() throws IllegalAccessException {
+        Map<String, Object[]> constraintNameToExpectationMap = buildConstraintNameToExpectationMap();
+        Map<ShiftViolationType, Function<ShiftView, List<?>>> typeToViolationListMap = buildTypeToViolationListMap();
+        assertThat(typeToViolationListMap.keySet()).containsExactlyInAnyOrder(ShiftViolationType.values());
+
+        List<String> constraintNameList = getRosterConstraintNameList();
+        // A new constraint must be mapped to a violation type, and added to the expectations of this test
+        assertThat(constraintNameToExpectationMap.keySet()).containsExactlyInAnyOrderElementsOf(constraintNameList);
+        for (String constraintName : constraintNameList) {
+            Object[] expectation = constraintNameToExpectationMap.get(constraintName);
+            ShiftViolationType expectedType = (ShiftViolationType) expectation[0];
+            ConstraintMatch constraintMatch = buildConstraintMatch(constraintName, (List<Object>) expectation[1]);
+            assertThat(ShiftViolationType.forConstraintMatch(constraintMatch)).as(constraintName)
+                    .isEqualTo(expectedType);
+
+            ShiftView shiftView = getShiftViewWithIndictment(constraintMatch);
+            assertThat(shiftView.getViolationTypeMask()).as(constraintName).isEqualTo(expectedType.getMask());
+            assertThat(shiftView.getIndictmentScore()).as(constraintName).isEqualTo(MATCH_SCORE);
+            typeToViolationListMap.forEach((type, violationListGetter) -> assertThat(
+                    violationListGetter.apply(shiftView)).as(constraintName + " " + type)
+                    .hasSize((type == expectedType) ? 1 : 0));
+        }
+    }
+
+    @Test
+    public void sharedViolationTypes() {
+        ShiftView shiftView = getShiftViewWithIndictment(
+                buildConstraintMatch(CONSTRAINT_NO_OVERLAPPING_SHIFTS, Arrays.asList(shift, otherShift)),
+                buildConstraintMatch(CONSTRAINT_BREAK_BETWEEN_NON_CONSECUTIVE_SHIFTS,
+                                     Arrays.asList(shift, thirdShift)),
+                buildConstraintMatch(CONSTRAINT_DAILY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                                     Arrays.asList(employee, 600L)),
+                buildConstraintMatch(CONSTRAINT_WEEKLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                                     Arrays.asList(3000L, employee)),
+                buildConstraintMatch(CONSTRAINT_MONTHLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                                     Arrays.asList(employee, 12000L)),
+                buildConstraintMatch(CONSTRAINT_YEARLY_MINUTES_MUST_NOT_EXCEED_CONTRACT_MAXIMUM,
+                                     Arrays.asList(employee, 120000L)));
+        assertThat(shiftView.getViolationTypeMask()).isEqualTo(
+                ShiftViolationType.SHIFT_EMPLOYEE_CONFLICT.getMask() | ShiftViolationType.CONTRACT_MINUTES.getMask());
+        assertThat(shiftView.getShiftEmployeeConflictList()).extracting(ShiftEmployeeConflict::getRightShift)
+                .containsExactlyInAnyOrder(otherShift, thirdShift);
+        assertThat(shiftView.getContractMinutesViolationPenaltyList())
+                .extracting(ContractMinutesViolation::getType, ContractMinutesViolation::getMinutesWorked)
+                .containsExactlyInAnyOrder(
+                        tuple(ContractMinutesViolation.Type.DAY, 600L),
+                        tuple(ContractMinutesViolation.Type.WEEK, 3000L),
+                        tuple(ContractMinutesViolation.Type.MONTH, 12000L),
+                        tuple(ContractMinutesViolation.Type.YEAR, 120000L));
+        assertThat(shiftView.getContractMinutesViolationPenaltyList())
+                .extracting(ContractMinutesViolation::getEmployee).containsOnly(employee);
+        assertThat(shiftView.getRequiredSkillViolationList()).isEmpty();
+        assertThat(shiftView.getNoBreakViolationList()).isEmpty();
+    }
+
+    @Test
+    public void constraintOfOtherPackageIsIgnored() {
+        ConstraintMatch constraintMatch = new ConstraintMatch("org.example", CONSTRAINT_ASSIGN_EVERY_SHIFT,
+                                                              Arrays.asList(shift), MATCH_SCORE);
+        assertThat(ShiftViolationType.forConstraintMatch(constraintMatch)).isNull();
+        ShiftView shiftView = getShiftViewWithIndictment(constraintMatch);
+        assertThat(shiftView.getViolationTypeMask()).isEqualTo(0);
+        assertThat(shiftView.getUnassignedShiftPenaltyList()).isEmpty();
+    }
+
+    @Test
+    public void noIndictment() {
+        ShiftView shiftView = indictmentUtils.getShiftViewWithIndictment(ZONE_ID, shift, null);
+        assertThat(shiftView.getViolationTypeMask()).isEqualTo(0);
+        assertThat(shiftView.getIndictmentScore()).isEqualTo(HardMediumSoftLongScore.ZERO);
+        buildTypeToViolationListMap().values().forEach(
+                violationListGetter -> assertThat(violationListGetter.apply(shiftView)).isEmpty());
+    }
+}
@@ -44,7 +44,9 @@ import org.optaweb.employeerostering.domain.employee.view.EmployeeAvailabilityVi
 import org.optaweb.employeerostering.domain.roster.PublishResult;
 import org.optaweb.employeerostering.domain.roster.RosterState;
 import org.optaweb.employeerostering.domain.roster.view.AvailabilityRosterView;
+import org.optaweb.employeerostering.domain.roster.view.CoverageHeatmapView;
 import org.optaweb.employeerostering.domain.roster.view.RosterStateView;
+import org.optaweb.employeerostering.domain.roster.view.ShiftRosterDeltaView;
 import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
 import org.optaweb.employeerostering.domain.spot.Spot;
@@ -55,7 +57,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.web.util.UriComponents;
@@ -101,6 +107,21 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         return restTemplate.getForEntity(uriComponents.toUriString(), ShiftRosterView.class);
     }
 
+    private ResponseEntity<ShiftRosterView> getCurrentShiftRosterView(Integer pageNumber,
+                                                                      Integer numberOfItemsPerPage,
+                                                                      String ifNoneMatch) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView/current")
+                .queryParam("p", pageNumber)
+                .queryParam("n", numberOfItemsPerPage)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(ifNoneMatch);
+
+        return restTemplate.exchange(uriComponents.toUriString(), HttpMethod.GET, new HttpEntity<>(headers),
+                                     ShiftRosterView.class);
+    }
+
     private ResponseEntity<ShiftRosterView> getShiftRosterView(Integer pageNumber,
                                                                Integer numberOfItemsPerPage, String startDateString,
                                                                String endDateString) {
@@ -115,6 +136,71 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         return restTemplate.getForEntity(uriComponents.toUriString(), ShiftRosterView.class);
     }
 
+    private ResponseEntity<ShiftRosterView> getCompactShiftRosterView(String startDateString,
+                                                                      String endDateString) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView/compact")
+                .queryParam("p", 0)
+                .queryParam("n", 2)
+                .queryParam("startDate", startDateString)
+                .queryParam("endDate", endDateString)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+
+        return restTemplate.getForEntity(uriComponents.toUriString(), ShiftRosterView.class);
+    }
+
+    private ResponseEntity<ShiftView> getShiftViewWithIndictment(Long shiftId) {
+        return restTemplate.getForEntity(rosterPathURI + "shiftRosterView/shift/{id}", ShiftView.class, TENANT_ID,
+                                         shiftId);
+    }
+
+    private <T> ResponseEntity<T> getShiftRosterView(MediaType mediaType, Class<T> responseClass,
+                                                     String startDateString, String endDateString) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView")
+                .queryParam("p", 0)
+                .queryParam("n", 2)
+                .queryParam("startDate", startDateString)
+                .queryParam("endDate", endDateString)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(mediaType));
+
+        return restTemplate.exchange(uriComponents.toUriString(), HttpMethod.GET, new HttpEntity<>(headers),
+                                     responseClass);
+    }
+
+    private <T> ResponseEntity<T> getStreamedRosterView(String viewPath, Class<T> viewClass, Integer pageNumber,
+                                                        Integer numberOfItemsPerPage, String startDateString,
+                                                        String endDateString) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + viewPath + "/stream")
+                .queryParam("p", pageNumber)
+                .queryParam("n", numberOfItemsPerPage)
+                .queryParam("startDate", startDateString)
+                .queryParam("endDate", endDateString)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+
+        return restTemplate.getForEntity(uriComponents.toUriString(), viewClass);
+    }
+
+    private ResponseEntity<ShiftRosterDeltaView> getShiftRosterDeltaView(Long fromRosterVersion,
+                                                                         Integer pageNumber,
+                                                                         Integer numberOfItemsPerPage,
+                                                                         String startDateString,
+                                                                         String endDateString) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView/delta")
+                .queryParam("since", fromRosterVersion)
+                .queryParam("p", pageNumber)
+                .queryParam("n", numberOfItemsPerPage)
+                .queryParam("startDate", startDateString)
+                .queryParam("endDate", endDateString)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+
+        return restTemplate.getForEntity(uriComponents.toUriString(), ShiftRosterDeltaView.class);
+    }
+
     private ResponseEntity<ShiftRosterView> getShiftRosterViewFor(String startDateString,
                                                                   String endDateString, List<Spot> spots) {
         UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView/for")
@@ -179,6 +265,31 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         return restTemplate.getForEntity(uriComponents.toUriString(), byte[].class);
     }
 
+    private ResponseEntity<String> getShiftRosterAsCsv(List<Spot> spotList,
+                                                       LocalDate startDate,
+                                                       LocalDate endDate) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "shiftRosterView/csv")
+                .queryParam("startDate", startDate.toString())
+                .queryParam("endDate", endDate.toString())
+                .queryParam("spotList", spotList.stream().map(Spot::getId).map(id -> id.toString())
+                        .collect(Collectors.joining(",")))
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+
+        return restTemplate.getForEntity(uriComponents.toUriString(), String.class);
+    }
+
+    private ResponseEntity<CoverageHeatmapView> getCoverageHeatmapView(String startDateString,
+                                                                       String endDateString) {
+        UriComponents uriComponents = UriComponentsBuilder.fromUriString(rosterPathURI + "coverageHeatmapView")
+                .queryParam("startDate", startDateString)
+                .queryParam("endDate", endDateString)
+                .build()
+                .expand(Collections.singletonMap("tenantId", TENANT_ID));
+
+        return restTemplate.getForEntity(uriComponents.toUriString(), CoverageHeatmapView.class);
+    }
+
     private ResponseEntity<PublishResult> publishAndProvision() {
         return restTemplate.postForEntity(rosterPathURI + "publishAndProvision", null, PublishResult.class, TENANT_ID);
     }
@@ -301,6 +412,39 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         assertThat(shiftRosterView.getTenantId()).isEqualTo(TENANT_ID);
     }
 
+    @Test
+    public void testGetCurrentShiftRosterViewNotModified() {
+        createTestRoster();
+
+        ResponseEntity<ShiftRosterView> shiftRosterViewResponse = getCurrentShiftRosterView(0, 1);
+        assertThat(shiftRosterViewResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String eTag = shiftRosterViewResponse.getHeaders().getETag();
+        ShiftRosterView shiftRosterView = shiftRosterViewResponse.getBody();
+        assertThat(eTag).startsWith("\"" + shiftRosterView.getRosterVersion() + "-")
+                // The resolved date range of the current view
+                .endsWith("-" + shiftRosterView.getStartDate() + "_" + shiftRosterView.getEndDate() + "\"");
+        assertThat(shiftRosterViewResponse.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+
+        shiftRosterViewResponse = getCurrentShiftRosterView(0, 1, eTag);
+        assertThat(shiftRosterViewResponse.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(shiftRosterViewResponse.getBody()).isNull();
+
+        // The same roster version in another encoding is another representation
+        HttpHeaders cborHeaders = new HttpHeaders();
+        cborHeaders.setAccept(Collections.singletonList(new MediaType("application", "cbor")));
+        cborHeaders.setIfNoneMatch(eTag);
+        ResponseEntity<byte[]> cborResponse = restTemplate.exchange(
+                rosterPathURI + "shiftRosterView/current?p=0&n=1", HttpMethod.GET, new HttpEntity<>(cborHeaders),
+                byte[].class, TENANT_ID);
+        assertThat(cborResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(cborResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+
+        addSpot("Spot C");
+        shiftRosterViewResponse = getCurrentShiftRosterView(0, 1, eTag);
+        assertThat(shiftRosterViewResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(shiftRosterViewResponse.getHeaders().getETag()).isNotEqualTo(eTag);
+    }
+
     @Test
     public void testGetShiftRosterView() {
         createTestRoster();
@@ -334,6 +478,200 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         assertThat(shiftRosterView.getTenantId()).isEqualTo(TENANT_ID);
     }
 
+    @Test
+    public void testGetCompactShiftRosterView() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        ShiftRosterView fullShiftRosterView = getShiftRosterView(0, 2, startDate, endDate).getBody();
+        ResponseEntity<ShiftRosterView> compactResponse = getCompactShiftRosterView(startDate, endDate);
+        assertThat(compactResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ShiftRosterView compactShiftRosterView = compactResponse.getBody();
+        assertThat(compactShiftRosterView).isNotNull();
+        assertThat(compactShiftRosterView.getScore()).isEqualTo(fullShiftRosterView.getScore());
+        assertThat(compactShiftRosterView.getSpotIdToShiftViewListMap())
+                .isEqualTo(fullShiftRosterView.getSpotIdToShiftViewListMap());
+
+        Map<Long, ShiftView> fullShiftViewMap = fullShiftRosterView.getSpotIdToShiftViewListMap().values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(ShiftView::getId, shiftView -> shiftView));
+        compactShiftRosterView.getSpotIdToShiftViewListMap().values().stream().flatMap(List::stream)
+                .forEach(compactShiftView -> {
+                    ShiftView fullShiftView = fullShiftViewMap.get(compactShiftView.getId());
+                    assertThat(compactShiftView.getIndictmentScore()).isEqualTo(fullShiftView.getIndictmentScore());
+                    assertThat(compactShiftView.getViolationTypeMask())
+                            .isEqualTo(fullShiftView.getViolationTypeMask());
+                    assertThat(compactShiftView.getRequiredSkillViolationList()).isNull();
+                    assertThat(compactShiftView.getUnassignedShiftPenaltyList()).isNull();
+                });
+    }
+
+    @Test
+    public void testGetShiftViewWithIndictment() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        ShiftView fullShiftView = getShiftRosterView(0, 2, startDate, endDate).getBody()
+                .getSpotIdToShiftViewListMap().get(spotList.get(0).getId()).get(0);
+
+        ResponseEntity<ShiftView> response = getShiftViewWithIndictment(fullShiftView.getId());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ShiftView shiftView = response.getBody();
+        assertThat(shiftView).isEqualTo(fullShiftView);
+        assertThat(shiftView.getIndictmentScore()).isEqualTo(fullShiftView.getIndictmentScore());
+        assertThat(shiftView.getViolationTypeMask()).isEqualTo(fullShiftView.getViolationTypeMask());
+        assertThat(shiftView.getRequiredSkillViolationList()).hasSameSizeAs(
+                fullShiftView.getRequiredSkillViolationList());
+        assertThat(shiftView.getUnassignedShiftPenaltyList()).hasSameSizeAs(
+                fullShiftView.getUnassignedShiftPenaltyList());
+
+        assertThat(restTemplate.getForEntity(rosterPathURI + "shiftRosterView/shift/{id}", String.class, TENANT_ID,
+                                             -1L).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void testGetCoverageHeatmapView() {
+        createTestRoster();
+
+        ResponseEntity<CoverageHeatmapView> response = getCoverageHeatmapView(LocalDate.of(2000, 1, 1).toString(),
+                                                                              LocalDate.of(2000, 1, 3).toString());
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        CoverageHeatmapView coverageHeatmapView = response.getBody();
+        assertThat(coverageHeatmapView).isNotNull();
+        assertThat(coverageHeatmapView.getTenantId()).isEqualTo(TENANT_ID);
+        assertThat(coverageHeatmapView.getHourCount()).isEqualTo(48);
+        assertThat(coverageHeatmapView.getSpotList()).containsExactlyElementsOf(spotList);
+
+        // Spot A has an unassigned shift on the first day and an assigned shift on the second day, both 9 to 17
+        int[] spotARequiredShiftCounts = new int[48];
+        int[] spotAAssignedShiftCounts = new int[48];
+        Arrays.fill(spotARequiredShiftCounts, 9, 17, 1);
+        Arrays.fill(spotARequiredShiftCounts, 33, 41, 1);
+        Arrays.fill(spotAAssignedShiftCounts, 33, 41, 1);
+        // Spot B has an assigned shift on both days
+        int[] spotBShiftCounts = spotARequiredShiftCounts.clone();
+        assertThat(coverageHeatmapView.getSpotIdToRequiredShiftCountsMap()).containsOnlyKeys(
+                spotList.get(0).getId(), spotList.get(1).getId());
+        assertThat(coverageHeatmapView.getSpotIdToRequiredShiftCountsMap().get(spotList.get(0).getId()))
+                .containsExactly(spotARequiredShiftCounts);
+        assertThat(coverageHeatmapView.getSpotIdToAssignedShiftCountsMap().get(spotList.get(0).getId()))
+                .containsExactly(spotAAssignedShiftCounts);
+        assertThat(coverageHeatmapView.getSpotIdToRequiredShiftCountsMap().get(spotList.get(1).getId()))
+                .containsExactly(spotBShiftCounts);
+        assertThat(coverageHeatmapView.getSpotIdToAssignedShiftCountsMap().get(spotList.get(1).getId()))
+                .containsExactly(spotBShiftCounts);
+        assertThat(coverageHeatmapView.getSpotIdToSkillGapCountsMap().values())
+                .allSatisfy(skillGapCounts -> assertThat(skillGapCounts).containsOnly(0));
+    }
+
+    @Test
+    public void testGetShiftRosterViewInBinaryEncoding() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        ShiftRosterView jsonShiftRosterView = getShiftRosterView(MediaType.APPLICATION_JSON, ShiftRosterView.class,
+                                                                 startDate, endDate).getBody();
+        byte[] jsonBytes = getShiftRosterView(MediaType.APPLICATION_JSON, byte[].class, startDate, endDate).getBody();
+        for (MediaType mediaType : Arrays.asList(new MediaType("application", "x-jackson-smile"),
+                                                 new MediaType("application", "cbor"))) {
+            ResponseEntity<ShiftRosterView> response = getShiftRosterView(mediaType, ShiftRosterView.class,
+                                                                          startDate, endDate);
+            assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            assertThat(response.getHeaders().getContentType()).isEqualTo(mediaType);
+            ShiftRosterView shiftRosterView = response.getBody();
+            assertThat(shiftRosterView.getSpotList()).containsExactlyElementsOf(spotList);
+            assertThat(shiftRosterView.getScore()).isEqualTo(jsonShiftRosterView.getScore());
+            assertThat(shiftRosterView.getSpotIdToShiftViewListMap())
+                    .isEqualTo(jsonShiftRosterView.getSpotIdToShiftViewListMap());
+
+            byte[] bytes = getShiftRosterView(mediaType, byte[].class, startDate, endDate).getBody();
+            assertThat(bytes.length).isLessThan(jsonBytes.length);
+        }
+    }
+
+    @Test
+    public void testStreamShiftRosterView() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        ShiftRosterView shiftRosterView = getShiftRosterView(0, 2, startDate, endDate).getBody();
+        ResponseEntity<ShiftRosterView> streamedResponse = getStreamedRosterView("shiftRosterView",
+                                                                                 ShiftRosterView.class, 0, 2,
+                                                                                 startDate, endDate);
+        assertThat(streamedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ShiftRosterView streamedShiftRosterView = streamedResponse.getBody();
+        assertThat(streamedShiftRosterView.getTenantId()).isEqualTo(TENANT_ID);
+        assertThat(streamedShiftRosterView.getSpotList()).containsExactlyElementsOf(spotList);
+        assertThat(streamedShiftRosterView.getEmployeeList()).containsExactlyElementsOf(employeeList);
+        assertThat(streamedShiftRosterView.getRosterVersion()).isEqualTo(shiftRosterView.getRosterVersion());
+        assertThat(streamedShiftRosterView.getScore()).isEqualTo(shiftRosterView.getScore());
+        assertThat(streamedShiftRosterView.getSpotIdToShiftViewListMap())
+                .isEqualTo(shiftRosterView.getSpotIdToShiftViewListMap());
+    }
+
+    @Test
+    public void testStreamAvailabilityRosterView() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        AvailabilityRosterView availabilityRosterView = getAvailabilityRosterView(0, 2, startDate, endDate)
+                .getBody();
+        ResponseEntity<AvailabilityRosterView> streamedResponse =
+                getStreamedRosterView("availabilityRosterView", AvailabilityRosterView.class, 0, 2,
+                                      startDate, endDate);
+        assertThat(streamedResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        AvailabilityRosterView streamedAvailabilityRosterView = streamedResponse.getBody();
+        assertThat(streamedAvailabilityRosterView.getEmployeeList()).containsExactlyElementsOf(employeeList);
+        assertThat(streamedAvailabilityRosterView.getEmployeeIdToShiftViewListMap())
+                .isEqualTo(availabilityRosterView.getEmployeeIdToShiftViewListMap());
+        assertThat(streamedAvailabilityRosterView.getEmployeeIdToAvailabilityViewListMap())
+                .isEqualTo(availabilityRosterView.getEmployeeIdToAvailabilityViewListMap());
+        assertThat(streamedAvailabilityRosterView.getUnassignedShiftViewList()).isEmpty();
+    }
+
+    @Test
+    public void testGetShiftRosterDeltaView() {
+        createTestRoster();
+
+        String startDate = LocalDate.of(2000, 1, 1).toString();
+        String endDate = LocalDate.of(2000, 1, 3).toString();
+        Long rosterVersion = getShiftRosterView(0, 2, startDate, endDate).getBody().getRosterVersion();
+
+        ShiftView shiftE = addShift(spotList.get(0), null, LocalDateTime.of(2000, 1, 2, 17, 0), Duration.ofHours(8));
+        restTemplate.delete(shiftPathURI + shiftViewList.get(0).getId(), TENANT_ID);
+
+        ResponseEntity<ShiftRosterDeltaView> deltaViewResponse = getShiftRosterDeltaView(rosterVersion, 0, 2,
+                                                                                         startDate, endDate);
+        assertThat(deltaViewResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        ShiftRosterDeltaView deltaView = deltaViewResponse.getBody();
+        assertThat(deltaView.getShiftRosterView()).isNull();
+        assertThat(deltaView.getFromRosterVersion()).isEqualTo(rosterVersion);
+        assertThat(deltaView.getRosterVersion()).isEqualTo(rosterVersion + 2);
+        assertThat(deltaView.getChangedShiftViewList()).extracting(ShiftView::getId)
+                .containsExactly(shiftE.getId());
+        assertThat(deltaView.getRemovedShiftIdList()).containsExactly(shiftViewList.get(0).getId());
+        assertThat(deltaView.getChangedEmployeeAvailabilityViewList()).isEmpty();
+        assertThat(deltaView.getRemovedEmployeeAvailabilityIdList()).isEmpty();
+
+        deltaView = getShiftRosterDeltaView(rosterVersion + 2, 0, 2, startDate, endDate).getBody();
+        assertThat(deltaView.getShiftRosterView()).isNull();
+        assertThat(deltaView.getChangedShiftViewList()).isEmpty();
+        assertThat(deltaView.getRemovedShiftIdList()).isEmpty();
+
+        // Adding spots and employees changes more than the log describes
+        deltaView = getShiftRosterDeltaView(0L, 0, 2, startDate, endDate).getBody();
+        assertThat(deltaView.getShiftRosterView()).isNotNull();
+        assertThat(deltaView.getShiftRosterView().getSpotIdToShiftViewListMap().get(spotList.get(0).getId()))
+                .extracting(ShiftView::getId)
+                .containsExactly(shiftViewList.get(2).getId(), shiftE.getId());
+        assertThat(deltaView.getChangedShiftViewList()).isNull();
+    }
+
     @Test
     public void testGetShiftRosterViewFor() {
         createTestRoster();
@@ -566,6 +904,26 @@ public class RosterRestControllerTest extends AbstractEntityRequireTenantRestSer
         assertThat(spotSheet.getRow(rowIndex)).as("Sheet should end on row %d", rowIndex).isNull();
     }
 
+    @Test
+    public void testGetShiftRosterAsCsv() {
+        createTestRoster();
+
+        LocalDate startDate = LocalDate.of(2000, 1, 1);
+        LocalDate endDate = LocalDate.of(2000, 1, 2);
+
+        ResponseEntity<String> response = getShiftRosterAsCsv(spotList, startDate, endDate);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().split("\r\n")).containsExactly(
+                "Spot,Start,End,Employee",
+                "Spot A,2000-01-01 09:00,2000-01-01 17:00,",
+                "Spot B,2000-01-01 09:00,2000-01-01 17:00,Employee B");
+
+        Spot badSpot = new Spot(TENANT_ID, "Bad", Collections.emptySet());
+        badSpot.setId(-1L);
+        response = getShiftRosterAsCsv(Arrays.asList(badSpot), startDate, endDate);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     public void testCommitChanges() {
         createTestRoster();
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.roster;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.contract.view.ContractView;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.employee.view.EmployeeView;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.spot.view.SpotView;
+import org.optaweb.employeerostering.service.contract.ContractService;
+import org.optaweb.employeerostering.service.employee.EmployeeService;
+import org.optaweb.employeerostering.service.roster.RosterService;
+import org.optaweb.employeerostering.service.roster.ShiftAssignmentTracker;
+import org.optaweb.employeerostering.service.shift.ShiftRepository;
+import org.optaweb.employeerostering.service.shift.ShiftService;
+import org.optaweb.employeerostering.service.spot.SpotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Transactional
+public class RosterServiceTest extends AbstractEntityRequireTenantRestServiceTest {
+
+    @Autowired
+    private RosterService rosterService;
+
+    @Autowired
+    private ShiftService shiftService;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
+    @Autowired
+    private SpotService spotService;
+
+    @Autowired
+    private ContractService contractService;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Before
+    public void setup() {
+        createTestTenant();
+    }
+
+    @After
+    public void cleanup() {
+        deleteTestTenant();
+    }
+
+    private Employee createEmployee(Contract contract, String name) {
+        return employeeService.createEmployee(TENANT_ID, new EmployeeView(TENANT_ID, name, contract,
+                                                                          Collections.emptySet()));
+    }
+
+    private Shift getPersistedShift(Long shiftId) {
+        entityManager.flush();
+        entityManager.clear();
+        return shiftRepository.findById(shiftId).get();
+    }
+
+    @Test
+    public void updateShiftsOfRosterTest() {
+        Spot spot = spotService.createSpot(TENANT_ID, new SpotView(TENANT_ID, "spot", Collections.emptySet()));
+        Contract contract = contractService.createContract(TENANT_ID, new ContractView(TENANT_ID, "contract"));
+        Employee employeeA = createEmployee(contract, "employeeA");
+        Employee employeeB = createEmployee(contract, "employeeB");
+        LocalDateTime startDateTime = LocalDateTime.of(2000, 1, 10, 9, 0);
+        ShiftView shiftView = new ShiftView(TENANT_ID, spot, startDateTime, startDateTime.plusHours(8));
+        shiftView.setEmployeeId(employeeA.getId());
+        Long shiftId = shiftService.createShift(TENANT_ID, shiftView).getId();
+
+        Roster roster = rosterService.buildRoster(TENANT_ID);
+        ShiftAssignmentTracker assignmentTracker = new ShiftAssignmentTracker(roster);
+        Shift solverShift = roster.getShiftList().get(0);
+        Long loadedVersion = solverShift.getVersion();
+
+        // The solver reassigns the shift
+        solverShift.setEmployee(employeeB);
+        assertTrue(rosterService.updateShiftsOfRoster(roster, assignmentTracker).isEmpty());
+        Shift persistedShift = getPersistedShift(shiftId);
+        assertEquals(employeeB.getId(), persistedShift.getEmployee().getId());
+        assertEquals(loadedVersion + 1L, (long) persistedShift.getVersion());
+
+        // An unchanged best solution is not written again
+        assertTrue(rosterService.updateShiftsOfRoster(roster, assignmentTracker).isEmpty());
+        assertEquals(loadedVersion + 1L, (long) getPersistedShift(shiftId).getVersion());
+
+        // A user edits the shift concurrently, so the next best solution must not overwrite it
+        persistedShift = getPersistedShift(shiftId);
+        persistedShift.setEmployee(entityManager.find(Employee.class, employeeA.getId()));
+        shiftRepository.saveAndFlush(persistedShift);
+        entityManager.clear();
+
+        solverShift.setEmployee(null);
+        List<Shift> conflictingShiftList = rosterService.updateShiftsOfRoster(roster, assignmentTracker);
+        assertEquals(1, conflictingShiftList.size());
+        assertEquals(employeeA.getId(), conflictingShiftList.get(0).getEmployee().getId());
+        persistedShift = getPersistedShift(shiftId);
+        assertEquals(employeeA.getId(), persistedShift.getEmployee().getId());
+        assertEquals(loadedVersion + 2L, (long) persistedShift.getVersion());
+    }
+}
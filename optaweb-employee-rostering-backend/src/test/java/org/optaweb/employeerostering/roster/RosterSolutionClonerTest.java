@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.roster;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.roster.RosterSolutionCloner;
+import org.optaweb.employeerostering.domain.roster.RosterState;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.spot.Spot;
+import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RosterSolutionClonerTest {
+
+    private static final Integer TENANT_ID = 1;
+    private static final OffsetDateTime START_DATE_TIME = OffsetDateTime.of(2020, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    public void cloneOnlyShifts() {
+        Spot spot = new Spot(TENANT_ID, "Spot", Collections.emptySet());
+        Employee employee = new Employee(TENANT_ID, "Employee", null, Collections.emptySet());
+        Shift assignedShift = new Shift(TENANT_ID, spot, START_DATE_TIME, START_DATE_TIME.plusHours(8));
+        assignedShift.setId(10L);
+        assignedShift.setVersion(3L);
+        assignedShift.setEmployee(employee);
+        Shift pinnedShift = new Shift(TENANT_ID, spot, START_DATE_TIME.plusHours(8), START_DATE_TIME.plusHours(16));
+        pinnedShift.setId(11L);
+        pinnedShift.setPinnedByUser(true);
+        Roster original = new Roster(1L, TENANT_ID, new RosterConstraintConfiguration(), Collections.emptyList(),
+                                     Collections.singletonList(spot), Collections.singletonList(employee),
+                                     Collections.emptyList(), new RosterState(),
+                                     Arrays.asList(assignedShift, pinnedShift), true, START_DATE_TIME);
+        original.setScore(HardMediumSoftLongScore.of(0L, -1L, -2L));
+
+        Roster clone = new RosterSolutionCloner().cloneSolution(original);
+        assertThat(clone).isNotSameAs(original);
+        assertThat(clone.getId()).isEqualTo(1L);
+        assertThat(clone.getTenantId()).isEqualTo(TENANT_ID);
+        assertThat(clone.getScore()).isEqualTo(original.getScore());
+        assertThat(clone.isNondisruptivePlanning()).isTrue();
+        assertThat(clone.getNondisruptiveReplanFrom()).isEqualTo(START_DATE_TIME);
+        // The problem facts are shared
+        assertThat(clone.getRosterConstraintConfiguration()).isSameAs(original.getRosterConstraintConfiguration());
+        assertThat(clone.getSpotList()).isSameAs(original.getSpotList());
+        assertThat(clone.getEmployeeList()).isSameAs(original.getEmployeeList());
+        assertThat(clone.getRosterState()).isSameAs(original.getRosterState());
+
+        assertThat(clone.getShiftList()).isNotSameAs(original.getShiftList()).hasSize(2);
+        Shift clonedAssignedShift = clone.getShiftList().get(0);
+        assertThat(clonedAssignedShift).isNotSameAs(assignedShift);
+        assertThat(clonedAssignedShift.getId()).isEqualTo(10L);
+        assertThat(clonedAssignedShift.getVersion()).isEqualTo(3L);
+        assertThat(clonedAssignedShift.getSpot()).isSameAs(spot);
+        assertThat(clonedAssignedShift.getStartDateTime()).isEqualTo(assignedShift.getStartDateTime());
+        assertThat(clonedAssignedShift.getEndDateTime()).isEqualTo(assignedShift.getEndDateTime());
+        assertThat(clonedAssignedShift.getEmployee()).isSameAs(employee);
+        assertThat(clone.getShiftList().get(1).isPinnedByUser()).isTrue();
+
+        clonedAssignedShift.setEmployee(null);
+        assertThat(assignedShift.getEmployee()).isSameAs(employee);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.roster;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.persistence.EntityNotFoundException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.optaweb.employeerostering.service.roster.RosterViewRequestCoalescer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class RosterViewRequestCoalescerTest {
+
+    private RosterViewRequestCoalescer tested;
+    private ExecutorService executorService;
+
+    @Before
+    public void setup() {
+        tested = new RosterViewRequestCoalescer();
+        executorService = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void cleanup() {
+        executorService.shutdownNow();
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentRequestsWithEqualKeyShareOneComputation() throws Exception {
+        AtomicInteger computationCount = new AtomicInteger();
+        CountDownLatch computationStarted = new CountDownLatch(1);
+        CountDownLatch computationMayFinish = new CountDownLatch(1);
+
+        Future<Object> firstView = executorService.submit(() -> tested.coalesce(
+                Arrays.asList(1, 5L, "shiftRosterView"), () -> {
+                    computationCount.incrementAndGet();
+                    computationStarted.countDown();
+                    awaitUninterruptibly(computationMayFinish);
+                    return new Object();
+                }));
+        computationStarted.await();
+        FutureTask<Object> secondView = new FutureTask<>(() -> tested.coalesce(
+                Arrays.asList(1, 5L, "shiftRosterView"), () -> {
+                    computationCount.incrementAndGet();
+                    return new Object();
+                }));
+        startAndAwaitBlocked(secondView);
+        computationMayFinish.countDown();
+
+        assertThat(secondView.get()).isSameAs(firstView.get());
+        assertThat(computationCount).hasValue(1);
+    }
+
+    @Test
+    public void requestsAfterTheComputationFinishedComputeAgain() {
+        List<Object> viewKey = Collections.singletonList("shiftRosterView");
+        Object firstView = tested.coalesce(viewKey, Object::new);
+        Object secondView = tested.coalesce(viewKey, Object::new);
+        assertThat(secondView).isNotSameAs(firstView);
+    }
+
+    @Test(timeout = 10000)
+    public void concurrentRequestsGetTheExceptionOfTheComputationInFlight() throws Exception {
+        List<Object> viewKey = Arrays.asList(1, 5L, "shiftRosterView");
+        CountDownLatch computationStarted = new CountDownLatch(1);
+        CountDownLatch computationMayFinish = new CountDownLatch(1);
+
+        executorService.submit(() -> tested.coalesce(viewKey, () -> {
+            computationStarted.countDown();
+            awaitUninterruptibly(computationMayFinish);
+            throw new EntityNotFoundException("No RosterState entity found with tenantId (1).");
+        }));
+        computationStarted.await();
+        FutureTask<Object> secondView = new FutureTask<>(() -> tested.coalesce(viewKey, Object::new));
+        startAndAwaitBlocked(secondView);
+        computationMayFinish.countDown();
+
+        assertThatThrownBy(secondView::get)
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(EntityNotFoundException.class);
+    }
+
+    /**
+     * Returns once the request waits for the computation in flight, so the test does not depend on timing.
+     */
+    private static void startAndAwaitBlocked(FutureTask<Object> request) throws InterruptedException {
+        Thread thread = new Thread(request);
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING) {
+            Thread.sleep(1L);
+        }
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting.", e);
+        }
+    }
+}
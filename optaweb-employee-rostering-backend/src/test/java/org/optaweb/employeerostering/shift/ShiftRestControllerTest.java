@@ -17,6 +17,7 @@
 package org.optaweb.employeerostering.shift;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -25,6 +26,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.common.BulkItemResult;
 import org.optaweb.employeerostering.domain.contract.Contract;
 import org.optaweb.employeerostering.domain.employee.Employee;
 import org.optaweb.employeerostering.domain.shift.view.ShiftView;
@@ -78,6 +80,19 @@ public class ShiftRestControllerTest extends AbstractEntityRequireTenantRestServ
         return restTemplate.exchange(shiftPathURI + "update", HttpMethod.PUT, request, ShiftView.class, tenantId);
     }
 
+    private ResponseEntity<List<BulkItemResult<ShiftView>>> addShifts(Integer tenantId,
+                                                                     List<ShiftView> shiftViewList) {
+        return restTemplate.exchange(shiftPathURI + "bulk/add", HttpMethod.POST, new HttpEntity<>(shiftViewList),
+                                     new ParameterizedTypeReference<List<BulkItemResult<ShiftView>>>() {
+                                     }, tenantId);
+    }
+
+    private ResponseEntity<List<BulkItemResult<Long>>> deleteShifts(Integer tenantId, List<Long> idList) {
+        return restTemplate.exchange(shiftPathURI + "bulk/delete", HttpMethod.POST, new HttpEntity<>(idList),
+                                     new ParameterizedTypeReference<List<BulkItemResult<Long>>>() {
+                                     }, tenantId);
+    }
+
     private ResponseEntity<Employee> addEmployee(Integer tenantId, Employee employee) {
         return restTemplate.postForEntity(employeePathURI + "add", employee, Employee.class, tenantId);
     }
@@ -141,4 +156,39 @@ public class ShiftRestControllerTest extends AbstractEntityRequireTenantRestServ
         assertThat(getShiftListResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(getShiftListResponse.getBody()).isEmpty();
     }
+
+    @Test
+    public void bulkShiftTest() {
+        ResponseEntity<Spot> spotResponseEntity = addSpot(TENANT_ID, new SpotView(TENANT_ID, "spot",
+                                                                                  Collections.emptySet()));
+        Spot spot = spotResponseEntity.getBody();
+
+        LocalDateTime startDateTime = LocalDateTime.of(2000, 1, 1, 0, 0, 0, 0);
+        LocalDateTime endDateTime = startDateTime.plusHours(8);
+        ShiftView shiftView = new ShiftView(TENANT_ID, spot, startDateTime, endDateTime);
+        ShiftView invalidShiftView = new ShiftView(TENANT_ID, spot, startDateTime, endDateTime);
+        invalidShiftView.setSpotId(0L);
+        ShiftView otherShiftView = new ShiftView(TENANT_ID, spot, endDateTime, endDateTime.plusHours(8));
+
+        ResponseEntity<List<BulkItemResult<ShiftView>>> postResponse =
+                addShifts(TENANT_ID, Arrays.asList(shiftView, invalidShiftView, otherShiftView));
+        assertThat(postResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        List<BulkItemResult<ShiftView>> resultList = postResponse.getBody();
+        assertThat(resultList).extracting(BulkItemResult::getIndex).containsExactly(0, 1, 2);
+        assertThat(resultList).extracting(BulkItemResult::isSuccess).containsExactly(true, false, true);
+        assertThat(resultList.get(1).getErrorMessage()).isEqualTo("No Spot entity found with ID (0).");
+        assertThat(resultList.get(2).getItem().getStartDateTime()).isEqualTo(endDateTime);
+
+        ResponseEntity<List<ShiftView>> getShiftListResponse = getShifts(TENANT_ID);
+        assertThat(getShiftListResponse.getBody()).hasSize(2);
+
+        ResponseEntity<List<BulkItemResult<Long>>> deleteResponse =
+                deleteShifts(TENANT_ID, Arrays.asList(resultList.get(0).getItem().getId(), -1L,
+                                                      resultList.get(2).getItem().getId()));
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(deleteResponse.getBody()).extracting(BulkItemResult::isSuccess).containsExactly(true, false, true);
+
+        getShiftListResponse = getShifts(TENANT_ID);
+        assertThat(getShiftListResponse.getBody()).isEmpty();
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore.BestSolution;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BestSolutionStoreTest {
+
+    // 2 arrays of 3 longs on top of the overhead of a best solution
+    private static final long BEST_SOLUTION_BYTES = 128L + 2L * (16L + 3L * Long.BYTES);
+
+    private final List<Employee> employeeList = Arrays.asList(buildEmployee(10L), buildEmployee(11L));
+
+    private static Employee buildEmployee(long id) {
+        Employee employee = new Employee();
+        employee.setId(id);
+        return employee;
+    }
+
+    private static Shift buildShift(long id, Employee employee) {
+        Shift shift = new Shift();
+        shift.setId(id);
+        shift.setEmployee(employee);
+        return shift;
+    }
+
+    private Roster buildRoster(Shift... shifts) {
+        Roster roster = new Roster();
+        roster.setEmployeeList(employeeList);
+        roster.setShiftList(Arrays.asList(shifts));
+        roster.setScore(HardMediumSoftLongScore.of(0L, -1L, -2L));
+        return roster;
+    }
+
+    private Roster buildBestRoster() {
+        return buildRoster(buildShift(1L, employeeList.get(0)), buildShift(2L, null),
+                           buildShift(3L, employeeList.get(1)));
+    }
+
+    @Test
+    public void rehydrateAssignment() {
+        BestSolutionStore bestSolutionStore = new BestSolutionStore(10, 1_000_000L, new SimpleMeterRegistry());
+        bestSolutionStore.put(1, buildBestRoster());
+        BestSolution bestSolution = bestSolutionStore.get(1);
+        assertThat(bestSolution.getScore()).isEqualTo(HardMediumSoftLongScore.of(0L, -1L, -2L));
+
+        Shift pinnedShift = buildShift(3L, employeeList.get(0));
+        pinnedShift.setPinnedByUser(true);
+        Roster loadedRoster = buildRoster(buildShift(1L, null), buildShift(2L, employeeList.get(0)), pinnedShift,
+                                          buildShift(4L, employeeList.get(1)));
+        assertThat(bestSolution.rehydrate(loadedRoster)).isTrue();
+        assertThat(loadedRoster.getShiftList()).extracting(Shift::getEmployee)
+                .containsExactly(employeeList.get(0), null, employeeList.get(0), employeeList.get(1));
+
+        // Already the assignment of the best solution
+        assertThat(bestSolution.rehydrate(loadedRoster)).isFalse();
+    }
+
+    @Test
+    public void evictLeastRecentlyUsed() {
+        BestSolutionStore bestSolutionStore = new BestSolutionStore(2, 1_000_000L, new SimpleMeterRegistry());
+        bestSolutionStore.put(1, buildBestRoster());
+        bestSolutionStore.put(2, buildBestRoster());
+        assertThat(bestSolutionStore.get(1)).isNotNull();
+        bestSolutionStore.put(3, buildBestRoster());
+
+        assertThat(bestSolutionStore.size()).isEqualTo(2);
+        assertThat(bestSolutionStore.get(1)).isNotNull();
+        assertThat(bestSolutionStore.get(2)).isNull();
+        assertThat(bestSolutionStore.get(3)).isNotNull();
+        assertThat(bestSolutionStore.getEstimatedBytes()).isEqualTo(2L * BEST_SOLUTION_BYTES);
+    }
+
+    @Test
+    public void evictByEstimatedSize() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BestSolutionStore bestSolutionStore = new BestSolutionStore(10, BEST_SOLUTION_BYTES + 1L, meterRegistry);
+        bestSolutionStore.put(1, buildBestRoster());
+        bestSolutionStore.put(2, buildBestRoster());
+        assertThat(bestSolutionStore.get(1)).isNull();
+        assertThat(bestSolutionStore.get(2)).isNotNull();
+        assertThat(meterRegistry.get("optaweb.solver.best-solutions").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("optaweb.solver.best-solutions.estimated-size").gauge().value())
+                .isEqualTo((double) BEST_SOLUTION_BYTES);
+
+        // The most recent best solution is kept, even if it alone exceeds the maximum size
+        bestSolutionStore.put(3, buildRoster(buildShift(1L, null), buildShift(2L, null), buildShift(3L, null),
+                                             buildShift(4L, null)));
+        assertThat(bestSolutionStore.size()).isEqualTo(1);
+        assertThat(bestSolutionStore.get(3)).isNotNull();
+
+        bestSolutionStore.forgetTenant(3);
+        assertThat(bestSolutionStore.size()).isZero();
+        assertThat(bestSolutionStore.getEstimatedBytes()).isZero();
+    }
+
+    @Test
+    public void neverEvictSolvingTenants() {
+        BestSolutionStore bestSolutionStore = new BestSolutionStore(1, 1_000_000L, new SimpleMeterRegistry());
+        bestSolutionStore.markSolving(1);
+        bestSolutionStore.markSolving(2);
+        bestSolutionStore.put(1, buildBestRoster());
+        bestSolutionStore.put(2, buildBestRoster());
+        bestSolutionStore.put(3, buildBestRoster());
+        assertThat(bestSolutionStore.size()).isEqualTo(3);
+        assertThat(bestSolutionStore.get(1)).isNotNull();
+        assertThat(bestSolutionStore.get(2)).isNotNull();
+
+        bestSolutionStore.put(4, buildBestRoster());
+        assertThat(bestSolutionStore.size()).isEqualTo(3);
+        assertThat(bestSolutionStore.get(3)).isNull();
+
+        // Evicted once it stops solving, as the least recently used
+        bestSolutionStore.markNotSolving(1);
+        assertThat(bestSolutionStore.size()).isEqualTo(2);
+        assertThat(bestSolutionStore.get(1)).isNull();
+        assertThat(bestSolutionStore.get(2)).isNotNull();
+        assertThat(bestSolutionStore.get(4)).isNotNull();
+        assertThat(bestSolutionStore.getEstimatedBytes()).isEqualTo(2L * BEST_SOLUTION_BYTES);
+    }
+}
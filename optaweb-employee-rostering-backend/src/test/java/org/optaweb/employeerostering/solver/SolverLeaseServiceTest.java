@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.service.solver.SolverLeaseRepository;
+import org.optaweb.employeerostering.service.solver.SolverLeaseService;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Simulates two backend nodes on the same database with two {@link SolverLeaseService}s.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class SolverLeaseServiceTest {
+
+    private static final Integer TENANT_ID = 1000;
+
+    @Autowired
+    private SolverLeaseRepository solverLeaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SolverLeaseService nodeA;
+    private SolverLeaseService nodeB;
+
+    @Before
+    public void setup() {
+        nodeA = new SolverLeaseService(solverLeaseRepository, transactionManager, "nodeA", 60000L);
+        nodeB = new SolverLeaseService(solverLeaseRepository, transactionManager, "nodeB", 60000L);
+    }
+
+    @After
+    public void cleanup() {
+        solverLeaseRepository.deleteAll();
+    }
+
+    @Test
+    public void onlyOneNodeSolvesATenant() {
+        nodeA.schedule(TENANT_ID, false);
+        assertThatThrownBy(() -> nodeB.schedule(TENANT_ID, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already solving");
+        assertThat(nodeB.findClaimableSolverLeases()).extracting(SolverLease::getTenantId).doesNotContain(TENANT_ID);
+        assertThat(nodeB.claim(TENANT_ID)).isEmpty();
+
+        assertThat(nodeA.renew(TENANT_ID, SolverStatus.SOLVING, "0hard/0medium/-10soft")).isTrue();
+        SolverLease solverLease = nodeB.getSolverLease(TENANT_ID);
+        assertThat(solverLease.getNodeId()).isEqualTo("nodeA");
+        assertThat(solverLease.getBestScore()).isEqualTo("0hard/0medium/-10soft");
+        assertThat(nodeB.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.SOLVING);
+
+        nodeA.release(TENANT_ID, "0hard/0medium/-5soft");
+        assertThat(nodeB.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.TERMINATED);
+        assertThat(nodeB.getSolverLease(TENANT_ID).getBestScore()).isEqualTo("0hard/0medium/-5soft");
+        nodeB.schedule(TENANT_ID, true);
+        assertThat(nodeA.getSolverLease(TENANT_ID).getNodeId()).isEqualTo("nodeB");
+    }
+
+    @Test
+    public void expiredLeaseIsTakenOver() throws InterruptedException {
+        nodeA.schedule(TENANT_ID, true);
+        SolverLeaseService impatientNodeB = new SolverLeaseService(solverLeaseRepository, transactionManager,
+                                                                   "nodeB", 1L);
+        Thread.sleep(10L);
+
+        assertThat(impatientNodeB.findClaimableSolverLeases()).extracting(SolverLease::getTenantId)
+                .containsExactly(TENANT_ID);
+        SolverLease solverLease = impatientNodeB.claim(TENANT_ID).get();
+        assertThat(solverLease.getNodeId()).isEqualTo("nodeB");
+        assertThat(solverLease.isNondisruptive()).isTrue();
+        // Node A must stop solving, and can no longer release the lease of node B
+        assertThat(nodeA.renew(TENANT_ID, SolverStatus.SOLVING, null)).isFalse();
+        nodeA.release(TENANT_ID, null);
+        assertThat(nodeB.getSolverLease(TENANT_ID).getNodeId()).isEqualTo("nodeB");
+    }
+
+    @Test
+    public void terminationIsRequestedFromAnotherNode() {
+        assertThat(nodeB.requestTermination(TENANT_ID)).isFalse();
+        nodeA.schedule(TENANT_ID, false);
+        assertThat(nodeB.requestTermination(TENANT_ID)).isTrue();
+        assertThat(nodeA.renew(TENANT_ID, SolverStatus.SOLVING, null)).isFalse();
+        nodeA.release(TENANT_ID, null);
+        assertThat(nodeB.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.TERMINATED);
+        assertThat(nodeB.getSolverLease(TENANT_ID).isTerminationRequested()).isFalse();
+    }
+
+    @Test
+    public void queuedSolveRequestIsClaimedByAnyNode() {
+        nodeA.enqueue(TENANT_ID, false);
+        assertThat(nodeB.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.SCHEDULED);
+        assertThatThrownBy(() -> nodeB.schedule(TENANT_ID, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already solving");
+        assertThat(nodeB.findClaimableSolverLeases()).extracting(SolverLease::getTenantId).containsExactly(TENANT_ID);
+        assertThat(nodeB.claim(TENANT_ID).get().getNodeId()).isEqualTo("nodeB");
+        assertThat(nodeA.claim(TENANT_ID)).isEmpty();
+    }
+
+    @Test
+    public void queuedSolveRequestIsCancelledRightAway() {
+        nodeA.enqueue(TENANT_ID, false);
+        assertThat(nodeB.requestTermination(TENANT_ID)).isTrue();
+        assertThat(nodeA.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.TERMINATED);
+        assertThat(nodeA.findClaimableSolverLeases()).isEmpty();
+    }
+
+    @Test
+    public void stoppedContinuousPlanningIsNotResumed() {
+        assertThat(nodeA.stopContinuousPlanning(TENANT_ID)).isFalse();
+        nodeA.resumeContinuousPlanning(TENANT_ID, false);
+        nodeA.release(TENANT_ID, null);
+
+        assertThat(nodeA.stopContinuousPlanning(TENANT_ID)).isTrue();
+        assertThat(nodeA.stopContinuousPlanning(TENANT_ID)).isFalse();
+        assertThatThrownBy(() -> nodeB.resumeContinuousPlanning(TENANT_ID, false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("was stopped");
+        assertThatThrownBy(() -> nodeB.resumeContinuousPlanning(TENANT_ID, true))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("was stopped");
+        assertThat(nodeB.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.TERMINATED);
+
+        // The next solve request starts it again
+        nodeB.schedule(TENANT_ID, false);
+        assertThat(nodeB.getSolverLease(TENANT_ID).isContinuousPlanningStopped()).isFalse();
+        nodeB.release(TENANT_ID, null);
+        nodeA.resumeContinuousPlanning(TENANT_ID, true);
+        assertThat(nodeA.getSolverStatus(TENANT_ID)).isEqualTo(SolverStatus.SCHEDULED);
+    }
+
+    @Test
+    public void cpuTimeAddsUpOverNodes() {
+        nodeA.schedule(TENANT_ID, false);
+        nodeA.addCpuTime(TENANT_ID, 300L);
+        nodeB.addCpuTime(TENANT_ID, 200L);
+        assertThat(nodeA.getSolverLease(TENANT_ID).getCpuWindowMillis()).isEqualTo(500L);
+    }
+}
@@ -16,10 +16,16 @@
 
 package org.optaweb.employeerostering.solver;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -27,13 +33,23 @@ import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftL
 import org.optaplanner.core.impl.score.director.ScoreDirector;
 import org.optaweb.employeerostering.domain.roster.Roster;
 import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.solver.ReplanScope;
+import org.optaweb.employeerostering.domain.solver.view.SolverTerminationPolicyView;
+import org.optaweb.employeerostering.domain.tenant.view.RosterConstraintConfigurationView;
 import org.optaweb.employeerostering.service.roster.RosterGenerator;
+import org.optaweb.employeerostering.service.roster.RosterService;
+import org.optaweb.employeerostering.service.shift.ShiftRepository;
+import org.optaweb.employeerostering.service.solver.BestSolutionStore;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
+import org.optaweb.employeerostering.service.solver.SolverTerminationPolicyService;
 import org.optaweb.employeerostering.service.solver.WannabeSolverManager;
+import org.optaweb.employeerostering.service.tenant.TenantService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -46,6 +62,21 @@ public class SolverManagerTest {
     @Autowired
     private RosterGenerator rosterGenerator;
 
+    @Autowired
+    private RosterService rosterService;
+
+    @Autowired
+    private SolverTerminationPolicyService solverTerminationPolicyService;
+
+    @Autowired
+    private TenantService tenantService;
+
+    @Autowired
+    private BestSolutionStore bestSolutionStore;
+
+    @Autowired
+    private ShiftRepository shiftRepository;
+
     @Autowired
     protected WannabeSolverManager solverManager;
 
@@ -91,4 +122,123 @@ public class SolverManagerTest {
         assertFalse(roster.getShiftList().isEmpty());
         assertTrue(roster.getShiftList().stream().anyMatch(s -> s.getEmployee() != null));
     }
+
+    @Test
+    public void testSolveRosterWarmStartsFromPersistedBestSolution() throws InterruptedException {
+        solverManager.setUpSolverFactory();
+        Roster roster = rosterGenerator.generateRoster(10, 7);
+        Integer tenantId = roster.getTenantId();
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(() -> solverManager.terminate(tenantId), 3, TimeUnit.SECONDS);
+        solverManager.solve(tenantId).await();
+        HardMediumSoftLongScore bestScore = solverManager.getRoster(tenantId).getScore();
+        // The persisted shifts are the best solution
+        assertThat(rosterService.buildRoster(tenantId).getScore()).isEqualTo(bestScore);
+
+        // Even if it is terminated before it improves on it, the next solve keeps the best score
+        executor.schedule(() -> solverManager.terminate(tenantId), 100, TimeUnit.MILLISECONDS);
+        solverManager.solve(tenantId).await();
+        assertThat(solverManager.getRoster(tenantId).getScore()).isGreaterThanOrEqualTo(bestScore);
+        executor.shutdown();
+    }
+
+    @Test
+    public void testScopedReplanRosterPinsShiftsOutsideScope() throws InterruptedException {
+        solverManager.setUpSolverFactory();
+        Roster roster = rosterGenerator.generateRoster(10, 7);
+        Integer tenantId = roster.getTenantId();
+        OffsetDateTime now = OffsetDateTime.now();
+        Shift changedShift = roster.getShiftList().stream()
+                .filter(shift -> shift.getEmployee() != null && shift.getStartDateTime().isAfter(now))
+                .findFirst().get();
+        ReplanScope replanScope = new ReplanScope(changedShift.getEmployee().getId(),
+                                                  changedShift.getStartDateTime(), changedShift.getEndDateTime());
+        // The default replan neighbourhood of 24 hours
+        ReplanScope movableScope = new ReplanScope(null, changedShift.getStartDateTime().minus(Duration.ofDays(1)),
+                                                   changedShift.getEndDateTime().plus(Duration.ofDays(1)));
+        Map<Long, Long> pinnedShiftIdToEmployeeIdMap = rosterService.buildRoster(tenantId).getShiftList().stream()
+                .filter(shift -> !movableScope.overlaps(shift) && shift.getEmployee() != null)
+                .collect(Collectors.toMap(Shift::getId, shift -> shift.getEmployee().getId()));
+
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+        executor.schedule(() -> solverManager.terminate(tenantId), 3, TimeUnit.SECONDS);
+        solverManager.replan(tenantId, replanScope).await();
+        executor.shutdown();
+
+        assertThat(solverManager.getSolverLease(tenantId).getReplanScope().getEmployeeId())
+                .isEqualTo(replanScope.getEmployeeId());
+        assertThat(rosterService.buildRoster(tenantId).getShiftList())
+                .filteredOn(shift -> pinnedShiftIdToEmployeeIdMap.containsKey(shift.getId()))
+                .allMatch(shift -> shift.getEmployee() != null && Objects.equals(
+                        shift.getEmployee().getId(), pinnedShiftIdToEmployeeIdMap.get(shift.getId())))
+                .hasSize(pinnedShiftIdToEmployeeIdMap.size());
+    }
+
+    @Test(timeout = 600000L)
+    public void testContinuousPlanningAssignsProvisionedShifts() throws InterruptedException {
+        solverManager.setUpSolverFactory();
+        Roster roster = rosterGenerator.generateRoster(10, 7);
+        Integer tenantId = roster.getTenantId();
+        SolverTerminationPolicyView solverTerminationPolicyView =
+                new SolverTerminationPolicyView(tenantId, 500, 0L, 1L, 0L);
+        solverTerminationPolicyView.setContinuousPlanning(true);
+        solverTerminationPolicyService.updateSolverTerminationPolicy(solverTerminationPolicyView);
+
+        CountDownLatch solverEndedLatch = solverManager.solve(tenantId);
+        // Resident even though its best score no longer improves
+        Thread.sleep(3000L);
+        assertThat(solverManager.getSolverStatus(tenantId)).isEqualTo(SolverStatus.SOLVING);
+
+        Set<Long> shiftIdSet = rosterService.buildRoster(tenantId).getShiftList().stream()
+                .map(Shift::getId)
+                .collect(Collectors.toSet());
+        rosterService.publishAndProvision(tenantId);
+        while (rosterService.buildRoster(tenantId).getShiftList().stream()
+                .noneMatch(shift -> !shiftIdSet.contains(shift.getId()) && shift.getEmployee() != null)) {
+            Thread.sleep(100L);
+        }
+
+        solverTerminationPolicyView.setContinuousPlanning(false);
+        solverTerminationPolicyService.updateSolverTerminationPolicy(solverTerminationPolicyView);
+        solverManager.terminate(tenantId);
+        solverEndedLatch.await();
+    }
+
+    @Test(timeout = 600000L)
+    public void testConstraintWeightChangeAppliesToRunningSolver() throws InterruptedException {
+        solverManager.setUpSolverFactory();
+        Roster roster = rosterGenerator.generateRoster(10, 7);
+        Integer tenantId = roster.getTenantId();
+        // Keeps the only medium constraint broken, whatever the solver does
+        Shift unassignableShift = roster.getShiftList().get(0);
+        unassignableShift.setEmployee(null);
+        unassignableShift.setPinnedByUser(true);
+        shiftRepository.save(unassignableShift);
+
+        CountDownLatch solverEndedLatch = solverManager.solve(tenantId);
+        long deadline = System.currentTimeMillis() + 60_000L;
+        while (solverManager.getSolverStatus(tenantId) != SolverStatus.SOLVING) {
+            assertThat(System.currentTimeMillis()).as("Solver started").isLessThan(deadline);
+            Thread.sleep(100L);
+        }
+        RosterConstraintConfigurationView rosterConstraintConfigurationView =
+                new RosterConstraintConfigurationView(tenantId, roster.getRosterConstraintConfiguration()
+                        .getWeekStartDay());
+        rosterConstraintConfigurationView.setAssignEveryShift(HardMediumSoftLongScore.ofHard(1L));
+        tenantService.updateRosterConstraintConfiguration(rosterConstraintConfigurationView);
+        // Unreachable with the old weights, which make the score of the unassignable shift medium
+        deadline = System.currentTimeMillis() + 60_000L;
+        while (bestSolutionStore.get(tenantId) == null
+                || bestSolutionStore.get(tenantId).getScore().getMediumScore() != 0L
+                || bestSolutionStore.get(tenantId).getScore().getHardScore() >= 0L) {
+            assertThat(System.currentTimeMillis()).as("New constraint weights applied").isLessThan(deadline);
+            Thread.sleep(100L);
+        }
+        // Without a restart
+        assertThat(solverEndedLatch.getCount()).isEqualTo(1L);
+
+        solverManager.terminate(tenantId);
+        solverEndedLatch.await();
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.optaweb.employeerostering.domain.solver.SolverLease;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaUsageView;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaView;
+import org.optaweb.employeerostering.service.solver.SolverLeaseRepository;
+import org.optaweb.employeerostering.service.solver.SolverLeaseService;
+import org.optaweb.employeerostering.service.solver.SolverQuotaRepository;
+import org.optaweb.employeerostering.service.solver.SolverQuotaService;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class SolverQuotaServiceTest {
+
+    private static final Integer TENANT_ID = 2000;
+
+    @Autowired
+    private SolverQuotaService solverQuotaService;
+
+    @Autowired
+    private SolverLeaseService solverLeaseService;
+
+    @Autowired
+    private SolverQuotaRepository solverQuotaRepository;
+
+    @Autowired
+    private SolverLeaseRepository solverLeaseRepository;
+
+    @After
+    public void cleanup() {
+        solverLeaseRepository.deleteAll();
+        solverQuotaRepository.deleteAll();
+    }
+
+    @Test
+    public void defaultQuotaUntilUpdated() {
+        SolverQuota defaultSolverQuota = solverQuotaService.getSolverQuota(TENANT_ID);
+        assertThat(defaultSolverQuota.getId()).isNull();
+        assertThat(defaultSolverQuota.getMaxSolveSeconds()).isEqualTo(0L);
+        assertThat(defaultSolverQuota.getCpuSecondsPerHour()).isEqualTo(0L);
+        assertThat(defaultSolverQuota.getWeight()).isEqualTo(1);
+
+        solverQuotaService.updateSolverQuota(new SolverQuotaView(TENANT_ID, 60L, 600L, 2));
+        SolverQuota solverQuota = solverQuotaService.getSolverQuota(TENANT_ID);
+        assertThat(solverQuota.getId()).isNotNull();
+        assertThat(solverQuota.getMaxSolveSeconds()).isEqualTo(60L);
+        assertThat(solverQuota.getCpuSecondsPerHour()).isEqualTo(600L);
+        assertThat(solverQuota.getWeight()).isEqualTo(2);
+    }
+
+    @Test
+    public void cpuQuotaIsEnforced() {
+        solverQuotaService.updateSolverQuota(new SolverQuotaView(TENANT_ID, 0L, 1L, 1));
+        solverQuotaService.checkCpuQuotaLeft(TENANT_ID);
+        solverLeaseService.schedule(TENANT_ID, false);
+        solverLeaseService.addCpuTime(TENANT_ID, 400L);
+
+        SolverQuotaUsageView solverQuotaUsage = solverQuotaService.getSolverQuotaUsage(TENANT_ID);
+        assertThat(solverQuotaUsage.getSolverStatus()).isEqualTo(SolverStatus.SCHEDULED);
+        assertThat(solverQuotaUsage.getCpuWindowStartDateTime()).isNotNull();
+        assertThat(solverQuotaUsage.getUsedCpuMillis()).isEqualTo(400L);
+        assertThat(solverQuotaUsage.getRemainingCpuMillis()).isEqualTo(600L);
+
+        solverLeaseService.addCpuTime(TENANT_ID, 600L);
+        solverLeaseService.release(TENANT_ID, null);
+        assertThat(solverQuotaService.getSolverQuotaUsage(TENANT_ID).getRemainingCpuMillis()).isEqualTo(0L);
+        assertThatThrownBy(() -> solverQuotaService.checkCpuQuotaLeft(TENANT_ID))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("used its solver quota");
+    }
+
+    @Test
+    public void queueIsSortedByWeightedFairShare() {
+        Integer heavyTenantId = TENANT_ID;
+        Integer heavyWeightedTenantId = TENANT_ID + 1;
+        Integer idleTenantId = TENANT_ID + 2;
+        Integer exhaustedTenantId = TENANT_ID + 3;
+        List<Integer> tenantIdList = Arrays.asList(heavyTenantId, heavyWeightedTenantId, idleTenantId,
+                                                   exhaustedTenantId);
+        solverQuotaService.updateSolverQuota(new SolverQuotaView(heavyWeightedTenantId, 0L, 0L, 3));
+        solverQuotaService.updateSolverQuota(new SolverQuotaView(exhaustedTenantId, 0L, 1L, 1));
+        for (Integer tenantId : tenantIdList) {
+            solverLeaseService.enqueue(tenantId, false);
+        }
+        solverLeaseService.addCpuTime(heavyTenantId, 600L);
+        solverLeaseService.addCpuTime(heavyWeightedTenantId, 600L);
+        solverLeaseService.addCpuTime(exhaustedTenantId, 1000L);
+
+        List<SolverLease> claimableSolverLeaseList = solverLeaseService.findClaimableSolverLeases().stream()
+                .filter(solverLease -> tenantIdList.contains(solverLease.getTenantId()))
+                .collect(Collectors.toList());
+        assertThat(claimableSolverLeaseList).extracting(SolverLease::getTenantId)
+                .containsExactlyInAnyOrderElementsOf(tenantIdList);
+        assertThat(solverQuotaService.sortByFairShare(claimableSolverLeaseList)).extracting(SolverLease::getTenantId)
+                .containsExactly(idleTenantId, heavyWeightedTenantId, heavyTenantId);
+    }
+}
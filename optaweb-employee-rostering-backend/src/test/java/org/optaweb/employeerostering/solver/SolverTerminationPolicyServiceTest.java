@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.optaplanner.core.config.solver.termination.TerminationCompositionStyle;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.solver.SolverTerminationPolicy;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaView;
+import org.optaweb.employeerostering.domain.solver.view.SolverTerminationPolicyView;
+import org.optaweb.employeerostering.service.solver.SolverQuotaRepository;
+import org.optaweb.employeerostering.service.solver.SolverQuotaService;
+import org.optaweb.employeerostering.service.solver.SolverTerminationPolicyRepository;
+import org.optaweb.employeerostering.service.solver.SolverTerminationPolicyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@AutoConfigureTestDatabase
+public class SolverTerminationPolicyServiceTest {
+
+    private static final Integer TENANT_ID = 3000;
+
+    @Autowired
+    private SolverTerminationPolicyService solverTerminationPolicyService;
+
+    @Autowired
+    private SolverQuotaService solverQuotaService;
+
+    @Autowired
+    private SolverTerminationPolicyRepository solverTerminationPolicyRepository;
+
+    @Autowired
+    private SolverQuotaRepository solverQuotaRepository;
+
+    @After
+    public void cleanup() {
+        solverTerminationPolicyRepository.deleteAll();
+        solverQuotaRepository.deleteAll();
+    }
+
+    private static Roster buildRoster(int shiftCount, int employeeCount) {
+        Roster roster = new Roster();
+        roster.setShiftList(Collections.nCopies(shiftCount, null));
+        roster.setEmployeeList(Collections.nCopies(employeeCount, null));
+        return roster;
+    }
+
+    @Test
+    public void defaultPolicyUntilUpdated() {
+        SolverTerminationPolicy defaultPolicy = solverTerminationPolicyService.getSolverTerminationPolicy(TENANT_ID);
+        assertThat(defaultPolicy.getId()).isNull();
+        assertThat(defaultPolicy.getReferenceProblemSize()).isEqualTo(500);
+        assertThat(defaultPolicy.getSpentLimitSeconds()).isEqualTo(300L);
+        assertThat(defaultPolicy.getUnimprovedSpentLimitSeconds()).isEqualTo(60L);
+        assertThat(defaultPolicy.getFeasibleUnimprovedSpentLimitSeconds()).isEqualTo(10L);
+
+        solverTerminationPolicyService.updateSolverTerminationPolicy(
+                new SolverTerminationPolicyView(TENANT_ID, 100, 30L, 0L, 5L));
+        SolverTerminationPolicy policy = solverTerminationPolicyService.getSolverTerminationPolicy(TENANT_ID);
+        assertThat(policy.getId()).isNotNull();
+        assertThat(policy.getReferenceProblemSize()).isEqualTo(100);
+        assertThat(policy.getSpentLimitSeconds()).isEqualTo(30L);
+        assertThat(policy.getUnimprovedSpentLimitSeconds()).isEqualTo(0L);
+        assertThat(policy.getFeasibleUnimprovedSpentLimitSeconds()).isEqualTo(5L);
+    }
+
+    @Test
+    public void limitsGrowWithProblemSize() {
+        solverTerminationPolicyService.updateSolverTerminationPolicy(
+                new SolverTerminationPolicyView(TENANT_ID, 10, 60L, 20L, 5L));
+
+        // Smaller than the reference problem size
+        TerminationConfig smallTerminationConfig = solverTerminationPolicyService.buildTerminationConfig(
+                TENANT_ID, buildRoster(4, 2));
+        assertThat(smallTerminationConfig.getMillisecondsSpentLimit()).isEqualTo(60_000L);
+        assertThat(smallTerminationConfig.getUnimprovedMillisecondsSpentLimit()).isEqualTo(20_000L);
+
+        // Twice the reference problem size
+        TerminationConfig terminationConfig = solverTerminationPolicyService.buildTerminationConfig(
+                TENANT_ID, buildRoster(15, 5));
+        assertThat(terminationConfig.getTerminationCompositionStyle()).isEqualTo(TerminationCompositionStyle.OR);
+        assertThat(terminationConfig.getMillisecondsSpentLimit()).isEqualTo(120_000L);
+        assertThat(terminationConfig.getUnimprovedMillisecondsSpentLimit()).isEqualTo(40_000L);
+        assertThat(terminationConfig.getTerminationConfigList()).hasSize(1);
+        TerminationConfig feasibleTerminationConfig = terminationConfig.getTerminationConfigList().get(0);
+        assertThat(feasibleTerminationConfig.getTerminationCompositionStyle())
+                .isEqualTo(TerminationCompositionStyle.AND);
+        assertThat(feasibleTerminationConfig.getBestScoreFeasible()).isTrue();
+        assertThat(feasibleTerminationConfig.getUnimprovedMillisecondsSpentLimit()).isEqualTo(10_000L);
+    }
+
+    @Test
+    public void maxSolveDurationOfQuotaCapsSpentLimit() {
+        solverTerminationPolicyService.updateSolverTerminationPolicy(
+                new SolverTerminationPolicyView(TENANT_ID, 10, 60L, 0L, 0L));
+        solverQuotaService.updateSolverQuota(new SolverQuotaView(TENANT_ID, 45L, 0L, 1));
+        TerminationConfig terminationConfig = solverTerminationPolicyService.buildTerminationConfig(
+                TENANT_ID, buildRoster(15, 5));
+        assertThat(terminationConfig.getMillisecondsSpentLimit()).isEqualTo(45_000L);
+        assertThat(terminationConfig.getUnimprovedMillisecondsSpentLimit()).isNull();
+        assertThat(terminationConfig.getTerminationConfigList()).isNull();
+    }
+
+    @Test
+    public void noLimitsSolvesUntilTerminated() {
+        solverTerminationPolicyService.updateSolverTerminationPolicy(
+                new SolverTerminationPolicyView(TENANT_ID, 10, 0L, 0L, 0L));
+        assertThat(solverTerminationPolicyService.buildTerminationConfig(TENANT_ID, buildRoster(15, 5))).isNull();
+    }
+
+    @Test
+    public void continuousPlanningRefusedWithoutFreeResidentSolverThread() {
+        // The default max-tenants is 2
+        for (int i = 0; i < 2; i++) {
+            SolverTerminationPolicyView solverTerminationPolicyView = new SolverTerminationPolicyView(
+                    TENANT_ID + i, 10, 60L, 0L, 0L);
+            solverTerminationPolicyView.setContinuousPlanning(true);
+            solverTerminationPolicyService.updateSolverTerminationPolicy(solverTerminationPolicyView);
+        }
+        SolverTerminationPolicyView refusedView = new SolverTerminationPolicyView(TENANT_ID + 2, 10, 60L, 0L, 0L);
+        refusedView.setContinuousPlanning(true);
+        assertThatThrownBy(() -> solverTerminationPolicyService.updateSolverTerminationPolicy(refusedView))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("maxContinuousPlanningTenants (2)");
+        assertThat(solverTerminationPolicyService.getSolverTerminationPolicy(TENANT_ID + 2).isContinuousPlanning())
+                .isFalse();
+
+        // Updating a tenant that already has it does not take another thread
+        SolverTerminationPolicyView updatedView = new SolverTerminationPolicyView(TENANT_ID, 10, 30L, 0L, 0L);
+        updatedView.setContinuousPlanning(true);
+        solverTerminationPolicyService.updateSolverTerminationPolicy(updatedView);
+        assertThat(solverTerminationPolicyService.findContinuousPlanningTenantIds()).hasSize(2);
+    }
+}
@@ -27,14 +27,23 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
 import org.optaweb.employeerostering.AbstractEntityRequireTenantRestServiceTest;
+import org.optaweb.employeerostering.domain.job.BackgroundJob;
+import org.optaweb.employeerostering.domain.job.BackgroundJobStatus;
+import org.optaweb.employeerostering.domain.job.BackgroundJobType;
 import org.optaweb.employeerostering.domain.roster.view.RosterStateView;
+import org.optaweb.employeerostering.domain.solver.SolverQuota;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaUsageView;
+import org.optaweb.employeerostering.domain.solver.view.SolverQuotaView;
 import org.optaweb.employeerostering.domain.tenant.RosterConstraintConfiguration;
 import org.optaweb.employeerostering.domain.tenant.Tenant;
 import org.optaweb.employeerostering.domain.tenant.view.RosterConstraintConfigurationView;
+import org.optaweb.employeerostering.service.solver.SolverStatus;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit4.SpringRunner;
@@ -50,6 +59,7 @@ public class TenantRestControllerTest extends AbstractEntityRequireTenantRestSer
     private TestRestTemplate restTemplate;
 
     private final String tenantPathURI = "http://localhost:8080/rest/tenant/";
+    private final String jobPathURI = "http://localhost:8080/rest/job/";
 
     private ResponseEntity<Tenant> getTenant(Integer id) {
         return restTemplate.getForEntity(tenantPathURI + id, Tenant.class);
@@ -59,8 +69,18 @@ public class TenantRestControllerTest extends AbstractEntityRequireTenantRestSer
         return restTemplate.postForEntity(tenantPathURI + "add", initialRosterStateView, Tenant.class);
     }
 
-    private void deleteTenant(Integer id) {
-        restTemplate.postForEntity(tenantPathURI + "remove/" + id, null, Void.class);
+    private ResponseEntity<BackgroundJob> deleteTenant(Integer id) {
+        return restTemplate.postForEntity(tenantPathURI + "remove/" + id, null, BackgroundJob.class);
+    }
+
+    private ResponseEntity<BackgroundJob> getJob(Long id) {
+        return restTemplate.getForEntity(jobPathURI + id, BackgroundJob.class);
+    }
+
+    private ResponseEntity<List<Tenant>> getTenantList() {
+        return restTemplate.exchange(tenantPathURI, HttpMethod.GET, null,
+                                     new ParameterizedTypeReference<List<Tenant>>() {
+                                     });
     }
 
     private ResponseEntity<RosterConstraintConfiguration> getRosterConstraintParametrization(Integer tenantId) {
@@ -74,6 +94,20 @@ public class TenantRestControllerTest extends AbstractEntityRequireTenantRestSer
                                           rosterConstraintConfigurationView, RosterConstraintConfiguration.class);
     }
 
+    private ResponseEntity<SolverQuota> getSolverQuota(Integer tenantId) {
+        return restTemplate.getForEntity(tenantPathURI + tenantId + "/config/solverQuota", SolverQuota.class);
+    }
+
+    private ResponseEntity<SolverQuota> updateSolverQuota(Integer tenantId, SolverQuotaView solverQuotaView) {
+        return restTemplate.postForEntity(tenantPathURI + tenantId + "/config/solverQuota/update", solverQuotaView,
+                                          SolverQuota.class);
+    }
+
+    private ResponseEntity<SolverQuotaUsageView> getSolverQuotaUsage(Integer tenantId) {
+        return restTemplate.getForEntity(tenantPathURI + tenantId + "/config/solverQuota/usage",
+                                         SolverQuotaUsageView.class);
+    }
+
     private ResponseEntity<List> getSupportedTimezones() {
         return restTemplate.getForEntity(tenantPathURI + "supported/timezones", List.class);
     }
@@ -103,6 +137,31 @@ public class TenantRestControllerTest extends AbstractEntityRequireTenantRestSer
         deleteTenant(postResponse.getBody().getId());
     }
 
+    @Test(timeout = 60000)
+    public void deleteTenantInBackgroundTest() throws InterruptedException {
+        RosterStateView rosterStateView = new RosterStateView(0, 0, LocalDate.of(2000, 01, 01), 0, 0, 0, 2,
+                                                              LocalDate.of(2000, 01, 02), ZoneId.of("UTC"));
+        rosterStateView.setTenant(new Tenant("deletedTenant"));
+        Integer deletedTenantId = addTenant(rosterStateView).getBody().getId();
+
+        ResponseEntity<BackgroundJob> deleteResponse = deleteTenant(deletedTenantId);
+        assertThat(deleteResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        BackgroundJob job = deleteResponse.getBody();
+        assertThat(job.getType()).isEqualTo(BackgroundJobType.TENANT_DELETION);
+        assertThat(job.getTenantId()).isEqualTo(deletedTenantId);
+
+        while (job.getStatus() == BackgroundJobStatus.SCHEDULED || job.getStatus() == BackgroundJobStatus.RUNNING) {
+            Thread.sleep(100L);
+            job = getJob(job.getId()).getBody();
+        }
+        assertThat(job.getStatus()).isEqualTo(BackgroundJobStatus.COMPLETED);
+        // The tenant, its roster state and its constraint configuration
+        assertThat(job.getProcessedCount()).isEqualTo(3L);
+        assertThat(getTenantList().getBody()).extracting(Tenant::getId)
+                .contains(TENANT_ID)
+                .doesNotContain(deletedTenantId);
+    }
+
     @Test
     public void rosterConstraintConfigurationCrudTest() {
         ResponseEntity<RosterConstraintConfiguration> getResponse = getRosterConstraintParametrization(TENANT_ID);
@@ -134,6 +193,29 @@ public class TenantRestControllerTest extends AbstractEntityRequireTenantRestSer
         assertThat(updateResponse.getBody().getNotRotationEmployee()).isEqualTo(HardMediumSoftLongScore.ofSoft(1));
     }
 
+    @Test
+    public void solverQuotaCrudTest() {
+        ResponseEntity<SolverQuota> getResponse = getSolverQuota(TENANT_ID);
+        assertThat(getResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(getResponse.getBody().getWeight()).isEqualTo(1);
+
+        ResponseEntity<SolverQuota> updateResponse = updateSolverQuota(TENANT_ID,
+                                                                       new SolverQuotaView(TENANT_ID, 60L, 300L, 2));
+        assertThat(updateResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(updateResponse.getBody().getMaxSolveSeconds()).isEqualTo(60L);
+        assertThat(updateResponse.getBody().getCpuSecondsPerHour()).isEqualTo(300L);
+        assertThat(updateResponse.getBody().getWeight()).isEqualTo(2);
+
+        ResponseEntity<SolverQuotaUsageView> usageResponse = getSolverQuotaUsage(TENANT_ID);
+        assertThat(usageResponse.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(usageResponse.getBody().getSolverStatus()).isEqualTo(SolverStatus.TERMINATED);
+        assertThat(usageResponse.getBody().getUsedCpuMillis()).isEqualTo(0L);
+        assertThat(usageResponse.getBody().getRemainingCpuMillis()).isEqualTo(300_000L);
+
+        assertThat(updateSolverQuota(TENANT_ID, new SolverQuotaView(TENANT_ID, 60L, 300L, 0)).getStatusCode())
+                .isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
     @Test
     public void getSupportedTimezonesTest() {
         ResponseEntity<List> getResponse = getSupportedTimezones();
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.util;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.optaweb.employeerostering.domain.contract.Contract;
+import org.optaweb.employeerostering.domain.employee.Employee;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.spot.Spot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ShiftRosterCsvFileIOTest {
+
+    private static final Integer TENANT_ID = 0;
+    private static final OffsetDateTime START_DATE_TIME = OffsetDateTime.of(2020, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC);
+
+    private static Shift buildShift(String spotName, String employeeName) {
+        Shift shift = new Shift(TENANT_ID, new Spot(TENANT_ID, spotName, Collections.emptySet()),
+                                START_DATE_TIME, START_DATE_TIME.plusHours(8L));
+        if (employeeName != null) {
+            shift.setEmployee(new Employee(TENANT_ID, employeeName, new Contract(TENANT_ID, "Contract"),
+                                           Collections.emptySet()));
+        }
+        return shift;
+    }
+
+    @Test
+    public void escapeValuesAndFormulas() throws IOException {
+        StringWriter writer = new StringWriter();
+        ShiftRosterCsvFileIO.writeCsvForShiftRoster(
+                ZoneOffset.UTC, Arrays.asList(buildShift("Ward, \"A\"", "Amy"), buildShift("=1+1", "@SUM(A1)"),
+                                              buildShift("-2", null)).iterator(), writer);
+        String start = ShiftRosterXlsxFileIO.DATE_TIME_FORMATTER.format(START_DATE_TIME.toLocalDateTime());
+        String end = ShiftRosterXlsxFileIO.DATE_TIME_FORMATTER.format(START_DATE_TIME.plusHours(8L)
+                                                                              .toLocalDateTime());
+        assertThat(writer.toString()).isEqualTo(
+                "Spot,Start,End,Employee\r\n"
+                        + "\"Ward, \"\"A\"\"\"," + start + "," + end + ",Amy\r\n"
+                        + "'=1+1," + start + "," + end + ",'@SUM(A1)\r\n"
+                        + "'-2," + start + "," + end + ",Unassigned\r\n");
+    }
+}
@@ -25,7 +25,11 @@ import javax.persistence.PersistenceContext;
 import org.optaplanner.benchmark.api.PlannerBenchmark;
 import org.optaplanner.benchmark.api.PlannerBenchmarkFactory;
 import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.encoding.RosterViewEncodingBenchmark;
+import org.optaweb.employeerostering.indictment.IndictmentClassificationBenchmark;
 import org.optaweb.employeerostering.service.roster.RosterGenerator;
+import org.optaweb.employeerostering.solver.SolutionCloningBenchmark;
+import org.optaweb.employeerostering.solver.WarmStartBenchmark;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
@@ -42,6 +46,22 @@ public class OptaWebEmployeeRosteringBenchmarkApplication implements Application
 
     private final Logger logger = LoggerFactory.getLogger(getClass());
 
+    private final RosterViewEncodingBenchmark rosterViewEncodingBenchmark;
+    private final IndictmentClassificationBenchmark indictmentClassificationBenchmark;
+    private final WarmStartBenchmark warmStartBenchmark;
+    private final SolutionCloningBenchmark solutionCloningBenchmark;
+
+    public OptaWebEmployeeRosteringBenchmarkApplication(RosterViewEncodingBenchmark rosterViewEncodingBenchmark,
+                                                        IndictmentClassificationBenchmark
+                                                                indictmentClassificationBenchmark,
+                                                        WarmStartBenchmark warmStartBenchmark,
+                                                        SolutionCloningBenchmark solutionCloningBenchmark) {
+        this.rosterViewEncodingBenchmark = rosterViewEncodingBenchmark;
+        this.indictmentClassificationBenchmark = indictmentClassificationBenchmark;
+        this.warmStartBenchmark = warmStartBenchmark;
+        this.solutionCloningBenchmark = solutionCloningBenchmark;
+    }
+
     public static void main(String[] args) {
         SpringApplication.run(OptaWebEmployeeRosteringBenchmarkApplication.class, args);
     }
@@ -51,6 +71,26 @@ public class OptaWebEmployeeRosteringBenchmarkApplication implements Application
     public void run(ApplicationArguments args) {
         List<Roster> rosterList = generateRosters();
 
+        // Run with --encoding to compare the encodings of the roster views instead of the solver configurations
+        if (args.containsOption("encoding")) {
+            rosterViewEncodingBenchmark.benchmark(rosterList);
+            return;
+        }
+        // Run with --indictments to time how the shift views classify their constraint matches
+        if (args.containsOption("indictments")) {
+            indictmentClassificationBenchmark.benchmark(rosterList);
+            return;
+        }
+        // Run with --warm-start to time how fast a re-solve gets back to the best score of the previous solve
+        if (args.containsOption("warm-start")) {
+            warmStartBenchmark.benchmark(rosterList);
+            return;
+        }
+        // Run with --cloning to time the solution cloner that clones each new best solution
+        if (args.containsOption("cloning")) {
+            solutionCloningBenchmark.benchmark(rosterList);
+            return;
+        }
         PlannerBenchmarkFactory benchmarkFactory = PlannerBenchmarkFactory.createFromXmlResource(
                 "employeeRosteringBenchmarkConfig.xml", getClass().getClassLoader());
         PlannerBenchmark plannerBenchmark = benchmarkFactory.buildPlannerBenchmark(rosterList);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.encoding;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.roster.view.ShiftRosterView;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.service.common.IndictmentUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the payload size and serialization time of a {@link ShiftRosterView} (with indictments)
+ * in JSON, Smile and CBOR, with the same object mappers as the REST endpoints use.
+ */
+@Component
+public class RosterViewEncodingBenchmark {
+
+    private static final int WARM_UP_COUNT = 5;
+    private static final int MEASURED_COUNT = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SolverFactory<Roster> solverFactory;
+    private final IndictmentUtils indictmentUtils;
+    private final Map<String, ObjectMapper> encodingToObjectMapperMap = new LinkedHashMap<>(3);
+
+    public RosterViewEncodingBenchmark(SolverFactory<Roster> solverFactory, IndictmentUtils indictmentUtils,
+                                       ObjectMapper jsonObjectMapper,
+                                       MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter,
+                                       MappingJackson2CborHttpMessageConverter cborHttpMessageConverter) {
+        this.solverFactory = solverFactory;
+        this.indictmentUtils = indictmentUtils;
+        encodingToObjectMapperMap.put("JSON", jsonObjectMapper);
+        encodingToObjectMapperMap.put("Smile", smileHttpMessageConverter.getObjectMapper());
+        encodingToObjectMapperMap.put("CBOR", cborHttpMessageConverter.getObjectMapper());
+    }
+
+    public void benchmark(List<Roster> rosterList) {
+        for (Roster roster : rosterList) {
+            ShiftRosterView shiftRosterView = buildShiftRosterView(roster);
+            logger.info("Roster with {} spots, {} employees and {} shifts:", roster.getSpotList().size(),
+                        roster.getEmployeeList().size(), roster.getShiftList().size());
+            encodingToObjectMapperMap.forEach((encoding, objectMapper) -> {
+                int byteCount = serialize(objectMapper, shiftRosterView).length;
+                for (int i = 0; i < WARM_UP_COUNT; i++) {
+                    serialize(objectMapper, shiftRosterView);
+                }
+                long startNanos = System.nanoTime();
+                for (int i = 0; i < MEASURED_COUNT; i++) {
+                    serialize(objectMapper, shiftRosterView);
+                }
+                double averageMillis = (System.nanoTime() - startNanos) / (MEASURED_COUNT * 1_000_000.0);
+                logger.info("  {}: {} bytes, serialized in {} ms on average.", encoding, byteCount,
+                            String.format("%.2f", averageMillis));
+            });
+        }
+    }
+
+    private ShiftRosterView buildShiftRosterView(Roster roster) {
+        Map<Object, Indictment> indictmentMap;
+        try (ScoreDirector<Roster> scoreDirector = solverFactory.getScoreDirectorFactory().buildScoreDirector()) {
+            scoreDirector.setWorkingSolution(roster);
+            roster.setScore((HardMediumSoftLongScore) scoreDirector.calculateScore());
+            indictmentMap = scoreDirector.getIndictmentMap();
+        }
+        ZoneId timeZone = roster.getRosterState().getTimeZone();
+        Map<Long, List<ShiftView>> spotIdToShiftViewListMap = new LinkedHashMap<>(roster.getSpotList().size());
+        for (Shift shift : roster.getShiftList()) {
+            spotIdToShiftViewListMap.computeIfAbsent(shift.getSpot().getId(), k -> new ArrayList<>())
+                    .add(indictmentUtils.getShiftViewWithIndictment(timeZone, shift, indictmentMap.get(shift)));
+        }
+
+        Integer tenantId = roster.getTenantId();
+        LocalDate startDate = roster.getRosterState().getFirstDraftDate();
+        ShiftRosterView shiftRosterView = new ShiftRosterView(tenantId, startDate,
+                                                              startDate.plusDays(roster.getRosterState()
+                                                                                         .getDraftLength()));
+        shiftRosterView.setSpotList(roster.getSpotList());
+        shiftRosterView.setEmployeeList(roster.getEmployeeList());
+        shiftRosterView.setRosterState(roster.getRosterState());
+        shiftRosterView.setSpotIdToShiftViewListMap(spotIdToShiftViewListMap);
+        shiftRosterView.setScore(roster.getScore());
+        return shiftRosterView;
+    }
+
+    private static byte[] serialize(ObjectMapper objectMapper, ShiftRosterView shiftRosterView) {
+        try {
+            return objectMapper.writeValueAsBytes(shiftRosterView);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed serializing the shiftRosterView (" + shiftRosterView + ").", e);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.indictment;
+
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.score.constraint.ConstraintMatch;
+import org.optaplanner.core.api.score.constraint.Indictment;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.impl.score.director.ScoreDirector;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.shift.Shift;
+import org.optaweb.employeerostering.domain.shift.view.ShiftView;
+import org.optaweb.employeerostering.service.common.IndictmentUtils;
+import org.optaweb.employeerostering.service.common.ShiftViolationType;
+import org.optaweb.employeerostering.service.common.ShiftViolations;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares building the shift views of a roster with the single pass classification of
+ * {@link IndictmentUtils#getShiftViewWithIndictment}, against scanning the constraint matches of each shift
+ * once per {@link ShiftViolationType}, with string comparisons on the constraint package and name.
+ */
+@Component
+public class IndictmentClassificationBenchmark {
+
+    private static final int WARM_UP_COUNT = 10;
+    private static final int MEASURED_COUNT = 50;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SolverFactory<Roster> solverFactory;
+    private final IndictmentUtils indictmentUtils;
+
+    public IndictmentClassificationBenchmark(SolverFactory<Roster> solverFactory, IndictmentUtils indictmentUtils) {
+        this.solverFactory = solverFactory;
+        this.indictmentUtils = indictmentUtils;
+    }
+
+    public void benchmark(List<Roster> rosterList) {
+        for (Roster roster : rosterList) {
+            Map<Object, Indictment> indictmentMap;
+            try (ScoreDirector<Roster> scoreDirector = solverFactory.getScoreDirectorFactory()
+                    .buildScoreDirector()) {
+                scoreDirector.setWorkingSolution(roster);
+                scoreDirector.calculateScore();
+                indictmentMap = scoreDirector.getIndictmentMap();
+            }
+            ZoneId timeZone = roster.getRosterState().getTimeZone();
+            logger.info("Roster with {} shifts and {} constraint matches on them:", roster.getShiftList().size(),
+                        roster.getShiftList().stream().map(indictmentMap::get).filter(i -> i != null)
+                                .mapToInt(i -> i.getConstraintMatchSet().size()).sum());
+
+            double singlePassMillis = measure(roster, shift -> indictmentUtils.getShiftViewWithIndictment(
+                    timeZone, shift, indictmentMap.get(shift)));
+            double perTypeScanMillis = measure(roster, shift -> getShiftViewWithPerTypeScan(
+                    timeZone, shift, indictmentMap.get(shift)));
+            logger.info("  Single pass: {} ms, scan per violation type: {} ms on average ({}x speedup).",
+                        String.format("%.2f", singlePassMillis), String.format("%.2f", perTypeScanMillis),
+                        String.format("%.1f", perTypeScanMillis / singlePassMillis));
+        }
+    }
+
+    private static double measure(Roster roster, Consumer<Shift> shiftViewBuilder) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            roster.getShiftList().forEach(shiftViewBuilder);
+        }
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_COUNT; i++) {
+            roster.getShiftList().forEach(shiftViewBuilder);
+        }
+        return (System.nanoTime() - startNanos) / (MEASURED_COUNT * 1_000_000.0);
+    }
+
+    /**
+     * How the shift views were built before the single pass classification:
+     * the constraint matches are scanned once for each kind of violation.
+     */
+    private static ShiftView getShiftViewWithPerTypeScan(ZoneId zoneId, Shift shift, Indictment indictment) {
+        ShiftViolations shiftViolations = new ShiftViolations();
+        if (indictment == null) {
+            return shiftViolations.toShiftView(zoneId, shift, HardMediumSoftLongScore.ZERO);
+        }
+        for (ShiftViolationType shiftViolationType : ShiftViolationType.values()) {
+            for (ConstraintMatch constraintMatch : indictment.getConstraintMatchSet()) {
+                if (constraintMatch.getConstraintPackage().equals(IndictmentUtils.CONSTRAINT_MATCH_PACKAGE) &&
+                        shiftViolationType.getConstraintNameList().contains(constraintMatch.getConstraintName())) {
+                    shiftViolationType.addViolation(constraintMatch, shiftViolations);
+                }
+            }
+        }
+        return shiftViolations.toShiftView(zoneId, shift, (HardMediumSoftLongScore) indictment.getScore());
+    }
+}
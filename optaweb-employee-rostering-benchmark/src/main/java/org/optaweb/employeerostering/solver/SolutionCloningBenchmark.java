@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import org.optaplanner.core.api.domain.solution.cloner.SolutionCloner;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.impl.domain.solution.cloner.FieldAccessingSolutionCloner;
+import org.optaplanner.core.impl.domain.solution.descriptor.SolutionDescriptor;
+import org.optaplanner.core.impl.score.director.InnerScoreDirectorFactory;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.optaweb.employeerostering.domain.roster.RosterSolutionCloner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares the time and heap allocation of cloning a roster, as the solver does for each new best solution, with the
+ * {@link RosterSolutionCloner} against the reflective {@link FieldAccessingSolutionCloner} that OptaPlanner uses
+ * by default.
+ */
+@Component
+public class SolutionCloningBenchmark {
+
+    private static final int WARM_UP_COUNT = 200;
+    private static final int MEASURED_COUNT = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SolutionDescriptor<Roster> solutionDescriptor;
+
+    public SolutionCloningBenchmark(SolverFactory<Roster> solverFactory) {
+        this.solutionDescriptor = ((InnerScoreDirectorFactory<Roster>) solverFactory.getScoreDirectorFactory())
+                .getSolutionDescriptor();
+    }
+
+    public void benchmark(List<Roster> rosterList) {
+        SolutionCloner<Roster> rosterSolutionCloner = new RosterSolutionCloner();
+        SolutionCloner<Roster> reflectiveSolutionCloner = new FieldAccessingSolutionCloner<>(solutionDescriptor);
+        for (Roster roster : rosterList) {
+            logger.info("Roster with {} shifts and {} employees:", roster.getShiftList().size(),
+                        roster.getEmployeeList().size());
+            CloneMeasurement rosterMeasurement = measure(roster, rosterSolutionCloner);
+            CloneMeasurement reflectiveMeasurement = measure(roster, reflectiveSolutionCloner);
+            logger.info("  Roster cloner: {} ms and {} KiB, reflective cloner: {} ms and {} KiB per clone "
+                                + "({}x speedup).",
+                        String.format("%.3f", rosterMeasurement.millis),
+                        formatKibibytes(rosterMeasurement.allocatedBytes),
+                        String.format("%.3f", reflectiveMeasurement.millis),
+                        formatKibibytes(reflectiveMeasurement.allocatedBytes),
+                        String.format("%.1f", reflectiveMeasurement.millis / rosterMeasurement.millis));
+        }
+    }
+
+    private static String formatKibibytes(double bytes) {
+        return (bytes < 0.0) ? "(unknown)" : String.format("%.1f", bytes / 1024.0);
+    }
+
+    private static CloneMeasurement measure(Roster roster, SolutionCloner<Roster> solutionCloner) {
+        for (int i = 0; i < WARM_UP_COUNT; i++) {
+            solutionCloner.cloneSolution(roster);
+        }
+        long startAllocatedBytes = getAllocatedBytes();
+        long startNanos = System.nanoTime();
+        for (int i = 0; i < MEASURED_COUNT; i++) {
+            solutionCloner.cloneSolution(roster);
+        }
+        long spentNanos = System.nanoTime() - startNanos;
+        long allocatedBytes = getAllocatedBytes() - startAllocatedBytes;
+        return new CloneMeasurement(spentNanos / (MEASURED_COUNT * 1_000_000.0),
+                                    (startAllocatedBytes < 0L) ? -1.0 : ((double) allocatedBytes) / MEASURED_COUNT);
+    }
+
+    /**
+     * @return -1 if the JVM does not measure the heap allocation of threads
+     */
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)) {
+            return -1L;
+        }
+        return ((com.sun.management.ThreadMXBean) threadMXBean)
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static final class CloneMeasurement {
+
+        private final double millis;
+        private final double allocatedBytes;
+
+        private CloneMeasurement(double millis, double allocatedBytes) {
+            this.millis = millis;
+            this.allocatedBytes = allocatedBytes;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.optaweb.employeerostering.solver;
+
+import java.util.List;
+
+import org.optaplanner.core.api.score.buildin.hardmediumsoftlong.HardMediumSoftLongScore;
+import org.optaplanner.core.api.solver.Solver;
+import org.optaplanner.core.api.solver.SolverFactory;
+import org.optaplanner.core.config.solver.SolverConfig;
+import org.optaplanner.core.config.solver.termination.TerminationConfig;
+import org.optaweb.employeerostering.domain.roster.Roster;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Compares how long a solver takes to get back to the best score of an earlier solve when it warm starts from that
+ * best solution, as a re-solve or a takeover does from the persisted shifts, against a cold start from a roster
+ * without any assigned shifts.
+ */
+@Component
+public class WarmStartBenchmark {
+
+    private static final long FIRST_SOLVE_SECONDS = 10L;
+    // Stops a cold start that does not get back to the best score at all
+    private static final long MAXIMUM_SOLVE_SECONDS = 60L;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final SolverConfig solverConfig;
+
+    public WarmStartBenchmark(SolverConfig solverConfig) {
+        this.solverConfig = solverConfig;
+    }
+
+    public void benchmark(List<Roster> rosterList) {
+        for (Roster roster : rosterList) {
+            roster.getShiftList().stream()
+                    .filter(shift -> !shift.isPinnedByUser())
+                    .forEach(shift -> shift.setEmployee(null));
+            Roster bestRoster = buildSolver(new TerminationConfig().withSecondsSpentLimit(FIRST_SOLVE_SECONDS))
+                    .solve(roster);
+            HardMediumSoftLongScore bestScore = bestRoster.getScore();
+            logger.info("Roster with {} shifts and {} employees, best score ({}) after {} seconds:",
+                        roster.getShiftList().size(), roster.getEmployeeList().size(), bestScore,
+                        FIRST_SOLVE_SECONDS);
+
+            long coldStartMillis = measure(roster, bestScore);
+            long warmStartMillis = measure(bestRoster, bestScore);
+            logger.info("  Cold start: {} ms, warm start: {} ms to reach that score again ({} ms saved).",
+                        coldStartMillis, warmStartMillis, coldStartMillis - warmStartMillis);
+        }
+    }
+
+    private long measure(Roster roster, HardMediumSoftLongScore bestScore) {
+        Solver<Roster> solver = buildSolver(new TerminationConfig()
+                                                    .withBestScoreLimit(bestScore.toString())
+                                                    .withSecondsSpentLimit(MAXIMUM_SOLVE_SECONDS));
+        long startNanos = System.nanoTime();
+        Roster solvedRoster = solver.solve(roster);
+        long spentMillis = (System.nanoTime() - startNanos) / 1_000_000L;
+        if (solvedRoster.getScore().compareTo(bestScore) < 0) {
+            logger.warn("  Did not reach the best score ({}) within {} seconds, got ({}).", bestScore,
+                        MAXIMUM_SOLVE_SECONDS, solvedRoster.getScore());
+        }
+        return spentMillis;
+    }
+
+    private Solver<Roster> buildSolver(TerminationConfig terminationConfig) {
+        return SolverFactory.<Roster>create(solverConfig.copyConfig().withTerminationConfig(terminationConfig))
+                .buildSolver();
+    }
+}
@@ -36,6 +36,7 @@ if (path.indexOf('/', 1) > 0) {
 
 const store = configureStore({
   restBaseURL: `${process.env.REACT_APP_BACKEND_URL}/rest`,
+  useBinaryEncoding: process.env.REACT_APP_BINARY_ENCODING === 'true',
 }, {
   tenantData: {
     currentTenantId: windowTenantId,
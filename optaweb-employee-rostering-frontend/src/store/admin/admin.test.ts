@@ -15,7 +15,8 @@
  */
 
 import * as tenantOperations from 'store/tenant/operations';
-import { onPost } from 'store/rest/RestTestUtils';
+import { onGet, onPost } from 'store/rest/RestTestUtils';
+import { BackgroundJob } from 'domain/BackgroundJob';
 import { alert } from 'store/alert';
 import { doNothing } from 'types';
 import { mockStore } from '../mockStore';
@@ -36,7 +37,8 @@ describe('Contract operations', () => {
   it('should dispatch actions and call client on reset application', async () => {
     const { store, client } = mockStore(state);
 
-    onPost('/admin/reset', {}, {});
+    onPost('/admin/reset', {}, resetJob);
+    onGet(`/job/${resetJob.id}`, { ...resetJob, status: 'COMPLETED' });
     await store.dispatch(adminOperations.resetApplication());
     expect(store.getActions()).toEqual([
       alert.showInfoMessage('resetApplicationSuccessful'),
@@ -45,6 +47,19 @@ describe('Contract operations', () => {
     expect(mockRefreshTenantList).toBeCalledTimes(1);
     expect(client.post).toHaveBeenCalledTimes(1);
     expect(client.post).toHaveBeenCalledWith('/admin/reset', {});
+    expect(client.get).toHaveBeenCalledWith(`/job/${resetJob.id}`);
+  });
+
+  it('should show an error and refresh when the reset application job fails', async () => {
+    const { store } = mockStore(state);
+
+    onPost('/admin/reset', {}, { ...resetJob, status: 'FAILED', errorMessage: 'Boom' });
+    await store.dispatch(adminOperations.resetApplication());
+    expect(store.getActions()).toEqual([
+      alert.showErrorMessage('resetApplicationError', { message: 'Boom' }),
+    ]);
+
+    expect(mockRefreshTenantList).toBeCalledTimes(1);
   });
 });
 
@@ -95,3 +110,15 @@ const state: AppState = {
   },
   isConnected: true,
 };
+
+const resetJob: BackgroundJob = {
+  id: 3,
+  type: 'APPLICATION_RESET',
+  tenantId: null,
+  status: 'RUNNING',
+  step: null,
+  processedCount: 0,
+  startDateTime: null,
+  endDateTime: null,
+  errorMessage: null,
+};
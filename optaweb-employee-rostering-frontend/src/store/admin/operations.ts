@@ -17,12 +17,20 @@
 import { Action } from 'redux';
 import { refreshTenantList } from 'store/tenant/operations';
 import { alert } from 'store/alert';
+import { BackgroundJob } from 'domain/BackgroundJob';
+import { waitForBackgroundJob } from 'util/BackgroundJobUtils';
 import { ThunkCommandFactory } from '../types';
 
 export const resetApplication:
-ThunkCommandFactory<void, Action<any>> = () => (dispatch, state, client) => {
-  client.post<void>('/admin/reset', {}).then(() => {
-    dispatch(alert.showInfoMessage('resetApplicationSuccessful'));
-    dispatch(refreshTenantList());
-  });
-};
+ThunkCommandFactory<void, Action<any>> = () => (dispatch, state, client) => (
+  client.post<BackgroundJob>('/admin/reset', {})
+    .then(job => waitForBackgroundJob(client, job))
+    .then((job) => {
+      if (job.status === 'COMPLETED') {
+        dispatch(alert.showInfoMessage('resetApplicationSuccessful'));
+      } else {
+        dispatch(alert.showErrorMessage('resetApplicationError', { message: job.errorMessage }));
+      }
+      dispatch(refreshTenantList());
+    })
+);
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+import { decodeCbor } from './CborDecoder';
+
+function decode(...bytes: number[]): any {
+  return decodeCbor(new Uint8Array(bytes).buffer);
+}
+
+describe('CBOR decoder', () => {
+  it('should decode integers', () => {
+    expect(decode(0x00)).toEqual(0);
+    expect(decode(0x17)).toEqual(23);
+    expect(decode(0x18, 0x64)).toEqual(100);
+    expect(decode(0x19, 0x03, 0xe8)).toEqual(1000);
+    expect(decode(0x1a, 0x00, 0x0f, 0x42, 0x40)).toEqual(1000000);
+    expect(decode(0x1b, 0x00, 0x00, 0x00, 0xe8, 0xd4, 0xa5, 0x10, 0x00)).toEqual(1000000000000);
+    expect(decode(0x38, 0x63)).toEqual(-100);
+  });
+
+  it('should decode floats and simple values', () => {
+    expect(decode(0xf9, 0x3e, 0x00)).toEqual(1.5);
+    expect(decode(0xfa, 0x47, 0xc3, 0x50, 0x00)).toEqual(100000.0);
+    expect(decode(0xfb, 0x3f, 0xf1, 0x99, 0x99, 0x99, 0x99, 0x99, 0x9a)).toEqual(1.1);
+    expect(decode(0xf4)).toEqual(false);
+    expect(decode(0xf5)).toEqual(true);
+    expect(decode(0xf6)).toBeNull();
+  });
+
+  it('should decode strings', () => {
+    expect(decode(0x64, 0x49, 0x45, 0x54, 0x46)).toEqual('IETF');
+    expect(decode(0x62, 0xc3, 0xbc)).toEqual('ü');
+    expect(decode(0x63, 0xe6, 0xb0, 0xb4)).toEqual('水');
+    expect(decode(0x7f, 0x65, 0x73, 0x74, 0x72, 0x65, 0x61, 0x64, 0x6d, 0x69, 0x6e, 0x67, 0xff)).toEqual('streaming');
+  });
+
+  it('should decode definite and indefinite arrays and maps', () => {
+    expect(decode(0x83, 0x01, 0x82, 0x02, 0x03, 0x82, 0x04, 0x05)).toEqual([1, [2, 3], [4, 5]]);
+    expect(decode(0x9f, 0x01, 0x9f, 0x02, 0x03, 0xff, 0xff)).toEqual([1, [2, 3]]);
+    expect(decode(0xa2, 0x61, 0x61, 0x01, 0x61, 0x62, 0x82, 0x02, 0x03)).toEqual({ a: 1, b: [2, 3] });
+    expect(decode(0xbf, 0x61, 0x61, 0x01, 0x61, 0x62, 0x9f, 0x02, 0x03, 0xff, 0xff)).toEqual({ a: 1, b: [2, 3] });
+  });
+
+  it('should decode a __proto__ key as a plain key', () => {
+    const map = decode(0xa1, 0x69, 0x5f, 0x5f, 0x70, 0x72, 0x6f, 0x74, 0x6f, 0x5f, 0x5f, 0xa1, 0x61, 0x61, 0x01);
+    expect(Object.getPrototypeOf(map)).toBeNull();
+    expect(Object.entries(map)).toEqual([['__proto__', { a: 1 }]]);
+  });
+
+  it('should skip tags', () => {
+    expect(decode(0xc1, 0x1a, 0x51, 0x4b, 0x67, 0xb0)).toEqual(1363896240);
+  });
+});
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+/* eslint-disable no-bitwise */
+
+// Decodes the CBOR (RFC 7049) responses of the backend, see RestServiceClient.
+// Only what Jackson writes is supported: no byte string chunks and tags are ignored.
+
+const BREAK = 0xff;
+
+function decodeHalfFloat(half: number): number {
+  const exponent = (half >> 10) & 0x1f;
+  const fraction = half & 0x3ff;
+  let value: number;
+  if (exponent === 0) {
+    value = fraction * (2 ** -24);
+  } else if (exponent === 0x1f) {
+    value = (fraction === 0) ? Infinity : NaN;
+  } else {
+    value = (fraction + 1024) * (2 ** (exponent - 25));
+  }
+  return (half & 0x8000) ? -value : value;
+}
+
+export function decodeCbor(buffer: ArrayBuffer): any {
+  const view = new DataView(buffer);
+  const utf8Decoder = new TextDecoder('utf-8');
+  let offset = 0;
+
+  function readArgument(additionalInformation: number): number {
+    let argument: number;
+    switch (additionalInformation) {
+      case 24:
+        argument = view.getUint8(offset);
+        offset += 1;
+        break;
+      case 25:
+        argument = view.getUint16(offset);
+        offset += 2;
+        break;
+      case 26:
+        argument = view.getUint32(offset);
+        offset += 4;
+        break;
+      case 27:
+        // Loses precision above 2^53, like JSON.parse() does
+        argument = view.getUint32(offset) * (2 ** 32) + view.getUint32(offset + 4);
+        offset += 8;
+        break;
+      default:
+        if (additionalInformation >= 24) {
+          throw Error(`Unsupported CBOR additional information (${additionalInformation}) at offset (${offset}).`);
+        }
+        argument = additionalInformation;
+    }
+    return argument;
+  }
+
+  function isBreak(): boolean {
+    if (view.getUint8(offset) === BREAK) {
+      offset += 1;
+      return true;
+    }
+    return false;
+  }
+
+  function readSimpleValue(additionalInformation: number): any {
+    let value: any;
+    switch (additionalInformation) {
+      case 20:
+        value = false;
+        break;
+      case 21:
+        value = true;
+        break;
+      case 22:
+        value = null;
+        break;
+      case 23:
+        value = undefined;
+        break;
+      case 25:
+        value = decodeHalfFloat(view.getUint16(offset));
+        offset += 2;
+        break;
+      case 26:
+        value = view.getFloat32(offset);
+        offset += 4;
+        break;
+      case 27:
+        value = view.getFloat64(offset);
+        offset += 8;
+        break;
+      default:
+        throw Error(`Unsupported CBOR simple value (${additionalInformation}) at offset (${offset}).`);
+    }
+    return value;
+  }
+
+  function readItem(): any {
+    const initialByte = view.getUint8(offset);
+    offset += 1;
+    const majorType = initialByte >> 5;
+    const additionalInformation = initialByte & 0x1f;
+    const isIndefinite = additionalInformation === 31;
+    switch (majorType) {
+      case 0:
+        return readArgument(additionalInformation);
+      case 1:
+        return -1 - readArgument(additionalInformation);
+      case 2:
+      case 3: {
+        if (isIndefinite) {
+          const chunkList: any[] = [];
+          while (!isBreak()) {
+            chunkList.push(readItem());
+          }
+          return (majorType === 3) ? chunkList.join('') : chunkList;
+        }
+        const length = readArgument(additionalInformation);
+        const bytes = new Uint8Array(buffer, offset, length);
+        offset += length;
+        return (majorType === 3) ? utf8Decoder.decode(bytes) : bytes;
+      }
+      case 4: {
+        const array: any[] = [];
+        if (isIndefinite) {
+          while (!isBreak()) {
+            array.push(readItem());
+          }
+        } else {
+          const length = readArgument(additionalInformation);
+          while (array.length < length) {
+            array.push(readItem());
+          }
+        }
+        return array;
+      }
+      case 5: {
+        // No prototype, so a __proto__ key is just a key
+        const map: any = Object.create(null);
+        if (isIndefinite) {
+          while (!isBreak()) {
+            const key = readItem();
+            map[key] = readItem();
+          }
+        } else {
+          const length = readArgument(additionalInformation);
+          for (let i = 0; i < length; i += 1) {
+            const key = readItem();
+            map[key] = readItem();
+          }
+        }
+        return map;
+      }
+      case 6:
+        // Tags (such as big decimals) only add meaning to the tagged item
+        readArgument(additionalInformation);
+        return readItem();
+      default:
+        return readSimpleValue(additionalInformation);
+    }
+  }
+
+  return readItem();
+}
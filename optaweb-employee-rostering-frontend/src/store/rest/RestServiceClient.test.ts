@@ -76,6 +76,28 @@ describe('Rest Service Client', () => {
     expect(handleResponseSpy).toBeCalledWith(response);
   });
 
+  it('Should ask for and decode CBOR on get if binary encoding is used', async () => {
+    const baseURL = '/rest';
+    const restServiceClient = new RestServiceClient(baseURL, axios, true);
+    const targetURL = '/endpoint';
+    const response = {
+      status: 200,
+      // {"a": [1, 2]}
+      data: new Uint8Array([0xbf, 0x61, 0x61, 0x9f, 0x01, 0x02, 0xff, 0xff]).buffer,
+      statusText: 'Ok',
+      headers: { 'content-type': 'application/cbor' },
+      config: {},
+    };
+    mockGet.mockReturnValue(Promise.resolve(response));
+    const data = await restServiceClient.get(targetURL);
+
+    expect(mockGet).toBeCalledWith('/endpoint', {
+      headers: { Accept: 'application/cbor, application/json;q=0.9' },
+      responseType: 'arraybuffer',
+    });
+    expect(data).toEqual({ a: [1, 2] });
+  });
+
   it('Should call errorHandler if axios.get fails', async () => {
     const baseURL = '/rest';
     const restServiceClient = new RestServiceClient(baseURL, axios);
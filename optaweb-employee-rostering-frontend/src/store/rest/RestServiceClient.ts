@@ -14,7 +14,7 @@
  * limitations under the License.
  */
 
-import { AxiosInstance, AxiosResponse, AxiosStatic } from 'axios';
+import { AxiosInstance, AxiosRequestConfig, AxiosResponse, AxiosStatic } from 'axios';
 
 import { alert } from 'store/alert';
 import { ServerSideExceptionInfo, BasicObject } from 'types';
@@ -22,8 +22,30 @@ import { ThunkDispatch } from 'redux-thunk';
 import { AppState } from 'store/types';
 import { setConnectionStatus } from 'store/tenant/actions';
 import { refreshTenantList } from 'store/tenant/operations';
+import { decodeCbor } from './CborDecoder';
 
 const typeJsonRegex = new RegExp('application/json.*');
+const typeCborRegex = new RegExp('application/cbor.*');
+
+// The backend answers in JSON anyway if it cannot encode a response in CBOR
+const binaryGetConfig: AxiosRequestConfig = {
+  headers: { Accept: 'application/cbor, application/json;q=0.9' },
+  responseType: 'arraybuffer',
+};
+
+function decodeResponseData<T>(res: AxiosResponse<T>): T {
+  if (!(res.data instanceof ArrayBuffer)) {
+    return res.data;
+  }
+  const contentType = res.headers['content-type'];
+  if (typeCborRegex.test(contentType)) {
+    return decodeCbor(res.data);
+  }
+  if (typeJsonRegex.test(contentType) && res.data.byteLength > 0) {
+    return JSON.parse(new TextDecoder('utf-8').decode(res.data));
+  }
+  return res.data;
+}
 export default class RestServiceClient {
   restClient: AxiosInstance;
 
@@ -31,11 +53,15 @@ export default class RestServiceClient {
 
   dispatch: ThunkDispatch<AppState, any, any> | null;
 
-  constructor(baseURL: string, axios: AxiosStatic) {
+  // If true, GET requests ask for CBOR, which is much smaller than JSON for the roster views
+  useBinaryEncoding: boolean;
+
+  constructor(baseURL: string, axios: AxiosStatic, useBinaryEncoding = false) {
     this.restClient = axios.create({
       baseURL,
       validateStatus: () => true,
     });
+    this.useBinaryEncoding = useBinaryEncoding;
     this.dispatch = null;
     this.pollForServerTimeout = null;
     this.handleResponse = this.handleResponse.bind(this);
@@ -46,7 +72,9 @@ export default class RestServiceClient {
   }
 
   get<T>(url: string): Promise<T> {
-    return this.restClient.get<T>(url).then(this.handleResponse).catch((err) => {
+    const request = this.useBinaryEncoding ? this.restClient.get<T>(url, binaryGetConfig)
+      : this.restClient.get<T>(url);
+    return request.then(this.handleResponse).catch((err) => {
       this.handleError(err);
       throw err;
     });
@@ -81,11 +109,12 @@ export default class RestServiceClient {
   }
 
   handleResponse<T>(res: AxiosResponse<T>): Promise<T> {
+    const data = decodeResponseData(res);
     if (res.status >= 200 && res.status < 300) {
       if (this.dispatch) {
         this.dispatch(setConnectionStatus(true));
       }
-      return Promise.resolve(res.data);
+      return Promise.resolve(data);
     }
     if (res.status >= 502 && res.status <= 504) { // 502-504 are gateway releated responses
       this.handleError({
@@ -94,8 +123,8 @@ export default class RestServiceClient {
       return Promise.reject(res.status);
     }
     if (this.dispatch !== null) {
-      if (typeJsonRegex.test(res.headers['content-type'])) {
-        this.dispatch(alert.showServerError(res.data as unknown as ServerSideExceptionInfo & BasicObject));
+      if (typeJsonRegex.test(res.headers['content-type']) || typeCborRegex.test(res.headers['content-type'])) {
+        this.dispatch(alert.showServerError(data as unknown as ServerSideExceptionInfo & BasicObject));
       } else {
         this.dispatch(alert.showServerErrorMessage(res.statusText));
       }
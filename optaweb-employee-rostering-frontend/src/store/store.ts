@@ -37,13 +37,14 @@ import {
 
 export interface StoreConfig {
   readonly restBaseURL: string;
+  readonly useBinaryEncoding?: boolean;
 }
 
 export function configureStore(
-  { restBaseURL }: StoreConfig,
+  { restBaseURL, useBinaryEncoding }: StoreConfig,
   preloadedState?: Partial<AppState>,
 ): Store<AppState> {
-  const restServiceClient = new RestServiceClient(restBaseURL, axios);
+  const restServiceClient = new RestServiceClient(restBaseURL, axios, useBinaryEncoding);
 
   const middlewares = [thunk.withExtraArgument(restServiceClient), createLogger()];
   const middlewareEnhancer = applyMiddleware(...middlewares);
@@ -34,6 +34,8 @@ import { RosterState } from 'domain/RosterState';
 import { AddAlertAction } from 'store/alert/types';
 import { RouteComponentProps } from 'react-router';
 import { setTenantIdInUrl } from 'util/BookmarkableUtils';
+import { waitForBackgroundJob } from 'util/BackgroundJobUtils';
+import { BackgroundJob } from 'domain/BackgroundJob';
 import {
   ChangeTenantAction, RefreshTenantListAction, RefreshSupportedTimezoneListAction,
   AddTenantAction, RemoveTenantAction,
@@ -113,14 +115,16 @@ ThunkCommandFactory<RosterState, AddTenantAction | AddAlertAction> = rs => (disp
 
 export const removeTenant:
 ThunkCommandFactory<Tenant, RemoveTenantAction | AddAlertAction> = tenant => (dispatch, state, client) => (
-  client.post<boolean>(`/tenant/remove/${tenant.id}`, {}).then((isSuccess) => {
-    if (isSuccess) {
-      dispatch(alert.showSuccessMessage('removeTenant', { name: tenant.name }));
-      dispatch(actions.removeTenant(tenant));
-    } else {
-      dispatch(alert.showErrorMessage('removeTenantError', { name: tenant.name }));
-    }
-  })
+  client.post<BackgroundJob>(`/tenant/remove/${tenant.id}`, {})
+    .then(job => waitForBackgroundJob(client, job))
+    .then((job) => {
+      if (job.status === 'COMPLETED') {
+        dispatch(alert.showSuccessMessage('removeTenant', { name: tenant.name }));
+        dispatch(actions.removeTenant(tenant));
+      } else {
+        dispatch(alert.showErrorMessage('removeTenantError', { name: tenant.name }));
+      }
+    })
 );
 
 export const refreshSupportedTimezones:
@@ -18,6 +18,7 @@ import { alert } from 'store/alert';
 import * as shiftTemplateActions from 'store/rotation/actions';
 import { onGet, onPost } from 'store/rest/RestTestUtils';
 import { Tenant } from 'domain/Tenant';
+import { BackgroundJob } from 'domain/BackgroundJob';
 import moment from 'moment';
 import { shiftTemplateOperations } from 'store/rotation';
 import { RosterState } from 'domain/RosterState';
@@ -372,7 +373,7 @@ describe('Tenant operations', () => {
       name: 'Deleted Tenant',
     };
 
-    onPost(`/tenant/remove/${tenantToDelete.id}`, {}, true);
+    onPost(`/tenant/remove/${tenantToDelete.id}`, {}, { ...tenantDeletionJob, status: 'COMPLETED' });
 
     await store.dispatch(tenantOperations.removeTenant(tenantToDelete));
 
@@ -393,7 +394,7 @@ describe('Tenant operations', () => {
       name: 'Deleted Tenant',
     };
 
-    onPost(`/tenant/remove/${tenantToDelete.id}`, {}, false);
+    onPost(`/tenant/remove/${tenantToDelete.id}`, {}, { ...tenantDeletionJob, status: 'FAILED' });
 
     await store.dispatch(tenantOperations.removeTenant(tenantToDelete));
 
@@ -525,3 +526,15 @@ const state: AppState = {
   },
   isConnected: true,
 };
+
+const tenantDeletionJob: BackgroundJob = {
+  id: 7,
+  type: 'TENANT_DELETION',
+  tenantId: 2,
+  status: 'RUNNING',
+  step: null,
+  processedCount: 0,
+  startDateTime: null,
+  endDateTime: null,
+  errorMessage: null,
+};
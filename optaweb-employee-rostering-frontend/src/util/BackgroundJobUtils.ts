@@ -0,0 +1,35 @@
+/*
+ * Copyright 2020 Red Hat, Inc. and/or its affiliates.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import RestServiceClient from 'store/rest/RestServiceClient';
+import { BackgroundJob, isBackgroundJobFinished } from 'domain/BackgroundJob';
+
+export const backgroundJobPollInterval = 1000;
+
+/**
+ * Polls the background job until it completed or failed.
+ * @param job the job as returned by the request that started it
+ * @return the finished job
+ */
+export function waitForBackgroundJob(client: RestServiceClient, job: BackgroundJob,
+  pollInterval = backgroundJobPollInterval): Promise<BackgroundJob> {
+  if (isBackgroundJobFinished(job)) {
+    return Promise.resolve(job);
+  }
+  return new Promise<void>(resolve => window.setTimeout(resolve, pollInterval))
+    .then(() => client.get<BackgroundJob>(`/job/${job.id}`))
+    .then(updatedJob => waitForBackgroundJob(client, updatedJob, pollInterval));
+}